@@ -2,7 +2,11 @@ package com.spring.jwt.CompleteProfile;
 
 import com.spring.jwt.CompleteProfile.dto.CompleteProfileResponse;
 import com.spring.jwt.CompleteProfile.dto.ProfileAnalyticsRequest;
+import com.spring.jwt.dto.CursorPageResponseDto;
 import com.spring.jwt.dto.ResponseDto;
+import com.spring.jwt.profile.dto.response.ProfileCardView;
+import com.spring.jwt.profile.view.FieldSelector;
+import com.spring.jwt.profile.view.ProfileView;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -27,6 +31,10 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * REST Controller for complete profile management.
@@ -41,7 +49,13 @@ import java.time.LocalDateTime;
 @SecurityRequirement(name = "bearerAuth")
 public class CompleteProfileController {
 
+    private static final int MAX_BATCH_SIZE = 50;
+    private static final Map<ProfileView, Class<?>> BROWSE_VIEWS = new EnumMap<>(Map.of(
+            ProfileView.CARD, ProfileCardView.class,
+            ProfileView.FULL, CompleteProfileResponse.class));
+
     private final CompleteProfileService completeProfileService;
+    private final FieldSelector fieldSelector;
 
     @GetMapping("/me")
     @PreAuthorize("hasRole('USER')")
@@ -133,6 +147,28 @@ public class CompleteProfileController {
         return ResponseEntity.ok(ResponseDto.success("Complete profile retrieved successfully", response));
     }
 
+    @GetMapping("/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get complete profiles of several users",
+               description = "Retrieve complete profiles for several users in one call, in the order of the IDs (Admin only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Complete profiles retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "No user IDs, or more than " + MAX_BATCH_SIZE),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    })
+    public ResponseEntity<ResponseDto<List<CompleteProfileResponse>>> getCompleteProfilesByUserIds(
+            @Parameter(description = "User IDs, comma separated", required = true)
+            @RequestParam List<Integer> userIds) {
+
+        validateBatch(userIds);
+        log.debug("Admin fetching complete profiles for {} user IDs", userIds.size());
+
+        List<CompleteProfileResponse> response = completeProfileService.getByUserIds(userIds);
+
+        return ResponseEntity.ok(ResponseDto.success("Complete profiles retrieved successfully", response));
+    }
+
     @GetMapping("/user/{userId}/missing-sections")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Check missing sections by user ID", 
@@ -352,6 +388,27 @@ public class CompleteProfileController {
         return ResponseEntity.ok(ResponseDto.success("Public profile retrieved successfully", response));
     }
 
+    @GetMapping("/public/users")
+    @Operation(summary = "Get public profiles of several users",
+               description = "Retrieve public-safe profiles for a page of profile cards in one call, in the order of the IDs; users without a profile are left out (No authentication required)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Public profiles retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "No user IDs, or more than " + MAX_BATCH_SIZE),
+        @ApiResponse(responseCode = "429", description = "Too many requests - Rate limit exceeded")
+    })
+    @RateLimiter(name = "publicProfileApi")
+    public ResponseEntity<ResponseDto<List<CompleteProfileResponse>>> getPublicProfilesByUserIds(
+            @Parameter(description = "User IDs, comma separated", required = true)
+            @RequestParam List<Integer> userIds) {
+
+        validateBatch(userIds);
+        log.debug("Public access: fetching profiles for {} user IDs", userIds.size());
+
+        List<CompleteProfileResponse> response = completeProfileService.getPublicProfilesByUserIds(userIds);
+
+        return ResponseEntity.ok(ResponseDto.success("Public profiles retrieved successfully", response));
+    }
+
     @GetMapping("/public/profile/{completeProfileId}")
     @Operation(summary = "Get public profile by complete profile ID", 
                description = "Retrieve public-safe profile information using complete profile ID (No authentication required)")
@@ -375,13 +432,15 @@ public class CompleteProfileController {
 
     @GetMapping("/public/browse")
     @Operation(summary = "Browse public profiles", 
-               description = "Get paginated list of public profiles for browsing (No authentication required)")
+               description = "Get paginated list of public profiles for browsing (No authentication required). " +
+                             "view=CARD, or a fields list within the card, returns only name, age, city and photo.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Public profiles retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Unsupported view or unknown fields"),
         @ApiResponse(responseCode = "429", description = "Too many requests - Rate limit exceeded")
     })
     @RateLimiter(name = "publicProfileApi")
-    public ResponseEntity<ResponseDto<Page<CompleteProfileResponse>>> browsePublicProfiles(
+    public ResponseEntity<ResponseDto<Page<?>>> browsePublicProfiles(
             @Parameter(description = "Page number (0-based)", example = "0")
             @RequestParam(defaultValue = "0") @Min(0) int page,
             
@@ -392,13 +451,50 @@ public class CompleteProfileController {
             @RequestParam(defaultValue = "completenessScore") String sortBy,
             
             @Parameter(description = "Sort direction", example = "DESC")
-            @RequestParam(defaultValue = "DESC") Sort.Direction sortDir) {
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortDir,
+
+            @Parameter(description = "Profile view (CARD, FULL); default FULL", example = "CARD")
+            @RequestParam(required = false) ProfileView view,
+
+            @Parameter(description = "Fields to return, comma separated", example = "firstName,age,currentCity,profilePhotoUrl")
+            @RequestParam(required = false) Set<String> fields) {
         
-        log.debug("Public access: browsing profiles - page: {}, size: {}", page, size);
+        log.debug("Public access: browsing profiles - page: {}, size: {}, view: {}", page, size, view);
         
+        ProfileView resolved = fieldSelector.resolve(view, fields, ProfileView.FULL, BROWSE_VIEWS);
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
-        Page<CompleteProfileResponse> response = completeProfileService.getPublicProfiles(pageable);
+        Page<?> response = resolved == ProfileView.CARD
+                ? completeProfileService.getPublicProfileCards(pageable)
+                : completeProfileService.getPublicProfiles(pageable);
         
+        return ResponseEntity.ok(ResponseDto.success("Public profiles retrieved successfully",
+                fieldSelector.select(response, fields)));
+    }
+
+    @GetMapping("/public/browse/scroll")
+    @Operation(summary = "Scroll public profiles",
+               description = "Cursor-paginated public profiles for browsing; pass nextCursor back to get the next slice (No authentication required)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Public profiles retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or size"),
+        @ApiResponse(responseCode = "429", description = "Too many requests - Rate limit exceeded")
+    })
+    @RateLimiter(name = "publicProfileApi")
+    public ResponseEntity<ResponseDto<CursorPageResponseDto<CompleteProfileResponse>>> scrollPublicProfiles(
+            @Parameter(description = "Cursor from the previous slice")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Slice size", example = "20")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(50) int size,
+
+            @Parameter(description = "Include the total count")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.debug("Public access: scrolling profiles - size: {}", size);
+
+        CursorPageResponseDto<CompleteProfileResponse> response =
+                completeProfileService.getPublicProfilesAfter(cursor, size, includeTotal);
+
         return ResponseEntity.ok(ResponseDto.success("Public profiles retrieved successfully", response));
     }
 
@@ -423,6 +519,12 @@ public class CompleteProfileController {
         return ResponseEntity.ok(ResponseDto.success("Profile recalculation triggered successfully", null));
     }
 
+    private void validateBatch(List<Integer> userIds) {
+        if (userIds.isEmpty() || userIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BATCH_SIZE + " user IDs are required");
+        }
+    }
+
     private Integer getCurrentUserId() {
         return null;
     }
@@ -3,6 +3,7 @@ package com.spring.jwt.CompleteProfile;
 import com.spring.jwt.CompleteProfile.dto.CompleteProfileResponse;
 import com.spring.jwt.ContactDetails.ContactDetailsMapper;
 import com.spring.jwt.Document.DocumentRepository;
+import com.spring.jwt.Document.domain.ImageRendition;
 import com.spring.jwt.EducationAndProfession.EducationAndProfessionMapper;
 import com.spring.jwt.Enums.DocumentType;
 import com.spring.jwt.FamilyBackground.FamilyBackgroundMapper;
@@ -10,15 +11,18 @@ import com.spring.jwt.HoroscopeDetails.HoroscopeDetailsMapper;
 import com.spring.jwt.PartnerPreference.PartnerPreferenceMapper;
 import com.spring.jwt.entity.CompleteProfile;
 import com.spring.jwt.entity.Document;
+import com.spring.jwt.mapper.DocumentResponseMapper;
+import com.spring.jwt.profile.dto.response.ProfileCardView;
 import com.spring.jwt.profile.mapper.ProfileDtoMapper;
+import com.spring.jwt.profile.view.ProfileCardRow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
-import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -45,6 +49,21 @@ public class CompleteProfileMapper {
         if (entity == null) {
             return null;
         }
+        return toResponse(entity, getProfilePhotoData(entity.getUser() != null ? entity.getUser().getId() : null));
+    }
+
+    /**
+     * Convert several CompleteProfile entities to response DTOs, in order, checking
+     * for profile photos in one query instead of one per profile.
+     */
+    public List<CompleteProfileResponse> toResponses(List<CompleteProfile> entities) {
+        Map<Integer, ProfilePhotoData> photos = getProfilePhotoData(entities);
+        return entities.stream()
+                .map(entity -> toResponse(entity, photos.getOrDefault(entity.getUser().getId(), ProfilePhotoData.NONE)))
+                .collect(Collectors.toList());
+    }
+
+    private CompleteProfileResponse toResponse(CompleteProfile entity, ProfilePhotoData photoData) {
 
         CompleteProfileResponse response = new CompleteProfileResponse();
         
@@ -86,9 +105,8 @@ public class CompleteProfileMapper {
         response.setStrengthMetrics(buildStrengthMetrics(entity));
 
         // Profile photo data
-        ProfilePhotoData photoData = getProfilePhotoData(entity.getUser() != null ? entity.getUser().getId() : null);
-        response.setProfilePhotoBase64(photoData.base64Data);
-        response.setProfilePhotoContentType(photoData.contentType);
+        response.setProfilePhotoUrl(photoData.fullUrl);
+        response.setProfilePhotoThumbnailUrl(photoData.thumbnailUrl);
         response.setHasProfilePhoto(photoData.hasPhoto);
 
         return response;
@@ -103,6 +121,21 @@ public class CompleteProfileMapper {
         if (entity == null) {
             return null;
         }
+        return toPublicResponse(entity, getProfilePhotoData(entity.getUser() != null ? entity.getUser().getId() : null));
+    }
+
+    /**
+     * Convert several CompleteProfile entities to public-safe response DTOs, in order,
+     * checking for profile photos in one query instead of one per profile.
+     */
+    public List<CompleteProfileResponse> toPublicResponses(List<CompleteProfile> entities) {
+        Map<Integer, ProfilePhotoData> photos = getProfilePhotoData(entities);
+        return entities.stream()
+                .map(entity -> toPublicResponse(entity, photos.getOrDefault(entity.getUser().getId(), ProfilePhotoData.NONE)))
+                .collect(Collectors.toList());
+    }
+
+    private CompleteProfileResponse toPublicResponse(CompleteProfile entity, ProfilePhotoData photoData) {
 
         CompleteProfileResponse response = new CompleteProfileResponse();
         
@@ -140,14 +173,20 @@ public class CompleteProfileMapper {
         response.setStrengthMetrics(buildPublicStrengthMetrics(entity));
 
         // Profile photo data (safe for public viewing)
-        ProfilePhotoData photoData = getProfilePhotoData(entity.getUser() != null ? entity.getUser().getId() : null);
-        response.setProfilePhotoBase64(photoData.base64Data);
-        response.setProfilePhotoContentType(photoData.contentType);
+        response.setProfilePhotoUrl(photoData.fullUrl);
+        response.setProfilePhotoThumbnailUrl(photoData.thumbnailUrl);
         response.setHasProfilePhoto(photoData.hasPhoto);
 
         return response;
     }
 
+    /**
+     * Convert a projected card row to the card view shared with profile search.
+     */
+    public ProfileCardView toCardView(ProfileCardRow row) {
+        return profileMapper.toCardView(row);
+    }
+
     /**
      * Build missing profile DTO with enhanced analytics.
      */
@@ -418,42 +457,67 @@ public class CompleteProfileMapper {
     }
 
     /**
-     * Helper method to fetch and convert profile photo to base64
-     * Reuses the same logic as ProfileDtoMapper
+     * Helper method to link the profile photo renditions
+     * Only the existence of the photo is queried; the image itself is served by ProfilePhotoController
      */
     private ProfilePhotoData getProfilePhotoData(Integer userId) {
         if (userId == null) {
-            return new ProfilePhotoData(null, null, false);
+            return ProfilePhotoData.NONE;
         }
         
         try {
-            Optional<Document> profilePhotoDoc = documentRepository.findByUserIdAndDocumentType(userId, DocumentType.PROFILE_PHOTO);
-            
-            if (profilePhotoDoc.isPresent()) {
-                Document document = profilePhotoDoc.get();
-                String base64Data = Base64.getEncoder().encodeToString(document.getFileData());
-                return new ProfilePhotoData(base64Data, document.getContentType(), true);
+            if (documentRepository.existsByUserIdAndDocumentType(userId, DocumentType.PROFILE_PHOTO)) {
+                return new ProfilePhotoData(
+                        DocumentResponseMapper.profilePhotoUrl(userId, ImageRendition.FULL),
+                        DocumentResponseMapper.profilePhotoUrl(userId, ImageRendition.THUMBNAIL),
+                        true);
             } else {
-                return new ProfilePhotoData(null, null, false);
+                return ProfilePhotoData.NONE;
             }
         } catch (Exception e) {
             log.warn("Error fetching profile photo for user {}: {}", userId, e.getMessage());
-            return new ProfilePhotoData(null, null, false);
+            return ProfilePhotoData.NONE;
+        }
+    }
+
+    /**
+     * Profile photo links of the owners of the given profiles, found in one query.
+     * Owners without a photo are left out.
+     */
+    private Map<Integer, ProfilePhotoData> getProfilePhotoData(List<CompleteProfile> entities) {
+        List<Integer> userIds = entities.stream()
+                .map(entity -> entity.getUser().getId())
+                .collect(Collectors.toList());
+        Map<Integer, ProfilePhotoData> photos = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return photos;
         }
+        try {
+            for (Integer userId : documentRepository.findUserIdsWithDocumentType(userIds, DocumentType.PROFILE_PHOTO)) {
+                photos.put(userId, new ProfilePhotoData(
+                        DocumentResponseMapper.profilePhotoUrl(userId, ImageRendition.FULL),
+                        DocumentResponseMapper.profilePhotoUrl(userId, ImageRendition.THUMBNAIL),
+                        true));
+            }
+        } catch (Exception e) {
+            log.warn("Error fetching profile photos for {} users: {}", userIds.size(), e.getMessage());
+        }
+        return photos;
     }
 
     /**
-     * Helper class to hold profile photo data
-     * Reused from ProfileDtoMapper pattern
+     * Helper class to hold profile photo links
      */
     private static class ProfilePhotoData {
-        final String base64Data;
-        final String contentType;
+        static final ProfilePhotoData NONE = new ProfilePhotoData(null, null, false);
+
+        final String fullUrl;
+        final String thumbnailUrl;
         final boolean hasPhoto;
 
-        ProfilePhotoData(String base64Data, String contentType, boolean hasPhoto) {
-            this.base64Data = base64Data;
-            this.contentType = contentType;
+        ProfilePhotoData(String fullUrl, String thumbnailUrl, boolean hasPhoto) {
+            this.fullUrl = fullUrl;
+            this.thumbnailUrl = thumbnailUrl;
             this.hasPhoto = hasPhoto;
         }
     }
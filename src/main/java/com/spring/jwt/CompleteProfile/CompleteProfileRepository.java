@@ -1,6 +1,7 @@
 package com.spring.jwt.CompleteProfile;
 
 import com.spring.jwt.entity.CompleteProfile;
+import com.spring.jwt.profile.view.ProfileCardRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +41,29 @@ public interface CompleteProfileRepository extends JpaRepository<CompleteProfile
            "WHERE cp.user.id = :userId AND cp.deleted = false")
     Optional<CompleteProfile> findByUserIdWithRelationships(@Param("userId") Integer userId);
 
+    /**
+     * Find the complete profiles of several users with every section eagerly loaded, in one query.
+     * Documents are loaded separately with {@link #findWithDocumentsByIds}.
+     */
+    @Query("SELECT cp FROM CompleteProfile cp " +
+           "LEFT JOIN FETCH cp.user u " +
+           "LEFT JOIN FETCH cp.userProfile up " +
+           "LEFT JOIN FETCH cp.horoscopeDetails hd " +
+           "LEFT JOIN FETCH cp.educationAndProfession ep " +
+           "LEFT JOIN FETCH cp.familyBackground fb " +
+           "LEFT JOIN FETCH cp.partnerPreference pp " +
+           "LEFT JOIN FETCH cp.contactDetails cd " +
+           "WHERE cp.user.id IN :userIds AND cp.deleted = false")
+    List<CompleteProfile> findAllByUserIdsWithRelationships(@Param("userIds") Collection<Integer> userIds);
+
+    /**
+     * Initialize the documents of the given complete profiles in one query.
+     */
+    @Query("SELECT DISTINCT cp FROM CompleteProfile cp " +
+           "LEFT JOIN FETCH cp.documents " +
+           "WHERE cp.completeProfileId IN :ids")
+    List<CompleteProfile> findWithDocumentsByIds(@Param("ids") Collection<Integer> ids);
+
     /**
      * Check if complete profile exists for user.
      */
@@ -266,4 +291,55 @@ public interface CompleteProfileRepository extends JpaRepository<CompleteProfile
            "AND u.emailVerified = true " +
            "ORDER BY cp.completenessScore DESC, cp.updatedAt DESC")
     Page<CompleteProfile> findPublicProfiles(Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * IDs of every public profile and its user, in the order of {@link #findPublicProfiles},
+     * with the profile ID as a final tie-break. Used to build the browse snapshot.
+     */
+    @Query("SELECT new com.spring.jwt.CompleteProfile.PublicBrowseEntry(cp.completeProfileId, u.id) " +
+           "FROM CompleteProfile cp " +
+           "LEFT JOIN cp.user u " +
+           "LEFT JOIN cp.userProfile up " +
+           "WHERE cp.deleted = false " +
+           "AND (up IS NULL OR up.status = 'ACTIVE') " +
+           "AND cp.profileCompleted = true " +
+           "AND cp.completionPercentage >= 60 " +
+           "AND (cp.profileVisibility = 'PUBLIC' OR cp.profileVisibility IS NULL) " +
+           "AND u.emailVerified = true " +
+           "ORDER BY cp.completenessScore DESC, cp.updatedAt DESC, cp.completeProfileId DESC")
+    List<PublicBrowseEntry> findPublicBrowseEntries();
+
+    /**
+     * The given profiles with their user and user profile, if they are still public.
+     * Profiles hidden since the browse snapshot was built are left out.
+     */
+    @Query("SELECT cp FROM CompleteProfile cp " +
+           "LEFT JOIN FETCH cp.user u " +
+           "LEFT JOIN FETCH cp.userProfile up " +
+           "WHERE cp.completeProfileId IN :ids " +
+           "AND cp.deleted = false " +
+           "AND (up IS NULL OR up.status = 'ACTIVE') " +
+           "AND cp.profileCompleted = true " +
+           "AND cp.completionPercentage >= 60 " +
+           "AND (cp.profileVisibility = 'PUBLIC' OR cp.profileVisibility IS NULL) " +
+           "AND u.emailVerified = true")
+    List<CompleteProfile> findPublicProfilesByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Card columns of the given profiles, if they are still public, for browse pages asked
+     * for {@code view=CARD}. Selects only the card columns and hydrates no entities.
+     */
+    @Query("SELECT new com.spring.jwt.profile.view.ProfileCardRow(up.userProfileId, cp.completeProfileId, " +
+           "up.firstName, up.lastName, up.age, up.currentCity, u.id, " + ProfileCardRow.HAS_PROFILE_PHOTO + ") " +
+           "FROM CompleteProfile cp " +
+           "JOIN cp.user u " +
+           "LEFT JOIN cp.userProfile up " +
+           "WHERE cp.completeProfileId IN :ids " +
+           "AND cp.deleted = false " +
+           "AND (up IS NULL OR up.status = 'ACTIVE') " +
+           "AND cp.profileCompleted = true " +
+           "AND cp.completionPercentage >= 60 " +
+           "AND (cp.profileVisibility = 'PUBLIC' OR cp.profileVisibility IS NULL) " +
+           "AND u.emailVerified = true")
+    List<ProfileCardRow> findPublicCardRowsByIds(@Param("ids") Collection<Integer> ids);
+}
@@ -1,11 +1,15 @@
 package com.spring.jwt.CompleteProfile;
 
 import com.spring.jwt.CompleteProfile.dto.CompleteProfileResponse;
+import com.spring.jwt.dto.CursorPageResponseDto;
 import com.spring.jwt.CompleteProfile.dto.ProfileAnalyticsRequest;
 import com.spring.jwt.entity.CompleteProfile;
+import com.spring.jwt.profile.dto.response.ProfileCardView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -30,6 +34,18 @@ public interface CompleteProfileService {
      */
     CompleteProfileResponse getPublicProfileByUserId(Integer userId);
 
+    /**
+     * Get the complete profiles of several users (admin only), in the order of the IDs.
+     * Cached profiles come from the cache and the rest are loaded with one query per section.
+     */
+    List<CompleteProfileResponse> getByUserIds(Collection<Integer> userIds);
+
+    /**
+     * Get the public profiles of several users, in the order of the IDs, for rendering
+     * a page of profile cards. Users without a complete profile are left out.
+     */
+    List<CompleteProfileResponse> getPublicProfilesByUserIds(Collection<Integer> userIds);
+
     /**
      * Get complete profile by complete profile ID (public access for viewing profile cards).
      * This method provides limited profile information suitable for public viewing.
@@ -39,9 +55,26 @@ public interface CompleteProfileService {
     /**
      * Get public profiles for browsing (public access).
      * Returns a paginated list of public-safe profiles for browsing without authentication.
+     * Pages are sliced from the current browse snapshot, which is rebuilt periodically.
      */
     Page<CompleteProfileResponse> getPublicProfiles(Pageable pageable);
 
+    /**
+     * Get public profiles for browsing as cards with only name, age, city and photo.
+     * Pages are sliced from the same browse snapshot as {@link #getPublicProfiles}.
+     */
+    Page<ProfileCardView> getPublicProfileCards(Pageable pageable);
+
+    /**
+     * Get public profiles for browsing with cursor pagination (public access).
+     * The cursor names the browse snapshot and position the next slice starts at, so a
+     * session sees every profile of its snapshot exactly once, in the same order as
+     * {@link #getPublicProfiles}.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    CursorPageResponseDto<CompleteProfileResponse> getPublicProfilesAfter(String cursor, int size, boolean includeTotal);
+
     /**
      * Get all complete profiles with pagination (admin only).
      */
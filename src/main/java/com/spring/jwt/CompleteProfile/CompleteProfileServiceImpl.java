@@ -2,15 +2,22 @@ package com.spring.jwt.CompleteProfile;
 
 import com.spring.jwt.CompleteProfile.dto.CompleteProfileResponse;
 import com.spring.jwt.CompleteProfile.dto.ProfileAnalyticsRequest;
+import com.spring.jwt.cache.EntityChangeEvent;
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
+import com.spring.jwt.dto.CursorPageResponseDto;
 import com.spring.jwt.entity.CompleteProfile;
 import com.spring.jwt.exception.ResourceNotFoundException;
 import com.spring.jwt.profile.domain.ProfileOwnershipService;
+import com.spring.jwt.profile.dto.response.ProfileCardView;
+import com.spring.jwt.profile.view.ProfileCardRow;
 import com.spring.jwt.utils.CacheUtils;
+import com.spring.jwt.utils.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -18,9 +25,12 @@ import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -36,6 +46,9 @@ public class CompleteProfileServiceImpl implements CompleteProfileService
     private final CompleteProfileRepository completeProfileRepo;
     private final CompleteProfileMapper mapper;
     private final ProfileOwnershipService ownershipService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PublicBrowseFeed publicBrowseFeed;
+    private final CacheUtils cacheUtils;
 
     @Override
     @Transactional(readOnly = true)
@@ -53,7 +66,7 @@ public class CompleteProfileServiceImpl implements CompleteProfileService
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheUtils.CacheNames.COMPLETE_PROFILES, key = "#userId")
+    @Cacheable(value = CacheUtils.CacheNames.COMPLETE_PROFILES, key = "#userId", sync = true)
     public CompleteProfileResponse getByUserId(Integer userId)
     {
         log.debug("Admin fetching complete profile for user ID: {}", userId);
@@ -66,7 +79,7 @@ public class CompleteProfileServiceImpl implements CompleteProfileService
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheUtils.CacheNames.COMPLETE_PROFILES, key = "'public_' + #userId")
+    @Cacheable(value = CacheUtils.CacheNames.COMPLETE_PROFILES, key = "'public_' + #userId", sync = true)
     public CompleteProfileResponse getPublicProfileByUserId(Integer userId)
     {
         log.debug("Public access: fetching complete profile for user ID: {}", userId);
@@ -86,7 +99,44 @@ public class CompleteProfileServiceImpl implements CompleteProfileService
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheUtils.CacheNames.COMPLETE_PROFILES, key = "'public_cp_' + #completeProfileId")
+    public List<CompleteProfileResponse> getByUserIds(Collection<Integer> userIds)
+    {
+        log.debug("Admin fetching complete profiles for {} user IDs", userIds.size());
+
+        return List.copyOf(cacheUtils.getAll(CacheUtils.CacheNames.COMPLETE_PROFILES, userIds, userId -> userId,
+                CompleteProfileResponse.class, missing -> loadByUserIds(missing, mapper::toResponses)).values());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CompleteProfileResponse> getPublicProfilesByUserIds(Collection<Integer> userIds)
+    {
+        log.debug("Public access: fetching complete profiles for {} user IDs", userIds.size());
+
+        return List.copyOf(cacheUtils.getAll(CacheUtils.CacheNames.COMPLETE_PROFILES, userIds, userId -> "public_" + userId,
+                CompleteProfileResponse.class, missing -> loadByUserIds(missing, mapper::toPublicResponses)).values());
+    }
+
+    /**
+     * Load the complete profiles of the given users with one query for the sections, one
+     * for the documents and one for the profile photos, and map them by user ID
+     */
+    private Map<Integer, CompleteProfileResponse> loadByUserIds(List<Integer> userIds,
+                                                                Function<List<CompleteProfile>, List<CompleteProfileResponse>> toResponses)
+    {
+        List<CompleteProfile> profiles = completeProfileRepo.findAllByUserIdsWithRelationships(userIds);
+        if (profiles.isEmpty())
+        {
+            return Map.of();
+        }
+        completeProfileRepo.findWithDocumentsByIds(profiles.stream().map(CompleteProfile::getCompleteProfileId).toList());
+        return toResponses.apply(profiles).stream()
+                .collect(Collectors.toMap(CompleteProfileResponse::getUserId, Function.identity()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheUtils.CacheNames.COMPLETE_PROFILES, key = "'public_cp_' + #completeProfileId", sync = true)
     public CompleteProfileResponse getPublicProfileByCompleteProfileId(Long completeProfileId)
     {
         log.debug("Public access: fetching complete profile by ID: {}", completeProfileId);
@@ -105,16 +155,16 @@ public class CompleteProfileServiceImpl implements CompleteProfileService
     }
 
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = CacheUtils.CacheNames.COMPLETE_PROFILES, key = "'public_browse_' + #pageable.pageNumber + '_' + #pageable.pageSize")
     public Page<CompleteProfileResponse> getPublicProfiles(Pageable pageable)
     {
         log.debug("Public access: fetching profiles for browsing, page: {}", pageable.getPageNumber());
 
         try
         {
-            Page<CompleteProfile> profiles = completeProfileRepo.findPublicProfiles(pageable);
-            return profiles.map(mapper::toPublicResponse);
+            PublicBrowseSnapshot snapshot = publicBrowseFeed.current();
+            List<CompleteProfileResponse> content = publicBrowseFeed.cards(
+                    snapshot.slice(pageable.getOffset(), pageable.getPageSize()));
+            return new PageImpl<>(content, pageable, snapshot.size());
         } catch (Exception e)
         {
             log.error("Error fetching public profiles for browsing: {}", e.getMessage());
@@ -122,6 +172,74 @@ public class CompleteProfileServiceImpl implements CompleteProfileService
         }
     }
 
+    @Override
+    public Page<ProfileCardView> getPublicProfileCards(Pageable pageable)
+    {
+        log.debug("Public access: fetching profile cards for browsing, page: {}", pageable.getPageNumber());
+
+        try
+        {
+            PublicBrowseSnapshot snapshot = publicBrowseFeed.current();
+            List<PublicBrowseEntry> entries = snapshot.slice(pageable.getOffset(), pageable.getPageSize());
+            if (entries.isEmpty())
+            {
+                return new PageImpl<>(List.of(), pageable, snapshot.size());
+            }
+            Map<Integer, ProfileCardRow> rows = completeProfileRepo.findPublicCardRowsByIds(
+                            entries.stream().map(PublicBrowseEntry::completeProfileId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(ProfileCardRow::completeProfileId, Function.identity()));
+            List<ProfileCardView> content = entries.stream()
+                    .map(entry -> rows.get(entry.completeProfileId()))
+                    .filter(Objects::nonNull)
+                    .map(mapper::toCardView)
+                    .toList();
+            return new PageImpl<>(content, pageable, snapshot.size());
+        } catch (Exception e)
+        {
+            log.error("Error fetching public profile cards for browsing: {}", e.getMessage());
+            return Page.empty(pageable);
+        }
+    }
+
+    @Override
+    public CursorPageResponseDto<CompleteProfileResponse> getPublicProfilesAfter(String cursor, int size,
+                                                                                 boolean includeTotal)
+    {
+        log.debug("Public access: scrolling profiles for browsing, size: {}", size);
+
+        PublicBrowseSnapshot snapshot;
+        int offset = 0;
+        if (cursor != null && !cursor.isBlank())
+        {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            long version;
+            try
+            {
+                version = Long.parseLong(parts[0]);
+            } catch (NumberFormatException e)
+            {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+            offset = CursorCodec.intPart(parts[1]);
+            if (offset < 0)
+            {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            snapshot = publicBrowseFeed.snapshot(version);
+        } else
+        {
+            snapshot = publicBrowseFeed.current();
+        }
+
+        int next = offset + size;
+        boolean hasNext = next < snapshot.size();
+        String nextCursor = hasNext ? CursorCodec.encode(snapshot.getVersion(), next) : null;
+        List<CompleteProfileResponse> content = publicBrowseFeed.cards(snapshot.slice(offset, size));
+        Long total = includeTotal ? (long) snapshot.size() : null;
+        return new CursorPageResponseDto<>(content, content.size(), hasNext, nextCursor, total);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<CompleteProfileResponse> getAllCompleteProfiles(Pageable pageable)
@@ -255,7 +373,6 @@ public class CompleteProfileServiceImpl implements CompleteProfileService
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.COMPLETE_PROFILES, allEntries = true)
     @Async
     public void recalcAndSave(CompleteProfile completeProfile)
     {
@@ -286,6 +403,8 @@ public class CompleteProfileServiceImpl implements CompleteProfileService
             updateVerificationStatus(freshProfile);
 
             completeProfileRepo.save(freshProfile);
+            eventPublisher.publishEvent(EntityChangeEvent.updated(
+                    EntityType.COMPLETE_PROFILE, freshProfile.getCompleteProfileId(), userId));
 
             log.debug("Profile completeness recalculated successfully for user ID: {}", userId);
 
@@ -306,7 +425,6 @@ public class CompleteProfileServiceImpl implements CompleteProfileService
 
     @Override
     @Transactional
-    @CacheEvict(value = CacheUtils.CacheNames.COMPLETE_PROFILES, key = "#userId")
     public void forceRecalculateProfile(Integer userId)
     {
         log.info("Force recalculating profile for user ID: {}", userId);
@@ -0,0 +1,8 @@
+package com.spring.jwt.CompleteProfile;
+
+/**
+ * One position of the public browse feed: a public profile and the user it belongs to
+ */
+public record PublicBrowseEntry(Integer completeProfileId, Integer userId)
+{
+}
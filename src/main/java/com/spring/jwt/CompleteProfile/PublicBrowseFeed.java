@@ -0,0 +1,200 @@
+package com.spring.jwt.CompleteProfile;
+
+import com.spring.jwt.CompleteProfile.dto.CompleteProfileResponse;
+import com.spring.jwt.entity.CompleteProfile;
+import com.spring.jwt.utils.CacheUtils;
+import com.spring.jwt.utils.CacheUtils.CacheNames;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves the public browse listing from periodically rebuilt {@link PublicBrowseSnapshot}s.
+ *
+ * The order of every public profile is computed in one ID-only query and frozen; pages
+ * and cursors index into that order, so a browse session sees each profile once even
+ * while profiles are edited. A cursor names the snapshot it was cut from, and the last
+ * few snapshots are kept so that a session outliving a rebuild finishes on its own
+ * snapshot; an older cursor continues at the same position of the current one.
+ *
+ * The profile cards of a page are cached per user, so a profile write evicts only its
+ * own card instead of every cached page. Cards missing from the cache are loaded in one
+ * query, which re-checks that the profiles are still public.
+ */
+@Component
+@Slf4j
+public class PublicBrowseFeed
+{
+
+    public static final String CARD_KEY_PREFIX = "card_";
+
+    private final CompleteProfileRepository completeProfileRepo;
+    private final CompleteProfileMapper mapper;
+    private final CacheUtils cacheUtils;
+    private final TransactionTemplate transactionTemplate;
+    private final int retainedSnapshots;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Recent snapshots by version, oldest first; the last one is current
+    private final LinkedHashMap<Long, PublicBrowseSnapshot> snapshots = new LinkedHashMap<>();
+    private volatile PublicBrowseSnapshot current;
+    private long lastVersion;
+
+    public PublicBrowseFeed(CompleteProfileRepository completeProfileRepo,
+                            CompleteProfileMapper mapper,
+                            CacheUtils cacheUtils,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.public-browse.snapshot.retained:3}") int retainedSnapshots)
+    {
+        this.completeProfileRepo = completeProfileRepo;
+        this.mapper = mapper;
+        this.cacheUtils = cacheUtils;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.retainedSnapshots = Math.max(1, retainedSnapshots);
+    }
+
+    @Scheduled(fixedDelayString = "${app.public-browse.snapshot.refresh-interval-ms:60000}",
+               initialDelayString = "${app.public-browse.snapshot.refresh-interval-ms:60000}")
+    public void refreshScheduled()
+    {
+        if (current != null)
+        {
+            rebuild();
+        }
+    }
+
+    /**
+     * The current snapshot, built on first use
+     */
+    public PublicBrowseSnapshot current()
+    {
+        PublicBrowseSnapshot snapshot = current;
+        if (snapshot != null)
+        {
+            return snapshot;
+        }
+        synchronized (snapshots)
+        {
+            if (current == null)
+            {
+                build();
+            }
+            return current;
+        }
+    }
+
+    /**
+     * The snapshot a cursor was cut from, or the current one if it has been dropped
+     */
+    public PublicBrowseSnapshot snapshot(long version)
+    {
+        synchronized (snapshots)
+        {
+            PublicBrowseSnapshot snapshot = snapshots.get(version);
+            if (snapshot != null)
+            {
+                return snapshot;
+            }
+        }
+        return current();
+    }
+
+    /**
+     * Rebuild the snapshot from the database; the previous one keeps serving meanwhile
+     *
+     * @return number of profiles in the new snapshot, or -1 if a rebuild is already running
+     */
+    public int rebuild()
+    {
+        if (!rebuilding.compareAndSet(false, true))
+        {
+            return -1;
+        }
+        try
+        {
+            return build().size();
+        } finally
+        {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * The public cards of the given entries, in their order. Entries whose profile is no
+     * longer public are left out.
+     */
+    public List<CompleteProfileResponse> cards(List<PublicBrowseEntry> entries)
+    {
+        Map<Integer, CompleteProfileResponse> cards = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (PublicBrowseEntry entry : entries)
+        {
+            CompleteProfileResponse card = cacheUtils.getIfPresent(CacheNames.PUBLIC_BROWSE,
+                    CARD_KEY_PREFIX + entry.userId(), CompleteProfileResponse.class);
+            if (card != null)
+            {
+                cards.put(entry.completeProfileId(), card);
+            } else
+            {
+                missing.add(entry.completeProfileId());
+            }
+        }
+        if (!missing.isEmpty())
+        {
+            List<CompleteProfile> profiles = transactionTemplate.execute(
+                    status -> completeProfileRepo.findPublicProfilesByIds(missing));
+            for (CompleteProfile profile : profiles)
+            {
+                CompleteProfileResponse card = mapper.toPublicResponse(profile);
+                cards.put(profile.getCompleteProfileId(), card);
+                cacheUtils.put(CacheNames.PUBLIC_BROWSE, CARD_KEY_PREFIX + profile.getUser().getId(), card);
+            }
+        }
+        List<CompleteProfileResponse> page = new ArrayList<>(entries.size());
+        for (PublicBrowseEntry entry : entries)
+        {
+            CompleteProfileResponse card = cards.get(entry.completeProfileId());
+            if (card != null)
+            {
+                page.add(card);
+            }
+        }
+        return page;
+    }
+
+    private PublicBrowseSnapshot build()
+    {
+        long start = System.currentTimeMillis();
+        List<PublicBrowseEntry> entries = transactionTemplate.execute(
+                status -> completeProfileRepo.findPublicBrowseEntries());
+        synchronized (snapshots)
+        {
+            // Time-based so that versions stay increasing across restarts
+            lastVersion = Math.max(lastVersion + 1, start);
+            PublicBrowseSnapshot snapshot = new PublicBrowseSnapshot(lastVersion, entries, LocalDateTime.now());
+            snapshots.put(snapshot.getVersion(), snapshot);
+            while (snapshots.size() > retainedSnapshots)
+            {
+                snapshots.remove(snapshots.keySet().iterator().next());
+            }
+            current = snapshot;
+            log.debug("Built public browse snapshot {} of {} profiles in {}ms", snapshot.getVersion(),
+                    snapshot.size(), System.currentTimeMillis() - start);
+            return snapshot;
+        }
+    }
+}
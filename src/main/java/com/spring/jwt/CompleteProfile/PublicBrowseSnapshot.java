@@ -0,0 +1,67 @@
+package com.spring.jwt.CompleteProfile;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * An immutable, ordered list of the public profiles at one moment.
+ *
+ * Every page of a browse session is sliced from the same snapshot, so no profile shows
+ * up twice or is skipped because the order moved between two requests. Profile and user
+ * IDs are held in parallel arrays, so a slice costs only its own length.
+ */
+public final class PublicBrowseSnapshot
+{
+
+    private final long version;
+    private final int[] completeProfileIds;
+    private final int[] userIds;
+    private final LocalDateTime builtAt;
+
+    PublicBrowseSnapshot(long version, List<PublicBrowseEntry> entries, LocalDateTime builtAt)
+    {
+        this.version = version;
+        this.completeProfileIds = new int[entries.size()];
+        this.userIds = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++)
+        {
+            completeProfileIds[i] = entries.get(i).completeProfileId();
+            userIds[i] = entries.get(i).userId();
+        }
+        this.builtAt = builtAt;
+    }
+
+    public long getVersion()
+    {
+        return version;
+    }
+
+    public LocalDateTime getBuiltAt()
+    {
+        return builtAt;
+    }
+
+    public int size()
+    {
+        return completeProfileIds.length;
+    }
+
+    /**
+     * The entries from the given position on, at most {@code limit} of them
+     */
+    public List<PublicBrowseEntry> slice(long offset, int limit)
+    {
+        if (offset < 0 || offset >= completeProfileIds.length)
+        {
+            return List.of();
+        }
+        int from = (int) offset;
+        int to = (int) Math.min(completeProfileIds.length, offset + limit);
+        PublicBrowseEntry[] entries = new PublicBrowseEntry[to - from];
+        for (int i = from; i < to; i++)
+        {
+            entries[i - from] = new PublicBrowseEntry(completeProfileIds[i], userIds[i]);
+        }
+        return List.of(entries);
+    }
+}
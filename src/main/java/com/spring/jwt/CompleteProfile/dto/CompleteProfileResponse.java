@@ -91,11 +91,11 @@ public class CompleteProfileResponse {
     @Schema(description = "Profile version for optimistic locking", example = "5")
     private Integer version;
 
-    @Schema(description = "Profile photo as base64 encoded string")
-    private String profilePhotoBase64;
+    @Schema(description = "Full rendition (1024px) of the profile photo", example = "/api/v1/profiles/public/users/42/photo?size=FULL")
+    private String profilePhotoUrl;
 
-    @Schema(description = "Profile photo content type", example = "image/jpeg")
-    private String profilePhotoContentType;
+    @Schema(description = "Thumbnail rendition (64px) of the profile photo", example = "/api/v1/profiles/public/users/42/photo?size=THUMBNAIL")
+    private String profilePhotoThumbnailUrl;
 
     @Schema(description = "Whether user has a profile photo", example = "true")
     private Boolean hasProfilePhoto;
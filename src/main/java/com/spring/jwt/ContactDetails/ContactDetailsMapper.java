@@ -34,6 +34,9 @@ public class ContactDetailsMapper {
         response.setCity(entity.getCity());
         response.setState(entity.getState());
         response.setCountry(entity.getCountry());
+        response.setCityLocationId(entity.getCityLocationId());
+        response.setStateLocationId(entity.getStateLocationId());
+        response.setCountryLocationId(entity.getCountryLocationId());
         response.setPinCode(entity.getPinCode());
         response.setMobileNumber(entity.getMobileNumber());
         response.setAlternateNumber(entity.getAlternateNumber());
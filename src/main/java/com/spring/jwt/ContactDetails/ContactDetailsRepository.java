@@ -1,13 +1,17 @@
 package com.spring.jwt.ContactDetails;
 
 import com.spring.jwt.entity.ContactDetails;
+import com.spring.jwt.location.ContactAddress;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -107,6 +111,52 @@ public interface ContactDetailsRepository extends JpaRepository<ContactDetails,
                                          @Param("country") String country, 
                                          Pageable pageable);
 
+    /**
+     * Search contact details by location dictionary IDs. Each level is skipped when its
+     * flag is set, in which case its ID list is ignored but must not be empty.
+     *
+     * @param cityIds city location IDs
+     * @param anyCity whether to skip the city filter
+     * @param stateIds state location IDs
+     * @param anyState whether to skip the state filter
+     * @param countryIds country location IDs
+     * @param anyCountry whether to skip the country filter
+     * @param pageable pagination information
+     * @return page of contact details
+     */
+    @Query("SELECT cd FROM ContactDetails cd WHERE " +
+           "(:anyCity = true OR cd.cityLocationId IN :cityIds) AND " +
+           "(:anyState = true OR cd.stateLocationId IN :stateIds) AND " +
+           "(:anyCountry = true OR cd.countryLocationId IN :countryIds)")
+    Page<ContactDetails> searchByLocationIds(@Param("cityIds") Collection<Integer> cityIds,
+                                             @Param("anyCity") boolean anyCity,
+                                             @Param("stateIds") Collection<Integer> stateIds,
+                                             @Param("anyState") boolean anyState,
+                                             @Param("countryIds") Collection<Integer> countryIds,
+                                             @Param("anyCountry") boolean anyCountry,
+                                             Pageable pageable);
+
+    /**
+     * Addresses not yet resolved to location IDs, after the given ID in ID order.
+     *
+     * @param afterId ID to continue after
+     * @param pageable chunk size
+     * @return addresses
+     */
+    @Query("SELECT new com.spring.jwt.location.ContactAddress(cd.contactDetailsId, cd.country, cd.state, cd.city) " +
+           "FROM ContactDetails cd WHERE cd.countryLocationId IS NULL AND cd.contactDetailsId > :afterId " +
+           "ORDER BY cd.contactDetailsId")
+    List<ContactAddress> findAddressesWithoutLocation(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * Set the location IDs of an address without touching its version or update time.
+     */
+    @Modifying
+    @Query("UPDATE ContactDetails cd SET cd.cityLocationId = :cityId, cd.stateLocationId = :stateId, " +
+           "cd.countryLocationId = :countryId WHERE cd.contactDetailsId = :contactDetailsId")
+    int updateLocationIds(@Param("contactDetailsId") Integer contactDetailsId, @Param("cityId") Integer cityId,
+                          @Param("stateId") Integer stateId, @Param("countryId") Integer countryId);
+
     /**
      * Find contact details by PIN code.
      *
@@ -6,6 +6,8 @@ import com.spring.jwt.ContactDetails.dto.ContactDetailsUpdateRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Optional;
+
 /**
  * Service interface for contact details management.
  * Defines enterprise-grade operations with proper security and business logic.
@@ -57,6 +59,16 @@ public interface ContactDetailsService {
      */
     ContactDetailsResponse getByUserId(Integer userId);
 
+    /**
+     * Find contact details by user ID without treating absence as an error.
+     * Absence is negatively cached, so repeated lookups for users who have not
+     * filled this section do not query the database.
+     *
+     * @param userId the user ID
+     * @return contact details for the specified user, or empty if not filled in
+     */
+    Optional<ContactDetailsResponse> findByUserId(Integer userId);
+
     /**
      * Get all contact details with pagination (Admin only).
      *
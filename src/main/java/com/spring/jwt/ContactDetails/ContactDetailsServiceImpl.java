@@ -2,22 +2,28 @@ package com.spring.jwt.ContactDetails;
 
 import com.spring.jwt.CompleteProfile.CompleteProfileRepository;
 import com.spring.jwt.CompleteProfile.CompleteProfileService;
+import com.spring.jwt.cache.EntityChangeEvent;
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
+import com.spring.jwt.cache.ProfileSectionCache;
 import com.spring.jwt.ContactDetails.dto.ContactDetailsCreateRequest;
 import com.spring.jwt.ContactDetails.dto.ContactDetailsResponse;
 import com.spring.jwt.ContactDetails.dto.ContactDetailsUpdateRequest;
 import com.spring.jwt.entity.CompleteProfile;
 import com.spring.jwt.entity.ContactDetails;
+import com.spring.jwt.entity.Enums.LocationType;
 import com.spring.jwt.entity.User;
 import com.spring.jwt.exception.ResourceAlreadyExistsException;
 import com.spring.jwt.exception.ResourceNotFoundException;
+import com.spring.jwt.location.LocationBackfiller;
+import com.spring.jwt.location.LocationService;
 import com.spring.jwt.profile.domain.ProfileOwnershipService;
 import com.spring.jwt.repository.UserRepository;
 import com.spring.jwt.utils.CacheUtils;
 import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -26,6 +32,8 @@ import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 
 /**
@@ -45,11 +53,14 @@ public class ContactDetailsServiceImpl implements ContactDetailsService {
     private final CompleteProfileService completeProfileService;
     private final ProfileOwnershipService ownershipService;
     private final ContactDetailsMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProfileSectionCache sectionCache;
     private final ContactDetailsValidationService validationService;
+    private final LocationService locationService;
+    private final LocationBackfiller locationBackfiller;
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.CONTACT_DETAILS, key = "#result.userId")
     public ContactDetailsResponse createForCurrentUser(ContactDetailsCreateRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Creating contact details for authenticated user ID: {}", currentUserId);
@@ -59,7 +70,6 @@ public class ContactDetailsServiceImpl implements ContactDetailsService {
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.CONTACT_DETAILS, key = "#result.userId")
     public ContactDetailsResponse createForUser(Integer userId, ContactDetailsCreateRequest request) {
         log.info("Creating contact details for user ID: {}", userId);
 
@@ -84,11 +94,13 @@ public class ContactDetailsServiceImpl implements ContactDetailsService {
             }
 
             ContactDetails entity = mapper.toEntity(request, user);
+            locationService.assign(entity);
 
             entity.setCreatedBy(userId);
             entity.setUpdatedBy(userId);
 
             ContactDetails saved = contactDetailsRepo.save(entity);
+            eventPublisher.publishEvent(EntityChangeEvent.created(EntityType.CONTACT_DETAILS, saved.getContactDetailsId(), userId));
             log.info("Contact details created successfully with ID: {} for user: {}",
                     saved.getContactDetailsId(), userId);
 
@@ -134,6 +146,13 @@ public class ContactDetailsServiceImpl implements ContactDetailsService {
         return mapper.toResponse(contactDetails);
     }
 
+    @Override
+    public Optional<ContactDetailsResponse> findByUserId(Integer userId) {
+        return sectionCache.find(EntityType.CONTACT_DETAILS, CacheUtils.CacheNames.CONTACT_DETAILS, userId,
+                ContactDetailsResponse.class,
+                () -> contactDetailsRepo.findByUser_Id(userId).map(mapper::toResponse));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<ContactDetailsResponse> getAllContactDetails(Pageable pageable) {
@@ -150,11 +169,37 @@ public class ContactDetailsServiceImpl implements ContactDetailsService {
         log.debug("Admin searching contact details by location - city: {}, state: {}, country: {}",
                 city, state, country);
 
-        Page<ContactDetails> results = contactDetailsRepo.searchByLocation(city, state, country, pageable);
+        if (!locationBackfiller.isContactDetailsComplete()) {
+            return contactDetailsRepo.searchByLocation(city, state, country, pageable).map(mapper::toResponse);
+        }
+
+        List<Integer> cityIds = city != null ? locationService.idsContaining(LocationType.CITY, city) : null;
+        List<Integer> stateIds = state != null ? locationService.idsContaining(LocationType.STATE, state) : null;
+        List<Integer> countryIds = country != null ? locationService.idsContaining(LocationType.COUNTRY, country) : null;
+        if (isEmpty(cityIds) || isEmpty(stateIds) || isEmpty(countryIds)) {
+            return Page.empty(pageable);
+        }
+
+        Page<ContactDetails> results = contactDetailsRepo.searchByLocationIds(
+                orAny(cityIds), cityIds == null,
+                orAny(stateIds), stateIds == null,
+                orAny(countryIds), countryIds == null,
+                pageable);
 
         return results.map(mapper::toResponse);
     }
 
+    private static boolean isEmpty(List<Integer> ids) {
+        return ids != null && ids.isEmpty();
+    }
+
+    /**
+     * A filter that is skipped still needs a non-empty list to bind
+     */
+    private static List<Integer> orAny(List<Integer> ids) {
+        return ids != null ? ids : List.of(0);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<ContactDetailsResponse> searchByVerificationStatus(Boolean mobileVerified, Boolean emailVerified,
@@ -179,7 +224,6 @@ public class ContactDetailsServiceImpl implements ContactDetailsService {
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.CONTACT_DETAILS, key = "#root.target.getCurrentUserId()")
     public ContactDetailsResponse updateCurrentUserContactDetails(ContactDetailsUpdateRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Updating contact details for authenticated user ID: {}", currentUserId);
@@ -206,6 +250,7 @@ public class ContactDetailsServiceImpl implements ContactDetailsService {
             }
 
             mapper.applyUpdate(request, existing);
+            locationService.assign(existing);
 
             existing.setUpdatedBy(currentUserId);
 
@@ -223,6 +268,7 @@ public class ContactDetailsServiceImpl implements ContactDetailsService {
             }
 
             ContactDetails saved = contactDetailsRepo.save(existing);
+            eventPublisher.publishEvent(EntityChangeEvent.updated(EntityType.CONTACT_DETAILS, saved.getContactDetailsId(), currentUserId));
             log.info("Contact details updated successfully for user: {} to version: {}", currentUserId,
                     saved.getVersion());
 
@@ -246,7 +292,6 @@ public class ContactDetailsServiceImpl implements ContactDetailsService {
 
     @Override
     @Transactional
-    @CacheEvict(value = CacheUtils.CacheNames.CONTACT_DETAILS, key = "#root.target.getCurrentUserId()")
     public void deleteCurrentUserContactDetails() {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Soft deleting contact details for authenticated user ID: {}", currentUserId);
@@ -260,6 +305,7 @@ public class ContactDetailsServiceImpl implements ContactDetailsService {
         existing.setDeletedBy(currentUserId);
 
         contactDetailsRepo.save(existing);
+        eventPublisher.publishEvent(EntityChangeEvent.deleted(EntityType.CONTACT_DETAILS, existing.getContactDetailsId(), currentUserId));
 
         log.info("Contact details soft deleted successfully for user: {}", currentUserId);
 
@@ -305,6 +351,7 @@ public class ContactDetailsServiceImpl implements ContactDetailsService {
             contactDetails.setIsVerifiedMobile(true);
             contactDetails.setUpdatedBy(currentUserId);
             contactDetailsRepo.save(contactDetails);
+            eventPublisher.publishEvent(EntityChangeEvent.updated(EntityType.CONTACT_DETAILS, contactDetails.getContactDetailsId(), currentUserId));
 
             log.info("Mobile number verified successfully for user: {}", currentUserId);
             return true;
@@ -312,6 +359,7 @@ public class ContactDetailsServiceImpl implements ContactDetailsService {
             contactDetails.setVerificationAttempts(contactDetails.getVerificationAttempts() + 1);
             contactDetails.setLastVerificationAttempt(LocalDateTime.now());
             contactDetailsRepo.save(contactDetails);
+            eventPublisher.publishEvent(EntityChangeEvent.updated(EntityType.CONTACT_DETAILS, contactDetails.getContactDetailsId(), currentUserId));
 
             log.warn("Invalid verification code for user: {}", currentUserId);
             return false;
@@ -332,6 +380,7 @@ public class ContactDetailsServiceImpl implements ContactDetailsService {
             contactDetails.setIsVerifiedEmail(true);
             contactDetails.setUpdatedBy(currentUserId);
             contactDetailsRepo.save(contactDetails);
+            eventPublisher.publishEvent(EntityChangeEvent.updated(EntityType.CONTACT_DETAILS, contactDetails.getContactDetailsId(), currentUserId));
 
             log.info("Email address verified successfully for user: {}", currentUserId);
             return true;
@@ -36,6 +36,15 @@ public class ContactDetailsResponse {
     @Schema(description = "Country name", example = "India")
     private String country;
 
+    @Schema(description = "Location dictionary ID of the city", example = "112")
+    private Integer cityLocationId;
+
+    @Schema(description = "Location dictionary ID of the state", example = "24")
+    private Integer stateLocationId;
+
+    @Schema(description = "Location dictionary ID of the country", example = "1")
+    private Integer countryLocationId;
+
     @Schema(description = "PIN/ZIP code", example = "560034")
     private String pinCode;
 
@@ -0,0 +1,43 @@
+package com.spring.jwt.Document;
+
+import com.spring.jwt.entity.DocumentContentReference;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DocumentContentReferenceRepository extends JpaRepository<DocumentContentReference, String> {
+
+    /**
+     * Add one reference, creating the row with {@code initialCount} if it does not exist yet
+     * Atomic, so concurrent first references to the same content cannot collide
+     */
+    @Modifying
+    @Query(value = "INSERT INTO document_content_reference (content_key, reference_count) " +
+                   "VALUES (:contentKey, :initialCount) " +
+                   "ON DUPLICATE KEY UPDATE reference_count = reference_count + 1", nativeQuery = true)
+    int acquire(@Param("contentKey") String contentKey, @Param("initialCount") int initialCount);
+
+    /**
+     * Remove one reference
+     *
+     * @return number of rows updated, 0 if the content has no reference row
+     */
+    @Modifying
+    @Query("UPDATE DocumentContentReference r SET r.referenceCount = r.referenceCount - 1 " +
+           "WHERE r.contentKey = :contentKey AND r.referenceCount > 0")
+    int release(@Param("contentKey") String contentKey);
+
+    /**
+     * Read the row and lock it until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM DocumentContentReference r WHERE r.contentKey = :contentKey")
+    Optional<DocumentContentReference> findForUpdate(@Param("contentKey") String contentKey);
+}
@@ -1,17 +1,24 @@
 package com.spring.jwt.Document;
 
+import com.spring.jwt.Document.Service.DocumentContentStreamer;
+import com.spring.jwt.Document.Service.DocumentUploadQueue;
 import com.spring.jwt.Document.domain.DocumentMetadata;
+import com.spring.jwt.Document.domain.ImageRendition;
 import com.spring.jwt.Enums.DocumentType;
 import com.spring.jwt.config.DocumentProperties;
 import com.spring.jwt.dto.DocumentDetailResponseDTO;
 import com.spring.jwt.dto.DocumentResponseDTO;
+import com.spring.jwt.dto.DocumentUploadJobDTO;
 import com.spring.jwt.dto.PaginatedDocumentResponseDTO;
+import com.spring.jwt.mapper.DocumentResponseMapper;
 import com.spring.jwt.utils.ApiResponse;
 import com.spring.jwt.utils.SecurityUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +30,8 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +46,9 @@ public class DocumentController
 
         private final DocumentService documentService;
         private final DocumentProperties documentProperties;
+        private final DocumentContentStreamer documentContentStreamer;
+        private final DocumentUploadQueue documentUploadQueue;
+        private final DocumentResponseMapper documentResponseMapper;
 
         @Operation(summary = "Upload a document", description = "Upload a document file with automatic compression and validation. Supports PDF, JPEG, PNG, and WEBP formats up to 15MB.")
         @ApiResponses(value =
@@ -72,6 +84,68 @@ public class DocumentController
                                 .body(ApiResponse.success("Document uploaded successfully", response));
         }
 
+        /**
+         * Queue a document upload for asynchronous processing
+         *
+         * Business Logic:
+         * 1. Validate the file and upload permissions on the request thread
+         * 2. Queue compression and storage on the document upload workers
+         * 3. Return 202 with the status URL, or 429 straight away if the queue is full
+         */
+        @Operation(summary = "Queue a document upload", description = "Accept a document for background processing. Returns 202 with a status URL to poll until the upload is READY or FAILED; returns 429 with Retry-After when the processing queue is full.")
+        @ApiResponses(value =
+                {
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202",
+                                description = "Upload accepted for processing"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400",
+                                description = "Invalid file or parameters"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429",
+                                description = "Processing queue is full, retry later")
+                })
+        @PostMapping(value = "/uploads", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+        public ResponseEntity<ApiResponse<DocumentUploadJobDTO>> queueUpload
+                (
+                        @Parameter(description = "Document file to upload", required = true)
+                        @RequestParam("file") MultipartFile file,
+                        @Parameter(description = "Type of document being uploaded", required = true)
+                        @RequestParam("documentType") DocumentType documentType,
+                        @Parameter(description = "Optional description for the document")
+                        @RequestParam(value = "description", required = false) String description,
+                        @Parameter(description = "Replace the existing document of the same type")
+                        @RequestParam(value = "replace", defaultValue = "false") boolean replace
+                )
+        {
+
+                Integer userId = SecurityUtil.getCurrentUserId();
+                log.info("Queued upload request: user={}, type={}, file={}, size={}KB",
+                                userId, documentType, file.getOriginalFilename(), file.getSize() / 1024);
+
+                DocumentUploadJobDTO job = documentResponseMapper.toUploadJobDTO(
+                                documentUploadQueue.submit(userId, file, documentType, description, replace));
+
+                return ResponseEntity.accepted()
+                                .location(URI.create(job.getStatusUrl()))
+                                .body(ApiResponse.success("Document accepted for processing", job));
+        }
+
+        /**
+         * Get the status of a queued upload
+         */
+        @Operation(summary = "Get upload status", description = "Status of a queued upload: PENDING, PROCESSING, READY (with the document ID) or FAILED (with the reason)")
+        @GetMapping("/uploads/{jobId}")
+        public ResponseEntity<ApiResponse<DocumentUploadJobDTO>> getUploadStatus
+        (
+                        @Parameter(description = "Upload job ID", required = true)
+                        @PathVariable String jobId)
+        {
+
+                Integer userId = SecurityUtil.getCurrentUserId();
+
+                DocumentUploadJobDTO job = documentResponseMapper.toUploadJobDTO(documentUploadQueue.getJob(userId, jobId));
+
+                return ResponseEntity.ok(ApiResponse.success("Upload status retrieved", job));
+        }
+
         /**
          * Replace existing document of the same type or create new
          *
@@ -99,15 +173,13 @@ public class DocumentController
         }
 
         /**
-         * Get document by ID with file data
+         * Get document by ID
          *
          * Business Logic:
          * 1. Validate user ownership of document
-         * 2. Retrieve document with binary data
-         * 3. Convert binary data to Base64 for JSON response
-         * 4. Return complete document information
+         * 2. Return document information with the URL of its content
          */
-        @Operation(summary = "Get document by ID", description = "Retrieve a specific document by its ID including the file data (Base64 encoded)")
+        @Operation(summary = "Get document by ID", description = "Retrieve a specific document by its ID. The file itself is available from the returned download URL")
         @GetMapping("/{documentId}")
         public ResponseEntity<ApiResponse<DocumentDetailResponseDTO>> getDocumentById
         (
@@ -124,6 +196,45 @@ public class DocumentController
         }
 
 
+        /**
+         * Stream document content
+         *
+         * Business Logic:
+         * 1. Validate user ownership of document
+         * 2. Pick the requested image rendition, or the original when none is requested
+         * 3. Answer If-None-Match revalidation with 304 using the content hash ETag
+         * 4. Stream the requested byte range straight from storage
+         */
+        @Operation(summary = "Download document content", description = "Stream the document file, or a precomputed rendition of an image (THUMBNAIL 64px, CARD 256px, FULL 1024px). Supports Range requests, ETag revalidation (If-None-Match) and If-Range")
+        @ApiResponses(value =
+                {
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200",
+                                description = "Document content"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "206",
+                                description = "Requested byte range"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304",
+                                description = "Content unchanged since the given ETag"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "416",
+                                description = "Requested range not satisfiable")
+                })
+        @GetMapping("/{documentId}/content")
+        public void downloadDocumentContent
+        (
+                        @Parameter(description = "Document ID", required = true)
+                        @PathVariable Integer documentId,
+                        @Parameter(description = "Image rendition; the original file when omitted")
+                        @RequestParam(value = "size", required = false) ImageRendition size,
+                        HttpServletRequest request,
+                        HttpServletResponse response) throws IOException
+        {
+
+                Integer userId = SecurityUtil.getCurrentUserId();
+                log.debug("Document content request: user={}, documentId={}, size={}", userId, documentId, size);
+
+                documentContentStreamer.stream(documentService.getDocumentContent(userId, documentId, size), request, response);
+        }
+
+
         /**
          * Get document metadata without file data for performance
          *
@@ -1,14 +1,20 @@
 package com.spring.jwt.Document;
 
+import com.spring.jwt.Document.domain.DocumentSummary;
+import com.spring.jwt.Document.domain.PhotoHash;
+import com.spring.jwt.Document.domain.SimilarPhoto;
 import com.spring.jwt.Enums.DocumentType;
 import com.spring.jwt.entity.Document;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,11 +26,42 @@ public interface DocumentRepository extends JpaRepository<Document, Integer> {
      */
     Optional<Document> findByUserIdAndDocumentType(Integer userId, DocumentType documentType);
 
+    /**
+     * Find a document of the given type, only if its owner's profile is active, not
+     * deleted and publicly visible (same visibility rule as public browse). Used by
+     * endpoints reachable without authentication.
+     */
+    @Query("SELECT d FROM Document d WHERE d.user.id = :userId AND d.documentType = :documentType " +
+           "AND EXISTS (SELECT up.userProfileId FROM UserProfile up WHERE up.user.id = :userId " +
+           "AND up.status = 'ACTIVE' AND up.deleted = false) " +
+           "AND EXISTS (SELECT cp.completeProfileId FROM CompleteProfile cp WHERE cp.user.id = :userId " +
+           "AND cp.deleted = false AND (cp.profileVisibility = 'PUBLIC' OR cp.profileVisibility IS NULL))")
+    Optional<Document> findPublicByUserIdAndDocumentType(@Param("userId") Integer userId,
+                                                         @Param("documentType") DocumentType documentType);
+
     /**
      * Find all documents by user ID
      */
     List<Document> findByUserIdOrderByUploadedAtDesc(Integer userId);
 
+    /**
+     * List document metadata for a user, newest first, without loading content
+     */
+    @Query("SELECT new com.spring.jwt.Document.domain.DocumentSummary(d.documentId, d.documentType, d.fileName, " +
+           "d.description, d.fileSize, d.contentType, d.uploadedAt, d.updatedAt) " +
+           "FROM Document d WHERE d.user.id = :userId ORDER BY d.uploadedAt DESC")
+    List<DocumentSummary> findSummariesByUserId(@Param("userId") Integer userId);
+
+    /**
+     * List document metadata for a user and document types, newest first, without loading content
+     */
+    @Query("SELECT new com.spring.jwt.Document.domain.DocumentSummary(d.documentId, d.documentType, d.fileName, " +
+           "d.description, d.fileSize, d.contentType, d.uploadedAt, d.updatedAt) " +
+           "FROM Document d WHERE d.user.id = :userId AND d.documentType IN :documentTypes " +
+           "ORDER BY d.uploadedAt DESC")
+    List<DocumentSummary> findSummariesByUserIdAndDocumentTypes(@Param("userId") Integer userId,
+                                                                @Param("documentTypes") List<DocumentType> documentTypes);
+
     /**
      * Find documents by user ID with pagination support
      */
@@ -42,6 +79,13 @@ public interface DocumentRepository extends JpaRepository<Document, Integer> {
      */
     boolean existsByUserIdAndDocumentType(Integer userId, DocumentType documentType);
 
+    /**
+     * Which of the given users have a document of the given type, in one query
+     */
+    @Query("SELECT DISTINCT d.user.id FROM Document d WHERE d.user.id IN :userIds AND d.documentType = :documentType")
+    List<Integer> findUserIdsWithDocumentType(@Param("userIds") Collection<Integer> userIds,
+                                              @Param("documentType") DocumentType documentType);
+
     /**
      * Count documents by user ID
      */
@@ -52,6 +96,93 @@ public interface DocumentRepository extends JpaRepository<Document, Integer> {
      */
     List<Document> findByUserIdAndDocumentTypeIn(Integer userId, List<DocumentType> documentTypes);
 
+    /**
+     * Count documents referencing the given stored content
+     */
+    long countByContentKey(String contentKey);
+
+    /**
+     * Count documents whose content is still stored inline
+     */
+    long countByContentKeyIsNull();
+
+    /**
+     * IDs of documents whose content is still stored inline, in ID order
+     */
+    @Query("SELECT d.documentId FROM Document d WHERE d.contentKey IS NULL AND d.documentId > :afterId " +
+           "ORDER BY d.documentId")
+    List<Integer> findIdsWithInlineContent(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * Load only the inline content of a document
+     */
+    @Query("SELECT b.fileData FROM DocumentBlob b WHERE b.documentId = :documentId")
+    byte[] findInlineContent(@Param("documentId") Integer documentId);
+
+    /**
+     * Point a document at stored content and drop its inline copy, unless it was already moved
+     */
+    @Modifying
+    @Query(value = "UPDATE document SET content_key = :contentKey, file_data = NULL " +
+                   "WHERE document_id = :documentId AND content_key IS NULL", nativeQuery = true)
+    int moveInlineContent(@Param("documentId") Integer documentId, @Param("contentKey") String contentKey);
+
+    /**
+     * Drop the inline copy of a document's content
+     */
+    @Modifying
+    @Query(value = "UPDATE document SET file_data = NULL WHERE document_id = :documentId", nativeQuery = true)
+    int clearInlineContent(@Param("documentId") Integer documentId);
+
+    /**
+     * Perceptual hash of documents with the given content, so shared content is not hashed twice
+     */
+    @Query("SELECT d.perceptualHash FROM Document d WHERE d.contentKey = :contentKey AND d.perceptualHash IS NOT NULL")
+    List<Long> findPerceptualHashesByContentKey(@Param("contentKey") String contentKey, Pageable pageable);
+
+    /**
+     * Perceptual hash of one document, null if it has none
+     */
+    @Query("SELECT d.perceptualHash FROM Document d WHERE d.documentId = :documentId")
+    Long findPerceptualHash(@Param("documentId") Integer documentId);
+
+    /**
+     * Hashed documents in ID order, to load the duplicate photo index
+     */
+    @Query("SELECT new com.spring.jwt.Document.domain.PhotoHash(d.documentId, d.perceptualHash) FROM Document d " +
+           "WHERE d.perceptualHash IS NOT NULL AND d.documentId > :afterId ORDER BY d.documentId")
+    List<PhotoHash> findPhotoHashes(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * IDs of image documents that have not been hashed yet and have not failed to decode, in ID order
+     */
+    @Query("SELECT d.documentId FROM Document d WHERE d.perceptualHash IS NULL AND d.perceptualHashFailedAt IS NULL " +
+           "AND d.contentType LIKE 'image/%' AND d.documentId > :afterId ORDER BY d.documentId")
+    List<Integer> findIdsWithoutPerceptualHash(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * Set the perceptual hash of a document, unless an upload set it in the meantime
+     */
+    @Modifying
+    @Query("UPDATE Document d SET d.perceptualHash = :hash WHERE d.documentId = :documentId AND d.perceptualHash IS NULL")
+    int setPerceptualHash(@Param("documentId") Integer documentId, @Param("hash") Long hash);
+
+    /**
+     * Record that the content of a document cannot be hashed, unless an upload hashed it in the meantime
+     */
+    @Modifying
+    @Query("UPDATE Document d SET d.perceptualHashFailedAt = :failedAt " +
+           "WHERE d.documentId = :documentId AND d.perceptualHash IS NULL")
+    int markPerceptualHashFailed(@Param("documentId") Integer documentId, @Param("failedAt") LocalDateTime failedAt);
+
+    /**
+     * Current state of documents found in the duplicate photo index
+     */
+    @Query("SELECT new com.spring.jwt.Document.domain.SimilarPhoto(d.documentId, d.user.id, d.documentType, " +
+           "d.fileName, d.contentType, d.uploadedAt, d.perceptualHash) FROM Document d " +
+           "WHERE d.documentId IN :documentIds AND d.perceptualHash IS NOT NULL")
+    List<SimilarPhoto> findSimilarPhotos(@Param("documentIds") Collection<Integer> documentIds);
+
     /**
      * Delete document by user ID and document type
      */
@@ -1,5 +1,7 @@
 package com.spring.jwt.Document;
 
+import com.spring.jwt.Document.domain.DocumentContent;
+import com.spring.jwt.Document.domain.ImageRendition;
 import com.spring.jwt.Document.domain.DocumentMetadata;
 import com.spring.jwt.Enums.DocumentType;
 import com.spring.jwt.dto.DocumentDetailResponseDTO;
@@ -149,4 +151,38 @@ public interface DocumentService {
          */
         byte[] downloadDocument(Integer userId, Integer documentId);
 
+        /**
+         * Get document content for streaming
+         * Security: Validates user ownership before allowing download
+         *
+         * @param userId     the user ID (for authorization)
+         * @param documentId the document ID
+         * @return content descriptor backed by the content store file where possible
+         */
+        DocumentContent getDocumentContent(Integer userId, Integer documentId);
+
+        /**
+         * Get a precomputed image rendition of a document for streaming
+         * Falls back to the original content while the rendition is not ready, and for
+         * documents that are not images
+         * Security: Validates user ownership before allowing download
+         *
+         * @param userId     the user ID (for authorization)
+         * @param documentId the document ID
+         * @param rendition  the rendition size, or null for the original
+         * @return content descriptor of the rendition or the original
+         */
+        DocumentContent getDocumentContent(Integer userId, Integer documentId, ImageRendition rendition);
+
+        /**
+         * Get a rendition of a user's profile photo for streaming
+         * Profile photos are shown on public profile views, so no ownership check applies;
+         * the photo is only served while the owner's profile is active and publicly visible
+         *
+         * @param userId    the user whose profile photo is requested
+         * @param rendition the rendition size, or null for the original
+         * @return content descriptor of the rendition or the original
+         */
+        DocumentContent getProfilePhotoContent(Integer userId, ImageRendition rendition);
+
 }
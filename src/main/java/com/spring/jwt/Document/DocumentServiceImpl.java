@@ -1,11 +1,18 @@
 package com.spring.jwt.Document;
 
+import com.spring.jwt.Document.Service.DocumentContentService;
+import com.spring.jwt.Document.Service.DocumentRenditionService;
 import com.spring.jwt.Document.Service.DocumentSecurityService;
 import com.spring.jwt.Document.Service.DocumentServiceHelper;
-import com.spring.jwt.Document.Service.FileProcessingService;
 import com.spring.jwt.Document.Service.FileValidationService;
+import com.spring.jwt.Document.Service.PhotoSimilarityIndex;
+import com.spring.jwt.Document.Service.UploadDeduplicationService;
+import com.spring.jwt.Document.Service.UploadStagingService;
+import com.spring.jwt.Document.domain.DocumentContent;
 import com.spring.jwt.Document.domain.DocumentMetadata;
+import com.spring.jwt.Document.domain.ImageRendition;
 import com.spring.jwt.Document.domain.FileProcessingResult;
+import com.spring.jwt.Document.domain.StagedUpload;
 import com.spring.jwt.Enums.DocumentType;
 import com.spring.jwt.config.DocumentProperties;
 import com.spring.jwt.dto.DocumentDetailResponseDTO;
@@ -37,10 +44,14 @@ public class DocumentServiceImpl implements DocumentService {
     private final DocumentRepository documentRepository;
     private final DocumentResponseMapper documentResponseMapper;
     private final FileValidationService fileValidationService;
-    private final FileProcessingService fileProcessingService;
     private final DocumentSecurityService documentSecurityService;
     private final DocumentProperties documentProperties;
     private final DocumentServiceHelper documentServiceHelper;
+    private final DocumentContentService documentContentService;
+    private final UploadStagingService uploadStagingService;
+    private final UploadDeduplicationService uploadDeduplicationService;
+    private final DocumentRenditionService documentRenditionService;
+    private final PhotoSimilarityIndex photoSimilarityIndex;
 
     @Override
     @Transactional
@@ -68,12 +79,11 @@ public class DocumentServiceImpl implements DocumentService {
                             userId, documentType));
         }
 
-        try {
+        try (StagedUpload stagedUpload = uploadStagingService.stage(file)) {
             long startTime = System.currentTimeMillis();
 
-            FileProcessingResult fileProcessingResult = fileProcessingService
-                    .processFile(file, documentType)
-                    .join();
+            FileProcessingResult fileProcessingResult = uploadDeduplicationService
+                    .process(stagedUpload, documentType);
 
             Document document = documentServiceHelper.createDocumentEntity(user, file, documentType, description,
                     fileProcessingResult);
@@ -124,8 +134,7 @@ public class DocumentServiceImpl implements DocumentService {
         log.debug("Fetching all documents for user {}", userId);
         documentServiceHelper.validateUserId(userId);
 
-        List<Document> documents = documentRepository.findByUserIdOrderByUploadedAtDesc(userId);
-        return documentResponseMapper.toResponseDTOList(documents);
+        return documentResponseMapper.toSummaryResponseDTOList(documentRepository.findSummariesByUserId(userId));
     }
 
     @Override
@@ -139,11 +148,12 @@ public class DocumentServiceImpl implements DocumentService {
             return getAllDocumentsByUserId(userId);
         }
 
-        List<Document> documents = documentRepository.findByUserIdAndDocumentTypeIn(userId, documentTypes);
-        return documentResponseMapper.toResponseDTOList(documents);
+        return documentResponseMapper.toSummaryResponseDTOList(
+                documentRepository.findSummariesByUserIdAndDocumentTypes(userId, documentTypes));
     }
 
     @Override
+    @Transactional
     public DocumentResponseDTO updateDocument(Integer userId, Integer documentId, MultipartFile file,
             String description)
     {
@@ -165,11 +175,13 @@ public class DocumentServiceImpl implements DocumentService {
             {
                 fileValidationService.validateFileForDocumentType(file, existingDocument.getDocumentType());
 
-                FileProcessingResult processingResult = fileProcessingService
-                        .processFile(file, existingDocument.getDocumentType())
-                        .join();
+                try (StagedUpload stagedUpload = uploadStagingService.stage(file))
+                {
+                    FileProcessingResult processingResult = uploadDeduplicationService
+                            .process(stagedUpload, existingDocument.getDocumentType());
 
-                documentServiceHelper.updateDocumentFileData(existingDocument, file, processingResult);
+                    documentServiceHelper.updateDocumentFileData(existingDocument, file, processingResult);
+                }
                 fileUpdated = true;
             }
             if (description != null && !description.trim().isEmpty())
@@ -203,16 +215,24 @@ public class DocumentServiceImpl implements DocumentService {
         }
         Document document = getDocumentEntityById(documentId);
         documentRepository.delete(document);
+        documentContentService.releaseAfterCommit(document.getContentKey());
+        photoSimilarityIndex.removeAfterCommit(documentId);
 
         log.info("Document {} deleted successfully for user {}", documentId, userId);
     }
 
     @Override
+    @Transactional
     public void deleteDocumentByType(Integer userId, DocumentType documentType)
     {
         log.info("Deleting document of type {} for user {}", documentType, userId);
         documentServiceHelper.validateUserId(userId);
 
+        documentRepository.findByUserIdAndDocumentType(userId, documentType)
+                .ifPresent(document -> {
+                    documentContentService.releaseAfterCommit(document.getContentKey());
+                    photoSimilarityIndex.removeAfterCommit(document.getDocumentId());
+                });
         documentRepository.deleteByUserIdAndDocumentType(userId, documentType);
         log.info("Document of type {} deleted successfully for user {}", documentType, userId);
     }
@@ -260,6 +280,7 @@ public class DocumentServiceImpl implements DocumentService {
 //    }
 
     @Override
+    @Transactional
     public DocumentResponseDTO replaceDocument(Integer userId, MultipartFile file, DocumentType documentType,
             String description)
     {
@@ -285,17 +306,57 @@ public class DocumentServiceImpl implements DocumentService {
         documentSecurityService.validateDocumentOwnership(userId, documentId);
 
         Document document = getDocumentEntityById(documentId);
+        byte[] fileData = documentContentService.read(document);
 
-        if (document.getFileData() == null || document.getFileData().length == 0)
+        if (fileData == null || fileData.length == 0)
         {
             throw new DocumentProcessingException(
                     String.format("Document %d has no file data", documentId));
         }
 
         log.debug("Document downloaded: id={}, size={}KB",
-                documentId, document.getFileData().length / 1024);
+                documentId, fileData.length / 1024);
+
+        return fileData;
+    }
+
+    @Override
+    @Transactional
+    public DocumentContent getDocumentContent(Integer userId, Integer documentId)
+    {
+        log.debug("Content request: user={}, documentId={}", userId, documentId);
 
-        return document.getFileData();
+        return getDocumentContent(userId, documentId, null);
+    }
+
+    @Override
+    @Transactional
+    public DocumentContent getDocumentContent(Integer userId, Integer documentId, ImageRendition rendition)
+    {
+        documentSecurityService.validateDocumentOwnership(userId, documentId);
+        return toContent(getDocumentEntityById(documentId), rendition);
+    }
+
+    @Override
+    @Transactional
+    public DocumentContent getProfilePhotoContent(Integer userId, ImageRendition rendition)
+    {
+        log.debug("Profile photo request: user={}, rendition={}", userId, rendition);
+
+        // Served without authentication: hidden, inactive and deleted profiles look like missing photos
+        Document document = documentRepository.findPublicByUserIdAndDocumentType(userId, DocumentType.PROFILE_PHOTO)
+                .orElseThrow(() -> new DocumentNotFoundException("Profile photo not found for user: " + userId));
+        return toContent(document, rendition);
+    }
+
+    private DocumentContent toContent(Document document, ImageRendition rendition)
+    {
+        if (rendition == null)
+        {
+            return documentContentService.toContent(document);
+        }
+        return documentRenditionService.findRendition(document, rendition)
+                .orElseGet(() -> documentContentService.toContent(document));
     }
 
     private Document getDocumentEntityById(Integer documentId)
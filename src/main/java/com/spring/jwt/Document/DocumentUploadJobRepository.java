@@ -0,0 +1,43 @@
+package com.spring.jwt.Document;
+
+import com.spring.jwt.entity.DocumentUploadJob;
+import com.spring.jwt.entity.Enums.UploadStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface DocumentUploadJobRepository extends JpaRepository<DocumentUploadJob, String> {
+
+    /**
+     * Find a job owned by the given user
+     */
+    Optional<DocumentUploadJob> findByJobIdAndUserId(String jobId, Integer userId);
+
+    /**
+     * Fail jobs that have been waiting or running since before the cutoff,
+     * e.g. because the node holding them was restarted
+     */
+    @Modifying
+    @Query("UPDATE DocumentUploadJob j SET j.status = com.spring.jwt.entity.Enums.UploadStatus.FAILED, " +
+           "j.errorMessage = :reason, j.completedAt = :now " +
+           "WHERE j.status IN :statuses AND j.createdAt < :cutoff")
+    int failStaleJobs(@Param("statuses") Collection<UploadStatus> statuses,
+                      @Param("cutoff") LocalDateTime cutoff,
+                      @Param("reason") String reason,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Remove finished jobs older than the retention period
+     */
+    @Modifying
+    @Query("DELETE FROM DocumentUploadJob j WHERE j.status IN :statuses AND j.completedAt < :cutoff")
+    int deleteFinishedBefore(@Param("statuses") Collection<UploadStatus> statuses,
+                             @Param("cutoff") LocalDateTime cutoff);
+}
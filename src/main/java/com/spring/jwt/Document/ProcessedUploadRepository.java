@@ -0,0 +1,28 @@
+package com.spring.jwt.Document;
+
+import com.spring.jwt.entity.ProcessedUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ProcessedUploadRepository extends JpaRepository<ProcessedUpload, Long> {
+
+    Optional<ProcessedUpload> findByOriginalHashAndSettingsHash(String originalHash, String settingsHash);
+
+    @Modifying
+    @Query("UPDATE ProcessedUpload p SET p.hitCount = p.hitCount + 1, p.lastHitAt = :now WHERE p.id = :id")
+    int recordHit(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Forget results whose content has been deleted from the store
+     */
+    @Modifying
+    @Query("DELETE FROM ProcessedUpload p WHERE p.contentKey = :contentKey")
+    int deleteByContentKey(@Param("contentKey") String contentKey);
+}
@@ -0,0 +1,62 @@
+package com.spring.jwt.Document;
+
+import com.spring.jwt.Document.Service.DocumentContentStreamer;
+import com.spring.jwt.Document.domain.ImageRendition;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Profile photos referenced by the public profile and listing views
+ * (see {@link com.spring.jwt.mapper.DocumentResponseMapper#profilePhotoUrl}).
+ * Lives under the public profile path, so it is reachable wherever those views are
+ */
+@RestController
+@RequestMapping("/api/v1/profiles/public/users")
+@Slf4j
+@RequiredArgsConstructor
+@Tag(name = "Profile Photos", description = "Precomputed renditions of user profile photos")
+public class ProfilePhotoController
+{
+
+        private final DocumentService documentService;
+        private final DocumentContentStreamer documentContentStreamer;
+
+        @Operation(summary = "Get profile photo", description = "Stream a rendition of the user's profile photo (THUMBNAIL 64px, CARD 256px, FULL 1024px). Supports ETag revalidation and Range requests")
+        @ApiResponses(value =
+                {
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200",
+                                description = "Profile photo"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304",
+                                description = "Photo unchanged since the given ETag"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404",
+                                description = "User has no profile photo, or their profile is not active and public")
+                })
+        @GetMapping("/{userId}/photo")
+        public void getProfilePhoto
+        (
+                        @Parameter(description = "User ID", required = true)
+                        @PathVariable Integer userId,
+                        @Parameter(description = "Image rendition")
+                        @RequestParam(value = "size", defaultValue = "CARD") ImageRendition size,
+                        HttpServletRequest request,
+                        HttpServletResponse response) throws IOException
+        {
+
+                log.debug("Profile photo request: user={}, size={}", userId, size);
+
+                documentContentStreamer.stream(documentService.getProfilePhotoContent(userId, size), request, response);
+        }
+}
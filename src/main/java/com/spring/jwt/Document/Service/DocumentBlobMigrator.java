@@ -0,0 +1,148 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.DocumentRepository;
+import com.spring.jwt.Document.storage.DocumentContentStore;
+import com.spring.jwt.config.DocumentProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background migration of inline document blobs into the content store
+ *
+ * Documents are walked in ID order in chunks of {@code migration-batch-size}. Each
+ * document is moved in its own transaction: the content is written to the store,
+ * then the row is pointed at it and its blob is cleared. Progress is the data
+ * itself (rows with no content key still need moving), so a restart or a second
+ * node simply picks up the remaining rows; the conditional update makes a row that
+ * was already moved a no-op. A row that fails is skipped for the rest of the pass
+ * and retried on the next one.
+ */
+@Component
+@Slf4j
+public class DocumentBlobMigrator
+{
+
+    private final DocumentRepository documentRepository;
+    private final DocumentContentStore contentStore;
+    private final DocumentProperties documentProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong migrated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+
+    public DocumentBlobMigrator(DocumentRepository documentRepository,
+                                DocumentContentStore contentStore,
+                                DocumentProperties documentProperties,
+                                PlatformTransactionManager transactionManager)
+    {
+        this.documentRepository = documentRepository;
+        this.contentStore = contentStore;
+        this.documentProperties = documentProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.document.storage.migration-interval-ms:300000}",
+               initialDelayString = "${app.document.storage.migration-initial-delay-ms:60000}")
+    public void migrateScheduled()
+    {
+        if (documentProperties.getStorage().isMigrationEnabled())
+        {
+            migrate();
+        }
+    }
+
+    /**
+     * Run one pass over all documents with inline content
+     *
+     * @return number of documents moved in this pass, or -1 if a pass is already running
+     */
+    public int migrate()
+    {
+        if (!running.compareAndSet(false, true))
+        {
+            return -1;
+        }
+        try {
+            lastRunAt = LocalDateTime.now();
+            int batchSize = documentProperties.getStorage().getMigrationBatchSize();
+            int movedThisPass = 0;
+            Integer afterId = 0;
+
+            List<Integer> chunk;
+            do {
+                chunk = documentRepository.findIdsWithInlineContent(afterId, PageRequest.of(0, batchSize));
+                for (Integer documentId : chunk)
+                {
+                    if (migrateDocument(documentId))
+                    {
+                        movedThisPass++;
+                    }
+                    afterId = documentId;
+                }
+            } while (chunk.size() == batchSize);
+
+            if (movedThisPass > 0)
+            {
+                log.info("Moved {} document blobs to the content store, {} remaining",
+                        movedThisPass, documentRepository.countByContentKeyIsNull());
+            }
+            return movedThisPass;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Current migration progress
+     */
+    public Map<String, Object> getProgress()
+    {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("running", running.get());
+        progress.put("remaining", documentRepository.countByContentKeyIsNull());
+        progress.put("migrated", migrated.get());
+        progress.put("failed", failed.get());
+        progress.put("lastRunAt", lastRunAt);
+        return progress;
+    }
+
+    private boolean migrateDocument(Integer documentId)
+    {
+        try {
+            Boolean moved = transactionTemplate.execute(status -> {
+                byte[] content = documentRepository.findInlineContent(documentId);
+                if (content == null)
+                {
+                    log.warn("Document {} has neither inline content nor a content key", documentId);
+                    return false;
+                }
+                String contentKey = contentStore.put(content);
+                return documentRepository.moveInlineContent(documentId, contentKey) == 1;
+            });
+            if (Boolean.TRUE.equals(moved))
+            {
+                migrated.incrementAndGet();
+                return true;
+            }
+            return false;
+        } catch (Exception e)
+        {
+            failed.incrementAndGet();
+            log.warn("Failed to move content of document {}: {}", documentId, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.DocumentContentReferenceRepository;
+import com.spring.jwt.Document.DocumentRepository;
+import com.spring.jwt.Document.ProcessedUploadRepository;
+import com.spring.jwt.Document.domain.DocumentContent;
+import com.spring.jwt.Document.domain.FileProcessingResult;
+import com.spring.jwt.Document.storage.DocumentContentStore;
+import com.spring.jwt.Document.storage.LocalFileSystemContentStore;
+import com.spring.jwt.entity.Document;
+import com.spring.jwt.entity.DocumentBlob;
+import com.spring.jwt.entity.DocumentContentReference;
+import com.spring.jwt.exception.DocumentProcessingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Reads and writes document content through the {@link DocumentContentStore}
+ * Documents uploaded before the content store existed keep their content inline
+ * until the blob migrator moves it; reads handle both forms
+ */
+@Component
+@Slf4j
+public class DocumentContentService
+{
+
+    private final DocumentContentStore contentStore;
+    private final DocumentRepository documentRepository;
+    private final DocumentContentReferenceRepository referenceRepository;
+    private final ProcessedUploadRepository processedUploadRepository;
+    private final DocumentRenditionService documentRenditionService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate cleanupTransactionTemplate;
+
+    public DocumentContentService(DocumentContentStore contentStore,
+                                  DocumentRepository documentRepository,
+                                  DocumentContentReferenceRepository referenceRepository,
+                                  ProcessedUploadRepository processedUploadRepository,
+                                  DocumentRenditionService documentRenditionService,
+                                  PlatformTransactionManager transactionManager)
+    {
+        this.contentStore = contentStore;
+        this.documentRepository = documentRepository;
+        this.referenceRepository = referenceRepository;
+        this.processedUploadRepository = processedUploadRepository;
+        this.documentRenditionService = documentRenditionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Runs after the caller's commit, so it needs a transaction of its own
+        this.cleanupTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.cleanupTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Store content for a document and point the document at it
+     * Content the document referenced before is released once the change commits,
+     * and image renditions of the new content are generated after the commit
+     */
+    public void store(Document document, byte[] content)
+    {
+        attach(document, contentStore.put(content));
+    }
+
+    /**
+     * Store the result of processing an upload, from memory or from its file, and
+     * point the document at it
+     */
+    public void store(Document document, FileProcessingResult result)
+    {
+        attach(document, put(result));
+    }
+
+    /**
+     * Write the result of processing an upload to the content store
+     * A result that only carries a content key refers to content already stored
+     *
+     * @return the content key
+     */
+    public String put(FileProcessingResult result)
+    {
+        if (result.getProcessedFile() != null)
+        {
+            return contentStore.putFile(result.getProcessedFile(), result.getContentKey());
+        }
+        if (result.getProcessedData() != null)
+        {
+            return contentStore.put(result.getProcessedData());
+        }
+        if (result.getContentKey() == null)
+        {
+            throw new DocumentProcessingException("Processing produced no content");
+        }
+        return result.getContentKey();
+    }
+
+    private void attach(Document document, String contentKey)
+    {
+        String previousKey = document.getContentKey();
+        if (!contentKey.equals(previousKey))
+        {
+            acquire(contentKey);
+        }
+        document.setContentKey(contentKey);
+
+        if (previousKey == null && document.getDocumentId() != null)
+        {
+            // Replacing legacy inline content
+            documentRepository.clearInlineContent(document.getDocumentId());
+        } else if (previousKey != null && !previousKey.equals(contentKey))
+        {
+            releaseAfterCommit(previousKey);
+        }
+        documentRenditionService.generateAfterCommit(contentKey, document.getContentType());
+    }
+
+    /**
+     * Read the content of a document, from the content store or the legacy inline column
+     */
+    public byte[] read(Document document)
+    {
+        if (document.getContentKey() != null)
+        {
+            return contentStore.get(document.getContentKey());
+        }
+        DocumentBlob inlineContent = document.getInlineContent();
+        return inlineContent != null ? inlineContent.getFileData() : null;
+    }
+
+    /**
+     * Describe a document's content for streaming: the store's file when there is one,
+     * otherwise the bytes (legacy inline content or a store without local files)
+     */
+    public DocumentContent toContent(Document document)
+    {
+        DocumentContent.DocumentContentBuilder content = DocumentContent.builder()
+                .documentId(document.getDocumentId())
+                .fileName(document.getFileName())
+                .contentType(document.getContentType())
+                .lastModified(document.getUpdatedAt());
+
+        String contentKey = document.getContentKey();
+        if (contentKey != null)
+        {
+            Optional<Path> file = contentStore.findFile(contentKey);
+            if (file.isPresent())
+            {
+                try {
+                    return content.contentKey(contentKey)
+                            .file(file.get())
+                            .contentLength(Files.size(file.get()))
+                            .build();
+                } catch (IOException e)
+                {
+                    throw new DocumentProcessingException("Failed to read document content: " + e.getMessage(), e);
+                }
+            }
+        }
+
+        byte[] data = read(document);
+        if (data == null)
+        {
+            throw new DocumentProcessingException(
+                    String.format("Document %d has no file data", document.getDocumentId()));
+        }
+        return content.contentKey(contentKey != null ? contentKey : LocalFileSystemContentStore.sha256(data))
+                .inlineData(data)
+                .contentLength(data.length)
+                .build();
+    }
+
+    /**
+     * Count a new reference to stored content
+     * The row is locked until the caller commits, so content cannot be deleted between
+     * a reference being taken and the referencing document being saved
+     */
+    private void acquire(String contentKey)
+    {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Content stored before reference counting starts from the documents already using it
+            int initialCount = (int) documentRepository.countByContentKey(contentKey) + 1;
+            referenceRepository.acquire(contentKey, initialCount);
+        });
+        if (!contentStore.exists(contentKey))
+        {
+            throw new DocumentProcessingException("Stored content is no longer available, please upload again");
+        }
+    }
+
+    /**
+     * Count a new reference to stored content if the content still exists, e.g. for an
+     * upload that reuses an earlier result. The existence check runs while the count
+     * row is locked, so content cannot be deleted between the check and the reference
+     * being counted. Joins the caller's transaction.
+     *
+     * @return false, with no reference taken, if the content is gone
+     */
+    public boolean acquireIfExists(String contentKey)
+    {
+        Boolean acquired = transactionTemplate.execute(status -> {
+            int initialCount = (int) documentRepository.countByContentKey(contentKey) + 1;
+            referenceRepository.acquire(contentKey, initialCount);
+            if (contentStore.exists(contentKey))
+            {
+                return true;
+            }
+            referenceRepository.release(contentKey);
+            return false;
+        });
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    /**
+     * Drop a reference taken with {@link #acquireIfExists} once the current transaction
+     * completes, whether it commits or rolls back, and delete the content if nothing
+     * references it any more. Runs at once outside a transaction.
+     */
+    public void releaseAfterCompletion(String contentKey)
+    {
+        Runnable drop = () -> {
+            cleanupTransactionTemplate.executeWithoutResult(status -> referenceRepository.release(contentKey));
+            release(contentKey);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCompletion(int status)
+                {
+                    drop.run();
+                }
+            });
+        } else
+        {
+            drop.run();
+        }
+    }
+
+    /**
+     * Drop a reference to stored content and delete the content once the current
+     * transaction commits, if nothing references it any more
+     */
+    public void releaseAfterCommit(String contentKey)
+    {
+        if (contentKey == null)
+        {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> referenceRepository.release(contentKey));
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    release(contentKey);
+                }
+            });
+        } else
+        {
+            release(contentKey);
+        }
+    }
+
+    /**
+     * Delete content whose reference count is zero, together with the processed
+     * uploads that point at it. The count row is locked while deleting, so a
+     * concurrent upload either sees the content gone or keeps it alive
+     */
+    private void release(String contentKey)
+    {
+        try {
+            Boolean deleted = cleanupTransactionTemplate.execute(status -> {
+                Optional<DocumentContentReference> reference = referenceRepository.findForUpdate(contentKey);
+                if (reference.isPresent() && reference.get().getReferenceCount() > 0)
+                {
+                    return false;
+                }
+                // Documents written without a reference row still keep their content
+                if (documentRepository.countByContentKey(contentKey) > 0)
+                {
+                    return false;
+                }
+                reference.ifPresent(referenceRepository::delete);
+                processedUploadRepository.deleteByContentKey(contentKey);
+                contentStore.delete(contentKey);
+                return true;
+            });
+            if (Boolean.TRUE.equals(deleted))
+            {
+                log.debug("Deleted unreferenced document content {}", contentKey);
+            }
+        } catch (Exception e)
+        {
+            log.warn("Failed to release document content {}: {}", contentKey, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.domain.DocumentContent;
+import com.spring.jwt.config.DocumentProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+
+/**
+ * Writes document content to the HTTP response without building it in memory
+ *
+ * File-backed content is copied with {@link FileChannel#transferTo}, so the heap
+ * never holds more than the channel's transfer buffer. Supports single byte
+ * ranges (with If-Range), strong ETags derived from the content hash and
+ * If-None-Match revalidation.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DocumentContentStreamer
+{
+
+    private final DocumentProperties documentProperties;
+
+    public void stream(DocumentContent content, HttpServletRequest request, HttpServletResponse response)
+            throws IOException
+    {
+        String etag = "\"" + content.getContentKey() + "\"";
+        long length = content.getContentLength();
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (content.getLastModified() != null)
+        {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED,
+                    content.getLastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag))
+        {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag)))
+        {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null)
+            {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (bounds.length == 2)
+            {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(content.getContentType());
+        response.setContentLengthLong(Math.max(count, 0));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                .filename(content.getFileName(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+
+        if (count <= 0 || "HEAD".equalsIgnoreCase(request.getMethod()))
+        {
+            return;
+        }
+
+        OutputStream out = response.getOutputStream();
+        if (content.isFileBacked())
+        {
+            transfer(content, start, count, out);
+        } else
+        {
+            out.write(content.getInlineData(), (int) start, (int) count);
+        }
+        out.flush();
+    }
+
+    private void transfer(DocumentContent content, long start, long count, OutputStream out) throws IOException
+    {
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(content.getFile(), StandardOpenOption.READ))
+        {
+            long position = start;
+            long remaining = count;
+            while (remaining > 0)
+            {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0)
+                {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    private String cacheControl()
+    {
+        long maxAge = documentProperties.getStorage().getCacheMaxAgeSeconds();
+        return maxAge > 0 ? "private, max-age=" + maxAge : "private, no-cache";
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so a W/ prefix is ignored
+     */
+    static boolean matchesAny(String ifNoneMatch, String etag)
+    {
+        if (ifNoneMatch == null)
+        {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(","))
+        {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/"))
+            {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse a Range header against the content length
+     *
+     * @return {start, end} for a satisfiable single range, an empty array when the
+     *         header should be ignored (other units, multiple or malformed ranges), or
+     *         null when the range cannot be satisfied
+     */
+    static long[] parseRange(String header, long length)
+    {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0)
+        {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0)
+        {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty())
+            {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0)
+                {
+                    return null;
+                }
+                start = Math.max(length - suffix, 0);
+                end = length - 1;
+            } else
+            {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                if (end < start)
+                {
+                    return new long[0];
+                }
+                if (start >= length)
+                {
+                    return null;
+                }
+                end = Math.min(end, length - 1);
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e)
+        {
+            return new long[0];
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.spring.jwt.Document.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer meters for the document processing pipeline
+ *
+ * {@value #STAGE_TIMER} is tagged with the stage (queue_wait, decode, encode, store)
+ * and the kind of content (image, pdf), so the time of an upload can be broken down
+ * by where it was spent. {@value #JOB_COUNTER} counts queued uploads by outcome
+ * (accepted, rejected, ready, failed). {@value #ENCODE_PASSES} records how many full
+ * encodes an image needed to reach its target size. {@value #DEDUP_COUNTER} counts
+ * uploads by whether an identical earlier upload could be reused (hit, miss), and
+ * {@value #DEDUP_RATIO} is the share of hits since startup.
+ */
+@Component
+@RequiredArgsConstructor
+public class DocumentPipelineMetrics
+{
+
+    public static final String STAGE_TIMER = "document.pipeline.stage";
+    public static final String JOB_COUNTER = "document.upload.jobs";
+    public static final String ENCODE_PASSES = "document.image.encode.passes";
+    public static final String DEDUP_COUNTER = "document.upload.dedup";
+    public static final String DEDUP_RATIO = "document.upload.dedup.ratio";
+
+    public static final String QUEUE_WAIT = "queue_wait";
+    public static final String DECODE = "decode";
+    public static final String ENCODE = "encode";
+    public static final String STORE = "store";
+
+    public static final String IMAGE = "image";
+    public static final String PDF = "pdf";
+    public static final String OTHER = "other";
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong dedupHits = new AtomicLong();
+    private final AtomicLong dedupLookups = new AtomicLong();
+
+    public void recordStage(String stage, String kind, long durationNanos)
+    {
+        Timer.builder(STAGE_TIMER)
+                .description("Time spent in each document processing stage")
+                .tag("stage", stage)
+                .tag("type", kind)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void countJob(String outcome)
+    {
+        Counter.builder(JOB_COUNTER)
+                .description("Queued document uploads by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void recordEncodePasses(int passes)
+    {
+        DistributionSummary.builder(ENCODE_PASSES)
+                .description("Full image encodes needed to reach the target size")
+                .register(meterRegistry)
+                .record(passes);
+    }
+
+    public void countDedup(boolean hit)
+    {
+        Counter.builder(DEDUP_COUNTER)
+                .description("Uploads by whether an identical earlier upload was reused")
+                .tag("result", hit ? "hit" : "miss")
+                .register(meterRegistry)
+                .increment();
+        Gauge.builder(DEDUP_RATIO, this, DocumentPipelineMetrics::dedupRatio)
+                .description("Share of uploads served from an identical earlier upload")
+                .register(meterRegistry);
+        if (hit)
+        {
+            dedupHits.incrementAndGet();
+        }
+        dedupLookups.incrementAndGet();
+    }
+
+    private double dedupRatio()
+    {
+        long lookups = dedupLookups.get();
+        return lookups == 0 ? 0.0 : (double) dedupHits.get() / lookups;
+    }
+
+    /**
+     * Expose the depth and activity of the upload worker pool
+     */
+    public void bindUploadExecutor(ThreadPoolTaskExecutor executor)
+    {
+        Gauge.builder("document.upload.queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Uploads waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("document.upload.workers.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Workers currently processing an upload")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Kind of content used as the {@code type} tag
+     */
+    public static String kindOf(String contentType)
+    {
+        if (contentType == null)
+        {
+            return OTHER;
+        }
+        if (contentType.startsWith("image/"))
+        {
+            return IMAGE;
+        }
+        return "application/pdf".equals(contentType) ? PDF : OTHER;
+    }
+}
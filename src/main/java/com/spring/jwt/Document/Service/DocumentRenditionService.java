@@ -0,0 +1,217 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.domain.DocumentContent;
+import com.spring.jwt.Document.domain.ImageRendition;
+import com.spring.jwt.Document.storage.DocumentContentStore;
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.entity.Document;
+import com.spring.jwt.utils.ImageOptimizationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Precomputed image renditions ({@link ImageRendition}) of uploaded images
+ *
+ * Renditions are generated on the bounded {@code renditionExecutor} once the upload
+ * transaction commits, and stored as variants next to the original in the content
+ * store. Because they are keyed by the original's content hash, identical uploads
+ * share renditions and a replaced image never serves a stale one. A rendition that
+ * is requested before it exists (queue full, legacy upload, failed job) is served as
+ * the original and scheduled for generation.
+ */
+@Component
+@Slf4j
+public class DocumentRenditionService
+{
+
+    private static final String RENDITION_CONTENT_TYPE = "image/jpeg";
+
+    private final DocumentContentStore contentStore;
+    private final ImageOptimizationService imageOptimizationService;
+    private final DocumentProperties documentProperties;
+    private final Executor renditionExecutor;
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public DocumentRenditionService(DocumentContentStore contentStore,
+                                    ImageOptimizationService imageOptimizationService,
+                                    DocumentProperties documentProperties,
+                                    @Qualifier("renditionExecutor") Executor renditionExecutor)
+    {
+        this.contentStore = contentStore;
+        this.imageOptimizationService = imageOptimizationService;
+        this.documentProperties = documentProperties;
+        this.renditionExecutor = renditionExecutor;
+    }
+
+    /**
+     * Generate renditions for newly stored content once the current transaction commits
+     */
+    public void generateAfterCommit(String contentKey, String contentType)
+    {
+        if (!supports(contentKey, contentType))
+        {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    schedule(contentKey);
+                }
+            });
+        } else
+        {
+            schedule(contentKey);
+        }
+    }
+
+    /**
+     * Describe a stored rendition of a document for streaming
+     *
+     * @return the rendition, or empty if the document is not an image or the rendition
+     *         is not ready yet (in which case it is scheduled)
+     */
+    public Optional<DocumentContent> findRendition(Document document, ImageRendition rendition)
+    {
+        String contentKey = document.getContentKey();
+        if (!supports(contentKey, document.getContentType()))
+        {
+            return Optional.empty();
+        }
+
+        String variant = rendition.variantName();
+        DocumentContent.DocumentContentBuilder content = DocumentContent.builder()
+                .documentId(document.getDocumentId())
+                .fileName(renditionFileName(document.getFileName(), variant))
+                .contentType(RENDITION_CONTENT_TYPE)
+                .contentKey(contentKey + "-" + variant)
+                .lastModified(document.getUpdatedAt());
+
+        Optional<Path> file = contentStore.findVariantFile(contentKey, variant);
+        if (file.isPresent())
+        {
+            try {
+                return Optional.of(content.file(file.get()).contentLength(Files.size(file.get())).build());
+            } catch (IOException e)
+            {
+                log.warn("Failed to read {} rendition of {}: {}", variant, contentKey, e.getMessage());
+                return Optional.empty();
+            }
+        }
+
+        Optional<byte[]> data = contentStore.getVariant(contentKey, variant);
+        if (data.isPresent())
+        {
+            return Optional.of(content.inlineData(data.get()).contentLength(data.get().length).build());
+        }
+
+        schedule(contentKey);
+        return Optional.empty();
+    }
+
+    /**
+     * Whether renditions are produced for content of this type
+     */
+    public boolean supports(String contentKey, String contentType)
+    {
+        return documentProperties.getRendition().isEnabled()
+                && contentKey != null
+                && contentType != null
+                && contentType.startsWith("image/");
+    }
+
+    /**
+     * Generate any missing renditions of the given content on the calling thread
+     *
+     * @return number of renditions written
+     */
+    public int generate(String contentKey)
+    {
+        List<ImageRendition> missing = Arrays.stream(ImageRendition.values())
+                .filter(rendition -> !contentStore.variantExists(contentKey, rendition.variantName()))
+                .toList();
+        if (missing.isEmpty())
+        {
+            return 0;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            Map<Integer, byte[]> images = imageOptimizationService.createRenditions(
+                    contentStore.get(contentKey),
+                    missing.stream().map(ImageRendition::getMaxDimension).toList(),
+                    documentProperties.getRendition().getQuality());
+
+            int written = 0;
+            for (ImageRendition rendition : missing)
+            {
+                byte[] image = images.get(rendition.getMaxDimension());
+                if (image != null)
+                {
+                    contentStore.putVariant(contentKey, rendition.variantName(), image);
+                    written++;
+                }
+            }
+            log.debug("Generated {} renditions of {} in {}ms", written, contentKey, System.currentTimeMillis() - start);
+            return written;
+        } catch (IOException e)
+        {
+            log.warn("Failed to generate renditions of {}: {}", contentKey, e.getMessage());
+            return 0;
+        }
+    }
+
+    private void schedule(String contentKey)
+    {
+        if (!pending.add(contentKey))
+        {
+            return;
+        }
+        try {
+            renditionExecutor.execute(() -> {
+                try {
+                    generate(contentKey);
+                } catch (Exception e)
+                {
+                    log.warn("Rendition job for {} failed: {}", contentKey, e.getMessage());
+                } finally {
+                    pending.remove(contentKey);
+                }
+            });
+        } catch (RejectedExecutionException e)
+        {
+            pending.remove(contentKey);
+            log.warn("Rendition queue full, {} will be generated on first request", contentKey);
+        }
+    }
+
+    private static String renditionFileName(String fileName, String variant)
+    {
+        String baseName = fileName != null ? fileName : "image";
+        int dot = baseName.lastIndexOf('.');
+        if (dot > 0)
+        {
+            baseName = baseName.substring(0, dot);
+        }
+        return baseName + "-" + variant + ".jpg";
+    }
+}
@@ -22,6 +22,8 @@ public class DocumentServiceHelper
 {
 
     private final UserRepository userRepository;
+    private final DocumentContentService documentContentService;
+    private final PhotoSimilarityIndex photoSimilarityIndex;
 
     /**
      * Validate upload input parameters
@@ -68,15 +70,27 @@ public class DocumentServiceHelper
     public Document createDocumentEntity(User user, MultipartFile file, DocumentType documentType,
                                        String description, FileProcessingResult processingResult)
     {
-        return Document.builder()
+        return createDocumentEntity(user, file.getOriginalFilename(), file.getContentType(), documentType,
+                description, processingResult);
+    }
+
+    /**
+     * Create document entity from upload data that is no longer backed by the multipart request
+     */
+    public Document createDocumentEntity(User user, String fileName, String contentType, DocumentType documentType,
+                                       String description, FileProcessingResult processingResult)
+    {
+        Document document = Document.builder()
                 .documentType(documentType)
-                .fileName(file.getOriginalFilename())
+                .fileName(fileName)
                 .description(description != null ? description.trim() : null)
                 .fileSize(processingResult.getProcessedSize())
-                .contentType(file.getContentType())
-                .fileData(processingResult.getProcessedData())
+                .contentType(contentType)
                 .user(user)
                 .build();
+        documentContentService.store(document, processingResult);
+        photoSimilarityIndex.assignPerceptualHash(document);
+        return document;
     }
 
     /**
@@ -84,10 +98,20 @@ public class DocumentServiceHelper
      */
     public void updateDocumentFileData(Document document, MultipartFile file, FileProcessingResult processingResult)
     {
-        document.setFileName(file.getOriginalFilename());
+        updateDocumentFileData(document, file.getOriginalFilename(), file.getContentType(), processingResult);
+    }
+
+    /**
+     * Update document file data from upload data that is no longer backed by the multipart request
+     */
+    public void updateDocumentFileData(Document document, String fileName, String contentType,
+                                       FileProcessingResult processingResult)
+    {
+        document.setFileName(fileName);
         document.setFileSize(processingResult.getProcessedSize());
-        document.setContentType(file.getContentType());
-        document.setFileData(processingResult.getProcessedData());
+        document.setContentType(contentType);
+        documentContentService.store(document, processingResult);
+        photoSimilarityIndex.assignPerceptualHash(document);
     }
 
     /**
@@ -0,0 +1,318 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.DocumentRepository;
+import com.spring.jwt.Document.DocumentUploadJobRepository;
+import com.spring.jwt.Document.domain.FileProcessingResult;
+import com.spring.jwt.Document.domain.StagedUpload;
+import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.entity.Document;
+import com.spring.jwt.entity.DocumentUploadJob;
+import com.spring.jwt.entity.Enums.UploadStatus;
+import com.spring.jwt.entity.User;
+import com.spring.jwt.exception.DocumentAlreadyExistsException;
+import com.spring.jwt.exception.DocumentNotFoundException;
+import com.spring.jwt.exception.UnauthorizedAccessException;
+import com.spring.jwt.exception.UploadQueueFullException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bounded queue for asynchronous document uploads
+ *
+ * The request thread only validates the upload, streams it to a temp file
+ * ({@link UploadStagingService}), records a PENDING job and hands the file to the
+ * {@code documentUploadExecutor}; compression and storage run on
+ * that pool, which is sized to the CPU. When the queue is full the upload is
+ * rejected straight away with {@link UploadQueueFullException} (429) instead of
+ * tying up a request thread. Jobs move PENDING, PROCESSING, then READY or FAILED.
+ *
+ * Nothing but the job row survives a restart, so jobs still PENDING or PROCESSING
+ * after {@code stale-job-minutes} are marked FAILED and their staged files removed,
+ * and finished jobs are purged after {@code job-retention-hours}.
+ */
+@Component
+@Slf4j
+public class DocumentUploadQueue
+{
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final DocumentUploadJobRepository jobRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentServiceHelper documentServiceHelper;
+    private final FileValidationService fileValidationService;
+    private final DocumentSecurityService documentSecurityService;
+    private final UploadDeduplicationService uploadDeduplicationService;
+    private final UploadStagingService uploadStagingService;
+    private final DocumentPipelineMetrics pipelineMetrics;
+    private final DocumentProperties documentProperties;
+    private final ThreadPoolTaskExecutor uploadExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    public DocumentUploadQueue(DocumentUploadJobRepository jobRepository,
+                               DocumentRepository documentRepository,
+                               DocumentServiceHelper documentServiceHelper,
+                               FileValidationService fileValidationService,
+                               DocumentSecurityService documentSecurityService,
+                               UploadDeduplicationService uploadDeduplicationService,
+                               UploadStagingService uploadStagingService,
+                               DocumentPipelineMetrics pipelineMetrics,
+                               DocumentProperties documentProperties,
+                               @Qualifier("documentUploadExecutor") ThreadPoolTaskExecutor uploadExecutor,
+                               PlatformTransactionManager transactionManager)
+    {
+        this.jobRepository = jobRepository;
+        this.documentRepository = documentRepository;
+        this.documentServiceHelper = documentServiceHelper;
+        this.fileValidationService = fileValidationService;
+        this.documentSecurityService = documentSecurityService;
+        this.uploadDeduplicationService = uploadDeduplicationService;
+        this.uploadStagingService = uploadStagingService;
+        this.pipelineMetrics = pipelineMetrics;
+        this.documentProperties = documentProperties;
+        this.uploadExecutor = uploadExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void bindMetrics()
+    {
+        pipelineMetrics.bindUploadExecutor(uploadExecutor);
+    }
+
+    /**
+     * Validate an upload and queue it for processing
+     *
+     * @param replace replace the user's existing document of the same type instead of failing
+     * @return the PENDING job
+     * @throws UploadQueueFullException if the queue has no room
+     */
+    public DocumentUploadJob submit(Integer userId, MultipartFile file, DocumentType documentType,
+                                    String description, boolean replace)
+    {
+        documentServiceHelper.validateUploadInputs(userId, file, documentType);
+        fileValidationService.validateFileForDocumentType(file, documentType);
+
+        if (!documentSecurityService.canUploadDocument(userId, documentType))
+        {
+            throw new UnauthorizedAccessException(
+                    String.format("User %d is not authorized to upload document type %s", userId, documentType));
+        }
+        if (!replace)
+        {
+            checkNotDuplicate(userId, documentType);
+        }
+        if (isFull())
+        {
+            throw rejected();
+        }
+
+        StagedUpload upload = uploadStagingService.stage(file);
+        DocumentUploadJob job;
+        try {
+            job = jobRepository.save(DocumentUploadJob.builder()
+                    .jobId(UUID.randomUUID().toString())
+                    .userId(userId)
+                    .documentType(documentType)
+                    .fileName(file.getOriginalFilename())
+                    .contentType(file.getContentType())
+                    .originalSize(upload.getSize())
+                    .status(UploadStatus.PENDING)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (RuntimeException e)
+        {
+            upload.close();
+            throw e;
+        }
+
+        long enqueuedAt = System.nanoTime();
+        String trimmedDescription = description != null ? description.trim() : null;
+        try {
+            uploadExecutor.execute(() -> process(job, upload, trimmedDescription, replace, enqueuedAt));
+        } catch (RejectedExecutionException e)
+        {
+            upload.close();
+            jobRepository.delete(job);
+            throw rejected();
+        }
+
+        pipelineMetrics.countJob("accepted");
+        log.info("Upload {} queued: user={}, type={}, file={}, size={}KB, queue={}",
+                job.getJobId(), userId, documentType, job.getFileName(), upload.getSize() / 1024,
+                uploadExecutor.getQueueSize());
+        return job;
+    }
+
+    /**
+     * Current state of a job owned by the user
+     */
+    public DocumentUploadJob getJob(Integer userId, String jobId)
+    {
+        return jobRepository.findByJobIdAndUserId(jobId, userId)
+                .orElseThrow(() -> new DocumentNotFoundException("Upload not found: " + jobId));
+    }
+
+    void process(DocumentUploadJob job, StagedUpload upload, String description, boolean replace, long enqueuedAt)
+    {
+        String kind = DocumentPipelineMetrics.kindOf(job.getContentType());
+        pipelineMetrics.recordStage(DocumentPipelineMetrics.QUEUE_WAIT, kind, System.nanoTime() - enqueuedAt);
+
+        if (!markProcessing(job.getJobId()))
+        {
+            log.warn("Upload {} is no longer pending, skipping", job.getJobId());
+            upload.close();
+            return;
+        }
+
+        try (upload)
+        {
+            FileProcessingResult result = uploadDeduplicationService.process(upload, job.getDocumentType());
+
+            long storeStart = System.nanoTime();
+            Integer documentId = transactionTemplate.execute(status -> persist(job, result, description, replace));
+            pipelineMetrics.recordStage(DocumentPipelineMetrics.STORE, kind, System.nanoTime() - storeStart);
+
+            finish(job.getJobId(), UploadStatus.READY, documentId, null);
+            pipelineMetrics.countJob("ready");
+            log.info("Upload {} ready as document {} ({})", job.getJobId(), documentId, result.getProcessingSummary());
+        } catch (Exception e)
+        {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Upload {} failed: {}", job.getJobId(), cause.getMessage(), cause);
+            finish(job.getJobId(), UploadStatus.FAILED, null, cause.getMessage());
+            pipelineMetrics.countJob("failed");
+        }
+    }
+
+    private Integer persist(DocumentUploadJob job, FileProcessingResult result, String description, boolean replace)
+    {
+        Integer userId = job.getUserId();
+        Optional<Document> existing = replace
+                ? documentRepository.findByUserIdAndDocumentType(userId, job.getDocumentType())
+                : Optional.empty();
+
+        Document document;
+        if (existing.isPresent())
+        {
+            document = existing.get();
+            if (!documentSecurityService.canModifyDocument(userId, document.getDocumentId()))
+            {
+                throw new UnauthorizedAccessException(
+                        String.format("User %d is not authorized to modify document %d", userId, document.getDocumentId()));
+            }
+            documentServiceHelper.updateDocumentFileData(document, job.getFileName(), job.getContentType(), result);
+            if (description != null && !description.isEmpty())
+            {
+                document.setDescription(description);
+            }
+        } else
+        {
+            checkNotDuplicate(userId, job.getDocumentType());
+            User user = documentServiceHelper.getUserById(userId);
+            document = documentServiceHelper.createDocumentEntity(user, job.getFileName(), job.getContentType(),
+                    job.getDocumentType(), description, result);
+        }
+        return documentRepository.save(document).getDocumentId();
+    }
+
+    private boolean markProcessing(String jobId)
+    {
+        Boolean started = transactionTemplate.execute(status -> jobRepository.findById(jobId)
+                .filter(job -> job.getStatus() == UploadStatus.PENDING)
+                .map(job -> {
+                    job.setStatus(UploadStatus.PROCESSING);
+                    job.setStartedAt(LocalDateTime.now());
+                    return true;
+                })
+                .orElse(false));
+        return Boolean.TRUE.equals(started);
+    }
+
+    private void finish(String jobId, UploadStatus status, Integer documentId, String errorMessage)
+    {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> jobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(status);
+                job.setDocumentId(documentId);
+                job.setErrorMessage(truncate(errorMessage));
+                job.setCompletedAt(LocalDateTime.now());
+            }));
+        } catch (Exception e)
+        {
+            log.error("Failed to record {} for upload {}: {}", status, jobId, e.getMessage());
+        }
+    }
+
+    private void checkNotDuplicate(Integer userId, DocumentType documentType)
+    {
+        if (!documentSecurityService.allowsMultipleUploads(documentType)
+                && documentRepository.existsByUserIdAndDocumentType(userId, documentType))
+        {
+            throw new DocumentAlreadyExistsException(
+                    String.format("Document type %s already exists for user %d", documentType, userId));
+        }
+    }
+
+    private boolean isFull()
+    {
+        return uploadExecutor.getQueueSize() >= uploadExecutor.getQueueCapacity();
+    }
+
+    private UploadQueueFullException rejected()
+    {
+        pipelineMetrics.countJob("rejected");
+        return new UploadQueueFullException("Too many uploads are being processed, please retry shortly",
+                documentProperties.getUpload().getRetryAfterSeconds());
+    }
+
+    private static String truncate(String message)
+    {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH)
+        {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Fail jobs lost to a restart and purge old finished jobs
+     */
+    @Scheduled(fixedDelayString = "${app.document.upload.cleanup-interval-ms:600000}",
+               initialDelayString = "${app.document.upload.cleanup-initial-delay-ms:60000}")
+    public void cleanUp()
+    {
+        DocumentProperties.UploadConfig upload = documentProperties.getUpload();
+        LocalDateTime now = LocalDateTime.now();
+        Integer failed = transactionTemplate.execute(status -> jobRepository.failStaleJobs(
+                List.of(UploadStatus.PENDING, UploadStatus.PROCESSING),
+                now.minusMinutes(upload.getStaleJobMinutes()),
+                "Upload was not processed in time, please upload again",
+                now));
+        Integer purged = transactionTemplate.execute(status -> jobRepository.deleteFinishedBefore(
+                List.of(UploadStatus.READY, UploadStatus.FAILED),
+                now.minusHours(upload.getJobRetentionHours())));
+        int staleFiles = uploadStagingService.purgeStale(Duration.ofMinutes(upload.getStaleJobMinutes()));
+        if ((failed != null && failed > 0) || (purged != null && purged > 0) || staleFiles > 0)
+        {
+            log.info("Upload jobs cleaned up: {} stale failed, {} purged, {} staged files removed",
+                    failed, purged, staleFiles);
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.spring.jwt.Document.Service;
 
 import com.spring.jwt.Document.domain.FileProcessingResult;
+import com.spring.jwt.Document.domain.StagedUpload;
 import com.spring.jwt.Enums.DocumentType;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -13,13 +13,28 @@ import java.util.concurrent.CompletableFuture;
 public interface FileProcessingService {
 
     /**
-     * Process file based on its type and document type
+     * Process file content that has already been read, e.g. for a queued upload
+     * whose multipart request is no longer available
      * 
-     * @param file the uploaded file
+     * @param fileData the file content
+     * @param contentType the MIME type of the content
+     * @param fileName the original file name, for logging
      * @param documentType the target document type
      * @return CompletableFuture containing processing result
      */
-    CompletableFuture<FileProcessingResult> processFile(MultipartFile file, DocumentType documentType);
+    CompletableFuture<FileProcessingResult> processContent(byte[] fileData, String contentType, String fileName,
+                                                           DocumentType documentType);
+
+    /**
+     * Process an upload that has been streamed to disk by {@link UploadStagingService}
+     * The result may refer to files of the staged upload, so it must be stored before
+     * the upload is closed
+     * 
+     * @param upload the staged upload
+     * @param documentType the target document type
+     * @return CompletableFuture containing processing result
+     */
+    CompletableFuture<FileProcessingResult> processStaged(StagedUpload upload, DocumentType documentType);
 
     /**
      * Process image file with compression and optimization
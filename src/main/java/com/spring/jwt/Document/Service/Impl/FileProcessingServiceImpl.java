@@ -2,6 +2,7 @@ package com.spring.jwt.Document.Service.Impl;
 
 import com.spring.jwt.Document.Service.FileProcessingService;
 import com.spring.jwt.Document.domain.FileProcessingResult;
+import com.spring.jwt.Document.domain.StagedUpload;
 import com.spring.jwt.Enums.DocumentType;
 import com.spring.jwt.config.DocumentProperties;
 import com.spring.jwt.exception.DocumentProcessingException;
@@ -10,8 +11,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -27,13 +28,10 @@ public class FileProcessingServiceImpl implements FileProcessingService {
     private final ImageOptimizationService imageOptimizationService;
 
     @Override
-    @Async("documentProcessingExecutor")
-    public CompletableFuture<FileProcessingResult> processFile(MultipartFile file, DocumentType documentType) {
+    public CompletableFuture<FileProcessingResult> processContent(byte[] originalData, String contentType,
+                                                                  String fileName, DocumentType documentType) {
         try {
-            log.debug("Processing file: {} for document type: {}", file.getOriginalFilename(), documentType);
-
-            byte[] originalData = file.getBytes();
-            String contentType = file.getContentType();
+            log.debug("Processing file: {} for document type: {}", fileName, documentType);
 
             FileProcessingResult result;
 
@@ -57,7 +55,21 @@ public class FileProcessingServiceImpl implements FileProcessingService {
             return CompletableFuture.completedFuture(result);
 
         } catch (IOException e) {
-            log.error("Failed to process file: {}", file.getOriginalFilename(), e);
+            log.error("Failed to process file: {}", fileName, e);
+            throw new DocumentProcessingException("Failed to process file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * This implementation works on bytes, so the staged file is read into memory
+     */
+    @Override
+    public CompletableFuture<FileProcessingResult> processStaged(StagedUpload upload, DocumentType documentType) {
+        try {
+            return processContent(Files.readAllBytes(upload.getFile()), upload.getContentType(),
+                    upload.getFileName(), documentType);
+        } catch (IOException e) {
+            log.error("Failed to process file: {}", upload.getFileName(), e);
             throw new DocumentProcessingException("Failed to process file: " + e.getMessage(), e);
         }
     }
@@ -3,6 +3,7 @@ package com.spring.jwt.Document.Service.Impl;
 import com.spring.jwt.Document.Service.FileProcessingService;
 import com.spring.jwt.utils.ImageOptimizationService;
 import com.spring.jwt.Document.domain.FileProcessingResult;
+import com.spring.jwt.Document.domain.StagedUpload;
 import com.spring.jwt.Enums.DocumentType;
 import com.spring.jwt.config.DocumentProperties;
 import com.spring.jwt.exception.DocumentProcessingException;
@@ -10,9 +11,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -30,13 +32,12 @@ public class OptimizedFileProcessingServiceImpl implements FileProcessingService
     private final ImageOptimizationService imageOptimizationService;
 
     @Override
-    public CompletableFuture<FileProcessingResult> processFile(MultipartFile file, DocumentType documentType)
+    public CompletableFuture<FileProcessingResult> processContent(byte[] originalData, String contentType,
+                                                                  String fileName, DocumentType documentType)
     {
         try {
             long startTime = System.currentTimeMillis();
 
-            byte[] originalData = file.getBytes();
-            String contentType = file.getContentType();
             long originalSize = originalData.length;
 
             if ("application/pdf".equals(contentType))
@@ -58,7 +59,7 @@ public class OptimizedFileProcessingServiceImpl implements FileProcessingService
             if (!imageOptimizationService.needsProcessing(originalSize, contentType))
             {
                 log.info("File {} is small enough according to configuration, skipping processing",
-                        file.getOriginalFilename());
+                        fileName);
 
                 FileProcessingResult result = FileProcessingResult.builder()
                         .processedData(originalData)
@@ -99,11 +100,91 @@ public class OptimizedFileProcessingServiceImpl implements FileProcessingService
 
         } catch (IOException e)
         {
-            log.error("Optimized processing failed for file: {}", file.getOriginalFilename(), e);
+            log.error("Optimized processing failed for file: {}", fileName, e);
             throw new DocumentProcessingException("Optimized processing failed: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Process a staged upload without reading it onto the heap
+     * Images are decoded from the file with subsampling and PDFs are rewritten file to
+     * file; an upload that needs no processing is stored straight from its temp file
+     */
+    @Override
+    public CompletableFuture<FileProcessingResult> processStaged(StagedUpload upload, DocumentType documentType)
+    {
+        try {
+            long startTime = System.currentTimeMillis();
+
+            String contentType = upload.getContentType();
+            long originalSize = upload.getSize();
+
+            if (!documentProperties.isSupportedFileType(contentType))
+            {
+                throw new DocumentProcessingException("Unsupported file type: " + contentType);
+            }
+
+            if (!imageOptimizationService.needsProcessing(originalSize, contentType))
+            {
+                log.info("File {} is small enough according to configuration, skipping processing",
+                        upload.getFileName());
+
+                return CompletableFuture.completedFuture(unchanged(upload, "NO_PROCESSING",
+                        "File size acceptable, processing skipped for performance"));
+            }
+
+            FileProcessingResult result;
+            if ("application/pdf".equals(contentType))
+            {
+                Path compressed = upload.createWorkFile(".pdf");
+                result = imageOptimizationService.compressPdf(upload.getFile(), compressed)
+                        ? FileProcessingResult.builder()
+                                .processedFile(compressed)
+                                .originalSize(originalSize)
+                                .processedSize(Files.size(compressed))
+                                .processingType("UNIFIED_OPTIMIZATION")
+                                .processingDetails("Streamed PDF compression")
+                                .build()
+                        : unchanged(upload, "UNIFIED_OPTIMIZATION", "PDF could not be made smaller");
+            } else
+            {
+                byte[] processedData = imageOptimizationService.compressImage(upload.getFile(), documentType.name());
+                result = processedData != null
+                        ? FileProcessingResult.builder()
+                                .processedData(processedData)
+                                .originalSize(originalSize)
+                                .processedSize((long) processedData.length)
+                                .processingType("UNIFIED_OPTIMIZATION")
+                                .processingDetails(String.format("Smart compression (Target: %dKB)",
+                                        documentProperties.getFileSize().getTargetFileSizeKb()))
+                                .build()
+                        : unchanged(upload, "UNIFIED_OPTIMIZATION", "Image could not be decoded, stored as uploaded");
+            }
+
+            long processingTime = System.currentTimeMillis() - startTime;
+            log.info("Optimized file processing completed in {}ms: {}", processingTime, result.getProcessingSummary());
+
+            return CompletableFuture.completedFuture(result);
+
+        } catch (IOException e)
+        {
+            log.error("Optimized processing failed for file: {}", upload.getFileName(), e);
+            throw new DocumentProcessingException("Optimized processing failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static FileProcessingResult unchanged(StagedUpload upload, String processingType, String details)
+    {
+        return FileProcessingResult.builder()
+                .processedFile(upload.getFile())
+                .contentKey(upload.getSha256())
+                .originalSize(upload.getSize())
+                .processedSize(upload.getSize())
+                .processingType(processingType)
+                .processingDetails(details)
+                .build();
+    }
+
     @Override
     public CompletableFuture<FileProcessingResult> processImage(byte[] fileData, DocumentType documentType)
     {
@@ -0,0 +1,473 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.DocumentRepository;
+import com.spring.jwt.Document.domain.HammingBkTree;
+import com.spring.jwt.Document.domain.PhotoHash;
+import com.spring.jwt.Document.domain.SimilarPhoto;
+import com.spring.jwt.Document.storage.DocumentContentStore;
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.entity.Document;
+import com.spring.jwt.exception.DocumentNotFoundException;
+import com.spring.jwt.utils.ImageOptimizationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of image perceptual hashes for finding duplicate photos across users
+ *
+ * Uploaded images get a 64-bit pHash in the upload transaction; shared content reuses
+ * the hash of another document with the same content key instead of decoding again.
+ * The hashes live in a {@link HammingBkTree} so "photos within distance d of this one"
+ * is answered without scanning every document. The index is loaded on startup and
+ * then kept up to date as documents are stored and deleted on this node; a periodic
+ * reload picks up changes made by other nodes, and results are checked against the
+ * database so a stale entry is never returned. Images stored before hashing existed
+ * are hashed in the background in chunks, like {@link DocumentBlobMigrator}.
+ */
+@Component
+@Slf4j
+public class PhotoSimilarityIndex
+{
+
+    private static final String IMAGE_PREFIX = "image/";
+
+    private final DocumentRepository documentRepository;
+    private final DocumentContentStore contentStore;
+    private final ImageOptimizationService imageOptimizationService;
+    private final DocumentProperties documentProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private HammingBkTree tree = new HammingBkTree();
+    private Map<Integer, Long> hashes = new HashMap<>();
+    // Changes made while a reload is running, replayed onto the reloaded index
+    private Map<Integer, Long> changesDuringReload;
+
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+    private final AtomicLong backfilled = new AtomicLong();
+    private volatile LocalDateTime lastReloadedAt;
+
+    public PhotoSimilarityIndex(DocumentRepository documentRepository,
+                                DocumentContentStore contentStore,
+                                ImageOptimizationService imageOptimizationService,
+                                DocumentProperties documentProperties,
+                                PlatformTransactionManager transactionManager)
+    {
+        this.documentRepository = documentRepository;
+        this.contentStore = contentStore;
+        this.imageOptimizationService = imageOptimizationService;
+        this.documentProperties = documentProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Set the perceptual hash of a document for its current content, and index it once
+     * the current transaction commits
+     */
+    public void assignPerceptualHash(Document document)
+    {
+        if (!documentProperties.getSimilarity().isEnabled())
+        {
+            return;
+        }
+        // Cleared first so the lookup by content key cannot find this document's old hash
+        document.setPerceptualHash(null);
+        document.setPerceptualHashFailedAt(null);
+        document.setPerceptualHash(hashFor(document.getContentKey(), document.getContentType()));
+        afterCommit(() -> {
+            if (document.getDocumentId() != null)
+            {
+                update(document.getDocumentId(), document.getPerceptualHash());
+            }
+        });
+    }
+
+    /**
+     * Drop a document from the index once the current transaction commits
+     */
+    public void removeAfterCommit(Integer documentId)
+    {
+        if (documentId != null)
+        {
+            afterCommit(() -> update(documentId, null));
+        }
+    }
+
+    /**
+     * Documents whose image is within {@code maxDistance} of the given document's,
+     * closest first, excluding the document itself
+     */
+    public List<SimilarPhoto> findSimilar(Integer documentId, Integer maxDistance, Integer limit)
+    {
+        Long hash = documentRepository.findPerceptualHash(documentId);
+        if (hash == null)
+        {
+            throw new DocumentNotFoundException("No hashed image found with document ID: " + documentId);
+        }
+        return findSimilar(hash, maxDistance, limit, documentId);
+    }
+
+    /**
+     * Documents whose image is within {@code maxDistance} of the given hash, closest first
+     */
+    public List<SimilarPhoto> findSimilar(long hash, Integer maxDistance, Integer limit, Integer excludedDocumentId)
+    {
+        DocumentProperties.SimilarityConfig config = documentProperties.getSimilarity();
+        int distance = Math.min(64, maxDistance != null ? maxDistance : config.getDefaultMaxDistance());
+        int resultLimit = Math.min(config.getMaxResults(), limit != null ? limit : config.getMaxResults());
+
+        List<HammingBkTree.Match> matches;
+        lock.readLock().lock();
+        try {
+            matches = tree.search(hash, distance);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // A few extra candidates make up for entries that turn out to be stale
+        List<Integer> candidates = matches.stream()
+                .filter(match -> !Integer.valueOf(match.documentId()).equals(excludedDocumentId))
+                .sorted(Comparator.comparingInt(HammingBkTree.Match::distance))
+                .limit(resultLimit * 2L)
+                .map(HammingBkTree.Match::documentId)
+                .toList();
+        if (candidates.isEmpty())
+        {
+            return List.of();
+        }
+
+        return documentRepository.findSimilarPhotos(candidates).stream()
+                .peek(photo -> photo.setDistance(HammingBkTree.distance(hash, photo.getPerceptualHash())))
+                .filter(photo -> photo.getDistance() <= distance)
+                .sorted(Comparator.comparingInt(SimilarPhoto::getDistance).thenComparing(SimilarPhoto::getDocumentId))
+                .limit(resultLimit)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup()
+    {
+        if (documentProperties.getSimilarity().isEnabled())
+        {
+            reload();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.document.similarity.reload-interval-ms:1800000}",
+               initialDelayString = "${app.document.similarity.reload-interval-ms:1800000}")
+    public void reloadScheduled()
+    {
+        if (documentProperties.getSimilarity().isEnabled())
+        {
+            reload();
+        }
+    }
+
+    /**
+     * Reload the index from the database in chunks, while the current index keeps serving
+     *
+     * @return number of indexed documents, or -1 if a reload is already running
+     */
+    public int reload()
+    {
+        if (!reloading.compareAndSet(false, true))
+        {
+            return -1;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                changesDuringReload = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            HammingBkTree reloadedTree = new HammingBkTree();
+            Map<Integer, Long> reloadedHashes = new HashMap<>();
+            int batchSize = documentProperties.getSimilarity().getBatchSize();
+            Integer afterId = 0;
+            List<PhotoHash> chunk;
+            do {
+                chunk = documentRepository.findPhotoHashes(afterId, PageRequest.of(0, batchSize));
+                for (PhotoHash photoHash : chunk)
+                {
+                    apply(reloadedTree, reloadedHashes, photoHash.documentId(), photoHash.perceptualHash());
+                    afterId = photoHash.documentId();
+                }
+            } while (chunk.size() == batchSize);
+
+            lock.writeLock().lock();
+            try {
+                changesDuringReload.forEach((documentId, hash) -> apply(reloadedTree, reloadedHashes, documentId, hash));
+                tree = reloadedTree;
+                hashes = reloadedHashes;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            lastReloadedAt = LocalDateTime.now();
+            log.info("Loaded {} image hashes into the duplicate photo index in {}ms",
+                    reloadedTree.size(), System.currentTimeMillis() - start);
+            return reloadedTree.size();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changesDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            reloading.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.document.similarity.backfill-interval-ms:300000}",
+               initialDelayString = "${app.document.similarity.backfill-initial-delay-ms:120000}")
+    public void backfillScheduled()
+    {
+        DocumentProperties.SimilarityConfig config = documentProperties.getSimilarity();
+        if (config.isEnabled() && config.isBackfillEnabled())
+        {
+            backfill();
+        }
+    }
+
+    /**
+     * Hash images stored before perceptual hashing existed, one pass in ID order
+     * An image that cannot be decoded is marked as failed and left out of later passes;
+     * one whose content cannot be loaded is tried again on the next pass
+     *
+     * @return number of documents hashed, or -1 if a pass is already running
+     */
+    public int backfill()
+    {
+        if (!backfilling.compareAndSet(false, true))
+        {
+            return -1;
+        }
+        try {
+            int batchSize = documentProperties.getSimilarity().getBatchSize();
+            int hashedThisPass = 0;
+            Integer afterId = 0;
+            List<Integer> chunk;
+            do {
+                chunk = documentRepository.findIdsWithoutPerceptualHash(afterId, PageRequest.of(0, batchSize));
+                for (Integer documentId : chunk)
+                {
+                    if (backfillDocument(documentId))
+                    {
+                        hashedThisPass++;
+                    }
+                    afterId = documentId;
+                }
+            } while (chunk.size() == batchSize);
+
+            if (hashedThisPass > 0)
+            {
+                log.info("Hashed {} existing images for the duplicate photo index", hashedThisPass);
+            }
+            return hashedThisPass;
+        } finally {
+            backfilling.set(false);
+        }
+    }
+
+    /**
+     * Current size and state of the index
+     */
+    public Map<String, Object> getStats()
+    {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("indexed", tree.size());
+            stats.put("nodes", tree.nodes());
+            stats.put("emptyNodes", tree.emptyNodes());
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("reloading", reloading.get());
+        stats.put("lastReloadedAt", lastReloadedAt);
+        stats.put("backfilling", backfilling.get());
+        stats.put("backfilled", backfilled.get());
+        return stats;
+    }
+
+    private Long hashFor(String contentKey, String contentType)
+    {
+        if (contentKey == null || contentType == null || !contentType.startsWith(IMAGE_PREFIX))
+        {
+            return null;
+        }
+        Long known = knownHash(contentKey);
+        if (known != null)
+        {
+            return known;
+        }
+        try {
+            Optional<Path> file = contentStore.findFile(contentKey);
+            return file.isPresent()
+                    ? imageOptimizationService.perceptualHash(file.get())
+                    : imageOptimizationService.perceptualHash(contentStore.get(contentKey));
+        } catch (IOException | RuntimeException e)
+        {
+            log.warn("Failed to hash image content {}: {}", contentKey, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Hash of another document with the same content, or null if there is none
+     */
+    private Long knownHash(String contentKey)
+    {
+        List<Long> known = documentRepository.findPerceptualHashesByContentKey(contentKey, PageRequest.of(0, 1));
+        return known.isEmpty() ? null : known.get(0);
+    }
+
+    private boolean backfillDocument(Integer documentId)
+    {
+        try {
+            Optional<Document> document = documentRepository.findById(documentId);
+            if (document.isEmpty())
+            {
+                return false;
+            }
+            Long hash = backfillHash(document.get());
+            if (hash == null)
+            {
+                log.info("Document {} is not a decodable image, leaving it out of later backfills", documentId);
+                transactionTemplate.execute(status ->
+                        documentRepository.markPerceptualHashFailed(documentId, LocalDateTime.now()));
+                return false;
+            }
+            Integer updated = transactionTemplate.execute(status -> documentRepository.setPerceptualHash(documentId, hash));
+            if (updated != null && updated == 1)
+            {
+                update(documentId, hash);
+                backfilled.incrementAndGet();
+                return true;
+            }
+            return false;
+        } catch (Exception e)
+        {
+            log.warn("Failed to hash document {}: {}", documentId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Hash of a document's content, or null if it is not a decodable image
+     * Failures to load the content propagate, so the document is tried again next pass
+     */
+    private Long backfillHash(Document document)
+    {
+        String contentKey = document.getContentKey();
+        Long known = contentKey != null ? knownHash(contentKey) : null;
+        if (known != null)
+        {
+            return known;
+        }
+        Optional<Path> file = contentKey != null ? contentStore.findFile(contentKey) : Optional.empty();
+        byte[] content = file.isPresent() ? null
+                : contentKey != null ? contentStore.get(contentKey) : documentRepository.findInlineContent(document.getDocumentId());
+        return decodeHash(document.getDocumentId(), file, content);
+    }
+
+    /**
+     * Hash of loaded content, or null if it is not a decodable image
+     */
+    private Long decodeHash(Integer documentId, Optional<Path> file, byte[] content)
+    {
+        try {
+            return file.isPresent()
+                    ? imageOptimizationService.perceptualHash(file.get())
+                    : imageOptimizationService.perceptualHash(content);
+        } catch (IOException | RuntimeException e)
+        {
+            log.debug("Document {} could not be decoded: {}", documentId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Index a document under a hash, or drop it when the hash is null
+     */
+    void update(Integer documentId, Long hash)
+    {
+        lock.writeLock().lock();
+        try {
+            apply(tree, hashes, documentId, hash);
+            if (changesDuringReload != null)
+            {
+                changesDuringReload.put(documentId, hash);
+            }
+            // Removals leave empty nodes behind; rebuild once they outnumber the documents
+            if (tree.emptyNodes() > Math.max(1024, tree.size()))
+            {
+                HammingBkTree rebuilt = new HammingBkTree();
+                hashes.forEach((id, value) -> rebuilt.add(value, id));
+                tree = rebuilt;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(HammingBkTree tree, Map<Integer, Long> hashes, Integer documentId, Long hash)
+    {
+        Long previous = hash != null ? hashes.put(documentId, hash) : hashes.remove(documentId);
+        if (previous != null && previous.equals(hash))
+        {
+            return;
+        }
+        if (previous != null)
+        {
+            tree.remove(previous, documentId);
+        }
+        if (hash != null)
+        {
+            tree.add(hash, documentId);
+        }
+    }
+
+    private static void afterCommit(Runnable action)
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    action.run();
+                }
+            });
+        } else
+        {
+            action.run();
+        }
+    }
+}
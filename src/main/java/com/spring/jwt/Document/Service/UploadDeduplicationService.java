@@ -0,0 +1,182 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.ProcessedUploadRepository;
+import com.spring.jwt.Document.domain.FileProcessingResult;
+import com.spring.jwt.Document.domain.StagedUpload;
+import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.entity.ProcessedUpload;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Skips processing of uploads that were already processed
+ *
+ * A processed upload is recorded under the SHA-256 of the original (computed while
+ * staging) and a hash of everything that affects the result: the document type, the
+ * sniffed content type and the processing settings. An upload matching a record is
+ * not decoded or re-encoded; the document points at the stored result instead. The
+ * stored content is shared through reference counting in {@link DocumentContentService},
+ * so it is deleted only once no document uses it, and its records go with it. A reused
+ * result holds a reference of its own from the lookup until the staged upload is closed.
+ */
+@Component
+@Slf4j
+public class UploadDeduplicationService
+{
+
+    /**
+     * Bump when processing changes in a way the settings below do not capture,
+     * so earlier results are no longer reused
+     */
+    static final String SETTINGS_VERSION = "1";
+
+    static final String DEDUPLICATED = "DEDUPLICATED";
+
+    private final ProcessedUploadRepository processedUploadRepository;
+    private final FileProcessingService fileProcessingService;
+    private final DocumentContentService documentContentService;
+    private final DocumentPipelineMetrics pipelineMetrics;
+    private final DocumentProperties documentProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    public UploadDeduplicationService(ProcessedUploadRepository processedUploadRepository,
+                                      FileProcessingService fileProcessingService,
+                                      DocumentContentService documentContentService,
+                                      DocumentPipelineMetrics pipelineMetrics,
+                                      DocumentProperties documentProperties,
+                                      PlatformTransactionManager transactionManager)
+    {
+        this.processedUploadRepository = processedUploadRepository;
+        this.fileProcessingService = fileProcessingService;
+        this.documentContentService = documentContentService;
+        this.pipelineMetrics = pipelineMetrics;
+        this.documentProperties = documentProperties;
+        // Records are kept even if the upload that created them fails later on
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Process a staged upload, or reuse the result of an identical earlier upload
+     *
+     * @return the processing result; when deduplication is enabled it only carries the
+     *         content key of the stored result
+     */
+    public FileProcessingResult process(StagedUpload upload, DocumentType documentType)
+    {
+        if (!documentProperties.getDedup().isEnabled())
+        {
+            return fileProcessingService.processStaged(upload, documentType).join();
+        }
+
+        String settingsHash = settingsHash(documentType, upload.getContentType());
+        Optional<ProcessedUpload> previous = reuse(upload, settingsHash);
+        if (previous.isPresent())
+        {
+            ProcessedUpload processed = previous.get();
+            pipelineMetrics.countDedup(true);
+            // Keep the content alive until the caller has attached it to its document
+            upload.onClose(() -> documentContentService.releaseAfterCompletion(processed.getContentKey()));
+            log.debug("Upload {} matches processed upload {}, reusing {}",
+                    upload.getFileName(), processed.getId(), processed.getContentKey());
+            return FileProcessingResult.builder()
+                    .contentKey(processed.getContentKey())
+                    .originalSize(upload.getSize())
+                    .processedSize(processed.getProcessedSize())
+                    .processingType(DEDUPLICATED)
+                    .processingDetails("Reused " + processed.getProcessingType() + " result")
+                    .build();
+        }
+
+        pipelineMetrics.countDedup(false);
+        FileProcessingResult result = fileProcessingService.processStaged(upload, documentType).join();
+        String contentKey = documentContentService.put(result);
+        record(upload, settingsHash, contentKey, result);
+        return FileProcessingResult.builder()
+                .contentKey(contentKey)
+                .originalSize(result.getOriginalSize())
+                .processedSize(result.getProcessedSize())
+                .processingType(result.getProcessingType())
+                .compressionRatio(result.getCompressionRatio())
+                .processingDetails(result.getProcessingDetails())
+                .build();
+    }
+
+    /**
+     * Find an earlier result for the upload and take a reference to its content in the
+     * same transaction, so that releasing the last document using it cannot delete the
+     * content before this upload's document is saved
+     */
+    private Optional<ProcessedUpload> reuse(StagedUpload upload, String settingsHash)
+    {
+        Optional<ProcessedUpload> reused = transactionTemplate.execute(status -> processedUploadRepository
+                .findByOriginalHashAndSettingsHash(upload.getSha256(), settingsHash)
+                .filter(processed -> documentContentService.acquireIfExists(processed.getContentKey()))
+                .map(processed -> {
+                    processedUploadRepository.recordHit(processed.getId(), LocalDateTime.now());
+                    return processed;
+                }));
+        return reused != null ? reused : Optional.empty();
+    }
+
+    private void record(StagedUpload upload, String settingsHash, String contentKey, FileProcessingResult result)
+    {
+        try {
+            transactionTemplate.executeWithoutResult(status -> processedUploadRepository.save(ProcessedUpload.builder()
+                    .originalHash(upload.getSha256())
+                    .settingsHash(settingsHash)
+                    .contentKey(contentKey)
+                    .originalSize(result.getOriginalSize())
+                    .processedSize(result.getProcessedSize())
+                    .processingType(result.getProcessingType())
+                    .hitCount(0L)
+                    .createdAt(LocalDateTime.now())
+                    .build()));
+        } catch (DataIntegrityViolationException e)
+        {
+            // The same upload was processed concurrently and recorded first
+            log.debug("Processed upload {} already recorded", upload.getSha256());
+        }
+    }
+
+    /**
+     * Hash of everything besides the original's bytes that determines the processed result
+     */
+    String settingsHash(DocumentType documentType, String contentType)
+    {
+        DocumentProperties.ImageConfig image = documentProperties.getImage();
+        DocumentProperties.PdfConfig pdf = documentProperties.getPdf();
+        String settings = String.join("|",
+                SETTINGS_VERSION,
+                documentType.name(),
+                String.valueOf(contentType),
+                String.valueOf(documentProperties.getFileSize().getTargetFileSizeKb()),
+                String.valueOf(image.getMaxWidth()),
+                String.valueOf(image.getMaxHeight()),
+                String.valueOf(image.getProfilePhotoSize()),
+                String.valueOf(image.getMaxSizeKb()),
+                String.valueOf(image.getProfilePhotoMaxSizeKb()),
+                String.valueOf(image.isPredictiveQuality()),
+                String.valueOf(pdf.getCompressionLevel()),
+                String.valueOf(pdf.getMaxSizeKb()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(settings.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
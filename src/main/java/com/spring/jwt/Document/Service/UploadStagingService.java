@@ -0,0 +1,252 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.domain.StagedUpload;
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.exception.DocumentProcessingException;
+import com.spring.jwt.exception.InvalidDocumentException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Streams uploads to temp files instead of reading them with {@code getBytes()}
+ *
+ * The upload is copied in fixed-size chunks, so the heap used per upload does not
+ * depend on the file size. While copying, the size limit for the declared type is
+ * enforced (the copy stops as soon as it is exceeded), the SHA-256 is computed and
+ * the first bytes are kept to sniff the real content type. Temp files live in the
+ * content store's {@code tmp} directory, on the same filesystem as the store.
+ */
+@Component
+@Slf4j
+public class UploadStagingService
+{
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SNIFF_LENGTH = 16;
+    private static final String STAGED_PREFIX = "upload-";
+
+    private final DocumentProperties documentProperties;
+    private final Path stagingDirectory;
+
+    public UploadStagingService(DocumentProperties documentProperties)
+    {
+        this.documentProperties = documentProperties;
+        this.stagingDirectory = Paths.get(documentProperties.getStorage().getRootDirectory())
+                .toAbsolutePath().normalize().resolve("tmp");
+    }
+
+    /**
+     * Stream an upload to a temp file
+     *
+     * @throws InvalidDocumentException if the upload is larger than allowed for its type,
+     *         or its content is not the supported type it claims to be
+     */
+    public StagedUpload stage(MultipartFile file)
+    {
+        String declaredType = file.getContentType();
+        long maxBytes = maxBytesFor(declaredType);
+        if (file.getSize() > maxBytes)
+        {
+            throw tooLarge(declaredType, maxBytes);
+        }
+
+        Path staged = null;
+        try {
+            Files.createDirectories(stagingDirectory);
+            staged = Files.createTempFile(stagingDirectory, STAGED_PREFIX, ".part");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] header = new byte[SNIFF_LENGTH];
+            int headerLength = 0;
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream in = file.getInputStream();
+                 OutputStream out = Files.newOutputStream(staged))
+            {
+                int read;
+                while ((read = in.read(buffer)) != -1)
+                {
+                    size += read;
+                    if (size > maxBytes)
+                    {
+                        throw tooLarge(declaredType, maxBytes);
+                    }
+                    if (headerLength < SNIFF_LENGTH)
+                    {
+                        int copied = Math.min(read, SNIFF_LENGTH - headerLength);
+                        System.arraycopy(buffer, 0, header, headerLength, copied);
+                        headerLength += copied;
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            String sniffedType = sniffContentType(Arrays.copyOf(header, headerLength));
+            checkContentMatches(declaredType, sniffedType);
+
+            StagedUpload upload = new StagedUpload(staged, size, HexFormat.of().formatHex(digest.digest()),
+                    sniffedType, file.getOriginalFilename());
+            log.debug("Staged upload {} ({} bytes, {}) as {}", file.getOriginalFilename(), size, sniffedType,
+                    staged.getFileName());
+            return upload;
+        } catch (IOException e)
+        {
+            deleteQuietly(staged);
+            throw new DocumentProcessingException("Failed to read uploaded file: " + e.getMessage(), e);
+        } catch (NoSuchAlgorithmException e)
+        {
+            deleteQuietly(staged);
+            throw new IllegalStateException("SHA-256 not available", e);
+        } catch (RuntimeException e)
+        {
+            deleteQuietly(staged);
+            throw e;
+        }
+    }
+
+    /**
+     * Largest upload accepted for a content type: the type's input limit, capped by
+     * the global maximum
+     */
+    public long maxBytesFor(String contentType)
+    {
+        long maxBytes = documentProperties.getFileSize().getMaxFileSizeBytes();
+        if ("application/pdf".equals(contentType))
+        {
+            return Math.min(maxBytes, documentProperties.getPdf().getMaxInputSizeBytes());
+        }
+        if (documentProperties.isSupportedImageType(contentType))
+        {
+            return Math.min(maxBytes, documentProperties.getImage().getMaxInputSizeBytes());
+        }
+        return maxBytes;
+    }
+
+    /**
+     * Content type from the file signature, or null if it is not a supported format
+     */
+    public static String sniffContentType(byte[] header)
+    {
+        if (startsWith(header, 0, (byte) 0xFF, (byte) 0xD8, (byte) 0xFF))
+        {
+            return "image/jpeg";
+        }
+        if (startsWith(header, 0, (byte) 0x89, (byte) 'P', (byte) 'N', (byte) 'G', (byte) 0x0D, (byte) 0x0A,
+                (byte) 0x1A, (byte) 0x0A))
+        {
+            return "image/png";
+        }
+        if (startsWith(header, 0, ascii("RIFF")) && startsWith(header, 8, ascii("WEBP")))
+        {
+            return "image/webp";
+        }
+        if (startsWith(header, 0, ascii("%PDF-")))
+        {
+            return "application/pdf";
+        }
+        return null;
+    }
+
+    /**
+     * Remove staged files older than the given age, e.g. left behind by a restart
+     *
+     * @return number of files removed
+     */
+    public int purgeStale(Duration maxAge)
+    {
+        if (!Files.isDirectory(stagingDirectory))
+        {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(maxAge);
+        int purged = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(stagingDirectory, "{upload-,work-}*"))
+        {
+            for (Path file : files)
+            {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file))
+                {
+                    purged++;
+                }
+            }
+        } catch (IOException e)
+        {
+            log.warn("Failed to purge staged uploads: {}", e.getMessage());
+        }
+        return purged;
+    }
+
+    private void checkContentMatches(String declaredType, String sniffedType)
+    {
+        if (sniffedType == null)
+        {
+            throw new InvalidDocumentException("File content is not a supported image or PDF");
+        }
+        boolean declaredPdf = "application/pdf".equals(declaredType);
+        boolean sniffedPdf = "application/pdf".equals(sniffedType);
+        if (declaredPdf != sniffedPdf)
+        {
+            throw new InvalidDocumentException(
+                    String.format("File content (%s) does not match its declared type %s", sniffedType, declaredType));
+        }
+    }
+
+    private InvalidDocumentException tooLarge(String contentType, long maxBytes)
+    {
+        String kind = "application/pdf".equals(contentType) ? "PDF" : "Image";
+        return new InvalidDocumentException(String.format("%s file size exceeds maximum limit of %s",
+                kind, maxBytes >= 1024 * 1024 ? maxBytes / (1024 * 1024) + "MB" : maxBytes / 1024 + "KB"));
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte... prefix)
+    {
+        if (data.length < offset + prefix.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++)
+        {
+            if (data[offset + i] != prefix[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String value)
+    {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void deleteQuietly(Path path)
+    {
+        if (path == null)
+        {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e)
+        {
+            log.debug("Failed to delete staged file {}: {}", path, e.getMessage());
+        }
+    }
+}
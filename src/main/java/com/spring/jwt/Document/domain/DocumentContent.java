@@ -0,0 +1,46 @@
+package com.spring.jwt.Document.domain;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NonNull;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * Document content ready to be streamed, together with the metadata needed for
+ * HTTP caching. Content is either a file in the content store or, for documents
+ * not yet migrated, the inline bytes.
+ */
+@Data
+@Builder
+public class DocumentContent {
+
+    @NonNull
+    private final Integer documentId;
+
+    @NonNull
+    private final String fileName;
+
+    @NonNull
+    private final String contentType;
+
+    /**
+     * SHA-256 of the content, used as the strong ETag
+     */
+    @NonNull
+    private final String contentKey;
+
+    private final long contentLength;
+
+    private final LocalDateTime lastModified;
+
+    private final Path file;
+
+    private final byte[] inlineData;
+
+    public boolean isFileBacked()
+    {
+        return file != null;
+    }
+}
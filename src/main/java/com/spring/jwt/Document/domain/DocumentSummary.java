@@ -0,0 +1,33 @@
+package com.spring.jwt.Document.domain;
+
+import com.spring.jwt.Enums.DocumentType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of the document columns needed for listings
+ * Selected with a constructor expression so listing queries never touch the
+ * content columns or the user and profile associations
+ */
+@Data
+@AllArgsConstructor
+public class DocumentSummary {
+
+    private final Integer documentId;
+
+    private final DocumentType documentType;
+
+    private final String fileName;
+
+    private final String description;
+
+    private final Long fileSize;
+
+    private final String contentType;
+
+    private final LocalDateTime uploadedAt;
+
+    private final LocalDateTime updatedAt;
+}
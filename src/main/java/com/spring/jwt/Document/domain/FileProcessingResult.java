@@ -4,13 +4,28 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NonNull;
 
+import java.nio.file.Path;
+
 @Data
 @Builder
 public class FileProcessingResult {
 
-    @NonNull
+    /**
+     * Processed content in memory; null when it is in {@link #processedFile}
+     */
     private final byte[] processedData;
 
+    /**
+     * Processed content on disk, e.g. a staged upload kept as is or a rewritten PDF;
+     * valid until the staged upload is closed
+     */
+    private final Path processedFile;
+
+    /**
+     * SHA-256 of the processed content, when already known
+     */
+    private final String contentKey;
+
     @NonNull
     private final Long originalSize;
 
@@ -0,0 +1,205 @@
+package com.spring.jwt.Document.domain;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * BK-tree over 64-bit hashes under Hamming distance
+ *
+ * Each child of a node is keyed by its distance to that node, so by the triangle
+ * inequality a search within distance {@code d} of a hash only descends into the
+ * children keyed {@code [dist - d, dist + d]}. For small {@code d} that visits a
+ * small part of the tree instead of every hash.
+ *
+ * Documents sharing a hash share a node. Removing a document leaves its node in
+ * place (children hang off it), so {@link #emptyNodes()} grows with removals and
+ * callers rebuild the tree when it gets large. Not thread-safe.
+ */
+public class HammingBkTree {
+
+    private static final int HASH_BITS = Long.SIZE;
+
+    private Node root;
+    private int size;
+    private int nodes;
+    private int emptyNodes;
+
+    /**
+     * A document within the searched distance
+     */
+    public record Match(int documentId, long hash, int distance) {
+    }
+
+    public static int distance(long a, long b)
+    {
+        return Long.bitCount(a ^ b);
+    }
+
+    public void add(long hash, int documentId)
+    {
+        if (root == null)
+        {
+            root = newNode(hash, documentId);
+            return;
+        }
+        Node node = root;
+        while (true)
+        {
+            int distance = distance(node.hash, hash);
+            if (distance == 0)
+            {
+                if (node.documentIds.isEmpty())
+                {
+                    emptyNodes--;
+                }
+                node.documentIds.add(documentId);
+                size++;
+                return;
+            }
+            Node child = node.child(distance);
+            if (child == null)
+            {
+                node.addChild(distance, newNode(hash, documentId));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    private Node newNode(long hash, int documentId)
+    {
+        Node node = new Node(hash);
+        node.documentIds.add(documentId);
+        nodes++;
+        size++;
+        return node;
+    }
+
+    /**
+     * @return whether the document was stored under this hash
+     */
+    public boolean remove(long hash, int documentId)
+    {
+        Node node = root;
+        while (node != null)
+        {
+            int distance = distance(node.hash, hash);
+            if (distance == 0)
+            {
+                if (!node.documentIds.remove(Integer.valueOf(documentId)))
+                {
+                    return false;
+                }
+                size--;
+                if (node.documentIds.isEmpty())
+                {
+                    emptyNodes++;
+                }
+                return true;
+            }
+            node = node.child(distance);
+        }
+        return false;
+    }
+
+    /**
+     * All documents whose hash is within {@code maxDistance} of the given hash
+     */
+    public List<Match> search(long hash, int maxDistance)
+    {
+        List<Match> matches = new ArrayList<>();
+        if (root == null)
+        {
+            return matches;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty())
+        {
+            Node node = pending.pop();
+            int distance = distance(node.hash, hash);
+            if (distance <= maxDistance)
+            {
+                for (Integer documentId : node.documentIds)
+                {
+                    matches.add(new Match(documentId, node.hash, distance));
+                }
+            }
+            for (int i = 0; i < node.childCount; i++)
+            {
+                if (Math.abs(node.childKeys[i] - distance) <= maxDistance)
+                {
+                    pending.push(node.children[i]);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Number of indexed documents
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    public int nodes()
+    {
+        return nodes;
+    }
+
+    /**
+     * Nodes left without documents by removals
+     */
+    public int emptyNodes()
+    {
+        return emptyNodes;
+    }
+
+    private static final class Node
+    {
+        private final long hash;
+        private final List<Integer> documentIds = new ArrayList<>(1);
+        // Children keyed by distance, in small parallel arrays: most nodes have few
+        private byte[] childKeys;
+        private Node[] children;
+        private int childCount;
+
+        private Node(long hash)
+        {
+            this.hash = hash;
+        }
+
+        private Node child(int distance)
+        {
+            for (int i = 0; i < childCount; i++)
+            {
+                if (childKeys[i] == distance)
+                {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private void addChild(int distance, Node child)
+        {
+            if (children == null)
+            {
+                childKeys = new byte[2];
+                children = new Node[2];
+            } else if (childCount == children.length)
+            {
+                int capacity = Math.min(HASH_BITS, childCount * 2);
+                childKeys = Arrays.copyOf(childKeys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            childKeys[childCount] = (byte) distance;
+            children[childCount++] = child;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.spring.jwt.Document.domain;
+
+import java.util.Locale;
+
+/**
+ * Fixed sizes precomputed for every uploaded image
+ * The size is the longest edge in pixels; smaller images are never upscaled
+ */
+public enum ImageRendition {
+    THUMBNAIL(64),
+    CARD(256),
+    FULL(1024);
+
+    private final int maxDimension;
+
+    ImageRendition(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * Name used for the rendition file next to the original in the content store
+     */
+    public String variantName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,7 @@
+package com.spring.jwt.Document.domain;
+
+/**
+ * Perceptual hash of a document, as loaded into the duplicate photo index
+ */
+public record PhotoHash(Integer documentId, Long perceptualHash) {
+}
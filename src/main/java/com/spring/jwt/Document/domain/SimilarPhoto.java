@@ -0,0 +1,33 @@
+package com.spring.jwt.Document.domain;
+
+import com.spring.jwt.Enums.DocumentType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A document whose image is perceptually close to a searched one
+ */
+@Data
+public class SimilarPhoto {
+
+    private final Integer documentId;
+
+    private final Integer userId;
+
+    private final DocumentType documentType;
+
+    private final String fileName;
+
+    private final String contentType;
+
+    private final LocalDateTime uploadedAt;
+
+    private final Long perceptualHash;
+
+    /**
+     * Number of differing hash bits; 0 is the same image, up to about 10 is usually
+     * the same photo re-encoded, resized or lightly edited
+     */
+    private int distance;
+}
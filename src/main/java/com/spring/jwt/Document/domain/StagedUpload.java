@@ -0,0 +1,98 @@
+package com.spring.jwt.Document.domain;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An upload streamed to a temp file, with its size, SHA-256 and the content type
+ * sniffed from its first bytes
+ *
+ * Processing reads the upload from {@link #getFile()} and writes intermediate
+ * output to {@link #createWorkFile(String)}; closing the upload deletes all of them.
+ */
+@Getter
+@Slf4j
+public class StagedUpload implements AutoCloseable {
+
+    private final Path file;
+
+    private final long size;
+
+    /**
+     * SHA-256 of the upload, computed while it was streamed to disk
+     */
+    private final String sha256;
+
+    /**
+     * Content type detected from the file signature
+     */
+    private final String contentType;
+
+    private final String fileName;
+
+    private final List<Path> workFiles = new ArrayList<>();
+
+    private final List<Runnable> closeActions = new ArrayList<>();
+
+    public StagedUpload(Path file, long size, String sha256, String contentType, String fileName)
+    {
+        this.file = file;
+        this.size = size;
+        this.sha256 = sha256;
+        this.contentType = contentType;
+        this.fileName = fileName;
+    }
+
+    /**
+     * Create a temp file next to the upload that is deleted with it
+     */
+    public synchronized Path createWorkFile(String suffix) throws IOException
+    {
+        Path workFile = Files.createTempFile(file.getParent(), "work-", suffix);
+        workFiles.add(workFile);
+        return workFile;
+    }
+
+    /**
+     * Run an action when the upload is closed, e.g. to release something held for
+     * as long as the processing result may be used
+     */
+    public synchronized void onClose(Runnable action)
+    {
+        closeActions.add(action);
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        deleteQuietly(file);
+        workFiles.forEach(StagedUpload::deleteQuietly);
+        workFiles.clear();
+        for (Runnable action : closeActions)
+        {
+            try {
+                action.run();
+            } catch (RuntimeException e)
+            {
+                log.warn("Staged upload close action failed for {}: {}", fileName, e.getMessage());
+            }
+        }
+        closeActions.clear();
+    }
+
+    private static void deleteQuietly(Path path)
+    {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e)
+        {
+            log.warn("Failed to delete staged file {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.spring.jwt.Document.storage;
+
+import com.spring.jwt.exception.DocumentProcessingException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Storage for document file content, addressed by the SHA-256 of the bytes.
+ *
+ * The database keeps only the document metadata and the content key returned by
+ * {@link #put(byte[])}. Identical content always maps to the same key, so writes
+ * are idempotent and safe to retry.
+ */
+public interface DocumentContentStore
+{
+    /**
+     * Store the content if not already present
+     *
+     * @return the content key (lower-case hex SHA-256)
+     */
+    String put(byte[] content);
+
+    /**
+     * Store the content of a file if not already present, without reading it into memory
+     *
+     * @param contentKey SHA-256 of the file if the caller already computed it, otherwise null
+     * @return the content key (lower-case hex SHA-256)
+     */
+    default String putFile(Path source, String contentKey)
+    {
+        try {
+            return put(Files.readAllBytes(source));
+        } catch (IOException e)
+        {
+            throw new DocumentProcessingException("Failed to read document content: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read the content stored under the given key
+     *
+     * @throws com.spring.jwt.exception.DocumentNotFoundException if no content exists for the key
+     */
+    byte[] get(String contentKey);
+
+    /**
+     * Check if content exists for the given key
+     */
+    boolean exists(String contentKey);
+
+    /**
+     * Local file holding the content, for stores that keep content on the filesystem
+     * Lets callers stream the file with a FileChannel instead of reading it into memory
+     */
+    default Optional<Path> findFile(String contentKey)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Remove the content stored under the given key, together with its variants;
+     * a missing key is ignored
+     */
+    void delete(String contentKey);
+
+    /**
+     * Store a variant derived from the content under the given key, such as a
+     * resized image. Variants live next to the original and are removed with it
+     */
+    void putVariant(String contentKey, String variant, byte[] data);
+
+    /**
+     * Read a variant of the content, if it has been stored
+     */
+    Optional<byte[]> getVariant(String contentKey, String variant);
+
+    /**
+     * Check if a variant of the content has been stored
+     */
+    boolean variantExists(String contentKey, String variant);
+
+    /**
+     * Local file holding a variant, for stores that keep content on the filesystem
+     */
+    default Optional<Path> findVariantFile(String contentKey, String variant)
+    {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,310 @@
+package com.spring.jwt.Document.storage;
+
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.exception.DocumentNotFoundException;
+import com.spring.jwt.exception.DocumentProcessingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Local filesystem content store
+ *
+ * Files are stored by SHA-256 under a two-level sharded tree
+ * ({@code ab/cd/abcd...}) so that no directory grows beyond a few thousand
+ * entries. Each write goes to a temp file in the same root, is flushed to disk and
+ * then renamed into place, so a reader never sees a partially written file.
+ * Variants such as image renditions are stored beside the original as
+ * {@code abcd....<variant>}.
+ */
+@Component
+@Slf4j
+public class LocalFileSystemContentStore implements DocumentContentStore
+{
+    private static final Pattern CONTENT_KEY = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern VARIANT = Pattern.compile("[a-z0-9-]+");
+
+    private final Path root;
+    private final Path tempDirectory;
+
+    public LocalFileSystemContentStore(DocumentProperties documentProperties)
+    {
+        this.root = Paths.get(documentProperties.getStorage().getRootDirectory()).toAbsolutePath().normalize();
+        this.tempDirectory = root.resolve("tmp");
+    }
+
+    @Override
+    public String put(byte[] content)
+    {
+        String contentKey = sha256(content);
+        write(resolve(contentKey), contentKey, content);
+        log.debug("Stored content {} ({} bytes)", contentKey, content.length);
+        return contentKey;
+    }
+
+    /**
+     * Copy the file into the store through a FileChannel, hashing it first if needed
+     */
+    @Override
+    public String putFile(Path source, String contentKey)
+    {
+        try {
+            String key = contentKey != null ? contentKey : sha256(source);
+            Path target = resolve(key);
+            if (Files.exists(target))
+            {
+                return key;
+            }
+
+            Path temp = null;
+            try {
+                Files.createDirectories(target.getParent());
+                Files.createDirectories(tempDirectory);
+                temp = Files.createTempFile(tempDirectory, key, ".tmp");
+                try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                     FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE))
+                {
+                    long size = in.size();
+                    long position = 0;
+                    while (position < size)
+                    {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                    out.force(true);
+                }
+                move(temp, target);
+            } catch (FileAlreadyExistsException e)
+            {
+                // Same content written concurrently; the existing file is identical
+            } finally {
+                deleteQuietly(temp);
+            }
+            log.debug("Stored content {} from file", key);
+            return key;
+        } catch (IOException e)
+        {
+            throw new DocumentProcessingException("Failed to store document content: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] get(String contentKey)
+    {
+        try {
+            return Files.readAllBytes(resolve(contentKey));
+        } catch (NoSuchFileException e)
+        {
+            throw new DocumentNotFoundException("Document content not found: " + contentKey);
+        } catch (IOException e)
+        {
+            throw new DocumentProcessingException("Failed to read document content: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean exists(String contentKey)
+    {
+        return Files.exists(resolve(contentKey));
+    }
+
+    @Override
+    public Optional<Path> findFile(String contentKey)
+    {
+        Path file = resolve(contentKey);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    @Override
+    public void delete(String contentKey)
+    {
+        Path file = resolve(contentKey);
+        try {
+            Files.deleteIfExists(file);
+            if (Files.isDirectory(file.getParent()))
+            {
+                try (DirectoryStream<Path> variants = Files.newDirectoryStream(file.getParent(), contentKey + ".*"))
+                {
+                    for (Path variant : variants)
+                    {
+                        Files.deleteIfExists(variant);
+                    }
+                }
+            }
+        } catch (IOException e)
+        {
+            log.warn("Failed to delete document content {}: {}", contentKey, e.getMessage());
+        }
+    }
+
+    @Override
+    public void putVariant(String contentKey, String variant, byte[] data)
+    {
+        write(resolveVariant(contentKey, variant), contentKey, data);
+        log.debug("Stored {} variant of content {} ({} bytes)", variant, contentKey, data.length);
+    }
+
+    @Override
+    public Optional<byte[]> getVariant(String contentKey, String variant)
+    {
+        try {
+            return Optional.of(Files.readAllBytes(resolveVariant(contentKey, variant)));
+        } catch (NoSuchFileException e)
+        {
+            return Optional.empty();
+        } catch (IOException e)
+        {
+            throw new DocumentProcessingException("Failed to read document content: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean variantExists(String contentKey, String variant)
+    {
+        return Files.exists(resolveVariant(contentKey, variant));
+    }
+
+    @Override
+    public Optional<Path> findVariantFile(String contentKey, String variant)
+    {
+        Path file = resolveVariant(contentKey, variant);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    /**
+     * Resolve the file holding the given content key
+     */
+    public Path resolve(String contentKey)
+    {
+        if (contentKey == null || !CONTENT_KEY.matcher(contentKey).matches())
+        {
+            throw new IllegalArgumentException("Invalid content key: " + contentKey);
+        }
+        return root.resolve(contentKey.substring(0, 2))
+                .resolve(contentKey.substring(2, 4))
+                .resolve(contentKey);
+    }
+
+    /**
+     * Resolve the file holding a variant of the given content, next to the original
+     */
+    public Path resolveVariant(String contentKey, String variant)
+    {
+        if (variant == null || !VARIANT.matcher(variant).matches())
+        {
+            throw new IllegalArgumentException("Invalid content variant: " + variant);
+        }
+        return resolve(contentKey).resolveSibling(contentKey + "." + variant);
+    }
+
+    public static String sha256(byte[] content)
+    {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * SHA-256 of a file, read in chunks
+     */
+    public static String sha256(Path file) throws IOException
+    {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+            {
+                while (channel.read(buffer) != -1)
+                {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Write to a temp file, force it to disk and rename it into place
+     * An existing target is left untouched: its name already identifies its content
+     */
+    private void write(Path target, String contentKey, byte[] content)
+    {
+        if (Files.exists(target))
+        {
+            return;
+        }
+
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            Files.createDirectories(tempDirectory);
+            temp = Files.createTempFile(tempDirectory, contentKey, ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE))
+            {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining())
+                {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            move(temp, target);
+        } catch (FileAlreadyExistsException e)
+        {
+            // Same content written concurrently; the existing file is identical
+        } catch (IOException e)
+        {
+            throw new DocumentProcessingException("Failed to store document content: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException
+    {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e)
+        {
+            Files.move(source, target);
+        }
+    }
+
+    private static void deleteQuietly(Path path)
+    {
+        if (path == null)
+        {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e)
+        {
+            log.debug("Failed to delete temp file {}: {}", path, e.getMessage());
+        }
+    }
+}
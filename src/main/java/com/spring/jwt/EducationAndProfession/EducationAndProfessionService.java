@@ -6,6 +6,8 @@ import com.spring.jwt.EducationAndProfession.dto.EducationAndProfessionUpdateReq
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Optional;
+
 /**
  * Service interface for education and profession management.
  * All operations are secured and scoped to the authenticated user's data.
@@ -48,6 +50,16 @@ public interface EducationAndProfessionService {
      */
     EducationAndProfessionResponse getByUserId(Integer userId);
 
+    /**
+     * Find education and profession by user ID without treating absence as an error.
+     * Absence is negatively cached, so repeated lookups for users who have not
+     * filled this section do not query the database.
+     *
+     * @param userId the user ID
+     * @return education and profession for the specified user, or empty if not filled in
+     */
+    Optional<EducationAndProfessionResponse> findByUserId(Integer userId);
+
     /**
      * Search education and profession records by criteria (Admin only).
      * 
@@ -2,6 +2,9 @@ package com.spring.jwt.EducationAndProfession;
 
 import com.spring.jwt.CompleteProfile.CompleteProfileRepository;
 import com.spring.jwt.CompleteProfile.CompleteProfileService;
+import com.spring.jwt.cache.EntityChangeEvent;
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
+import com.spring.jwt.cache.ProfileSectionCache;
 import com.spring.jwt.EducationAndProfession.dto.EducationAndProfessionCreateRequest;
 import com.spring.jwt.EducationAndProfession.dto.EducationAndProfessionResponse;
 import com.spring.jwt.EducationAndProfession.dto.EducationAndProfessionUpdateRequest;
@@ -16,8 +19,8 @@ import com.spring.jwt.utils.CacheUtils;
 import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +28,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+
 /**
  * Service implementation for education and profession management.
  * Implements secure operations with proper authorization and IDOR protection.
@@ -41,11 +46,12 @@ public class EducationAndProfessionServiceImpl implements EducationAndProfession
     private final CompleteProfileService completeProfileService;
     private final ProfileOwnershipService ownershipService;
     private final EducationAndProfessionMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProfileSectionCache sectionCache;
     private final EducationAndProfessionValidationService validationService;
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.EDUCATION_PROFILES, key = "#result.userId")
     public EducationAndProfessionResponse createForCurrentUser(EducationAndProfessionCreateRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Creating education and profession for authenticated user ID: {}", currentUserId);
@@ -70,6 +76,7 @@ public class EducationAndProfessionServiceImpl implements EducationAndProfession
             entity.setUpdatedBy(currentUserId);
             
             EducationAndProfession saved = educationAndProfessionRepo.save(entity);
+            eventPublisher.publishEvent(EntityChangeEvent.created(EntityType.EDUCATION, saved.getEducationId(), currentUserId));
             log.info("Education and profession created successfully with ID: {} for user: {}", 
                     saved.getEducationId(), currentUserId);
 
@@ -88,7 +95,6 @@ public class EducationAndProfessionServiceImpl implements EducationAndProfession
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.EDUCATION_PROFILES, key = "#userId")
     public EducationAndProfessionResponse createForUser(Integer userId, EducationAndProfessionCreateRequest request) {
         Integer adminUserId = ownershipService.getCurrentUserId();
         log.info("Admin (ID: {}) creating education and profession for user ID: {}", adminUserId, userId);
@@ -113,6 +119,7 @@ public class EducationAndProfessionServiceImpl implements EducationAndProfession
             entity.setUpdatedBy(adminUserId);
             
             EducationAndProfession saved = educationAndProfessionRepo.save(entity);
+            eventPublisher.publishEvent(EntityChangeEvent.created(EntityType.EDUCATION, saved.getEducationId(), userId));
             log.info("Education and profession created successfully with ID: {} for user: {} by admin: {}", 
                     saved.getEducationId(), userId, adminUserId);
 
@@ -154,6 +161,13 @@ public class EducationAndProfessionServiceImpl implements EducationAndProfession
         return mapper.toResponse(educationAndProfession);
     }
 
+    @Override
+    public Optional<EducationAndProfessionResponse> findByUserId(Integer userId) {
+        return sectionCache.find(EntityType.EDUCATION, CacheUtils.CacheNames.EDUCATION_PROFILES, userId,
+                EducationAndProfessionResponse.class,
+                () -> educationAndProfessionRepo.findByUser_Id(userId).map(mapper::toResponse));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<EducationAndProfessionResponse> searchEducationAndProfession(
@@ -170,7 +184,6 @@ public class EducationAndProfessionServiceImpl implements EducationAndProfession
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.EDUCATION_PROFILES, key = "#root.target.getCurrentUserId()")
     public EducationAndProfessionResponse updateCurrentUserEducationAndProfession(EducationAndProfessionUpdateRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Updating education and profession for authenticated user ID: {}", currentUserId);
@@ -193,6 +206,7 @@ public class EducationAndProfessionServiceImpl implements EducationAndProfession
             existing.setUpdatedBy(currentUserId);
 
             EducationAndProfession saved = educationAndProfessionRepo.save(existing);
+            eventPublisher.publishEvent(EntityChangeEvent.updated(EntityType.EDUCATION, saved.getEducationId(), currentUserId));
             log.info("Education and profession updated successfully for user: {} to version: {}", currentUserId, saved.getVersion());
 
             recalculateCompleteProfileAsync(existing.getUser(), saved);
@@ -214,7 +228,6 @@ public class EducationAndProfessionServiceImpl implements EducationAndProfession
 
     @Override
     @Transactional
-    @CacheEvict(value = CacheUtils.CacheNames.EDUCATION_PROFILES, key = "#root.target.getCurrentUserId()")
     public void deleteCurrentUserEducationAndProfession() {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Soft deleting education and profession for authenticated user ID: {}", currentUserId);
@@ -227,6 +240,7 @@ public class EducationAndProfessionServiceImpl implements EducationAndProfession
         existing.setDeletedBy(currentUserId);
 
         educationAndProfessionRepo.save(existing);
+        eventPublisher.publishEvent(EntityChangeEvent.deleted(EntityType.EDUCATION, existing.getEducationId(), currentUserId));
         
         log.info("Education and profession soft deleted successfully for user: {}", currentUserId);
 
@@ -10,6 +10,8 @@ import com.spring.jwt.EducationAndProfession.EducationAndProfessionService;
 import com.spring.jwt.EducationAndProfession.dto.EducationAndProfessionResponse;
 import com.spring.jwt.ContactDetails.ContactDetailsService;
 import com.spring.jwt.ContactDetails.dto.ContactDetailsResponse;
+import com.spring.jwt.location.LocationRef;
+import com.spring.jwt.location.LocationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -32,6 +34,7 @@ public class ExpressInterestMatchingService {
     private final ProfileService profileService;
     private final EducationAndProfessionService educationAndProfessionService;
     private final ContactDetailsService contactDetailsService;
+    private final LocationService locationService;
 
     private static final int RELIGION_WEIGHT = 20;
     private static final int CASTE_WEIGHT = 15;
@@ -391,36 +394,24 @@ public class ExpressInterestMatchingService {
             ContactDetailsResponse contact2 = getContactDetails(profile2.getUserId());
 
             if (contact1 == null || contact2 == null) {
-                String city1 = profile1.getCurrentCity();
-                String city2 = profile2.getCurrentCity();
-                
-                if (city1 != null && city2 != null && city1.equalsIgnoreCase(city2)) {
+                if (profileCity(profile1).sameCity(profileCity(profile2))) {
                     return LOCATION_WEIGHT / 2;
                 }
                 return 0;
             }
 
-            String city1 = contact1.getCity();
-            String state1 = contact1.getState();
-            String country1 = contact1.getCountry();
+            LocationRef location1 = contactLocation(contact1);
+            LocationRef location2 = contactLocation(contact2);
 
-            String city2 = contact2.getCity();
-            String state2 = contact2.getState();
-            String country2 = contact2.getCountry();
-
-            if (country1 == null || country2 == null) {
-                return 0;
-            }
-
-            if (!country1.equalsIgnoreCase(country2)) {
+            if (!location1.sameCountry(location2)) {
                 return 0;
             }
 
-            if (city1 != null && city2 != null && city1.equalsIgnoreCase(city2)) {
+            if (location1.sameCity(location2)) {
                 return LOCATION_WEIGHT;
             }
 
-            if (state1 != null && state2 != null && state1.equalsIgnoreCase(state2)) {
+            if (location1.sameState(location2)) {
                 return (LOCATION_WEIGHT * 3) / 4;
             }
 
@@ -432,6 +423,28 @@ public class ExpressInterestMatchingService {
         }
     }
 
+    /**
+     * Location ids stored with the address, or resolved from its text for rows the
+     * location backfill has not reached yet. Stored ids of an address without a country
+     * were resolved under the default country, so such an address is looked up instead,
+     * which leaves it without a country and scores it 0 like before the ids existed.
+     */
+    private LocationRef contactLocation(ContactDetailsResponse contact) {
+        if (contact.getCountryLocationId() != null && contact.getCountry() != null
+                && !contact.getCountry().isBlank()) {
+            return new LocationRef(contact.getCountryLocationId(), contact.getStateLocationId(), null,
+                    contact.getCityLocationId());
+        }
+        return locationService.lookupAddress(contact.getCountry(), contact.getState(), contact.getCity());
+    }
+
+    private LocationRef profileCity(ProfileResponse profile) {
+        if (profile.getCurrentCityLocationId() != null) {
+            return new LocationRef(null, null, null, profile.getCurrentCityLocationId());
+        }
+        return locationService.lookupCity(profile.getCurrentCity());
+    }
+
     private int calculateLifestyleCompatibility(ProfileResponse profile1, ProfileResponse profile2, 
                                               PartnerPreferenceResponse pref1, PartnerPreferenceResponse pref2) {
         try {
@@ -457,27 +470,27 @@ public class ExpressInterestMatchingService {
 
     private PartnerPreferenceResponse getPartnerPreferences(Integer userId) {
         try {
-            return partnerPreferenceService.getByUserId(userId);
+            return partnerPreferenceService.findByUserId(userId).orElse(null);
         } catch (Exception e) {
-            log.debug("Partner preferences not found for user {}: {}", userId, e.getMessage());
+            log.warn("Failed to load partner preferences for user {}: {}", userId, e.getMessage());
             return null;
         }
     }
 
     private EducationAndProfessionResponse getEducationAndProfession(Integer userId) {
         try {
-            return educationAndProfessionService.getByUserId(userId);
+            return educationAndProfessionService.findByUserId(userId).orElse(null);
         } catch (Exception e) {
-            log.debug("Education and profession not found for user {}: {}", userId, e.getMessage());
+            log.warn("Failed to load education and profession for user {}: {}", userId, e.getMessage());
             return null;
         }
     }
 
     private ContactDetailsResponse getContactDetails(Integer userId) {
         try {
-            return contactDetailsService.getByUserId(userId);
+            return contactDetailsService.findByUserId(userId).orElse(null);
         } catch (Exception e) {
-            log.debug("Contact details not found for user {}: {}", userId, e.getMessage());
+            log.warn("Failed to load contact details for user {}: {}", userId, e.getMessage());
             return null;
         }
     }
@@ -4,6 +4,8 @@ import com.spring.jwt.ExpressInterest.dto.request.*;
 import com.spring.jwt.ExpressInterest.dto.response.*;
 import com.spring.jwt.ExpressInterest.mapper.ExpressInterestMapper;
 import com.spring.jwt.ExpressInterest.repository.ExpressInterestRepository;
+import com.spring.jwt.cache.EntityChangeEvent;
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
 import com.spring.jwt.profile.ProfileService;
 import com.spring.jwt.entity.ExpressInterest;
 import com.spring.jwt.entity.User;
@@ -19,8 +21,8 @@ import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -52,6 +54,7 @@ public class ExpressInterestServiceImpl implements ExpressInterestService {
     private final GenderCompatibilityValidator genderValidator;
     private final ProfileCompletenessValidator profileCompletenessValidator;
     private final HttpRequestContextExtractor requestContextExtractor;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.express-interest.daily-limit:10}")
     private Integer dailyLimit;
@@ -104,6 +107,8 @@ public class ExpressInterestServiceImpl implements ExpressInterestService {
             entity.setUserAgent(metadata.getUserAgent());
 
             ExpressInterest saved = interestRepository.save(entity);
+            eventPublisher.publishEvent(EntityChangeEvent.created(
+                    EntityType.EXPRESS_INTEREST, saved.getInterestId(), currentUserId, request.getToUserId()));
             log.info("Interest sent successfully with ID: {} from user {} to user {} (IP: {}, UA: {})", 
                     saved.getInterestId(), currentUserId, request.getToUserId(), 
                     metadata.getIpAddress(), metadata.getUserAgent());
@@ -212,7 +217,6 @@ public class ExpressInterestServiceImpl implements ExpressInterestService {
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.EXPRESS_INTEREST, allEntries = true)
     public ExpressInterestResponse acceptInterest(Long interestId, ExpressInterestUpdateRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("User {} accepting interest {}", currentUserId, interestId);
@@ -222,7 +226,6 @@ public class ExpressInterestServiceImpl implements ExpressInterestService {
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.EXPRESS_INTEREST, allEntries = true)
     public ExpressInterestResponse declineInterest(Long interestId, ExpressInterestUpdateRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("User {} declining interest {}", currentUserId, interestId);
@@ -232,7 +235,6 @@ public class ExpressInterestServiceImpl implements ExpressInterestService {
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.EXPRESS_INTEREST, allEntries = true)
     public ExpressInterestResponse withdrawInterest(Long interestId, ExpressInterestUpdateRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("User {} withdrawing interest {}", currentUserId, interestId);
@@ -369,20 +371,18 @@ public class ExpressInterestServiceImpl implements ExpressInterestService {
 
     /**
      * Load profiles safely without transaction context to avoid rollback issues.
+     * Cached profiles are reused and the rest are loaded in one query.
      */
     private List<ProfileResponse> loadProfilesSafely(List<Integer> userIds) {
-        List<ProfileResponse> profiles = new ArrayList<>();
-        
-        for (Integer userId : userIds) {
-            try {
-                ProfileResponse profile = profileService.getProfileByUserId(userId);
-                profiles.add(profile);
-            } catch (Exception e) {
-                log.warn("Error loading profile for user {}: {}", userId, e.getMessage());
-            }
+        if (userIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return profileService.getProfilesByUserIds(userIds);
+        } catch (Exception e) {
+            log.warn("Error loading profiles for {} users: {}", userIds.size(), e.getMessage());
+            return Collections.emptyList();
         }
-        
-        return profiles;
     }
 
     @Override
@@ -568,6 +568,8 @@ public class ExpressInterestServiceImpl implements ExpressInterestService {
             mapper.applyUpdate(request, existing, currentUserId);
 
             ExpressInterest saved = interestRepository.save(existing);
+            eventPublisher.publishEvent(EntityChangeEvent.updated(
+                    EntityType.EXPRESS_INTEREST, interestId, saved.getFromUserId(), saved.getToUserId()));
             log.info("Interest {} status updated to {} by user {}", interestId, expectedStatus, currentUserId);
 
             sendStatusUpdateNotificationAsync(saved);
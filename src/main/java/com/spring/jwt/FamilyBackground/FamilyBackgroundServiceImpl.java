@@ -2,6 +2,8 @@ package com.spring.jwt.FamilyBackground;
 
 import com.spring.jwt.CompleteProfile.CompleteProfileRepository;
 import com.spring.jwt.CompleteProfile.CompleteProfileService;
+import com.spring.jwt.cache.EntityChangeEvent;
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
 import com.spring.jwt.FamilyBackground.dto.FamilyBackgroundCreateRequest;
 import com.spring.jwt.FamilyBackground.dto.FamilyBackgroundResponse;
 import com.spring.jwt.FamilyBackground.dto.FamilyBackgroundUpdateRequest;
@@ -16,8 +18,8 @@ import com.spring.jwt.utils.CacheUtils;
 import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -41,11 +43,11 @@ public class FamilyBackgroundServiceImpl implements FamilyBackgroundService {
     private final CompleteProfileService completeProfileService;
     private final ProfileOwnershipService ownershipService;
     private final FamilyBackgroundMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
     private final FamilyBackgroundValidationService validationService;
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.FAMILY_BACKGROUNDS, key = "#result.userId")
     public FamilyBackgroundResponse createForCurrentUser(FamilyBackgroundCreateRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Creating family background for authenticated user ID: {}", currentUserId);
@@ -55,7 +57,6 @@ public class FamilyBackgroundServiceImpl implements FamilyBackgroundService {
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.FAMILY_BACKGROUNDS, key = "#result.userId")
     public FamilyBackgroundResponse createForUser(Integer userId, FamilyBackgroundCreateRequest request) {
         log.info("Creating family background for user ID: {}", userId);
 
@@ -79,6 +80,7 @@ public class FamilyBackgroundServiceImpl implements FamilyBackgroundService {
             entity.setUpdatedBy(userId);
             
             FamilyBackground saved = familyBackgroundRepo.save(entity);
+            eventPublisher.publishEvent(EntityChangeEvent.created(EntityType.FAMILY_BACKGROUND, saved.getFamilyBackgroundId(), userId));
             log.info("Family background created successfully with ID: {} for user: {}", 
                     saved.getFamilyBackgroundId(), userId);
 
@@ -123,7 +125,6 @@ public class FamilyBackgroundServiceImpl implements FamilyBackgroundService {
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.FAMILY_BACKGROUNDS, key = "#root.target.getCurrentUserId()")
     public FamilyBackgroundResponse updateCurrentUserFamilyBackground(FamilyBackgroundUpdateRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Updating family background for authenticated user ID: {}", currentUserId);
@@ -144,6 +145,7 @@ public class FamilyBackgroundServiceImpl implements FamilyBackgroundService {
             existing.setUpdatedBy(currentUserId);
 
             FamilyBackground saved = familyBackgroundRepo.save(existing);
+            eventPublisher.publishEvent(EntityChangeEvent.updated(EntityType.FAMILY_BACKGROUND, saved.getFamilyBackgroundId(), currentUserId));
             log.info("Family background updated successfully for user: {} to version: {}", currentUserId, saved.getVersion());
 
             recalculateCompleteProfileAsync(existing.getUser(), saved);
@@ -165,7 +167,6 @@ public class FamilyBackgroundServiceImpl implements FamilyBackgroundService {
 
     @Override
     @Transactional
-    @CacheEvict(value = CacheUtils.CacheNames.FAMILY_BACKGROUNDS, key = "#root.target.getCurrentUserId()")
     public void deleteCurrentUserFamilyBackground() {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Soft deleting family background for authenticated user ID: {}", currentUserId);
@@ -178,6 +179,7 @@ public class FamilyBackgroundServiceImpl implements FamilyBackgroundService {
         existing.setDeletedBy(currentUserId);
 
         familyBackgroundRepo.save(existing);
+        eventPublisher.publishEvent(EntityChangeEvent.deleted(EntityType.FAMILY_BACKGROUND, existing.getFamilyBackgroundId(), currentUserId));
         
         log.info("Family background soft deleted successfully for user: {}", currentUserId);
 
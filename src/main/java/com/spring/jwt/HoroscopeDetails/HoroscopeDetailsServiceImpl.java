@@ -2,6 +2,8 @@ package com.spring.jwt.HoroscopeDetails;
 
 import com.spring.jwt.CompleteProfile.CompleteProfileRepository;
 import com.spring.jwt.CompleteProfile.CompleteProfileService;
+import com.spring.jwt.cache.EntityChangeEvent;
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
 import com.spring.jwt.dto.horoscope.HoroscopeCreateRequest;
 import com.spring.jwt.dto.horoscope.HoroscopeResponse;
 import com.spring.jwt.dto.horoscope.HoroscopeUpdateRequest;
@@ -16,8 +18,8 @@ import com.spring.jwt.utils.CacheUtils;
 import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -41,10 +43,10 @@ public class HoroscopeDetailsServiceImpl implements HoroscopeDetailsService {
     private final CompleteProfileService completeProfileService;
     private final ProfileOwnershipService ownershipService;
     private final HoroscopeDetailsMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.HOROSCOPES, key = "#root.target.getCurrentUserId()")
     public HoroscopeResponse createForCurrentUser(HoroscopeCreateRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Creating horoscope for authenticated user ID: {}", currentUserId);
@@ -54,7 +56,6 @@ public class HoroscopeDetailsServiceImpl implements HoroscopeDetailsService {
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.HOROSCOPES, key = "#userId")
     public HoroscopeResponse createForUser(Integer userId, HoroscopeCreateRequest request) {
         log.info("Creating horoscope for user ID: {}", userId);
 
@@ -71,6 +72,7 @@ public class HoroscopeDetailsServiceImpl implements HoroscopeDetailsService {
         entity.setUpdatedBy(userId);
         
         HoroscopeDetails saved = horoscopeRepo.save(entity);
+        eventPublisher.publishEvent(EntityChangeEvent.created(EntityType.HOROSCOPE, saved.getHoroscopeDetailsId(), userId));
         log.info("Horoscope created successfully with ID: {} for user: {}", saved.getHoroscopeDetailsId(), userId);
 
         synchronizeCompleteProfileAsync(user, saved);
@@ -115,7 +117,6 @@ public class HoroscopeDetailsServiceImpl implements HoroscopeDetailsService {
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.HOROSCOPES, key = "#root.target.getCurrentUserId()")
     public HoroscopeResponse updateCurrentUserHoroscope(HoroscopeUpdateRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Updating horoscope for authenticated user ID: {}", currentUserId);
@@ -136,6 +137,7 @@ public class HoroscopeDetailsServiceImpl implements HoroscopeDetailsService {
 
         try {
             HoroscopeDetails saved = horoscopeRepo.save(existing);
+            eventPublisher.publishEvent(EntityChangeEvent.updated(EntityType.HOROSCOPE, saved.getHoroscopeDetailsId(), currentUserId));
             log.info("Horoscope updated successfully for user: {} to version: {}", currentUserId, saved.getVersion());
 
             recalculateCompleteProfileAsync(existing.getUser(), saved);
@@ -150,7 +152,6 @@ public class HoroscopeDetailsServiceImpl implements HoroscopeDetailsService {
 
     @Override
     @Transactional
-    @CacheEvict(value = CacheUtils.CacheNames.HOROSCOPES, key = "#root.target.getCurrentUserId()")
     public void deleteCurrentUserHoroscope() {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Soft deleting horoscope for authenticated user ID: {}", currentUserId);
@@ -163,6 +164,7 @@ public class HoroscopeDetailsServiceImpl implements HoroscopeDetailsService {
         existing.setDeletedBy(currentUserId);
 
         horoscopeRepo.save(existing);
+        eventPublisher.publishEvent(EntityChangeEvent.deleted(EntityType.HOROSCOPE, existing.getHoroscopeDetailsId(), currentUserId));
         
         log.info("Horoscope soft deleted successfully for user: {}", currentUserId);
 
@@ -1,5 +1,6 @@
 package com.spring.jwt.PartnerPreference;
 
+import com.spring.jwt.PartnerPreference.dto.NewMatchResponse;
 import com.spring.jwt.PartnerPreference.dto.PartnerPreferenceCreateRequest;
 import com.spring.jwt.PartnerPreference.dto.PartnerPreferenceResponse;
 import com.spring.jwt.PartnerPreference.dto.PartnerPreferenceUpdateRequest;
@@ -89,6 +90,31 @@ public class PartnerPreferenceController {
         return ResponseEntity.ok(ResponseDto.success("Partner preferences retrieved successfully", response));
     }
 
+    @GetMapping("/me/new-matches")
+    @PreAuthorize("hasRole('USER')")
+    @RateLimiter(name = "partnerPreferenceApi")
+    @Operation(summary = "Get new matches",
+               description = "Profiles that newly satisfy the authenticated user's partner preferences, newest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "New matches retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient permissions"),
+        @ApiResponse(responseCode = "429", description = "Too many requests - Rate limit exceeded")
+    })
+    public ResponseEntity<ResponseDto<Page<NewMatchResponse>>> getCurrentUserNewMatches(
+            @Parameter(description = "Page number (0-based)", example = "0")
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+
+            @Parameter(description = "Page size", example = "20")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+
+        log.debug("Fetching new matches for authenticated user");
+
+        Page<NewMatchResponse> response = partnerPreferenceService.getCurrentUserNewMatches(PageRequest.of(page, size));
+
+        return ResponseEntity.ok(ResponseDto.success("New matches retrieved successfully", response));
+    }
+
     @PatchMapping("/me")
     @PreAuthorize("hasRole('USER')")
     @RateLimiter(name = "partnerPreferenceApi")
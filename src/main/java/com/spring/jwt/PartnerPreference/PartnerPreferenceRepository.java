@@ -1,5 +1,7 @@
 package com.spring.jwt.PartnerPreference;
 
+import com.spring.jwt.PartnerPreference.match.StoredPreference;
+import com.spring.jwt.PartnerPreference.search.IndexedPreference;
 import com.spring.jwt.entity.PartnerPreference;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,6 +10,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -196,4 +201,83 @@ public interface PartnerPreferenceRepository extends JpaRepository<PartnerPrefer
             @Param("drinkingHabits") String drinkingHabits,
             @Param("smokingHabits") String smokingHabits,
             Pageable pageable);
+
+    /**
+     * Find partner preferences with user eagerly fetched by ID, in no particular order.
+     *
+     * @param ids partner preference IDs
+     * @return the preferences that exist and are not deleted
+     */
+    @Query("SELECT pp FROM PartnerPreference pp JOIN FETCH pp.user WHERE pp.partnerPreferenceId IN :ids")
+    List<PartnerPreference> findAllWithUserByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Searchable columns of the preferences after the given ID, in ID order, for building the search index.
+     *
+     * @param afterId  last ID of the previous chunk
+     * @param pageable chunk size
+     * @return indexed views of the next preferences
+     */
+    @Query("SELECT new com.spring.jwt.PartnerPreference.search.IndexedPreference(pp.partnerPreferenceId, " +
+           "pp.religion, pp.caste, pp.education, pp.maritalStatus, pp.cityLivingIn, pp.stateLivingIn, " +
+           "pp.countryLivingIn, pp.partnerOccupation, pp.eatingHabits, pp.drinkingHabits, pp.smokingHabits, " +
+           "pp.partnerIncome) " +
+           "FROM PartnerPreference pp WHERE pp.partnerPreferenceId > :afterId ORDER BY pp.partnerPreferenceId")
+    List<IndexedPreference> findIndexedPreferences(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * Searchable columns of the given preferences; deleted preferences are left out.
+     *
+     * @param ids partner preference IDs
+     * @return indexed views of the preferences that still exist
+     */
+    @Query("SELECT new com.spring.jwt.PartnerPreference.search.IndexedPreference(pp.partnerPreferenceId, " +
+           "pp.religion, pp.caste, pp.education, pp.maritalStatus, pp.cityLivingIn, pp.stateLivingIn, " +
+           "pp.countryLivingIn, pp.partnerOccupation, pp.eatingHabits, pp.drinkingHabits, pp.smokingHabits, " +
+           "pp.partnerIncome) " +
+           "FROM PartnerPreference pp WHERE pp.partnerPreferenceId IN :ids")
+    List<IndexedPreference> findIndexedPreferencesByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * The next chunk of preferences in ID order with what the percolator compiles from
+     * them, for rebuilding it without loading entities.
+     *
+     * @param afterId last preference ID of the previous chunk, 0 for the first
+     * @param pageable chunk size
+     * @return stored views of the next preferences
+     */
+    @Query("SELECT new com.spring.jwt.PartnerPreference.match.StoredPreference(pp.partnerPreferenceId, " +
+           "u.id, u.gender, pp.ageRange, pp.heightRange, pp.religion, pp.caste, pp.maritalStatus, pp.partnerIncome) " +
+           "FROM PartnerPreference pp JOIN pp.user u " +
+           "WHERE pp.partnerPreferenceId > :afterId ORDER BY pp.partnerPreferenceId")
+    List<StoredPreference> findStoredPreferences(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * What the percolator compiles from the given preferences; deleted preferences are left out.
+     *
+     * @param ids partner preference IDs
+     * @return stored views of the preferences that still exist
+     */
+    @Query("SELECT new com.spring.jwt.PartnerPreference.match.StoredPreference(pp.partnerPreferenceId, " +
+           "u.id, u.gender, pp.ageRange, pp.heightRange, pp.religion, pp.caste, pp.maritalStatus, pp.partnerIncome) " +
+           "FROM PartnerPreference pp JOIN pp.user u WHERE pp.partnerPreferenceId IN :ids")
+    List<StoredPreference> findStoredPreferencesByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * IDs of preferences updated at or after the given time, including soft-deleted ones.
+     *
+     * @param since lower bound of updated_at
+     * @return matching preference IDs
+     */
+    @Query(value = "SELECT partner_preference_id FROM partner_preference WHERE updated_at >= :since",
+           nativeQuery = true)
+    List<Integer> findIdsUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Latest update time across all preferences, including soft-deleted ones.
+     *
+     * @return the latest updated_at, or null if the table is empty
+     */
+    @Query(value = "SELECT MAX(updated_at) FROM partner_preference", nativeQuery = true)
+    LocalDateTime findLatestUpdate();
 }
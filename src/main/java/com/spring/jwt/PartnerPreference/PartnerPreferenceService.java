@@ -1,11 +1,14 @@
 package com.spring.jwt.PartnerPreference;
 
+import com.spring.jwt.PartnerPreference.dto.NewMatchResponse;
 import com.spring.jwt.PartnerPreference.dto.PartnerPreferenceCreateRequest;
 import com.spring.jwt.PartnerPreference.dto.PartnerPreferenceResponse;
 import com.spring.jwt.PartnerPreference.dto.PartnerPreferenceUpdateRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Optional;
+
 /**
  * Service interface for partner preference management.
  * All operations are secured and scoped to the authenticated user's data.
@@ -48,6 +51,16 @@ public interface PartnerPreferenceService {
      */
     PartnerPreferenceResponse getByUserId(Integer userId);
 
+    /**
+     * Find partner preferences by user ID without treating absence as an error.
+     * Absence is negatively cached, so repeated lookups for users who have not
+     * filled this section do not query the database.
+     *
+     * @param userId the user ID
+     * @return partner preferences for the specified user, or empty if not filled in
+     */
+    Optional<PartnerPreferenceResponse> findByUserId(Integer userId);
+
     /**
      * Search partner preferences by criteria (Admin only).
      * 
@@ -94,6 +107,15 @@ public interface PartnerPreferenceService {
      */
     void deleteCurrentUserPartnerPreferences();
 
+    /**
+     * Profiles that newly satisfy the current user's partner preferences, newest first.
+     * Listed notifications are marked seen.
+     *
+     * @param pageable pagination information
+     * @return page of new matches
+     */
+    Page<NewMatchResponse> getCurrentUserNewMatches(Pageable pageable);
+
     /**
      * Get statistics for partner preference data.
      * 
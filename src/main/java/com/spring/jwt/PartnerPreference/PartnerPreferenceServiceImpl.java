@@ -2,10 +2,21 @@ package com.spring.jwt.PartnerPreference;
 
 import com.spring.jwt.CompleteProfile.CompleteProfileRepository;
 import com.spring.jwt.CompleteProfile.CompleteProfileService;
+import com.spring.jwt.cache.EntityChangeEvent;
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
+import com.spring.jwt.cache.ProfileSectionCache;
+import com.spring.jwt.PartnerPreference.dto.NewMatchResponse;
 import com.spring.jwt.PartnerPreference.dto.PartnerPreferenceCreateRequest;
 import com.spring.jwt.PartnerPreference.dto.PartnerPreferenceResponse;
 import com.spring.jwt.PartnerPreference.dto.PartnerPreferenceUpdateRequest;
+import com.spring.jwt.PartnerPreference.match.MatchNotificationRepository;
+import com.spring.jwt.PartnerPreference.search.PartnerPreferenceSearchIndex;
+import com.spring.jwt.PartnerPreference.search.PartnerPreferenceSearchIndex.SearchHits;
+import com.spring.jwt.PartnerPreference.search.PartnerPreferenceSearchIndex.SortField;
+import com.spring.jwt.PartnerPreference.search.PreferenceField;
+import com.spring.jwt.PartnerPreference.search.PreferenceQuery;
 import com.spring.jwt.entity.CompleteProfile;
+import com.spring.jwt.entity.MatchNotification;
 import com.spring.jwt.entity.PartnerPreference;
 import com.spring.jwt.entity.User;
 import com.spring.jwt.exception.ResourceAlreadyExistsException;
@@ -16,15 +27,24 @@ import com.spring.jwt.utils.CacheUtils;
 import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * Service implementation for partner preference management.
  * Implements secure operations with proper authorization and IDOR protection.
@@ -41,11 +61,14 @@ public class PartnerPreferenceServiceImpl implements PartnerPreferenceService {
     private final CompleteProfileService completeProfileService;
     private final ProfileOwnershipService ownershipService;
     private final PartnerPreferenceMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProfileSectionCache sectionCache;
     private final PartnerPreferenceValidationService validationService;
+    private final PartnerPreferenceSearchIndex searchIndex;
+    private final MatchNotificationRepository matchNotificationRepo;
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.PARTNER_PREFERENCES, key = "#result.userId")
     public PartnerPreferenceResponse createForCurrentUser(PartnerPreferenceCreateRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Creating partner preferences for authenticated user ID: {}", currentUserId);
@@ -55,7 +78,6 @@ public class PartnerPreferenceServiceImpl implements PartnerPreferenceService {
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.PARTNER_PREFERENCES, key = "#result.userId")
     public PartnerPreferenceResponse createForUser(Integer userId, PartnerPreferenceCreateRequest request) {
         log.info("Creating partner preferences for user ID: {}", userId);
 
@@ -79,6 +101,7 @@ public class PartnerPreferenceServiceImpl implements PartnerPreferenceService {
             entity.setUpdatedBy(userId);
             
             PartnerPreference saved = partnerPreferenceRepo.save(entity);
+            eventPublisher.publishEvent(EntityChangeEvent.created(EntityType.PARTNER_PREFERENCE, saved.getPartnerPreferenceId(), userId));
             log.info("Partner preferences created successfully with ID: {} for user: {}", 
                     saved.getPartnerPreferenceId(), userId);
 
@@ -120,6 +143,13 @@ public class PartnerPreferenceServiceImpl implements PartnerPreferenceService {
         return mapper.toResponse(partnerPreference);
     }
 
+    @Override
+    public Optional<PartnerPreferenceResponse> findByUserId(Integer userId) {
+        return sectionCache.find(EntityType.PARTNER_PREFERENCE, CacheUtils.CacheNames.PARTNER_PREFERENCES, userId,
+                PartnerPreferenceResponse.class,
+                () -> partnerPreferenceRepo.findByUser_Id(userId).map(mapper::toResponse));
+    }
+
 
     @Override
     @Transactional(readOnly = true)
@@ -129,8 +159,13 @@ public class PartnerPreferenceServiceImpl implements PartnerPreferenceService {
         log.debug("Admin searching partner preferences with criteria - religion: {}, caste: {}, education: {}, income range: {}-{}, location: {}, marital status: {}", 
                 religion, caste, education, minIncome, maxIncome, location, maritalStatus);
         
-        Page<PartnerPreference> results = partnerPreferenceRepo.searchPartnerPreferences(
-                religion, caste, education, minIncome, maxIncome, location, maritalStatus, pageable);
+        Page<PartnerPreference> results = searchIndex(
+                PreferenceQuery.search(religion, caste, education, minIncome, maxIncome, location, maritalStatus),
+                pageable);
+        if (results == null) {
+            results = partnerPreferenceRepo.searchPartnerPreferences(
+                    religion, caste, education, minIncome, maxIncome, location, maritalStatus, pageable);
+        }
         
         return results.map(mapper::toResponse);
     }
@@ -142,15 +177,50 @@ public class PartnerPreferenceServiceImpl implements PartnerPreferenceService {
         log.debug("Admin searching partner preferences by lifestyle - eating: {}, drinking: {}, smoking: {}", 
                 eatingHabits, drinkingHabits, smokingHabits);
         
-        Page<PartnerPreference> results = partnerPreferenceRepo.findByLifestyleChoices(
-                eatingHabits, drinkingHabits, smokingHabits, pageable);
+        Page<PartnerPreference> results = searchIndex(
+                PreferenceQuery.lifestyle(eatingHabits, drinkingHabits, smokingHabits), pageable);
+        if (results == null) {
+            results = partnerPreferenceRepo.findByLifestyleChoices(
+                    eatingHabits, drinkingHabits, smokingHabits, pageable);
+        }
         
         return results.map(mapper::toResponse);
     }
 
+    /**
+     * Answer a search from the in-memory index, loading only the preferences on the page.
+     *
+     * @return the page, or null when the index is not built yet, cannot apply the requested
+     *         order, or the filters hold LIKE wildcards that only the database interprets
+     */
+    private Page<PartnerPreference> searchIndex(PreferenceQuery query, Pageable pageable) {
+        if (!searchIndex.isReady() || pageable.isUnpaged() || query.hasWildcards()
+                || pageable.getSort().stream().count() > 1) {
+            return null;
+        }
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("partnerPreferenceId"));
+        SortField sortField = SortField.of(order.getProperty());
+        if (sortField == null) {
+            return null;
+        }
+
+        SearchHits hits = searchIndex.search(query, sortField, order.isAscending(),
+                (int) pageable.getOffset(), pageable.getPageSize());
+        if (hits.preferenceIds().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.total());
+        }
+        Map<Integer, PartnerPreference> loaded = partnerPreferenceRepo.findAllWithUserByIds(hits.preferenceIds())
+                .stream()
+                .collect(Collectors.toMap(PartnerPreference::getPartnerPreferenceId, Function.identity()));
+        List<PartnerPreference> content = hits.preferenceIds().stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, pageable, hits.total());
+    }
+
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = CacheUtils.CacheNames.PARTNER_PREFERENCES, key = "#root.target.getCurrentUserId()")
     public PartnerPreferenceResponse updateCurrentUserPartnerPreferences(PartnerPreferenceUpdateRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Updating partner preferences for authenticated user ID: {}", currentUserId);
@@ -173,6 +243,7 @@ public class PartnerPreferenceServiceImpl implements PartnerPreferenceService {
             existing.setUpdatedBy(currentUserId);
 
             PartnerPreference saved = partnerPreferenceRepo.save(existing);
+            eventPublisher.publishEvent(EntityChangeEvent.updated(EntityType.PARTNER_PREFERENCE, saved.getPartnerPreferenceId(), currentUserId));
             log.info("Partner preferences updated successfully for user: {} to version: {}", currentUserId, saved.getVersion());
 
             recalculateCompleteProfileAsync(existing.getUser(), saved);
@@ -194,7 +265,6 @@ public class PartnerPreferenceServiceImpl implements PartnerPreferenceService {
 
     @Override
     @Transactional
-    @CacheEvict(value = CacheUtils.CacheNames.PARTNER_PREFERENCES, key = "#root.target.getCurrentUserId()")
     public void deleteCurrentUserPartnerPreferences() {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Soft deleting partner preferences for authenticated user ID: {}", currentUserId);
@@ -207,6 +277,7 @@ public class PartnerPreferenceServiceImpl implements PartnerPreferenceService {
         existing.setDeletedBy(currentUserId);
 
         partnerPreferenceRepo.save(existing);
+        eventPublisher.publishEvent(EntityChangeEvent.deleted(EntityType.PARTNER_PREFERENCE, existing.getPartnerPreferenceId(), currentUserId));
         
         log.info("Partner preferences soft deleted successfully for user: {}", currentUserId);
 
@@ -221,8 +292,13 @@ public class PartnerPreferenceServiceImpl implements PartnerPreferenceService {
         PartnerPreferenceStats stats = new PartnerPreferenceStats();
 
         stats.setTotalPreferences(partnerPreferenceRepo.count());
-        stats.setVegetarianPreferences(partnerPreferenceRepo.countByReligionContainingIgnoreCase("vegetarian"));
-        stats.setGraduatePreferences(partnerPreferenceRepo.countByEducationContainingIgnoreCase("graduate"));
+        if (searchIndex.isReady()) {
+            stats.setVegetarianPreferences(searchIndex.count(PreferenceField.RELIGION, "vegetarian"));
+            stats.setGraduatePreferences(searchIndex.count(PreferenceField.EDUCATION, "graduate"));
+        } else {
+            stats.setVegetarianPreferences(partnerPreferenceRepo.countByReligionContainingIgnoreCase("vegetarian"));
+            stats.setGraduatePreferences(partnerPreferenceRepo.countByEducationContainingIgnoreCase("graduate"));
+        }
 
         stats.setAverageIncomeExpectation(calculateAverageIncomeExpectation());
 
@@ -253,6 +329,29 @@ public class PartnerPreferenceServiceImpl implements PartnerPreferenceService {
         }
     }
 
+    @Override
+    @Transactional
+    public Page<NewMatchResponse> getCurrentUserNewMatches(Pageable pageable) {
+        Integer currentUserId = ownershipService.getCurrentUserId();
+        Page<MatchNotification> notifications = matchNotificationRepo
+                .findByRecipientUserIdOrderByMatchNotificationIdDesc(currentUserId, pageable);
+        Page<NewMatchResponse> response = notifications.map(notification -> NewMatchResponse.builder()
+                .matchNotificationId(notification.getMatchNotificationId())
+                .matchedUserId(notification.getMatchedUserId())
+                .matchedProfileId(notification.getMatchedProfileId())
+                .seen(notification.isSeen())
+                .createdAt(notification.getCreatedAt())
+                .build());
+        List<Integer> unseen = notifications.stream()
+                .filter(notification -> !notification.isSeen())
+                .map(MatchNotification::getMatchNotificationId)
+                .toList();
+        if (!unseen.isEmpty()) {
+            matchNotificationRepo.markSeen(currentUserId, unseen);
+        }
+        return response;
+    }
+
     public Integer getCurrentUserId() {
         return ownershipService.getCurrentUserId();
     }
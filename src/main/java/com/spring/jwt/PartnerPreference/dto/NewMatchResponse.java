@@ -0,0 +1,37 @@
+package com.spring.jwt.PartnerPreference.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for a profile that newly satisfies the user's partner preferences.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "New match for the user's partner preferences")
+public class NewMatchResponse {
+
+    @Schema(description = "Notification identifier", example = "1")
+    private Integer matchNotificationId;
+
+    @Schema(description = "User ID of the matching profile's owner", example = "42")
+    private Integer matchedUserId;
+
+    @Schema(description = "ID of the matching profile", example = "17")
+    private Integer matchedProfileId;
+
+    @Schema(description = "Whether the match had already been listed to the user", example = "false")
+    private boolean seen;
+
+    @Schema(description = "When the match was found")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,139 @@
+package com.spring.jwt.PartnerPreference.match;
+
+import com.spring.jwt.entity.Enums.Gender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A partner preference compiled into a query over profiles: range predicates on age,
+ * height and income and set predicates on religion, caste and marital status. A null
+ * range or an empty set accepts anything.
+ *
+ * @param targetGender gender of the profiles the owner is looking for, or null if unknown
+ */
+public record CompiledPreference(
+        int preferenceId,
+        int ownerUserId,
+        Gender targetGender,
+        Range age,
+        Range heightCm,
+        Integer minIncome,
+        Set<String> religions,
+        Set<String> castes,
+        Set<String> maritalStatuses) {
+
+    /** Ranges spanning more than this many buckets are too broad to index the query under */
+    static final int MAX_ANCHOR_BUCKETS = 30;
+    static final int HEIGHT_BUCKET_CM = 5;
+    static final String ANY_GENDER = "*";
+
+    /**
+     * An inclusive range of whole numbers
+     */
+    public record Range(int min, int max) {
+        public boolean contains(int value) {
+            return value >= min && value <= max;
+        }
+    }
+
+    /**
+     * Whether the profile satisfies every predicate. A profile that lacks a constrained
+     * attribute does not satisfy it; nobody is matched against their own preference.
+     */
+    public boolean matches(ProfileFacts profile) {
+        if (profile.userId() != null && profile.userId() == ownerUserId) {
+            return false;
+        }
+        if (targetGender != null && targetGender != profile.gender()) {
+            return false;
+        }
+        if (age != null && (profile.age() == null || !age.contains(profile.age()))) {
+            return false;
+        }
+        if (heightCm != null && (profile.height() == null || !heightCm.contains((int) Math.round(profile.height())))) {
+            return false;
+        }
+        if (minIncome != null && (profile.income() == null || profile.income() < minIncome)) {
+            return false;
+        }
+        return accepts(religions, profile.religion())
+                && accepts(castes, profile.caste())
+                && accepts(maritalStatuses, profile.maritalStatus());
+    }
+
+    /**
+     * The terms the query is indexed under, from its most selective predicate: any
+     * profile it matches carries at least one of them. Caste names are the most
+     * selective, then a bounded age band, then religion, a height band and marital
+     * status; a query with none of these is indexed under a catch-all term.
+     */
+    public List<String> anchors() {
+        String gender = targetGender != null ? targetGender.name() : ANY_GENDER;
+        List<String> anchors = new ArrayList<>();
+        if (!castes.isEmpty()) {
+            castes.forEach(caste -> anchors.add(anchor(gender, Term.CASTE, caste)));
+        } else if (age != null && age.max() - age.min() < MAX_ANCHOR_BUCKETS) {
+            for (int year = age.min(); year <= age.max(); year++) {
+                anchors.add(anchor(gender, Term.AGE, Integer.toString(year)));
+            }
+        } else if (!religions.isEmpty()) {
+            religions.forEach(religion -> anchors.add(anchor(gender, Term.RELIGION, religion)));
+        } else if (heightCm != null
+                && heightBucket(heightCm.max()) - heightBucket(heightCm.min()) < MAX_ANCHOR_BUCKETS) {
+            for (int bucket = heightBucket(heightCm.min()); bucket <= heightBucket(heightCm.max()); bucket++) {
+                anchors.add(anchor(gender, Term.HEIGHT, Integer.toString(bucket)));
+            }
+        } else if (!maritalStatuses.isEmpty()) {
+            maritalStatuses.forEach(status -> anchors.add(anchor(gender, Term.MARITAL_STATUS, status)));
+        } else {
+            anchors.add(anchor(gender, Term.ANY, ""));
+        }
+        return anchors;
+    }
+
+    /**
+     * Every term a query matching this profile can be indexed under
+     */
+    public static List<String> probes(ProfileFacts profile) {
+        List<String> probes = new ArrayList<>();
+        List<String> genders = profile.gender() != null ? List.of(profile.gender().name(), ANY_GENDER) : List.of(ANY_GENDER);
+        for (String gender : genders) {
+            if (profile.caste() != null) {
+                probes.add(anchor(gender, Term.CASTE, PreferenceCompiler.fold(profile.caste())));
+            }
+            if (profile.age() != null) {
+                probes.add(anchor(gender, Term.AGE, Integer.toString(profile.age())));
+            }
+            if (profile.religion() != null) {
+                probes.add(anchor(gender, Term.RELIGION, PreferenceCompiler.fold(profile.religion())));
+            }
+            if (profile.height() != null) {
+                probes.add(anchor(gender, Term.HEIGHT,
+                        Integer.toString(heightBucket((int) Math.round(profile.height())))));
+            }
+            if (profile.maritalStatus() != null) {
+                probes.add(anchor(gender, Term.MARITAL_STATUS, PreferenceCompiler.fold(profile.maritalStatus())));
+            }
+            probes.add(anchor(gender, Term.ANY, ""));
+        }
+        return probes;
+    }
+
+    private enum Term {
+        CASTE, AGE, RELIGION, HEIGHT, MARITAL_STATUS, ANY
+    }
+
+    private static String anchor(String gender, Term term, String value) {
+        return gender + '|' + term + '|' + value;
+    }
+
+    private static int heightBucket(int heightCm) {
+        return heightCm / HEIGHT_BUCKET_CM;
+    }
+
+    private static boolean accepts(Set<String> accepted, String value) {
+        return accepted.isEmpty() || (value != null && accepted.contains(PreferenceCompiler.fold(value)));
+    }
+}
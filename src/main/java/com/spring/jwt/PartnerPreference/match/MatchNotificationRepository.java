@@ -0,0 +1,36 @@
+package com.spring.jwt.PartnerPreference.match;
+
+import com.spring.jwt.entity.MatchNotification;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MatchNotificationRepository extends JpaRepository<MatchNotification, Integer> {
+
+    /**
+     * A recipient's notifications, newest first
+     */
+    Page<MatchNotification> findByRecipientUserIdOrderByMatchNotificationIdDesc(Integer recipientUserId,
+                                                                                Pageable pageable);
+
+    /**
+     * Recipients among the given users who have already been told about the matched user
+     */
+    @Query("SELECT n.recipientUserId FROM MatchNotification n " +
+           "WHERE n.matchedUserId = :matchedUserId AND n.recipientUserId IN :recipientUserIds")
+    List<Integer> findNotifiedRecipients(@Param("matchedUserId") Integer matchedUserId,
+                                         @Param("recipientUserIds") Collection<Integer> recipientUserIds);
+
+    @Modifying
+    @Query("UPDATE MatchNotification n SET n.seen = true " +
+           "WHERE n.recipientUserId = :recipientUserId AND n.matchNotificationId IN :ids AND n.seen = false")
+    int markSeen(@Param("recipientUserId") Integer recipientUserId, @Param("ids") Collection<Integer> ids);
+}
@@ -0,0 +1,156 @@
+package com.spring.jwt.PartnerPreference.match;
+
+import com.spring.jwt.entity.Enums.Status;
+import com.spring.jwt.entity.MatchNotification;
+import com.spring.jwt.profile.ProfileMatchingChangeEvent;
+import com.spring.jwt.repository.UserProfileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records "new match for you" notifications when a profile is created, activated, or
+ * changes an attribute preferences are matched on (a {@link ProfileMatchingChangeEvent}).
+ *
+ * Once the profile write commits, the profile is run through the {@link PreferencePercolator}
+ * on the {@code matchNotificationExecutor}, off the request thread, and every owner of a
+ * preference it now satisfies gets a notification, unless they were already told about
+ * this user or own the profile themselves. Only active profiles are announced. A profile
+ * matching very many preferences notifies the first owners up to a cap, so one broad
+ * profile update cannot turn into an unbounded write.
+ */
+@Component
+@Slf4j
+public class NewMatchNotifier {
+
+    private final UserProfileRepository userProfileRepository;
+    private final MatchNotificationRepository matchNotificationRepository;
+    private final PreferencePercolator percolator;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor matchNotificationExecutor;
+    private final boolean enabled;
+    private final int maxNotificationsPerProfile;
+
+    private final AtomicLong notificationsCreated = new AtomicLong();
+
+    public NewMatchNotifier(UserProfileRepository userProfileRepository,
+                            MatchNotificationRepository matchNotificationRepository,
+                            PreferencePercolator percolator,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier("matchNotificationExecutor") Executor matchNotificationExecutor,
+                            @Value("${app.partner-preference.match.notifications-enabled:true}") boolean enabled,
+                            @Value("${app.partner-preference.match.max-notifications-per-profile:500}") int maxNotificationsPerProfile) {
+        this.userProfileRepository = userProfileRepository;
+        this.matchNotificationRepository = matchNotificationRepository;
+        this.percolator = percolator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.matchNotificationExecutor = matchNotificationExecutor;
+        this.enabled = enabled;
+        this.maxNotificationsPerProfile = maxNotificationsPerProfile;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMatchingChange(ProfileMatchingChangeEvent event) {
+        if (!enabled || event.profileId() == null) {
+            return;
+        }
+        Integer profileId = event.profileId();
+        try {
+            matchNotificationExecutor.execute(() -> announce(profileId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Match notification queue full, profile {} is not announced", profileId);
+        }
+    }
+
+    private void announce(Integer profileId) {
+        try {
+            notifyMatches(profileId);
+        } catch (DataIntegrityViolationException e) {
+            // Another node announced the same profile at the same time; its notifications stand
+            log.debug("Match notifications for profile {} were written concurrently", profileId);
+        } catch (RuntimeException e) {
+            // The profile write has committed; its next matching change announces it again
+            log.warn("Failed to notify matches of profile {}: {}", profileId, e.getMessage());
+        }
+    }
+
+    /**
+     * Notify the owners of every preference the profile satisfies who have not been told
+     * about its user yet
+     *
+     * @return number of notifications created
+     */
+    public int notifyMatches(Integer profileId) {
+        if (!percolator.isReady()) {
+            return 0;
+        }
+        Integer created = transactionTemplate.execute(status -> {
+            Optional<ProfileFacts> facts = userProfileRepository.findProfileFacts(profileId);
+            if (facts.isEmpty() || facts.get().status() != Status.ACTIVE || facts.get().userId() == null) {
+                return 0;
+            }
+            ProfileFacts profile = facts.get();
+            List<PreferencePercolator.Match> matches = percolator.match(profile);
+            if (matches.isEmpty()) {
+                return 0;
+            }
+            // Nobody is told about their own profile, whatever the percolator returns
+            Set<Integer> notified = new HashSet<>(Set.of(profile.userId()));
+            for (int from = 0; from < matches.size(); from += 1000) {
+                List<Integer> owners = matches.subList(from, Math.min(matches.size(), from + 1000)).stream()
+                        .map(PreferencePercolator.Match::ownerUserId)
+                        .toList();
+                notified.addAll(matchNotificationRepository.findNotifiedRecipients(profile.userId(), owners));
+            }
+            LocalDateTime now = LocalDateTime.now();
+            int count = 0;
+            for (PreferencePercolator.Match match : matches) {
+                if (count == maxNotificationsPerProfile) {
+                    log.info("Profile {} matches more than {} preferences; notified the first {}",
+                            profileId, maxNotificationsPerProfile, maxNotificationsPerProfile);
+                    break;
+                }
+                if (!notified.add(match.ownerUserId())) {
+                    continue;
+                }
+                MatchNotification notification = new MatchNotification();
+                notification.setRecipientUserId(match.ownerUserId());
+                notification.setPartnerPreferenceId(match.preferenceId());
+                notification.setMatchedUserId(profile.userId());
+                notification.setMatchedProfileId(profileId);
+                notification.setCreatedAt(now);
+                matchNotificationRepository.save(notification);
+                count++;
+            }
+            return count;
+        });
+        int result = created != null ? created : 0;
+        notificationsCreated.addAndGet(result);
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(percolator.getStats());
+        stats.put("notificationsCreated", notificationsCreated.get());
+        return stats;
+    }
+}
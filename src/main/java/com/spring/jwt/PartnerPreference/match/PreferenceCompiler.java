@@ -0,0 +1,170 @@
+package com.spring.jwt.PartnerPreference.match;
+
+import com.spring.jwt.PartnerPreference.search.ValueDictionary;
+import com.spring.jwt.entity.Enums.Gender;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the free-text columns of a partner preference into a {@link CompiledPreference}.
+ *
+ * Age ranges are written "25-30" or "25 to 30". Height ranges come in feet and inches
+ * (5'4" - 5'8", 5 ft 4 in), centimetres (160-175 cm) or a mix; a side without a unit
+ * takes the other side's, and failing that is read as centimetres from 100 up and as
+ * feet below 9. Set columns list their values separated by commas, slashes or "or", and
+ * words such as "any" or "doesn't matter" mean no constraint. A column that cannot be
+ * read constrains nothing, so a malformed preference matches too much rather than
+ * silently matching nobody.
+ */
+public final class PreferenceCompiler {
+
+    private static final Pattern AGE_RANGE = Pattern.compile("^\\s*(\\d{1,3})\\s*(?:-|to)\\s*(\\d{1,3})\\s*$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern HEIGHT_SIDES = Pattern.compile("\\s+to\\s+|\\s*[-–]\\s*",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern FEET_INCHES = Pattern.compile(
+            "^(\\d+(?:\\.\\d+)?)\\s*(?:'|ft|feet|foot)\\s*(?:(\\d+(?:\\.\\d+)?)\\s*(?:\"|''|in|inch|inches)?)?$");
+    private static final Pattern INCHES = Pattern.compile("^(\\d+(?:\\.\\d+)?)\\s*(?:\"|''|in|inch|inches)$");
+    private static final Pattern CENTIMETRES = Pattern.compile("^(\\d+(?:\\.\\d+)?)\\s*(?:cm|cms|centimeters?|centimetres?)$");
+    private static final Pattern NUMBER = Pattern.compile("^(\\d+(?:\\.\\d+)?)$");
+    private static final Pattern LIST_SEPARATORS = Pattern.compile("\\s*(?:[,/|;]|\\bor\\b|\\band\\b)\\s*",
+            Pattern.CASE_INSENSITIVE);
+    private static final Set<String> WILDCARDS = Set.of("any", "anyone", "all", "open to all", "doesn't matter",
+            "does not matter", "doesnt matter", "no preference", "no bar", "not specified");
+
+    private static final double CM_PER_INCH = 2.54;
+
+    private PreferenceCompiler() {
+    }
+
+    public static CompiledPreference compile(StoredPreference preference) {
+        return new CompiledPreference(
+                preference.partnerPreferenceId(),
+                preference.ownerUserId() != null ? preference.ownerUserId() : 0,
+                opposite(preference.ownerGender()),
+                ageRange(preference.ageRange()),
+                heightRange(preference.heightRange()),
+                preference.partnerIncome() != null && preference.partnerIncome() > 0 ? preference.partnerIncome() : null,
+                values(preference.religion()),
+                values(preference.caste()),
+                values(preference.maritalStatus()));
+    }
+
+    /**
+     * Fold a value the same way on both sides of a comparison
+     */
+    public static String fold(String value) {
+        return ValueDictionary.fold(value.trim().replaceAll("\\s+", " "));
+    }
+
+    static CompiledPreference.Range ageRange(String ageRange) {
+        if (ageRange == null) {
+            return null;
+        }
+        Matcher matcher = AGE_RANGE.matcher(ageRange);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return ordered(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+
+    static CompiledPreference.Range heightRange(String heightRange) {
+        if (heightRange == null || heightRange.isBlank()) {
+            return null;
+        }
+        String[] sides = HEIGHT_SIDES.split(heightRange.trim().toLowerCase(), -1);
+        if (sides.length != 2) {
+            return null;
+        }
+        Unit lowUnit = unitOf(sides[0].trim());
+        Unit highUnit = unitOf(sides[1].trim());
+        Double low = centimetres(sides[0].trim(), lowUnit != null ? lowUnit : highUnit);
+        Double high = centimetres(sides[1].trim(), highUnit != null ? highUnit : lowUnit);
+        if (low == null || high == null) {
+            return null;
+        }
+        return ordered((int) Math.floor(low), (int) Math.ceil(high));
+    }
+
+    static Set<String> values(String column) {
+        if (column == null || column.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> values = new LinkedHashSet<>();
+        for (String value : LIST_SEPARATORS.split(column.trim())) {
+            if (value.isBlank()) {
+                continue;
+            }
+            String folded = fold(value);
+            if (WILDCARDS.contains(folded)) {
+                return Collections.emptySet();
+            }
+            values.add(folded);
+        }
+        return values.isEmpty() ? Collections.emptySet() : Set.copyOf(values);
+    }
+
+    private enum Unit {
+        FEET, INCHES, CENTIMETRES
+    }
+
+    private static Unit unitOf(String side) {
+        if (FEET_INCHES.matcher(side).matches()) {
+            return Unit.FEET;
+        }
+        if (INCHES.matcher(side).matches()) {
+            return Unit.INCHES;
+        }
+        if (CENTIMETRES.matcher(side).matches()) {
+            return Unit.CENTIMETRES;
+        }
+        return null;
+    }
+
+    private static Double centimetres(String side, Unit unit) {
+        Matcher feet = FEET_INCHES.matcher(side);
+        if (feet.matches()) {
+            double inches = feet.group(2) != null ? Double.parseDouble(feet.group(2)) : 0;
+            return (Double.parseDouble(feet.group(1)) * 12 + inches) * CM_PER_INCH;
+        }
+        Matcher inches = INCHES.matcher(side);
+        if (inches.matches()) {
+            return Double.parseDouble(inches.group(1)) * CM_PER_INCH;
+        }
+        Matcher cm = CENTIMETRES.matcher(side);
+        if (cm.matches()) {
+            return Double.parseDouble(cm.group(1));
+        }
+        Matcher number = NUMBER.matcher(side);
+        if (!number.matches()) {
+            return null;
+        }
+        double value = Double.parseDouble(number.group(1));
+        if (unit == null) {
+            unit = value >= 100 ? Unit.CENTIMETRES : value < 9 ? Unit.FEET : null;
+        }
+        if (unit == null) {
+            return null;
+        }
+        return switch (unit) {
+            case FEET -> value * 12 * CM_PER_INCH;
+            case INCHES -> value * CM_PER_INCH;
+            case CENTIMETRES -> value;
+        };
+    }
+
+    private static CompiledPreference.Range ordered(int a, int b) {
+        return new CompiledPreference.Range(Math.min(a, b), Math.max(a, b));
+    }
+
+    private static Gender opposite(Gender gender) {
+        if (gender == null) {
+            return null;
+        }
+        return gender == Gender.MALE ? Gender.FEMALE : Gender.MALE;
+    }
+}
@@ -0,0 +1,127 @@
+package com.spring.jwt.PartnerPreference.match;
+
+import com.spring.jwt.profile.search.CompressedBitmap;
+import com.spring.jwt.search.LiveIndex;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reverse index over stored partner preferences: given a profile, finds the preferences
+ * it satisfies without evaluating every one of them.
+ *
+ * Each preference is compiled into a {@link CompiledPreference} and posted under the
+ * terms of its most selective predicate only (see {@link CompiledPreference#anchors()}).
+ * A profile probes the terms it carries, for its own gender and for preferences whose
+ * owner's gender is unknown; the union of those postings is a small superset of the
+ * matches, and only those candidates are evaluated in full.
+ *
+ * Filled by the partner preference indexer alongside the search index.
+ */
+@Component
+public class PreferencePercolator extends LiveIndex<StoredPreference, PreferencePercolator.State> {
+
+    /**
+     * A preference the profile satisfies, and who owns it
+     */
+    public record Match(int preferenceId, int ownerUserId) {
+    }
+
+    private final AtomicLong percolations = new AtomicLong();
+    private final AtomicLong candidatesExamined = new AtomicLong();
+    private final AtomicLong matchesFound = new AtomicLong();
+
+    public PreferencePercolator() {
+        super(new State());
+    }
+
+    @Override
+    protected State build(List<StoredPreference> preferences) {
+        State state = new State();
+        preferences.forEach(state::upsert);
+        return state;
+    }
+
+    @Override
+    protected Integer idOf(StoredPreference preference) {
+        return preference.partnerPreferenceId();
+    }
+
+    /**
+     * The stored preferences this profile satisfies, in preference ID order
+     */
+    public List<Match> match(ProfileFacts profile) {
+        List<Match> matches = new ArrayList<>();
+        int candidates = read(state -> {
+            CompressedBitmap candidateIds = new CompressedBitmap();
+            for (String probe : CompiledPreference.probes(profile)) {
+                CompressedBitmap posting = state.postings.get(probe);
+                if (posting != null) {
+                    candidateIds = candidateIds.or(posting);
+                }
+            }
+            candidateIds.forEach(preferenceId -> {
+                CompiledPreference compiled = state.preferences.get(preferenceId);
+                if (compiled.matches(profile)) {
+                    matches.add(new Match(preferenceId, compiled.ownerUserId()));
+                }
+            });
+            return candidateIds.cardinality();
+        });
+        percolations.incrementAndGet();
+        candidatesExamined.addAndGet(candidates);
+        matchesFound.addAndGet(matches.size());
+        return matches;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = read(state -> {
+            Map<String, Object> sizes = new LinkedHashMap<>();
+            sizes.put("ready", isReady());
+            sizes.put("preferences", state.preferences.size());
+            sizes.put("terms", state.postings.size());
+            return sizes;
+        });
+        stats.put("percolations", percolations.get());
+        stats.put("candidatesExamined", candidatesExamined.get());
+        stats.put("matchesFound", matchesFound.get());
+        return stats;
+    }
+
+    static final class State implements LiveIndex.State<StoredPreference> {
+        private final Map<Integer, CompiledPreference> preferences = new HashMap<>();
+        private final Map<String, CompressedBitmap> postings = new HashMap<>();
+
+        @Override
+        public void upsert(StoredPreference preference) {
+            CompiledPreference compiled = PreferenceCompiler.compile(preference);
+            remove(compiled.preferenceId());
+            preferences.put(compiled.preferenceId(), compiled);
+            for (String anchor : compiled.anchors()) {
+                postings.computeIfAbsent(anchor, key -> new CompressedBitmap()).add(compiled.preferenceId());
+            }
+        }
+
+        @Override
+        public void remove(Integer preferenceId) {
+            CompiledPreference previous = preferences.remove(preferenceId);
+            if (previous == null) {
+                return;
+            }
+            for (String anchor : previous.anchors()) {
+                CompressedBitmap posting = postings.get(anchor);
+                if (posting != null) {
+                    posting.remove(preferenceId);
+                    if (posting.isEmpty()) {
+                        postings.remove(anchor);
+                    }
+                }
+            }
+        }
+    }
+}
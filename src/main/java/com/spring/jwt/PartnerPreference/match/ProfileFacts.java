@@ -0,0 +1,21 @@
+package com.spring.jwt.PartnerPreference.match;
+
+import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.entity.Enums.Status;
+
+/**
+ * What stored preferences are evaluated against: a profile's own attributes and the
+ * yearly income from its education and profession details, if any
+ */
+public record ProfileFacts(
+        Integer profileId,
+        Integer userId,
+        Gender gender,
+        Status status,
+        Integer age,
+        Double height,
+        String religion,
+        String caste,
+        String maritalStatus,
+        Integer income) {
+}
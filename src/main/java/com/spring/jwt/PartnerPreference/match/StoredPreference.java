@@ -0,0 +1,19 @@
+package com.spring.jwt.PartnerPreference.match;
+
+import com.spring.jwt.entity.Enums.Gender;
+
+/**
+ * The columns of a partner preference that {@link PreferenceCompiler} turns into a query,
+ * with the owner's user id and gender
+ */
+public record StoredPreference(
+        Integer partnerPreferenceId,
+        Integer ownerUserId,
+        Gender ownerGender,
+        String ageRange,
+        String heightRange,
+        String religion,
+        String caste,
+        String maritalStatus,
+        Integer partnerIncome) {
+}
@@ -0,0 +1,20 @@
+package com.spring.jwt.PartnerPreference.search;
+
+/**
+ * The searchable columns of one partner preference, as held by {@link PartnerPreferenceSearchIndex}
+ */
+public record IndexedPreference(
+        Integer partnerPreferenceId,
+        String religion,
+        String caste,
+        String education,
+        String maritalStatus,
+        String cityLivingIn,
+        String stateLivingIn,
+        String countryLivingIn,
+        String partnerOccupation,
+        String eatingHabits,
+        String drinkingHabits,
+        String smokingHabits,
+        Integer partnerIncome) {
+}
@@ -0,0 +1,72 @@
+package com.spring.jwt.PartnerPreference.search;
+
+import com.spring.jwt.PartnerPreference.PartnerPreferenceRepository;
+import com.spring.jwt.PartnerPreference.match.PreferencePercolator;
+import com.spring.jwt.cache.EntityChangeEvent;
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
+import com.spring.jwt.search.TableIndexer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the {@link PartnerPreferenceSearchIndex} and the {@link PreferencePercolator} in
+ * step with the partner_preference table, the same way the profile search index is kept
+ * in step with user_profile.
+ */
+@Component
+public class PartnerPreferenceIndexer extends TableIndexer {
+
+    private final PartnerPreferenceRepository partnerPreferenceRepository;
+    private final List<Feed<?>> feeds;
+
+    public PartnerPreferenceIndexer(PartnerPreferenceRepository partnerPreferenceRepository,
+                                    PartnerPreferenceSearchIndex index,
+                                    PreferencePercolator percolator,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.partner-preference.search.index-enabled:true}") boolean enabled,
+                                    @Value("${app.partner-preference.search.batch-size:5000}") int batchSize,
+                                    @Value("${app.partner-preference.search.sync-overlap-seconds:60}") long syncOverlapSeconds) {
+        super("partner preference search index", transactionManager, enabled, batchSize, syncOverlapSeconds);
+        this.partnerPreferenceRepository = partnerPreferenceRepository;
+        this.feeds = List.of(
+                new Feed<>(index, partnerPreferenceRepository::findIndexedPreferences,
+                        partnerPreferenceRepository::findIndexedPreferencesByIds),
+                new Feed<>(percolator, partnerPreferenceRepository::findStoredPreferences,
+                        partnerPreferenceRepository::findStoredPreferencesByIds));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.getEntityType() == EntityType.PARTNER_PREFERENCE && event.getEntityId() instanceof Integer preferenceId) {
+            reindex(List.of(preferenceId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.partner-preference.search.sync-interval-ms:60000}",
+               initialDelayString = "${app.partner-preference.search.sync-interval-ms:60000}")
+    public void syncScheduled() {
+        syncOrRebuild();
+    }
+
+    @Override
+    protected List<Feed<?>> feeds() {
+        return feeds;
+    }
+
+    @Override
+    protected LocalDateTime findLatestUpdate() {
+        return partnerPreferenceRepository.findLatestUpdate();
+    }
+
+    @Override
+    protected List<Integer> findIdsUpdatedSince(LocalDateTime since) {
+        return partnerPreferenceRepository.findIdsUpdatedSince(since);
+    }
+}
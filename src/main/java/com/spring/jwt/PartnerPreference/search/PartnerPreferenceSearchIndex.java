@@ -0,0 +1,266 @@
+package com.spring.jwt.PartnerPreference.search;
+
+import com.spring.jwt.profile.search.CompressedBitmap;
+import com.spring.jwt.search.LiveIndex;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index answering partner preference searches without scanning the table
+ *
+ * The repository's searches match every text filter with {@code LOWER(column) LIKE
+ * '%value%'}, which no database index can serve. Here each searchable column keeps a
+ * {@link ValueDictionary} of its distinct values and, per value, a {@link CompressedBitmap}
+ * of the preferences holding it. A text filter is resolved against the dictionary's
+ * trigram index to the values containing it, whose postings are OR-ed together; the
+ * filters are then AND-ed, smallest first, and the income range is checked per match.
+ *
+ * The index is filled by {@link PartnerPreferenceIndexer}, which rebuilds it from the
+ * database and feeds it preference changes.
+ */
+@Component
+public class PartnerPreferenceSearchIndex extends LiveIndex<IndexedPreference, PartnerPreferenceSearchIndex.State> {
+
+    // Stands in for a missing income; sorts first and never matches a range
+    private static final int NO_INCOME = Integer.MIN_VALUE;
+    private static final int MIN_REMOVED_BEFORE_COMPACTION = 1024;
+
+    /**
+     * Orders the index can page by
+     */
+    public enum SortField {
+        PREFERENCE_ID,
+        INCOME;
+
+        /**
+         * The sort field for an entity property name, or null if the index cannot order by it.
+         * Creation order is preference ID order, since IDs are assigned in insertion order.
+         */
+        public static SortField of(String property) {
+            return switch (property) {
+                case "partnerPreferenceId", "createdAt" -> PREFERENCE_ID;
+                case "partnerIncome" -> INCOME;
+                default -> null;
+            };
+        }
+    }
+
+    /**
+     * One page of matching preference IDs in the requested order, and the number of matches
+     */
+    public record SearchHits(List<Integer> preferenceIds, int total) {
+    }
+
+    public PartnerPreferenceSearchIndex() {
+        super(new State());
+    }
+
+    @Override
+    protected State build(List<IndexedPreference> preferences) {
+        return State.of(preferences);
+    }
+
+    @Override
+    protected Integer idOf(IndexedPreference preference) {
+        return preference.partnerPreferenceId();
+    }
+
+    /**
+     * Preferences matching the query, as the page starting at {@code offset}
+     */
+    public SearchHits search(PreferenceQuery query, SortField sortField, boolean ascending, int offset, int limit) {
+        return read(state -> state.page(state.match(query), sortField, ascending, offset, limit));
+    }
+
+    /**
+     * Number of preferences whose column contains the value, ignoring case
+     */
+    public int count(PreferenceField field, String value) {
+        return read(state -> state.columns.get(field).containing(value).cardinality());
+    }
+
+    /**
+     * Whether removals have built up enough that a rebuild would compact the index
+     */
+    @Override
+    public boolean needsCompaction() {
+        return read(state -> state.removed > Math.max(MIN_REMOVED_BEFORE_COMPACTION, state.ordinals.size() / 4));
+    }
+
+    static final class State implements LiveIndex.State<IndexedPreference> {
+
+        private final Map<Integer, Integer> ordinals = new HashMap<>();
+        private IndexedPreference[] preferences = new IndexedPreference[16];
+        private int[] incomes = new int[16];
+        private int nextOrdinal;
+        private int removed;
+
+        private final CompressedBitmap live = new CompressedBitmap();
+        private final Map<PreferenceField, Column> columns = new EnumMap<>(PreferenceField.class);
+
+        private State() {
+            for (PreferenceField field : PreferenceField.values()) {
+                columns.put(field, new Column());
+            }
+        }
+
+        private static State of(List<IndexedPreference> preferences) {
+            List<IndexedPreference> sorted = new ArrayList<>(preferences);
+            sorted.sort(Comparator.comparing(IndexedPreference::partnerPreferenceId));
+            State state = new State();
+            sorted.forEach(state::upsert);
+            return state;
+        }
+
+        @Override
+        public void upsert(IndexedPreference preference) {
+            Integer ordinal = ordinals.get(preference.partnerPreferenceId());
+            if (ordinal != null) {
+                unindex(ordinal);
+            } else {
+                ordinal = nextOrdinal++;
+                ensureCapacity(nextOrdinal);
+                ordinals.put(preference.partnerPreferenceId(), ordinal);
+            }
+            preferences[ordinal] = preference;
+            incomes[ordinal] = preference.partnerIncome() != null ? preference.partnerIncome() : NO_INCOME;
+            live.add(ordinal);
+            for (Map.Entry<PreferenceField, Column> column : columns.entrySet()) {
+                column.getValue().add(column.getKey().valueOf(preference), ordinal);
+            }
+        }
+
+        @Override
+        public void remove(Integer preferenceId) {
+            Integer ordinal = ordinals.remove(preferenceId);
+            if (ordinal != null) {
+                unindex(ordinal);
+                removed++;
+            }
+        }
+
+        private void unindex(int ordinal) {
+            IndexedPreference preference = preferences[ordinal];
+            live.remove(ordinal);
+            for (Map.Entry<PreferenceField, Column> column : columns.entrySet()) {
+                column.getValue().remove(column.getKey().valueOf(preference), ordinal);
+            }
+            preferences[ordinal] = null;
+        }
+
+        private CompressedBitmap match(PreferenceQuery query) {
+            List<CompressedBitmap> terms = new ArrayList<>();
+            addTerm(terms, PreferenceField.RELIGION, query.religion());
+            addTerm(terms, PreferenceField.CASTE, query.caste());
+            addTerm(terms, PreferenceField.EDUCATION, query.education());
+            addTerm(terms, PreferenceField.MARITAL_STATUS, query.maritalStatus());
+            addTerm(terms, PreferenceField.EATING_HABITS, query.eatingHabits());
+            addTerm(terms, PreferenceField.DRINKING_HABITS, query.drinkingHabits());
+            addTerm(terms, PreferenceField.SMOKING_HABITS, query.smokingHabits());
+            if (query.location() != null) {
+                terms.add(columns.get(PreferenceField.CITY).containing(query.location())
+                        .or(columns.get(PreferenceField.STATE).containing(query.location()))
+                        .or(columns.get(PreferenceField.COUNTRY).containing(query.location())));
+            }
+
+            CompressedBitmap matches = live;
+            if (!terms.isEmpty()) {
+                terms.sort(Comparator.comparingInt(CompressedBitmap::cardinality));
+                matches = terms.get(0);
+                for (int i = 1; i < terms.size() && !matches.isEmpty(); i++) {
+                    matches = matches.and(terms.get(i));
+                }
+            }
+            if (query.minIncome() == null && query.maxIncome() == null) {
+                return matches;
+            }
+            long low = query.minIncome() != null ? query.minIncome() : NO_INCOME + 1L;
+            long high = query.maxIncome() != null ? query.maxIncome() : Integer.MAX_VALUE;
+            CompressedBitmap inRange = new CompressedBitmap();
+            matches.forEach(ordinal -> {
+                if (incomes[ordinal] != NO_INCOME && incomes[ordinal] >= low && incomes[ordinal] <= high) {
+                    inRange.add(ordinal);
+                }
+            });
+            return inRange;
+        }
+
+        private void addTerm(List<CompressedBitmap> terms, PreferenceField field, String value) {
+            if (value != null) {
+                terms.add(columns.get(field).containing(value));
+            }
+        }
+
+        /**
+         * The page of matches in the requested order; ties in income are broken by preference ID
+         */
+        private SearchHits page(CompressedBitmap matches, SortField sortField, boolean ascending, int offset,
+                                int limit) {
+            int total = matches.cardinality();
+            long[] entries = new long[total];
+            int[] count = {0};
+            matches.forEach(ordinal -> {
+                int preferenceId = preferences[ordinal].partnerPreferenceId();
+                int value = sortField == SortField.INCOME ? incomes[ordinal] : preferenceId;
+                entries[count[0]++] = ((long) value << 32) | (preferenceId & 0xFFFFFFFFL);
+            });
+            Arrays.sort(entries);
+
+            List<Integer> page = new ArrayList<>(Math.max(0, Math.min(limit, total - offset)));
+            for (long rank = offset; rank < total && page.size() < limit; rank++) {
+                page.add((int) entries[(int) (ascending ? rank : total - 1 - rank)]);
+            }
+            return new SearchHits(page, total);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > preferences.length) {
+                int newCapacity = Math.max(capacity, preferences.length * 2);
+                preferences = Arrays.copyOf(preferences, newCapacity);
+                incomes = Arrays.copyOf(incomes, newCapacity);
+            }
+        }
+    }
+
+    /**
+     * One searchable column: its value dictionary and, per value id, the preferences holding it
+     */
+    private static final class Column {
+
+        private final ValueDictionary dictionary = new ValueDictionary();
+        private final List<CompressedBitmap> postings = new ArrayList<>();
+
+        private void add(String value, int ordinal) {
+            if (value == null) {
+                return;
+            }
+            int id = dictionary.idOf(value);
+            while (postings.size() <= id) {
+                postings.add(new CompressedBitmap());
+            }
+            postings.get(id).add(ordinal);
+        }
+
+        private void remove(String value, int ordinal) {
+            if (value != null) {
+                postings.get(dictionary.idOf(value)).remove(ordinal);
+            }
+        }
+
+        /**
+         * Preferences whose value contains the needle; a null column value never matches
+         */
+        private CompressedBitmap containing(String needle) {
+            CompressedBitmap[] result = {new CompressedBitmap()};
+            dictionary.idsContaining(needle).forEach(id -> result[0] = result[0].or(postings.get(id)));
+            return result[0];
+        }
+    }
+}
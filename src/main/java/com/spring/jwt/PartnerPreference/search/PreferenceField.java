@@ -0,0 +1,30 @@
+package com.spring.jwt.PartnerPreference.search;
+
+import java.util.function.Function;
+
+/**
+ * Text columns of a partner preference that can be searched by substring
+ */
+public enum PreferenceField {
+    RELIGION(IndexedPreference::religion),
+    CASTE(IndexedPreference::caste),
+    EDUCATION(IndexedPreference::education),
+    MARITAL_STATUS(IndexedPreference::maritalStatus),
+    CITY(IndexedPreference::cityLivingIn),
+    STATE(IndexedPreference::stateLivingIn),
+    COUNTRY(IndexedPreference::countryLivingIn),
+    OCCUPATION(IndexedPreference::partnerOccupation),
+    EATING_HABITS(IndexedPreference::eatingHabits),
+    DRINKING_HABITS(IndexedPreference::drinkingHabits),
+    SMOKING_HABITS(IndexedPreference::smokingHabits);
+
+    private final Function<IndexedPreference, String> accessor;
+
+    PreferenceField(Function<IndexedPreference, String> accessor) {
+        this.accessor = accessor;
+    }
+
+    String valueOf(IndexedPreference preference) {
+        return accessor.apply(preference);
+    }
+}
@@ -0,0 +1,46 @@
+package com.spring.jwt.PartnerPreference.search;
+
+/**
+ * Filters for {@link PartnerPreferenceSearchIndex#search}, with the meaning of the
+ * repository's search queries: a null field matches every preference, a text field
+ * matches preferences whose column contains it ignoring case, and the location matches
+ * the city, state or country. Income bounds are inclusive and never match a preference
+ * without an income.
+ */
+public record PreferenceQuery(
+        String religion,
+        String caste,
+        String education,
+        Integer minIncome,
+        Integer maxIncome,
+        String location,
+        String maritalStatus,
+        String eatingHabits,
+        String drinkingHabits,
+        String smokingHabits) {
+
+    public static PreferenceQuery search(String religion, String caste, String education, Integer minIncome,
+                                         Integer maxIncome, String location, String maritalStatus) {
+        return new PreferenceQuery(religion, caste, education, minIncome, maxIncome, location, maritalStatus,
+                null, null, null);
+    }
+
+    public static PreferenceQuery lifestyle(String eatingHabits, String drinkingHabits, String smokingHabits) {
+        return new PreferenceQuery(null, null, null, null, null, null, null,
+                eatingHabits, drinkingHabits, smokingHabits);
+    }
+
+    /**
+     * Whether a text filter holds a LIKE wildcard ({@code %} or {@code _}), which the
+     * database would honour and the index matches literally
+     */
+    public boolean hasWildcards() {
+        for (String value : new String[]{religion, caste, education, location, maritalStatus,
+                eatingHabits, drinkingHabits, smokingHabits}) {
+            if (value != null && (value.indexOf('%') >= 0 || value.indexOf('_') >= 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
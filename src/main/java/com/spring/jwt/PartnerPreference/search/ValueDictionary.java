@@ -0,0 +1,96 @@
+package com.spring.jwt.PartnerPreference.search;
+
+import com.spring.jwt.profile.search.CompressedBitmap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Dictionary of the distinct case-folded values of one column, with a trigram index for
+ * substring lookups
+ *
+ * Each distinct value gets a dense id, so a column's postings can be kept per id rather
+ * than per row. A substring lookup intersects the postings of the needle's trigrams to
+ * find candidate values and confirms each one with a plain {@code contains}; needles
+ * shorter than a trigram are checked against every value. Either way the work grows
+ * with the number of distinct values, not with the number of rows. Not thread-safe.
+ */
+public final class ValueDictionary {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private final Map<String, CompressedBitmap> trigrams = new HashMap<>();
+
+    /**
+     * Fold a value the way the database compares it: lower case, nothing else
+     */
+    public static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The id of a value, adding it if it is new
+     */
+    public int idOf(String value) {
+        String folded = fold(value);
+        Integer id = ids.get(folded);
+        if (id != null) {
+            return id;
+        }
+        int newId = values.size();
+        ids.put(folded, newId);
+        values.add(folded);
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            trigrams.computeIfAbsent(folded.substring(i, i + GRAM), gram -> new CompressedBitmap()).add(newId);
+        }
+        return newId;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Ids of the values containing the needle, ignoring case. An empty needle matches
+     * every value, like {@code LIKE '%%'}.
+     */
+    public CompressedBitmap idsContaining(String needle) {
+        String folded = fold(needle);
+        CompressedBitmap result = new CompressedBitmap();
+        if (folded.length() < GRAM) {
+            for (int id = 0; id < values.size(); id++) {
+                if (values.get(id).contains(folded)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        List<CompressedBitmap> postings = new ArrayList<>();
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            CompressedBitmap posting = trigrams.get(folded.substring(i, i + GRAM));
+            if (posting == null) {
+                return result;
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(CompressedBitmap::cardinality));
+        CompressedBitmap candidates = postings.get(0);
+        for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+            candidates = candidates.and(postings.get(i));
+        }
+        // Sharing every trigram does not make the needle a substring ("abcxbcd" has "abc" and "bcd")
+        candidates.forEach(id -> {
+            if (values.get(id).contains(folded)) {
+                result.add(id);
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+package com.spring.jwt.admin;
+
+import com.spring.jwt.cache.CacheStatistics;
+import com.spring.jwt.utils.CacheUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/cache")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin Cache", description = "Admin operations for inspecting cache effectiveness")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminCacheController {
+
+    private final CacheUtils cacheUtils;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get cache statistics",
+               description = "Hit, miss, put, eviction and clear counts per cache region since startup or the last reset")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        Map<String, CacheStatistics> statistics = cacheUtils.getAllCacheStatistics();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Cache statistics retrieved successfully");
+        response.put("caches", statistics);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/stats/reset")
+    @Operation(summary = "Reset cache statistics",
+               description = "Reset the counters of every cache region without touching cached entries")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics reset successfully"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<Map<String, Object>> resetCacheStatistics() {
+        log.info("Admin resetting cache statistics");
+
+        cacheUtils.resetCacheStatistics();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Cache statistics reset successfully");
+
+        return ResponseEntity.ok(response);
+    }
+}
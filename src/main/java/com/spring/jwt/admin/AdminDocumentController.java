@@ -3,6 +3,10 @@ package com.spring.jwt.admin;
 import com.spring.jwt.dto.DocumentResponseDTO;
 import com.spring.jwt.dto.DocumentDetailResponseDTO;
 import com.spring.jwt.Document.DocumentService;
+import com.spring.jwt.Document.Service.DocumentBlobMigrator;
+import com.spring.jwt.Document.Service.DocumentContentStreamer;
+import com.spring.jwt.Document.Service.PhotoSimilarityIndex;
+import com.spring.jwt.Document.domain.SimilarPhoto;
 import com.spring.jwt.Enums.DocumentType;
 import com.spring.jwt.dto.ResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,6 +15,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,7 +27,10 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/admin/documents")
@@ -33,6 +43,9 @@ import java.util.List;
 public class AdminDocumentController {
 
     private final DocumentService documentService;
+    private final DocumentBlobMigrator documentBlobMigrator;
+    private final DocumentContentStreamer documentContentStreamer;
+    private final PhotoSimilarityIndex photoSimilarityIndex;
 
     @Operation(
         summary = "Upload document for user (Admin)",
@@ -269,6 +282,30 @@ public class AdminDocumentController {
                 .body(fileData);
     }
 
+    @Operation(
+        summary = "Stream document content (Admin)",
+        description = "Admin can stream any user's document, with Range and ETag support"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Document content"),
+        @ApiResponse(responseCode = "206", description = "Requested byte range"),
+        @ApiResponse(responseCode = "304", description = "Content unchanged since the given ETag"),
+        @ApiResponse(responseCode = "404", description = "Document not found"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @GetMapping("/{documentId}/user/{userId}/content")
+    public void streamDocumentContent(
+            @Parameter(description = "Document ID", required = true)
+            @PathVariable @Min(value = 1, message = "Invalid document ID") Integer documentId,
+            @Parameter(description = "User ID", required = true)
+            @PathVariable @Min(value = 1, message = "Invalid user ID") Integer userId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        log.info("Admin streaming document ID: {} for user: {}", documentId, userId);
+        documentContentStreamer.stream(documentService.getDocumentContent(userId, documentId), request, response);
+    }
+
     @Operation(
         summary = "Get document count for user (Admin)",
         description = "Admin can get total document count for any user"
@@ -310,4 +347,150 @@ public class AdminDocumentController {
         ResponseDto<Boolean> response = ResponseDto.success("Document existence checked successfully", exists);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @Operation(
+        summary = "Get document storage migration progress (Admin)",
+        description = "Number of documents whose content is still stored inline in the database"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Migration progress retrieved successfully"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @GetMapping("/storage/migration")
+    public ResponseEntity<Map<String, Object>> getStorageMigrationProgress() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Migration progress retrieved successfully");
+        response.put("progress", documentBlobMigrator.getProgress());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+        summary = "Run document storage migration (Admin)",
+        description = "Move inline document content to the content store now, in chunks"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Migration pass completed"),
+        @ApiResponse(responseCode = "409", description = "A migration pass is already running"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @PostMapping("/storage/migration/run")
+    public ResponseEntity<Map<String, Object>> runStorageMigration() {
+        log.info("Admin running document storage migration");
+        int moved = documentBlobMigrator.migrate();
+
+        Map<String, Object> response = new HashMap<>();
+        if (moved < 0) {
+            response.put("success", false);
+            response.put("message", "A migration pass is already running");
+            return ResponseEntity.status(409).body(response);
+        }
+        response.put("success", true);
+        response.put("message", "Migration pass completed");
+        response.put("moved", moved);
+        response.put("progress", documentBlobMigrator.getProgress());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+        summary = "Find similar photos (Admin)",
+        description = "Images of any user whose perceptual hash is within the given Hamming distance of this document's, closest first. "
+                + "Distance 0 is the same image; up to about 10 is usually the same photo re-encoded, resized or lightly edited"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Similar photos retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Document not found or not a hashed image"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @GetMapping("/{documentId}/similar")
+    public ResponseEntity<Map<String, Object>> findSimilarPhotos(
+            @Parameter(description = "Document ID", required = true)
+            @PathVariable @Min(value = 1, message = "Invalid document ID") Integer documentId,
+            @Parameter(description = "Maximum Hamming distance (0-64)")
+            @RequestParam(value = "maxDistance", required = false)
+            @Min(value = 0, message = "Distance cannot be negative")
+            @Max(value = 64, message = "Distance cannot exceed 64") Integer maxDistance,
+            @Parameter(description = "Maximum number of results")
+            @RequestParam(value = "limit", required = false) @Min(value = 1, message = "Limit must be positive") Integer limit) {
+
+        log.info("Admin searching photos similar to document ID: {} within distance {}", documentId, maxDistance);
+        List<SimilarPhoto> matches = photoSimilarityIndex.findSimilar(documentId, maxDistance, limit);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Similar photos retrieved successfully");
+        response.put("documentId", documentId);
+        response.put("matches", matches);
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+        summary = "Get duplicate photo index status (Admin)",
+        description = "Number of indexed image hashes and the state of reloads and backfill"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Index status retrieved successfully"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @GetMapping("/similarity/index")
+    public ResponseEntity<Map<String, Object>> getSimilarityIndexStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Index status retrieved successfully");
+        response.put("index", photoSimilarityIndex.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+        summary = "Reload duplicate photo index (Admin)",
+        description = "Reload the image hashes from the database; the current index keeps serving meanwhile"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Index reloaded"),
+        @ApiResponse(responseCode = "409", description = "A reload is already running"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @PostMapping("/similarity/index/reload")
+    public ResponseEntity<Map<String, Object>> reloadSimilarityIndex() {
+        log.info("Admin reloading duplicate photo index");
+        int indexed = photoSimilarityIndex.reload();
+
+        Map<String, Object> response = new HashMap<>();
+        if (indexed < 0) {
+            response.put("success", false);
+            response.put("message", "A reload is already running");
+            return ResponseEntity.status(409).body(response);
+        }
+        response.put("success", true);
+        response.put("message", "Index reloaded");
+        response.put("index", photoSimilarityIndex.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+        summary = "Hash existing images (Admin)",
+        description = "Compute perceptual hashes of images stored before hashing existed, and index them"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Backfill pass completed"),
+        @ApiResponse(responseCode = "409", description = "A backfill pass is already running"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @PostMapping("/similarity/index/backfill")
+    public ResponseEntity<Map<String, Object>> backfillSimilarityIndex() {
+        log.info("Admin running duplicate photo index backfill");
+        int hashed = photoSimilarityIndex.backfill();
+
+        Map<String, Object> response = new HashMap<>();
+        if (hashed < 0) {
+            response.put("success", false);
+            response.put("message", "A backfill pass is already running");
+            return ResponseEntity.status(409).body(response);
+        }
+        response.put("success", true);
+        response.put("message", "Backfill pass completed");
+        response.put("hashed", hashed);
+        response.put("index", photoSimilarityIndex.getStats());
+        return ResponseEntity.ok(response);
+    }
+}
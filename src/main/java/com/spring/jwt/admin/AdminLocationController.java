@@ -0,0 +1,117 @@
+package com.spring.jwt.admin;
+
+import com.spring.jwt.entity.Enums.LocationType;
+import com.spring.jwt.location.LocationBackfiller;
+import com.spring.jwt.location.LocationRef;
+import com.spring.jwt.location.LocationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/locations")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin Locations", description = "Admin operations for the location dictionary")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminLocationController {
+
+    private final LocationService locationService;
+    private final LocationBackfiller locationBackfiller;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get location dictionary status",
+               description = "Number of known locations and aliases, and the state of the backfill")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status retrieved successfully"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Location dictionary status retrieved successfully");
+        response.put("locations", locationBackfiller.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/lookup")
+    @Operation(summary = "Resolve an address",
+               description = "Resolve a city, state and country to location ids without adding unknown places")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Address resolved"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    public ResponseEntity<Map<String, Object>> lookup(
+            @Parameter(description = "City") @RequestParam(required = false) String city,
+            @Parameter(description = "State") @RequestParam(required = false) String state,
+            @Parameter(description = "Country") @RequestParam(required = false) String country) {
+        LocationRef ref = locationService.lookupAddress(country, state, city);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Address resolved");
+        response.put("location", ref);
+        response.put("city", name(ref.cityId()));
+        response.put("state", name(ref.stateId()));
+        response.put("country", name(ref.countryId()));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search locations",
+               description = "Ids of the locations of a type whose name or an alias contains the text")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Locations found"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    public ResponseEntity<Map<String, Object>> search(
+            @Parameter(description = "Location type", required = true) @RequestParam LocationType type,
+            @Parameter(description = "Text contained in the name or an alias", required = true) @RequestParam String q) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Locations found");
+        response.put("locationIds", locationService.idsContaining(type, q));
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/backfill")
+    @Operation(summary = "Resolve locations of existing rows",
+               description = "Set the location ids of contact details and profiles stored before they existed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Backfill pass completed"),
+        @ApiResponse(responseCode = "409", description = "A backfill pass is already running"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    public ResponseEntity<Map<String, Object>> backfill() {
+        log.info("Admin running location backfill");
+        int resolved = locationBackfiller.backfill();
+
+        Map<String, Object> response = new HashMap<>();
+        if (resolved < 0) {
+            response.put("success", false);
+            response.put("message", "A backfill pass is already running");
+            return ResponseEntity.status(409).body(response);
+        }
+        response.put("success", true);
+        response.put("message", "Backfill pass completed");
+        response.put("resolved", resolved);
+        response.put("locations", locationBackfiller.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    private String name(Integer locationId) {
+        return locationId != null ? locationService.name(locationId) : null;
+    }
+}
@@ -0,0 +1,81 @@
+package com.spring.jwt.admin;
+
+import com.spring.jwt.PartnerPreference.match.NewMatchNotifier;
+import com.spring.jwt.PartnerPreference.match.PreferencePercolator;
+import com.spring.jwt.PartnerPreference.match.ProfileFacts;
+import com.spring.jwt.repository.UserProfileRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/v1/admin/matches")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin Matches", description = "Admin operations for reverse matching of partner preferences")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminMatchController {
+
+    private final PreferencePercolator percolator;
+    private final NewMatchNotifier newMatchNotifier;
+    private final UserProfileRepository userProfileRepository;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get reverse matching status",
+               description = "Number of indexed preferences, candidates examined per profile and notifications created")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status retrieved successfully"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Reverse matching status retrieved successfully");
+        response.put("matches", newMatchNotifier.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/profiles/{profileId}")
+    @Operation(summary = "List the preferences a profile satisfies",
+               description = "Run a profile through the preference index without notifying anyone")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matches retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "Profile not found"),
+        @ApiResponse(responseCode = "503", description = "Preference index not built yet"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    public ResponseEntity<Map<String, Object>> matchProfile(@PathVariable Integer profileId) {
+        Map<String, Object> response = new HashMap<>();
+        if (!percolator.isReady()) {
+            response.put("success", false);
+            response.put("message", "Preference index is not built yet");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        Optional<ProfileFacts> profile = userProfileRepository.findProfileFacts(profileId);
+        if (profile.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "Profile not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+        List<PreferencePercolator.Match> matches = percolator.match(profile.get());
+        response.put("success", true);
+        response.put("message", "Matches retrieved successfully");
+        response.put("matches", matches);
+        response.put("count", matches.size());
+        return ResponseEntity.ok(response);
+    }
+}
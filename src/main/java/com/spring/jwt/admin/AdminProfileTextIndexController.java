@@ -0,0 +1,69 @@
+package com.spring.jwt.admin;
+
+import com.spring.jwt.profile.text.ProfileTextIndex;
+import com.spring.jwt.profile.text.ProfileTextIndexer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/profile-text-index")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin Profile Text Index", description = "Admin operations for the full-text profile search index")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminProfileTextIndexController {
+
+    private final ProfileTextIndex profileTextIndex;
+    private final ProfileTextIndexer profileTextIndexer;
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get text index status",
+               description = "Whether the index is ready, its document count, location and last synced update")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Status retrieved successfully"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Text index status retrieved successfully");
+        response.put("index", profileTextIndex.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/rebuild")
+    @Operation(summary = "Rebuild the text index",
+               description = "Re-index every profile from the database; searches use the current index until it finishes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Index rebuilt successfully"),
+        @ApiResponse(responseCode = "409", description = "A rebuild is already running, or the rebuild failed"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        log.info("Admin requested a rebuild of the profile text index");
+        Map<String, Object> response = new HashMap<>();
+        int indexed = profileTextIndexer.rebuild();
+        if (indexed < 0) {
+            response.put("success", false);
+            response.put("message", "Text index rebuild is already running or failed; see the logs");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        response.put("success", true);
+        response.put("message", "Text index rebuilt successfully");
+        response.put("indexed", indexed);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,6 +1,7 @@
 package com.spring.jwt.admin;
 
 import com.spring.jwt.admin.dto.AdminUserListResponse;
+import com.spring.jwt.dto.CursorPageResponseDto;
 import com.spring.jwt.dto.UserDTO;
 import com.spring.jwt.dto.UserProfileDTO;
 import com.spring.jwt.dto.UserUpdateRequest;
@@ -14,6 +15,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
@@ -74,6 +76,31 @@ public class AdminUserController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+        summary = "Scroll all users (Admin)",
+        description = "Cursor-paginated user list, newest first. Pass nextCursor back to get the next slice"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or size"),
+        @ApiResponse(responseCode = "403", description = "Access denied - Admin role required")
+    })
+    @GetMapping("/all/scroll")
+    public ResponseEntity<CursorPageResponseDto<AdminUserListResponse>> scrollAllUsers(
+            @Parameter(description = "Cursor from the previous slice")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size")
+            @RequestParam(defaultValue = "10") @Min(value = 1, message = "Page size must be positive")
+            @Max(value = 100, message = "Page size cannot exceed 100") int size,
+            @Parameter(description = "Include the total user count")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.info("Admin scrolling users - size: {}", size);
+        CursorPageResponseDto<AdminUserListResponse> response =
+                userService.getAllUsersForAdminAfter(cursor, size, includeTotal);
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(
         summary = "Get user by ID (Admin)",
         description = "Admin can retrieve any user by ID"
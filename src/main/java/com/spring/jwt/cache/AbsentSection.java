@@ -0,0 +1,20 @@
+package com.spring.jwt.cache;
+
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
+
+/**
+ * Negative-cache sentinel recording that a user has not filled in a profile section.
+ *
+ * Stored in its own short-lived region, never in the section's own cache, so that
+ * callers expecting the section DTO can never receive it.
+ */
+public record AbsentSection(EntityType section, Integer userId) {
+
+    public String key() {
+        return key(section, userId);
+    }
+
+    public static String key(EntityType section, Integer userId) {
+        return section.name() + "_" + userId;
+    }
+}
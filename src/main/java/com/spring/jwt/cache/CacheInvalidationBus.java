@@ -0,0 +1,25 @@
+package com.spring.jwt.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport that fans cache invalidations out to every application node.
+ *
+ * Implementations only need at-least-once delivery: evicting an entry twice is
+ * harmless, and the bounded TTL of the L1 cache caps the staleness window if a
+ * message is lost.
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * Send an invalidation to the other nodes. Must not throw; a failed publish is
+     * logged and left to the L1 expiry.
+     */
+    void publish(CacheInvalidationMessage message);
+
+    /**
+     * Register a listener for invalidations. Messages published by the local node may
+     * be delivered back to it, so listeners should filter on the origin node ID.
+     */
+    void subscribe(Consumer<CacheInvalidationMessage> listener);
+}
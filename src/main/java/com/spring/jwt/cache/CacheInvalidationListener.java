@@ -0,0 +1,86 @@
+package com.spring.jwt.cache;
+
+import com.spring.jwt.CompleteProfile.PublicBrowseFeed;
+import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.utils.CacheUtils;
+import com.spring.jwt.utils.CacheUtils.CacheNames;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts the cache entries that depend on a changed entity.
+ *
+ * Runs after the publishing transaction commits so that a concurrent reader cannot
+ * repopulate an entry with pre-commit data. Only the keys belonging to the affected
+ * users are evicted, including their public browse cards; the order of the browse feed
+ * itself is a snapshot that is rebuilt on a schedule rather than on every write.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationListener {
+
+    private final CacheUtils cacheUtils;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        log.debug("Invalidating caches for {}", event);
+
+        switch (event.getEntityType()) {
+            case USER_PROFILE -> {
+                event.getUserIds().forEach(userId -> cacheUtils.evict(CacheNames.PROFILES, userId));
+                if (event.getEntityId() != null) {
+                    cacheUtils.evict(CacheNames.PUBLIC_PROFILES, event.getEntityId());
+                }
+                evictProfileStats();
+                evictCompleteProfileViews(event);
+            }
+            case HOROSCOPE -> evictSection(CacheNames.HOROSCOPES, event);
+            case EDUCATION -> evictSection(CacheNames.EDUCATION_PROFILES, event);
+            case FAMILY_BACKGROUND -> evictSection(CacheNames.FAMILY_BACKGROUNDS, event);
+            case PARTNER_PREFERENCE -> evictSection(CacheNames.PARTNER_PREFERENCES, event);
+            case CONTACT_DETAILS -> evictSection(CacheNames.CONTACT_DETAILS, event);
+            case COMPLETE_PROFILE -> {
+                if (event.getEntityId() != null) {
+                    cacheUtils.evict(CacheNames.COMPLETE_PROFILES, "public_cp_" + event.getEntityId());
+                }
+                evictCompleteProfileViews(event);
+            }
+            case EXPRESS_INTEREST -> event.getUserIds().forEach(userId -> {
+                cacheUtils.evict(CacheNames.EXPRESS_INTEREST, "stats_" + userId);
+                if (event.getEntityId() != null) {
+                    cacheUtils.evict(CacheNames.EXPRESS_INTEREST, event.getEntityId() + "_" + userId);
+                }
+            });
+        }
+    }
+
+    private void evictSection(String cacheName, EntityChangeEvent event) {
+        event.getUserIds().forEach(userId -> {
+            cacheUtils.evict(cacheName, userId);
+            cacheUtils.evict(CacheNames.ABSENT_SECTIONS, AbsentSection.key(event.getEntityType(), userId));
+        });
+        evictCompleteProfileViews(event);
+    }
+
+    /**
+     * Evict every complete-profile view keyed by user ID, including the browse card.
+     */
+    private void evictCompleteProfileViews(EntityChangeEvent event) {
+        event.getUserIds().forEach(userId -> {
+            cacheUtils.evict(CacheNames.COMPLETE_PROFILES, userId);
+            cacheUtils.evict(CacheNames.COMPLETE_PROFILES, "public_" + userId);
+            cacheUtils.evict(CacheNames.COMPLETE_PROFILES, "missing_" + userId);
+            cacheUtils.evict(CacheNames.PUBLIC_BROWSE, PublicBrowseFeed.CARD_KEY_PREFIX + userId);
+        });
+    }
+
+    private void evictProfileStats() {
+        for (Gender gender : Gender.values()) {
+            cacheUtils.evict(CacheNames.PROFILE_STATS, gender.name());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.spring.jwt.cache;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Objects;
+
+/**
+ * Instruction for other application nodes to drop an entry (or a whole region)
+ * from their local L1 cache.
+ *
+ * Keys travel as strings with a one-letter type prefix so that an Integer key
+ * evicted on one node matches the Integer key cached on another. Keys of any
+ * other type cannot be reproduced remotely and are sent as a region clear.
+ */
+@Getter
+@ToString
+public class CacheInvalidationMessage {
+
+    private final String cacheName;
+
+    /**
+     * Encoded key, or {@code null} when the whole region must be cleared.
+     */
+    private final String encodedKey;
+
+    private final String originNodeId;
+
+    public CacheInvalidationMessage(String cacheName, String encodedKey, String originNodeId) {
+        this.cacheName = Objects.requireNonNull(cacheName, "cacheName");
+        this.encodedKey = encodedKey;
+        this.originNodeId = Objects.requireNonNull(originNodeId, "originNodeId");
+    }
+
+    public static CacheInvalidationMessage evict(String cacheName, Object key, String originNodeId) {
+        return new CacheInvalidationMessage(cacheName, encodeKey(key), originNodeId);
+    }
+
+    public static CacheInvalidationMessage clear(String cacheName, String originNodeId) {
+        return new CacheInvalidationMessage(cacheName, null, originNodeId);
+    }
+
+    public boolean isClear() {
+        return encodedKey == null;
+    }
+
+    public Object getKey() {
+        return decodeKey(encodedKey);
+    }
+
+    static String encodeKey(Object key) {
+        if (key instanceof Integer) {
+            return "i:" + key;
+        }
+        if (key instanceof Long) {
+            return "l:" + key;
+        }
+        if (key instanceof String) {
+            return "s:" + key;
+        }
+        return null;
+    }
+
+    static Object decodeKey(String encodedKey) {
+        if (encodedKey == null || encodedKey.length() < 2) {
+            return null;
+        }
+        String value = encodedKey.substring(2);
+        return switch (encodedKey.charAt(0)) {
+            case 'i' -> Integer.valueOf(value);
+            case 'l' -> Long.valueOf(value);
+            default -> value;
+        };
+    }
+}
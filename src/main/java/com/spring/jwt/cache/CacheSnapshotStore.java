@@ -0,0 +1,223 @@
+package com.spring.jwt.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persists the L1 contents of selected hot regions on shutdown and reloads them on
+ * the next start, so a restarted instance does not begin with cold caches.
+ *
+ * The snapshot is gzipped JSON. Each entry records its key (in the same typed form
+ * used by {@link CacheInvalidationMessage}) and the value's class; list values also
+ * record their element class. Entries that cannot be written or read back are
+ * skipped. Restored values go into L1 only and age from the moment they are loaded,
+ * so together with {@code max-age} the L1 time-to-live bounds how stale they can be.
+ */
+@Component
+@Slf4j
+public class CacheSnapshotStore {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.cache.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.cache.snapshot.path:./cache-snapshot.json.gz}")
+    private String path;
+
+    @Value("${app.cache.snapshot.caches:completeProfiles,profiles,publicProfiles,subscriptionPlans}")
+    private List<String> cacheNames;
+
+    @Value("${app.cache.snapshot.max-age:15m}")
+    private Duration maxAge;
+
+    public CacheSnapshotStore(CacheManager cacheManager, ObjectMapper objectMapper) {
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        if (enabled) {
+            save();
+        }
+    }
+
+    /**
+     * Write the fresh L1 entries of the configured regions to the snapshot file.
+     *
+     * @return number of entries written
+     */
+    public int save() {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("version", FORMAT_VERSION);
+        root.put("createdAt", Instant.now().toEpochMilli());
+        ObjectNode caches = root.putObject("caches");
+
+        int written = 0;
+        for (String cacheName : cacheNames) {
+            TwoLevelCache cache = twoLevelCache(cacheName);
+            if (cache == null) {
+                continue;
+            }
+            ArrayNode entries = caches.putArray(cacheName);
+            for (Map.Entry<Object, Object> entry : cache.getFreshEntries().entrySet()) {
+                ObjectNode node = toNode(entry.getKey(), entry.getValue());
+                if (node != null) {
+                    entries.add(node);
+                    written++;
+                }
+            }
+        }
+
+        Path target = Paths.get(path);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                objectMapper.writeValue(out, root);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Saved cache snapshot with {} entries to {}", written, target);
+        } catch (IOException e) {
+            log.warn("Failed to save cache snapshot to {}: {}", target, e.getMessage());
+            return 0;
+        }
+        return written;
+    }
+
+    /**
+     * Load the snapshot file into L1, if one exists and is younger than {@code max-age}.
+     *
+     * @return number of entries restored
+     */
+    public int restore() {
+        Path source = Paths.get(path);
+        if (!enabled || !Files.isRegularFile(source)) {
+            return 0;
+        }
+        JsonNode root;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(source))) {
+            root = objectMapper.readTree(in);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable cache snapshot {}: {}", source, e.getMessage());
+            return 0;
+        }
+
+        if (root.path("version").asInt() != FORMAT_VERSION) {
+            log.info("Ignoring cache snapshot {} with unsupported version", source);
+            return 0;
+        }
+        Instant createdAt = Instant.ofEpochMilli(root.path("createdAt").asLong());
+        if (createdAt.plus(maxAge).isBefore(Instant.now())) {
+            log.info("Ignoring cache snapshot {} taken at {}, older than {}", source, createdAt, maxAge);
+            return 0;
+        }
+
+        int restored = 0;
+        JsonNode caches = root.path("caches");
+        for (String cacheName : cacheNames) {
+            TwoLevelCache cache = twoLevelCache(cacheName);
+            if (cache == null) {
+                continue;
+            }
+            for (JsonNode node : caches.path(cacheName)) {
+                Object key = CacheInvalidationMessage.decodeKey(node.path("key").asText(null));
+                Object value = fromNode(node);
+                if (key != null && value != null) {
+                    cache.putLocal(key, value);
+                    restored++;
+                }
+            }
+        }
+        log.info("Restored {} cache entries from snapshot taken at {}", restored, createdAt);
+        return restored;
+    }
+
+    private ObjectNode toNode(Object key, Object value) {
+        String encodedKey = CacheInvalidationMessage.encodeKey(key);
+        if (encodedKey == null) {
+            return null;
+        }
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("key", encodedKey);
+        node.put("type", value.getClass().getName());
+        if (value instanceof Collection<?> collection) {
+            if (!(value instanceof List<?>)) {
+                return null;
+            }
+            if (!collection.isEmpty()) {
+                node.put("elementType", collection.iterator().next().getClass().getName());
+            }
+        }
+        try {
+            node.set("value", objectMapper.valueToTree(value));
+            return node;
+        } catch (IllegalArgumentException e) {
+            log.debug("Skipping cache entry {} of type {}: {}", key, value.getClass().getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private Object fromNode(JsonNode node) {
+        try {
+            ClassLoader classLoader = getClass().getClassLoader();
+            JavaType type;
+            if (node.hasNonNull("elementType")) {
+                Class<?> elementType = Class.forName(node.get("elementType").asText(), false, classLoader);
+                type = objectMapper.getTypeFactory().constructCollectionType(List.class, elementType);
+            } else if (List.class.isAssignableFrom(Class.forName(node.path("type").asText(), false, classLoader))) {
+                return List.of();
+            } else {
+                type = objectMapper.constructType(Class.forName(node.path("type").asText(), false, classLoader));
+            }
+            return objectMapper.convertValue(node.get("value"), type);
+        } catch (ClassNotFoundException | IllegalArgumentException e) {
+            log.debug("Skipping snapshot entry {}: {}", node.path("key").asText(), e.getMessage());
+            return null;
+        }
+    }
+
+    private TwoLevelCache twoLevelCache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof InstrumentedCache instrumented
+                && instrumented.getDelegate() instanceof TwoLevelCache twoLevelCache) {
+            return twoLevelCache;
+        }
+        return null;
+    }
+}
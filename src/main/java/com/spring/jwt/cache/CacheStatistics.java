@@ -0,0 +1,36 @@
+package com.spring.jwt.cache;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Point-in-time statistics for a single cache region.
+ */
+@Data
+@Builder
+public class CacheStatistics {
+
+    private final String cacheName;
+    private final long hits;
+    private final long misses;
+    private final double hitRate;
+    private final long puts;
+    private final long evictions;
+    private final long clears;
+    private final long size;
+
+    /**
+     * Misses that waited for another caller's in-flight load instead of loading
+     */
+    private final long coalescedLoads;
+
+    /**
+     * Reloads triggered by refresh-ahead or stale-while-revalidate
+     */
+    private final long refreshes;
+
+    /**
+     * Reads served an expired entry while it was being revalidated
+     */
+    private final long staleHits;
+}
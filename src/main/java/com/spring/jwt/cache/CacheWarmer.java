@@ -0,0 +1,163 @@
+package com.spring.jwt.cache;
+
+import com.spring.jwt.CompleteProfile.CompleteProfileService;
+import com.spring.jwt.entity.Role;
+import com.spring.jwt.repository.RoleRepository;
+import com.spring.jwt.subscription.dto.SubscriptionPlanDTO;
+import com.spring.jwt.subscription.repository.ProfileViewRepository;
+import com.spring.jwt.subscription.service.SubscriptionPlanService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.IntSupplier;
+
+/**
+ * Preloads reference data and the most viewed public profiles after startup.
+ *
+ * Warming runs on the task executor so startup is not delayed, and the
+ * {@code cacheWarmer} health indicator reports OUT_OF_SERVICE until it finishes, so
+ * {@code /actuator/health} only reports the instance ready once the first requests
+ * will hit warm caches. Each step goes through the cached service or repository
+ * method it warms, so the entries are keyed exactly as normal reads expect. A
+ * failing step is logged and does not keep the instance out of service.
+ *
+ * When {@link CacheSnapshotStore} is enabled, the snapshot from the previous
+ * shutdown is restored first and the database steps only fill what it lacked.
+ */
+@Component
+@Slf4j
+public class CacheWarmer implements ApplicationRunner, HealthIndicator {
+
+    private final SubscriptionPlanService subscriptionPlanService;
+    private final RoleRepository roleRepository;
+    private final ProfileViewRepository profileViewRepository;
+    private final CompleteProfileService completeProfileService;
+    private final CacheSnapshotStore snapshotStore;
+    private final Executor taskExecutor;
+
+    @Value("${app.cache.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.warmup.top-profiles:50}")
+    private int topProfiles;
+
+    private volatile Status status = Status.PENDING;
+    private final Map<String, Object> details = new LinkedHashMap<>();
+
+    public CacheWarmer(SubscriptionPlanService subscriptionPlanService,
+                       RoleRepository roleRepository,
+                       ProfileViewRepository profileViewRepository,
+                       CompleteProfileService completeProfileService,
+                       CacheSnapshotStore snapshotStore,
+                       @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.subscriptionPlanService = subscriptionPlanService;
+        this.roleRepository = roleRepository;
+        this.profileViewRepository = profileViewRepository;
+        this.completeProfileService = completeProfileService;
+        this.snapshotStore = snapshotStore;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled && !snapshotStore.isEnabled()) {
+            status = Status.DONE;
+            return;
+        }
+        status = Status.RUNNING;
+        taskExecutor.execute(this::warmUp);
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = status == Status.DONE ? Health.up() : Health.outOfService();
+        synchronized (details) {
+            return builder.withDetail("status", status).withDetails(details).build();
+        }
+    }
+
+    void warmUp() {
+        long start = System.currentTimeMillis();
+        try {
+            step("snapshotEntries", snapshotStore::restore);
+            if (enabled) {
+                step("subscriptionPlans", this::warmSubscriptionPlans);
+                step("roles", this::warmRoles);
+                if (topProfiles > 0) {
+                    step("topProfiles", this::warmTopProfiles);
+                }
+            }
+        } finally {
+            long elapsed = System.currentTimeMillis() - start;
+            synchronized (details) {
+                details.put("durationMs", elapsed);
+            }
+            status = Status.DONE;
+            log.info("Cache warm-up finished in {} ms: {}", elapsed, details);
+        }
+    }
+
+    private int warmSubscriptionPlans() {
+        List<SubscriptionPlanDTO> plans = subscriptionPlanService.getAllActivePlans();
+        subscriptionPlanService.getPopularPlans();
+        subscriptionPlanService.getRecommendedPlans();
+        for (SubscriptionPlanDTO plan : plans) {
+            subscriptionPlanService.getPlanById(plan.getSubscriptionId());
+            if (plan.getPlanCode() != null) {
+                subscriptionPlanService.getPlanByCode(plan.getPlanCode());
+            }
+        }
+        return plans.size();
+    }
+
+    private int warmRoles() {
+        int warmed = 0;
+        for (Role role : roleRepository.findAll()) {
+            if (roleRepository.findByName(role.getName()) != null) {
+                warmed++;
+            }
+        }
+        return warmed;
+    }
+
+    private int warmTopProfiles() {
+        int warmed = 0;
+        for (Integer userId : profileViewRepository.findMostViewedProfileIds(PageRequest.of(0, topProfiles))) {
+            try {
+                completeProfileService.getPublicProfileByUserId(userId);
+                warmed++;
+            } catch (RuntimeException e) {
+                log.debug("Skipping warm-up of public profile {}: {}", userId, e.getMessage());
+            }
+        }
+        return warmed;
+    }
+
+    private void step(String name, IntSupplier step) {
+        Object result;
+        try {
+            result = step.getAsInt();
+        } catch (RuntimeException e) {
+            log.warn("Cache warm-up step {} failed: {}", name, e.getMessage());
+            result = "failed: " + e.getMessage();
+        }
+        synchronized (details) {
+            details.put(name, result);
+        }
+    }
+
+    private enum Status {
+        PENDING, RUNNING, DONE
+    }
+}
@@ -0,0 +1,79 @@
+package com.spring.jwt.cache;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Domain event published by services after a write to a profile-related entity.
+ *
+ * Carries the entity type and the users whose cached views depend on the change,
+ * so that listeners can evict individual keys once the surrounding transaction
+ * commits instead of clearing whole cache regions.
+ */
+@Getter
+@ToString
+public class EntityChangeEvent {
+
+    public enum EntityType {
+        USER_PROFILE,
+        HOROSCOPE,
+        EDUCATION,
+        FAMILY_BACKGROUND,
+        PARTNER_PREFERENCE,
+        CONTACT_DETAILS,
+        COMPLETE_PROFILE,
+        EXPRESS_INTEREST
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final EntityType entityType;
+    private final ChangeType changeType;
+
+    /**
+     * Primary key of the changed entity, when the caller knows it.
+     * Used for caches keyed by entity ID rather than user ID (e.g. public profile views).
+     */
+    private final Object entityId;
+
+    private final Set<Integer> userIds;
+
+    public EntityChangeEvent(EntityType entityType, ChangeType changeType, Object entityId, Set<Integer> userIds) {
+        this.entityType = Objects.requireNonNull(entityType, "entityType");
+        this.changeType = Objects.requireNonNull(changeType, "changeType");
+        this.entityId = entityId;
+        this.userIds = userIds != null ? Collections.unmodifiableSet(userIds) : Collections.emptySet();
+    }
+
+    public static EntityChangeEvent created(EntityType entityType, Object entityId, Integer... userIds) {
+        return new EntityChangeEvent(entityType, ChangeType.CREATED, entityId, toSet(userIds));
+    }
+
+    public static EntityChangeEvent updated(EntityType entityType, Object entityId, Integer... userIds) {
+        return new EntityChangeEvent(entityType, ChangeType.UPDATED, entityId, toSet(userIds));
+    }
+
+    public static EntityChangeEvent deleted(EntityType entityType, Object entityId, Integer... userIds) {
+        return new EntityChangeEvent(entityType, ChangeType.DELETED, entityId, toSet(userIds));
+    }
+
+    private static Set<Integer> toSet(Integer... userIds) {
+        if (userIds == null) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(userIds)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
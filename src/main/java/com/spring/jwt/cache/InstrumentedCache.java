@@ -0,0 +1,182 @@
+package com.spring.jwt.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache decorator that records hit, miss, put and eviction counts.
+ *
+ * The in-memory caches used by the application do not keep statistics of their own,
+ * so this wrapper makes hit rates observable per cache region.
+ */
+public class InstrumentedCache implements Cache {
+
+    private final Cache delegate;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder clears = new LongAdder();
+
+    public InstrumentedCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return record(delegate.get(key));
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = delegate.get(key, type);
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        boolean[] loaded = new boolean[1];
+        T value = delegate.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        if (loaded[0]) {
+            misses.increment();
+            puts.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        puts.increment();
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            puts.increment();
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        evictions.increment();
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        if (evicted) {
+            evictions.increment();
+        }
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        clears.increment();
+    }
+
+    @Override
+    public boolean invalidate() {
+        clears.increment();
+        return delegate.invalidate();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getPutCount() {
+        return puts.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getClearCount() {
+        return clears.sum();
+    }
+
+    /**
+     * Number of entries currently held, or -1 if the underlying store cannot report it.
+     */
+    public long getSize() {
+        if (delegate instanceof TwoLevelCache twoLevelCache) {
+            return twoLevelCache.getLocalSize();
+        }
+        Object nativeCache = delegate.getNativeCache();
+        if (nativeCache instanceof ConcurrentMap<?, ?> map) {
+            return map.size();
+        }
+        return -1;
+    }
+
+    public CacheStatistics snapshot() {
+        long hitCount = getHitCount();
+        long missCount = getMissCount();
+        long requests = hitCount + missCount;
+        TwoLevelCache twoLevelCache = delegate instanceof TwoLevelCache c ? c : null;
+        return CacheStatistics.builder()
+                .cacheName(getName())
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRate(requests > 0 ? (double) hitCount / requests : 0.0)
+                .puts(getPutCount())
+                .evictions(getEvictionCount())
+                .clears(getClearCount())
+                .size(getSize())
+                .coalescedLoads(twoLevelCache != null ? twoLevelCache.getCoalescedLoadCount() : 0)
+                .refreshes(twoLevelCache != null ? twoLevelCache.getRefreshCount() : 0)
+                .staleHits(twoLevelCache != null ? twoLevelCache.getStaleHitCount() : 0)
+                .build();
+    }
+
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        puts.reset();
+        evictions.reset();
+        clears.reset();
+        if (delegate instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.resetStatistics();
+        }
+    }
+
+    private ValueWrapper record(ValueWrapper wrapper) {
+        (wrapper != null ? hits : misses).increment();
+        return wrapper;
+    }
+}
@@ -0,0 +1,59 @@
+package com.spring.jwt.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publishes {@link InstrumentedCache} statistics as the standard {@code cache.*} meters
+ * (cache.gets with result=hit|miss, cache.puts, cache.evictions, cache.size).
+ */
+public class InstrumentedCacheMeterBinder extends CacheMeterBinder<InstrumentedCache> {
+
+    public InstrumentedCacheMeterBinder(InstrumentedCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        InstrumentedCache cache = getCache();
+        if (cache == null) {
+            return null;
+        }
+        long size = cache.getSize();
+        return size >= 0 ? size : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        InstrumentedCache cache = getCache();
+        return cache != null ? cache.getHitCount() : 0L;
+    }
+
+    @Override
+    protected Long missCount() {
+        InstrumentedCache cache = getCache();
+        return cache != null ? cache.getMissCount() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        InstrumentedCache cache = getCache();
+        return cache != null ? cache.getEvictionCount() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        InstrumentedCache cache = getCache();
+        return cache != null ? cache.getPutCount() : 0L;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("cache.clears", getCache(), InstrumentedCache::getClearCount)
+                .tags(getTagsWithCacheName())
+                .description("The number of times the whole cache region was cleared")
+                .register(registry);
+    }
+}
@@ -0,0 +1,162 @@
+package com.spring.jwt.cache;
+
+import com.spring.jwt.entity.CacheInvalidationEntry;
+import com.spring.jwt.repository.CacheInvalidationEntryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Invalidation bus that uses a database table as the message log.
+ *
+ * Each node appends its evictions to {@code cache_invalidation_log} and polls for
+ * new rows. Needs nothing beyond the application database, at the cost of up to one
+ * poll interval of staleness on the other nodes.
+ *
+ * Auto-increment IDs are allocated at insert but become visible at commit, so a row
+ * can appear below an ID that was already read. Each poll therefore re-reads every
+ * row written within the last {@code rescan-window-seconds} and skips the IDs it
+ * has already applied; only rows older than the window move the scan start forward.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "jdbc")
+@Slf4j
+public class JdbcPollingCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final CacheInvalidationEntryRepository repository;
+    private final TransactionTemplate requiresNewTransaction;
+    private final List<Consumer<CacheInvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    @Value("${app.cache.invalidation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.cache.invalidation.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${app.cache.invalidation.rescan-window-seconds:60}")
+    private long rescanWindowSeconds;
+
+    /**
+     * ID below which every row is considered delivered; rows above it are re-read
+     */
+    private volatile long scanFrom;
+
+    /**
+     * Rows delivered above {@link #scanFrom}, with their creation time. Only touched
+     * by {@link #poll()}, which the scheduler never runs concurrently with itself.
+     */
+    private final TreeMap<Long, LocalDateTime> applied = new TreeMap<>();
+
+    public JdbcPollingCacheInvalidationBus(CacheInvalidationEntryRepository repository,
+                                           PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Start from the current end of the log; this node's L1 is empty, so older
+     * invalidations are irrelevant to it.
+     */
+    @PostConstruct
+    void initialisePosition() {
+        try {
+            scanFrom = repository.findMaxId();
+        } catch (Exception e) {
+            log.warn("Could not read cache invalidation log position, starting from 0: {}", e.getMessage());
+            scanFrom = 0L;
+        }
+    }
+
+    @Override
+    public void publish(CacheInvalidationMessage message) {
+        try {
+            // Own transaction: a failed insert must not mark the caller's transaction rollback-only
+            requiresNewTransaction.executeWithoutResult(status -> repository.save(CacheInvalidationEntry.builder()
+                    .cacheName(message.getCacheName())
+                    .cacheKey(message.getEncodedKey())
+                    .originNode(message.getOriginNodeId())
+                    .createdAt(LocalDateTime.now())
+                    .build()));
+        } catch (Exception e) {
+            log.warn("Failed to publish cache invalidation {}: {}", message, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            long from = scanFrom;
+            List<CacheInvalidationEntry> entries;
+            do {
+                entries = repository.findByIdGreaterThanOrderByIdAsc(from, PageRequest.of(0, batchSize));
+                for (CacheInvalidationEntry entry : entries) {
+                    if (!applied.containsKey(entry.getId())) {
+                        deliver(new CacheInvalidationMessage(entry.getCacheName(), entry.getCacheKey(), entry.getOriginNode()));
+                        applied.put(entry.getId(), entry.getCreatedAt());
+                    }
+                    from = entry.getId();
+                }
+            } while (entries.size() == batchSize);
+            advanceScanStart(LocalDateTime.now().minusSeconds(rescanWindowSeconds));
+        } catch (Exception e) {
+            log.warn("Failed to poll cache invalidation log: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stop re-reading the leading rows written before the cutoff. A row still missing
+     * below them was allocated before they were and is taken to have rolled back.
+     */
+    private void advanceScanStart(LocalDateTime cutoff) {
+        Map.Entry<Long, LocalDateTime> oldest;
+        while ((oldest = applied.firstEntry()) != null
+                && (oldest.getValue() == null || oldest.getValue().isBefore(cutoff))) {
+            scanFrom = oldest.getKey();
+            applied.pollFirstEntry();
+        }
+    }
+
+    /**
+     * Remove log rows that every live node has long since consumed
+     */
+    @Scheduled(fixedRate = 3600000) // 1 hour
+    public void purge() {
+        try {
+            Integer deleted = requiresNewTransaction.execute(status ->
+                    repository.deleteOlderThan(LocalDateTime.now().minusMinutes(retentionMinutes)));
+            log.debug("Purged {} cache invalidation log entries", deleted);
+        } catch (Exception e) {
+            log.warn("Failed to purge cache invalidation log: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(CacheInvalidationMessage message) {
+        for (Consumer<CacheInvalidationMessage> listener : listeners) {
+            try {
+                listener.accept(message);
+            } catch (Exception e) {
+                log.warn("Cache invalidation listener failed for {}: {}", message, e.getMessage());
+            }
+        }
+    }
+}
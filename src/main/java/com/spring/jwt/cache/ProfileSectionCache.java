@@ -0,0 +1,94 @@
+package com.spring.jwt.cache;
+
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
+import com.spring.jwt.utils.CacheUtils.CacheNames;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Optional-returning lookup of a user's profile section with negative caching.
+ *
+ * Present sections are cached in the section's own region under the user ID, the
+ * same entry {@code getByUserId} uses. Absent sections are recorded as an
+ * {@link AbsentSection} in the short-lived {@code absentSections} region, so that
+ * repeated lookups for users who never filled a section cost a map hit instead of
+ * a query and a thrown exception. The sentinel is evicted by
+ * {@link CacheInvalidationListener} as soon as the section is created, and is not
+ * stored at all if that eviction lands while the lookup is loading.
+ */
+@Component
+@Slf4j
+public class ProfileSectionCache {
+
+    private final CacheManager cacheManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProfileSectionCache(CacheManager cacheManager, PlatformTransactionManager transactionManager) {
+        this.cacheManager = cacheManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * @param section   the section type, used to key the absence sentinel
+     * @param cacheName the section's own cache region
+     * @param userId    the user whose section is looked up
+     * @param type      the cached DTO type
+     * @param loader    database lookup, run in a read-only transaction on a cache miss
+     */
+    public <T> Optional<T> find(EntityType section, String cacheName, Integer userId, Class<T> type,
+                                Supplier<Optional<T>> loader) {
+        Cache sectionCache = cacheManager.getCache(cacheName);
+        Cache absentCache = cacheManager.getCache(CacheNames.ABSENT_SECTIONS);
+
+        T cached = sectionCache != null ? sectionCache.get(userId, type) : null;
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (absentCache == null) {
+            return load(sectionCache, userId, loader);
+        }
+
+        // Loaded through the absence region's single-flight path: if the section is created
+        // while the load runs, the eviction cancels the put of the now stale sentinel
+        AtomicReference<Optional<T>> loaded = new AtomicReference<>();
+        AbsentSection absent;
+        try {
+            absent = absentCache.get(AbsentSection.key(section, userId), () -> {
+                Optional<T> result = load(sectionCache, userId, loader);
+                loaded.set(result);
+                if (result.isPresent()) {
+                    return null;
+                }
+                log.debug("{} absent for user {}, caching sentinel", section, userId);
+                return new AbsentSection(section, userId);
+            });
+        } catch (Cache.ValueRetrievalException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+        if (absent != null) {
+            return Optional.empty();
+        }
+        // Null when this lookup waited on another one that found the section
+        return loaded.get() != null ? loaded.get() : load(sectionCache, userId, loader);
+    }
+
+    private <T> Optional<T> load(Cache sectionCache, Integer userId, Supplier<Optional<T>> loader) {
+        Optional<T> loaded = readOnlyTransaction.execute(status -> loader.get());
+        if (loaded == null || loaded.isEmpty()) {
+            return Optional.empty();
+        }
+        if (sectionCache != null) {
+            sectionCache.put(userId, loaded.get());
+        }
+        return loaded;
+    }
+}
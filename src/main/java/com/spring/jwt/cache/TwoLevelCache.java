@@ -0,0 +1,372 @@
+package com.spring.jwt.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Near cache: a bounded in-process L1 in front of an optional shared L2.
+ *
+ * Reads try L1, then L2 (promoting hits into L1), then the loader. Evictions and
+ * clears are applied to both tiers and broadcast on the {@link CacheInvalidationBus}
+ * so that other nodes drop their L1 copy. Puts are not broadcast: in this
+ * application every data change is followed by an eviction, so a put only ever
+ * stores a value that other nodes would load identically.
+ *
+ * Loads through {@link #get(Object, Callable)} (i.e. {@code @Cacheable(sync = true)})
+ * are single-flight per key: concurrent misses wait for one load instead of each
+ * querying the database. The same path implements refresh-ahead and
+ * stale-while-revalidate: once an entry is old enough, the first caller hands the
+ * reload to the refresh executor, and every caller, that one included, is served the
+ * cached value until the reload completes. Only a true miss loads on the caller's thread.
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Entry> l1;
+    private final Cache l2;
+    private final CacheInvalidationBus invalidationBus;
+    private final String nodeId;
+    private final Ticker ticker;
+    private final Executor refreshExecutor;
+
+    private final long timeToLiveNanos;
+    private final long refreshAheadNanos;
+    private final boolean staleWhileRevalidate;
+
+    private final ConcurrentMap<Object, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+
+    public TwoLevelCache(String name, TwoLevelCacheSettings settings, Cache l2,
+                         CacheInvalidationBus invalidationBus, String nodeId) {
+        this.name = name;
+        this.l2 = l2;
+        this.invalidationBus = invalidationBus;
+        this.nodeId = nodeId;
+        this.ticker = settings.getTicker();
+        this.refreshExecutor = settings.getRefreshExecutor();
+        this.timeToLiveNanos = settings.getTimeToLive().toNanos();
+        this.refreshAheadNanos = settings.getRefreshAheadRatio() > 0
+                ? (long) (timeToLiveNanos * Math.min(settings.getRefreshAheadRatio(), 1.0))
+                : timeToLiveNanos;
+        this.staleWhileRevalidate = !settings.getStaleWhileRevalidate().isZero();
+        this.l1 = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getTimeToLive().plus(settings.getStaleWhileRevalidate()))
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l1;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Entry entry = l1.getIfPresent(key);
+        if (entry != null && age(entry) < timeToLiveNanos) {
+            return new SimpleValueWrapper(entry.value());
+        }
+        Object shared = getShared(key);
+        if (shared != null) {
+            l1.put(key, new Entry(shared, ticker.read()));
+            return new SimpleValueWrapper(shared);
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Entry entry = l1.getIfPresent(key);
+        if (entry != null) {
+            long age = age(entry);
+            if (age < refreshAheadNanos) {
+                return (T) entry.value();
+            }
+            if (age < timeToLiveNanos || staleWhileRevalidate) {
+                // Near or past expiry: one caller starts a reload, everyone keeps the cached value
+                if (age >= timeToLiveNanos) {
+                    staleHits.increment();
+                }
+                Flight flight = new Flight();
+                if (inFlight.putIfAbsent(key, flight) == null) {
+                    refreshes.increment();
+                    refresh(key, valueLoader, flight, entry);
+                }
+                return (T) entry.value();
+            }
+        }
+
+        Flight flight = new Flight();
+        Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedLoads.increment();
+            return (T) await(existing, key, valueLoader);
+        }
+        // Another caller may have completed its load between our L1 check and claiming the key
+        Entry loaded = l1.getIfPresent(key);
+        if (loaded != null && age(loaded) < refreshAheadNanos) {
+            inFlight.remove(key, flight);
+            flight.future.complete(loaded.value());
+            return (T) loaded.value();
+        }
+        return (T) load(key, valueLoader, flight, true);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        l1.put(key, new Entry(value, ticker.read()));
+        if (l2 != null) {
+            l2.put(key, value);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        Entry existing = l1.asMap().putIfAbsent(key, new Entry(value, ticker.read()));
+        if (existing != null) {
+            return new SimpleValueWrapper(existing.value());
+        }
+        if (l2 != null) {
+            l2.putIfAbsent(key, value);
+        }
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictLocal(key);
+        if (l2 != null) {
+            l2.evict(key);
+        }
+        invalidationBus.publish(CacheInvalidationMessage.evict(name, key, nodeId));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = evictLocal(key);
+        if (l2 != null) {
+            evicted |= l2.evictIfPresent(key);
+        }
+        // Other nodes may hold the key even when this one does not
+        invalidationBus.publish(CacheInvalidationMessage.evict(name, key, nodeId));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        clearLocal();
+        if (l2 != null) {
+            l2.clear();
+        }
+        invalidationBus.publish(CacheInvalidationMessage.clear(name, nodeId));
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = l1.estimatedSize() > 0;
+        clearLocal();
+        if (l2 != null) {
+            invalidated |= l2.invalidate();
+        }
+        invalidationBus.publish(CacheInvalidationMessage.clear(name, nodeId));
+        return invalidated;
+    }
+
+    /**
+     * Apply an invalidation received from another node. Only L1 is touched: the
+     * originating node has already updated the shared tier.
+     */
+    void applyRemoteInvalidation(CacheInvalidationMessage message) {
+        Object key = message.getKey();
+        if (message.isClear() || key == null) {
+            clearLocal();
+        } else {
+            evictLocal(key);
+        }
+    }
+
+    /**
+     * Copy of the L1 entries that are still within their time-to-live, keyed as cached.
+     * Used to snapshot hot regions; does not touch L2.
+     */
+    public Map<Object, Object> getFreshEntries() {
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        l1.asMap().forEach((key, entry) -> {
+            if (age(entry) < timeToLiveNanos) {
+                entries.put(key, entry.value());
+            }
+        });
+        return entries;
+    }
+
+    /**
+     * Seed L1 with a value without writing through to L2 or notifying other nodes.
+     * The entry ages from now, so its time-to-live bounds how long a restored value
+     * can be served.
+     */
+    public void putLocal(Object key, Object value) {
+        if (value != null) {
+            l1.asMap().putIfAbsent(key, new Entry(value, ticker.read()));
+        }
+    }
+
+    /**
+     * Approximate number of entries held in L1.
+     */
+    public long getLocalSize() {
+        return l1.estimatedSize();
+    }
+
+    public long getCoalescedLoadCount() {
+        return coalescedLoads.sum();
+    }
+
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    public long getStaleHitCount() {
+        return staleHits.sum();
+    }
+
+    public void resetStatistics() {
+        coalescedLoads.reset();
+        refreshes.reset();
+        staleHits.reset();
+    }
+
+    private Object load(Object key, Callable<?> valueLoader, Flight flight, boolean useShared) {
+        try {
+            Object value = useShared ? getShared(key) : null;
+            if (value == null) {
+                value = valueLoader.call();
+                if (value != null && l2 != null && !flight.invalidated) {
+                    l2.put(key, value);
+                    if (flight.invalidated) {
+                        l2.evict(key);
+                    }
+                }
+            }
+            if (value != null && !flight.invalidated) {
+                l1.put(key, new Entry(value, ticker.read()));
+                // An eviction may have landed between the check and the put
+                if (flight.invalidated) {
+                    l1.invalidate(key);
+                }
+            }
+            flight.future.complete(value);
+            return value;
+        } catch (Exception ex) {
+            flight.future.completeExceptionally(ex);
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Reload an entry on the refresh executor. A failed or rejected reload leaves the
+     * cached value to be served until it expires.
+     */
+    private void refresh(Object key, Callable<?> valueLoader, Flight flight, Entry entry) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, valueLoader, flight, false);
+                } catch (ValueRetrievalException ex) {
+                    log.warn("Failed to refresh cache '{}' entry {}: {}", name, key, ex.getCause().getMessage());
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            inFlight.remove(key, flight);
+            flight.future.complete(entry.value());
+            log.debug("Refresh of cache '{}' entry {} rejected, serving the cached value", name, key);
+        }
+    }
+
+    private Object await(Flight flight, Object key, Callable<?> valueLoader) {
+        try {
+            return flight.future.join();
+        } catch (CompletionException ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause() != null ? ex.getCause() : ex);
+        }
+    }
+
+    private Object getShared(Object key) {
+        if (l2 == null) {
+            return null;
+        }
+        ValueWrapper wrapper = l2.get(key);
+        return wrapper != null ? wrapper.get() : null;
+    }
+
+    private boolean evictLocal(Object key) {
+        Flight flight = inFlight.remove(key);
+        if (flight != null) {
+            flight.invalidated = true;
+        }
+        return l1.asMap().remove(key) != null;
+    }
+
+    private void clearLocal() {
+        inFlight.values().forEach(flight -> flight.invalidated = true);
+        inFlight.clear();
+        l1.invalidateAll();
+    }
+
+    private long age(Entry entry) {
+        return ticker.read() - entry.writtenAt();
+    }
+
+    private record Entry(Object value, long writtenAt) {
+    }
+
+    /**
+     * An in-progress load that concurrent callers wait on. Marked invalidated when the
+     * key is evicted mid-load, so that a value read before the change is not cached.
+     */
+    private static final class Flight {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private volatile boolean invalidated;
+    }
+}
@@ -0,0 +1,91 @@
+package com.spring.jwt.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache manager that builds {@link TwoLevelCache} regions and keeps the L1 tier of
+ * every node consistent through a {@link CacheInvalidationBus}.
+ *
+ * Regions are created on demand, like {@code ConcurrentMapCacheManager}, and each is
+ * wrapped in an {@link InstrumentedCache} so hit rates stay observable.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+    private final Map<String, TwoLevelCacheSettings> customSettings = new ConcurrentHashMap<>();
+
+    private final String nodeId;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheManager sharedCacheManager;
+    private final TwoLevelCacheSettings settings;
+
+    /**
+     * @param nodeId             identifier of this node, used to ignore its own invalidations
+     * @param invalidationBus    transport for cross-node invalidations
+     * @param sharedCacheManager optional L2 provider; {@code null} for an L1-only setup
+     * @param settings           L1 size and freshness policy; the TTL also bounds staleness
+     *                           if an invalidation message is lost
+     */
+    public TwoLevelCacheManager(String nodeId, CacheInvalidationBus invalidationBus, CacheManager sharedCacheManager,
+                                TwoLevelCacheSettings settings) {
+        this.nodeId = nodeId;
+        this.invalidationBus = invalidationBus;
+        this.sharedCacheManager = sharedCacheManager;
+        this.settings = settings;
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    /**
+     * Use a different size/freshness policy for one region. Must be called before the
+     * region is first created.
+     */
+    public void setCacheSettings(String name, TwoLevelCacheSettings regionSettings) {
+        customSettings.put(name, regionSettings);
+    }
+
+    public void setCacheNames(Collection<String> cacheNames) {
+        cacheNames.forEach(this::getCache);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(caches.keySet()));
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private Cache createCache(String name) {
+        Cache l2 = sharedCacheManager != null ? sharedCacheManager.getCache(name) : null;
+        TwoLevelCacheSettings regionSettings = customSettings.getOrDefault(name, settings);
+        return new InstrumentedCache(new TwoLevelCache(name, regionSettings, l2, invalidationBus, nodeId));
+    }
+
+    private void onInvalidation(CacheInvalidationMessage message) {
+        if (nodeId.equals(message.getOriginNodeId())) {
+            return;
+        }
+        Cache cache = caches.get(message.getCacheName());
+        if (cache instanceof InstrumentedCache instrumented
+                && instrumented.getDelegate() instanceof TwoLevelCache twoLevelCache) {
+            log.debug("Applying remote cache invalidation {}", message);
+            twoLevelCache.applyRemoteInvalidation(message);
+        }
+    }
+}
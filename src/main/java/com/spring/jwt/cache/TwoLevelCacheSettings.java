@@ -0,0 +1,54 @@
+package com.spring.jwt.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * L1 sizing and freshness policy shared by every {@link TwoLevelCache} region.
+ */
+@Getter
+@Builder
+public class TwoLevelCacheSettings {
+
+    /**
+     * Maximum number of entries per L1 region.
+     */
+    @Builder.Default
+    private final long maximumSize = 10_000;
+
+    /**
+     * How long an L1 entry is considered fresh.
+     */
+    @Builder.Default
+    private final Duration timeToLive = Duration.ofMinutes(10);
+
+    /**
+     * Grace period after {@link #timeToLive} during which a stale entry may still be
+     * served while one caller reloads it. Zero disables stale-while-revalidate.
+     */
+    @Builder.Default
+    private final Duration staleWhileRevalidate = Duration.ZERO;
+
+    /**
+     * Fraction of {@link #timeToLive} after which the next read reloads the entry
+     * ahead of expiry, while concurrent readers keep the cached value.
+     * Zero disables refresh-ahead.
+     */
+    @Builder.Default
+    private final double refreshAheadRatio = 0.0;
+
+    /**
+     * Runs the reloads started by refresh-ahead and stale-while-revalidate, so the
+     * caller that triggers one is served the cached value instead of waiting.
+     */
+    @Builder.Default
+    private final Executor refreshExecutor = ForkJoinPool.commonPool();
+
+    @Builder.Default
+    private final Ticker ticker = Ticker.systemTicker();
+}
@@ -6,6 +6,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
@@ -45,4 +46,99 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Dedicated, bounded executor for image rendition generation.
+     * Renditions can always be recreated from the original, so when the queue is
+     * full a job is rejected rather than slowing down the request that uploaded it.
+     */
+    @Bean(name = "renditionExecutor")
+    public Executor renditionExecutor(DocumentProperties documentProperties) {
+        DocumentProperties.RenditionConfig rendition = documentProperties.getRendition();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(rendition.getThreads());
+        executor.setMaxPoolSize(rendition.getThreads());
+        executor.setQueueCapacity(rendition.getQueueCapacity());
+        executor.setThreadNamePrefix("rendition-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single thread announcing new matches after profile writes commit.
+     * One announcement can write hundreds of notifications, so it runs off the request
+     * thread, and one thread at a time so that a node never announces the same profile
+     * twice concurrently. A full queue drops the announcement; the profile's next
+     * matching change announces it again.
+     */
+    @Bean(name = "matchNotificationExecutor")
+    public Executor matchNotificationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("match-notify-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Small pool for cache refresh-ahead and stale-while-revalidate reloads.
+     * A reload only replaces a value that is still being served, so when the queue is
+     * full the reload is dropped and the next read of the entry tries again.
+     */
+    @Bean(name = "cacheRefreshExecutor")
+    public Executor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Worker pool for queued document uploads, one thread per core by default.
+     * Image and PDF processing is CPU bound, so more threads would only add
+     * contention. The queue is bounded and a full queue rejects the upload.
+     */
+    @Bean(name = "documentUploadExecutor")
+    public ThreadPoolTaskExecutor documentUploadExecutor(DocumentProperties documentProperties) {
+        DocumentProperties.UploadConfig upload = documentProperties.getUpload();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(upload.resolveWorkers());
+        executor.setMaxPoolSize(upload.resolveWorkers());
+        executor.setQueueCapacity(upload.getQueueCapacity());
+        executor.setThreadNamePrefix("doc-upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool that recompresses the images of a PDF in parallel.
+     * The PDF being processed limits how many of its images are queued here, so the
+     * queue only fills up when several PDFs are processed at once; the caller then
+     * recompresses the image itself.
+     */
+    @Bean(name = "pdfImageExecutor")
+    public Executor pdfImageExecutor(DocumentProperties documentProperties) {
+        DocumentProperties.PdfConfig pdf = documentProperties.getPdf();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(pdf.resolveImageThreads());
+        executor.setMaxPoolSize(pdf.resolveImageThreads());
+        executor.setQueueCapacity(pdf.resolveMaxImagesInFlight());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("pdf-image-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
 }
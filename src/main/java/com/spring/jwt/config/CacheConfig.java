@@ -1,10 +1,20 @@
 package com.spring.jwt.config;
 
+import com.spring.jwt.cache.CacheInvalidationBus;
+import com.spring.jwt.cache.InMemoryCacheInvalidationBus;
+import com.spring.jwt.cache.InstrumentedCache;
+import com.spring.jwt.cache.InstrumentedCacheMeterBinder;
+import com.spring.jwt.cache.TwoLevelCacheManager;
+import com.spring.jwt.cache.TwoLevelCacheSettings;
+import com.spring.jwt.utils.CacheUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.cache.interceptor.CacheResolver;
 import org.springframework.cache.interceptor.KeyGenerator;
@@ -14,34 +24,108 @@ import org.springframework.cache.interceptor.SimpleKeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
-import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.Executor;
 
 /**
  * Centralized cache configuration for the entire application.
  * Configures caching for all modules with a single cache manager.
  * 
- * Supports different cache implementations based on active profiles:
- * - Development: ConcurrentMapCacheManager (in-memory)
- * - Production: Can be extended to use Redis or other distributed cache solutions
+ * Every region is a two-level near cache:
+ * - L1: bounded in-process Caffeine cache, wrapped in an InstrumentedCache so hit rates
+ *   can be observed
+ * - L2: optional shared cache, used when a CacheManager bean named "sharedCacheManager"
+ *   is defined (e.g. the Redis manager below)
+ *
+ * Evictions are broadcast on the configured invalidation bus
+ * (app.cache.invalidation.transport=memory|jdbc) so other nodes drop their L1 copy.
+ *
+ * Hot reads use @Cacheable(sync = true), which makes loads single-flight per key and
+ * enables refresh-ahead / stale-while-revalidate (app.cache.l1.*). Those reloads run
+ * on the cacheRefreshExecutor; the cache advice is ordered outside the transaction
+ * advice so that a reload opens its own transaction on that thread.
  */
 @Configuration
-@EnableCaching
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 public class CacheConfig implements CachingConfigurer {
 
     @Value("${app.cache.enabled:true}")
     private boolean cacheEnabled;
 
+    @Value("${app.cache.node-id:}")
+    private String nodeId;
+
+    @Value("${app.cache.l1.maximum-size:10000}")
+    private long l1MaximumSize;
+
+    @Value("${app.cache.l1.expire-after-write:10m}")
+    private Duration l1ExpireAfterWrite;
+
+    @Value("${app.cache.l1.refresh-ahead-ratio:0.8}")
+    private double l1RefreshAheadRatio;
+
+    @Value("${app.cache.l1.stale-while-revalidate:0s}")
+    private Duration l1StaleWhileRevalidate;
+
+    @Value("${app.cache.absent-sections.ttl:2m}")
+    private Duration absentSectionsTtl;
+
+    @Value("${app.cache.listing-counts.ttl:1m}")
+    private Duration listingCountsTtl;
+
+    @Value("${app.cache.profile-facets.ttl:30s}")
+    private Duration profileFacetsTtl;
+
+    @Autowired
+    private ObjectProvider<CacheInvalidationBus> invalidationBus;
+
+    @Autowired
+    @Qualifier("sharedCacheManager")
+    private ObjectProvider<CacheManager> sharedCacheManager;
+
+    @Autowired
+    @Qualifier("cacheRefreshExecutor")
+    private Executor cacheRefreshExecutor;
+
     /**
      * Primary cache manager for the entire application.
      * Supports multiple cache regions for different data types.
      */
     @Bean
     @Primary
-    @Profile("!prod")
     public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+                StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString(),
+                invalidationBus.getIfAvailable(InMemoryCacheInvalidationBus::new),
+                sharedCacheManager.getIfAvailable(),
+                TwoLevelCacheSettings.builder()
+                        .maximumSize(l1MaximumSize)
+                        .timeToLive(l1ExpireAfterWrite)
+                        .refreshAheadRatio(l1RefreshAheadRatio)
+                        .staleWhileRevalidate(l1StaleWhileRevalidate)
+                        .refreshExecutor(cacheRefreshExecutor)
+                        .build());
+        // Negative entries live briefly: creation evicts them, the TTL covers a missed event
+        cacheManager.setCacheSettings(CacheUtils.CacheNames.ABSENT_SECTIONS, TwoLevelCacheSettings.builder()
+                .maximumSize(l1MaximumSize)
+                .timeToLive(absentSectionsTtl)
+                .build());
+        // Totals shown next to cursor pages are allowed to lag; nothing evicts them
+        cacheManager.setCacheSettings(CacheUtils.CacheNames.LISTING_COUNTS, TwoLevelCacheSettings.builder()
+                .maximumSize(l1MaximumSize)
+                .timeToLive(listingCountsTtl)
+                .build());
+
+        // Facet counts are keyed by search criteria, so there is nothing to evict on a profile write
+        cacheManager.setCacheSettings(CacheUtils.CacheNames.PROFILE_FACETS, TwoLevelCacheSettings.builder()
+                .maximumSize(l1MaximumSize)
+                .timeToLive(profileFacetsTtl)
+                .build());
 
         cacheManager.setCacheNames(Arrays.asList(
             "profiles",
@@ -60,6 +144,10 @@ public class CacheConfig implements CachingConfigurer {
             "documents",
             "documentMetadata",
             "completeProfiles",
+            "publicBrowse",
+            "absentSections",
+            "listingCounts",
+            "profileFacets",
             "expressInterests",
             "subscriptions",
             "userCredits",
@@ -71,15 +159,22 @@ public class CacheConfig implements CachingConfigurer {
             "subscriptionPlans",
             "profileViews"
         ));
-        cacheManager.setAllowNullValues(false);
-        
+
         return cacheManager;
     }
 
+    /**
+     * Exposes hit/miss counts of the instrumented caches as {@code cache.*} meters.
+     */
+    @Bean
+    public CacheMeterBinderProvider<InstrumentedCache> instrumentedCacheMeterBinderProvider() {
+        return InstrumentedCacheMeterBinder::new;
+    }
+
     @Bean
-//    @Primary
+//    @Qualifier("sharedCacheManager")
 //    @Profile("prod")
-//    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+//    public CacheManager sharedCacheManager(RedisConnectionFactory connectionFactory) {
 //        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
 //            .entryTtl(Duration.ofMinutes(30))
 //            .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
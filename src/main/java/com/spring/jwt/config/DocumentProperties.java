@@ -1,5 +1,6 @@
 package com.spring.jwt.config;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -59,6 +60,36 @@ public class DocumentProperties
     @NotNull
     private DatabaseConfig database = new DatabaseConfig();
 
+    /**
+     * Content storage configurations
+     */
+    @NotNull
+    private StorageConfig storage = new StorageConfig();
+
+    /**
+     * Image rendition configurations
+     */
+    @NotNull
+    private RenditionConfig rendition = new RenditionConfig();
+
+    /**
+     * Asynchronous upload queue configurations
+     */
+    @NotNull
+    private UploadConfig upload = new UploadConfig();
+
+    /**
+     * Upload deduplication configurations
+     */
+    @NotNull
+    private DedupConfig dedup = new DedupConfig();
+
+    /**
+     * Duplicate photo detection configurations
+     */
+    @NotNull
+    private SimilarityConfig similarity = new SimilarityConfig();
+
     @Data
     public static class FileSizeConfig
     {
@@ -95,6 +126,11 @@ public class DocumentProperties
         private float lowQuality = 0.75f;
         private float qualityStep = 0.05f;
 
+        /**
+         * Predict quality and scale from a probe encode instead of re-encoding up to three times
+         */
+        private boolean predictiveQuality = true;
+
         @Min(1)
         private long maxSizeKb = 400;
 
@@ -116,6 +152,22 @@ public class DocumentProperties
 
         @Min(1)
         private long maxSizeKb = 1024;
+
+        @Min(0)
+        private int imageThreads = 0; // 0 = one per available processor
+
+        @Min(0)
+        private int maxImagesInFlight = 0; // 0 = two per image thread
+
+        public int resolveImageThreads()
+        {
+            return imageThreads > 0 ? imageThreads : Runtime.getRuntime().availableProcessors();
+        }
+
+        public int resolveMaxImagesInFlight()
+        {
+            return maxImagesInFlight > 0 ? maxImagesInFlight : 2 * resolveImageThreads();
+        }
     }
 
     @Data
@@ -128,6 +180,83 @@ public class DocumentProperties
         private boolean enableQueryCache = true;
     }
 
+    @Data
+    public static class StorageConfig
+    {
+        @NotEmpty
+        private String rootDirectory = "./data/documents";
+
+        private boolean migrationEnabled = false;
+
+        @Min(1)
+        private int migrationBatchSize = 20;
+
+        @Min(0)
+        private long cacheMaxAgeSeconds = 0; // 0 = revalidate with the ETag on every use
+    }
+
+    @Data
+    public static class RenditionConfig
+    {
+        private boolean enabled = true;
+
+        @Min(1)
+        private int threads = 2;
+
+        @Min(1)
+        private int queueCapacity = 100; // Jobs beyond this are dropped and generated on first request
+
+        private float quality = 0.80f;
+    }
+
+    @Data
+    public static class UploadConfig
+    {
+        @Min(0)
+        private int workers = 0; // 0 = one per available processor
+
+        @Min(1)
+        private int queueCapacity = 50; // Uploads beyond this are rejected with 429
+
+        @Min(1)
+        private int retryAfterSeconds = 5;
+
+        @Min(1)
+        private int staleJobMinutes = 15;
+
+        @Min(1)
+        private int jobRetentionHours = 24;
+
+        public int resolveWorkers()
+        {
+            return workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    @Data
+    public static class DedupConfig
+    {
+        private boolean enabled = true; // Reuse the processed result of an identical earlier upload
+    }
+
+    @Data
+    public static class SimilarityConfig
+    {
+        private boolean enabled = true;
+
+        @Min(0)
+        @Max(32)
+        private int defaultMaxDistance = 10; // Hamming distance between 64-bit perceptual hashes
+
+        @Min(1)
+        private int maxResults = 100;
+
+        @Min(1)
+        private int batchSize = 500; // Rows per query when loading the index or hashing existing images
+
+        private boolean backfillEnabled = true;
+    }
+
     /**
      * Utility methods for easy access and validation
      * These methods provide convenient access to configuration values
@@ -0,0 +1,22 @@
+package com.spring.jwt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paged listing. Pass {@code nextCursor} back to get the next slice;
+ * {@code totalElements} is only filled in when asked for and may lag behind by a short while.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResponseDto<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements;
+}
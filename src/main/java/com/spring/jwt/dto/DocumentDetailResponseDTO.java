@@ -19,7 +19,8 @@ public class DocumentDetailResponseDTO {
     private String description;
     private Long fileSize;
     private String contentType;
-    private String fileData;
+    private String downloadUrl;
+    private String previewUrl;
     private LocalDateTime uploadedAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
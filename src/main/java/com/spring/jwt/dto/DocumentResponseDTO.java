@@ -19,6 +19,9 @@ public class DocumentResponseDTO {
     private String description;
     private Long fileSize;
     private String contentType;
+    private String downloadUrl;
+    private String thumbnailUrl;
+    private String cardUrl;
     private LocalDateTime uploadedAt;
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,29 @@
+package com.spring.jwt.dto;
+
+import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.entity.Enums.UploadStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DocumentUploadJobDTO {
+    private String jobId;
+    private UploadStatus status;
+    private DocumentType documentType;
+    private String fileName;
+    private Long originalSize;
+    private String statusUrl;
+    private Integer documentId;
+    private String downloadUrl;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
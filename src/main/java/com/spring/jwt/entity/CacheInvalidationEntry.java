@@ -0,0 +1,43 @@
+package com.spring.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row in the shared cache invalidation log.
+ * Every node appends its evictions here and polls for rows written by other nodes.
+ */
+@Entity
+@Table(name = "cache_invalidation_log", indexes = {
+    @Index(name = "idx_cache_invalidation_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheInvalidationEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cache_name", nullable = false, length = 100)
+    private String cacheName;
+
+    /**
+     * Type-prefixed cache key; null clears the whole region
+     */
+    @Column(name = "cache_key", length = 255)
+    private String cacheKey;
+
+    @Column(name = "origin_node", nullable = false, length = 64)
+    private String originNode;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -27,7 +27,8 @@ import java.util.List;
            @Index(name = "idx_complete_profile_quality", columnList = "profile_quality"),
            @Index(name = "idx_complete_profile_verification", columnList = "verification_status"),
            @Index(name = "idx_complete_profile_deleted", columnList = "deleted"),
-           @Index(name = "idx_complete_profile_created_at", columnList = "created_at")
+           @Index(name = "idx_complete_profile_created_at", columnList = "created_at"),
+           @Index(name = "idx_complete_profile_browse", columnList = "completeness_score, updated_at, complete_profile_id")
        })
 @SQLDelete(sql = "UPDATE complete_profile SET deleted = true, deleted_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP WHERE complete_profile_id = ? AND version = ?")
 @Where(clause = "deleted = false")
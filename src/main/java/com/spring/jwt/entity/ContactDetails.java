@@ -25,6 +25,9 @@ import java.time.LocalDateTime;
            @Index(name = "idx_contact_details_city", columnList = "city"),
            @Index(name = "idx_contact_details_state", columnList = "state"),
            @Index(name = "idx_contact_details_country", columnList = "country"),
+           @Index(name = "idx_contact_details_city_location", columnList = "city_location_id"),
+           @Index(name = "idx_contact_details_state_location", columnList = "state_location_id"),
+           @Index(name = "idx_contact_details_country_location", columnList = "country_location_id"),
            @Index(name = "idx_contact_details_deleted", columnList = "deleted"),
            @Index(name = "idx_contact_details_pin_code", columnList = "pin_code")
        })
@@ -54,6 +57,15 @@ public class ContactDetails {
     @Column(name = "country", length = 100, nullable = false)
     private String country;
 
+    @Column(name = "city_location_id")
+    private Integer cityLocationId;
+
+    @Column(name = "state_location_id")
+    private Integer stateLocationId;
+
+    @Column(name = "country_location_id")
+    private Integer countryLocationId;
+
     @Column(name = "pin_code", length = 20, nullable = false)
     private String pinCode;
 
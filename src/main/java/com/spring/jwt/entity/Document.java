@@ -5,7 +5,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedBy;
@@ -19,7 +21,8 @@ import java.time.LocalDateTime;
         indexes = {
                 @Index(name = "idx_user_document_type", columnList = "user_id, document_type"),
                 @Index(name = "idx_user_id", columnList = "user_id"),
-                @Index(name = "idx_document_deleted", columnList = "deleted")
+                @Index(name = "idx_document_deleted", columnList = "deleted"),
+                @Index(name = "idx_document_content_key", columnList = "content_key")
         })
 @EntityListeners(AuditingEntityListener.class)
 @Data
@@ -30,6 +33,7 @@ public class Document {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "document_id")
     private Integer documentId;
 
     @Enumerated(EnumType.STRING)
@@ -48,9 +52,33 @@ public class Document {
     @Column(nullable = false, length = 100)
     private String contentType;
 
-    @Lob
-    @Column(columnDefinition = "MEDIUMBLOB", nullable = false)
-    private byte[] fileData;
+    /**
+     * Legacy inline content, loaded only when accessed. Empty for documents whose
+     * content lives in the content store; see {@link #contentKey}.
+     */
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "document_id", referencedColumnName = "document_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private DocumentBlob inlineContent;
+
+    /**
+     * SHA-256 key of the content in the document content store
+     */
+    @Column(name = "content_key", length = 64)
+    private String contentKey;
+
+    /**
+     * 64-bit perceptual hash of image content, used to find duplicate photos
+     */
+    @Column(name = "perceptual_hash")
+    private Long perceptualHash;
+
+    /**
+     * When the content was found not to be a decodable image, so it is not hashed again
+     */
+    @Column(name = "perceptual_hash_failed_at")
+    private LocalDateTime perceptualHashFailedAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -0,0 +1,28 @@
+package com.spring.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Legacy inline content of a document, mapped onto the same row as {@link Document}
+ *
+ * Kept as a separate entity so that the MEDIUMBLOB column is only read when a
+ * document's inline content is explicitly accessed, never when documents are
+ * loaded or listed. Rows that have been moved to the content store have no
+ * inline content.
+ */
+@Entity
+@Table(name = "document")
+@Getter
+@NoArgsConstructor
+public class DocumentBlob {
+
+    @Id
+    @Column(name = "document_id")
+    private Integer documentId;
+
+    @Lob
+    @Column(name = "file_data", columnDefinition = "MEDIUMBLOB")
+    private byte[] fileData;
+}
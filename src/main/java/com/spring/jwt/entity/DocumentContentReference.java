@@ -0,0 +1,27 @@
+package com.spring.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of documents referencing a piece of stored content.
+ * Content is deleted from the store only once its count drops to zero.
+ */
+@Entity
+@Table(name = "document_content_reference")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentContentReference {
+
+    @Id
+    @Column(name = "content_key", length = 64)
+    private String contentKey;
+
+    @Column(name = "reference_count", nullable = false)
+    private Integer referenceCount;
+}
@@ -0,0 +1,69 @@
+package com.spring.jwt.entity;
+
+import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.entity.Enums.UploadStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An upload accepted into the document processing queue.
+ * Clients poll it through the status URL until it is READY or FAILED.
+ */
+@Entity
+@Table(name = "document_upload_job", indexes = {
+    @Index(name = "idx_upload_job_user", columnList = "user_id"),
+    @Index(name = "idx_upload_job_status_created", columnList = "status, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentUploadJob {
+
+    @Id
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "document_type", nullable = false, length = 50)
+    private DocumentType documentType;
+
+    @Column(name = "file_name", nullable = false, length = 255)
+    private String fileName;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(name = "original_size", nullable = false)
+    private Long originalSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private UploadStatus status;
+
+    /**
+     * Set once the job is READY
+     */
+    @Column(name = "document_id")
+    private Integer documentId;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
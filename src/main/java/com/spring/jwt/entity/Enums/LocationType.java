@@ -0,0 +1,9 @@
+package com.spring.jwt.entity.Enums;
+
+public enum LocationType
+{
+    COUNTRY,
+    STATE,
+    DISTRICT,
+    CITY
+}
@@ -0,0 +1,9 @@
+package com.spring.jwt.entity.Enums;
+
+public enum UploadStatus
+{
+    PENDING,
+    PROCESSING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,76 @@
+package com.spring.jwt.entity;
+
+import com.spring.jwt.entity.Enums.LocationType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One place in the country, state, district, city hierarchy.
+ * Ancestor ids are stored alongside the parent so that a place's country and state
+ * are known without walking the tree. Seeded places are verified; places first seen
+ * in user input are added unverified under the nearest known ancestor.
+ */
+@Entity
+@Table(name = "location",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_location_parent_name", columnNames = {"location_type", "parent_key", "normalized_name"})
+       },
+       indexes = {
+           @Index(name = "idx_location_normalized_name", columnList = "normalized_name")
+       })
+@Getter
+@Setter
+public class Location {
+
+    @Id
+    @Column(name = "location_id", nullable = false, updatable = false)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer locationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "location_type", length = 20, nullable = false)
+    private LocationType type;
+
+    @Column(name = "name", length = 100, nullable = false)
+    private String name;
+
+    @Column(name = "normalized_name", length = 100, nullable = false)
+    private String normalizedName;
+
+    @Column(name = "parent_id")
+    private Integer parentId;
+
+    /**
+     * Parent id with 0 for top-level places, computed by the database. Unlike parent_id it
+     * is never null, so the unique key stops two nodes adding the same country.
+     */
+    @Column(name = "parent_key", insertable = false, updatable = false,
+            columnDefinition = "INT AS (COALESCE(parent_id, 0)) STORED NOT NULL")
+    private Integer parentKey;
+
+    @Column(name = "country_id")
+    private Integer countryId;
+
+    @Column(name = "state_id")
+    private Integer stateId;
+
+    @Column(name = "district_id")
+    private Integer districtId;
+
+    @Column(name = "verified", nullable = false)
+    private Boolean verified = false;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.verified == null) {
+            this.verified = false;
+        }
+    }
+}
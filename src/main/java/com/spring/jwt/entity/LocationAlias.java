@@ -0,0 +1,30 @@
+package com.spring.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Another name a location is known by, such as a former or colloquial name
+ * ("Poona" for Pune, "Bombay" for Mumbai). Stored normalized.
+ */
+@Entity
+@Table(name = "location_alias",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_location_alias", columnNames = {"location_id", "normalized_alias"})
+       })
+@Getter
+@Setter
+public class LocationAlias {
+
+    @Id
+    @Column(name = "location_alias_id", nullable = false, updatable = false)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer locationAliasId;
+
+    @Column(name = "location_id", nullable = false)
+    private Integer locationId;
+
+    @Column(name = "normalized_alias", length = 100, nullable = false)
+    private String normalizedAlias;
+}
@@ -0,0 +1,48 @@
+package com.spring.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A "new match for you" notice: a profile became active, or changed, and now satisfies
+ * the recipient's partner preference. Each matched user is announced to a recipient
+ * once.
+ */
+@Entity
+@Table(name = "match_notification",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_match_notification_pair", columnNames = {"recipient_user_id", "matched_user_id"})
+       },
+       indexes = {
+           @Index(name = "idx_match_notification_recipient", columnList = "recipient_user_id, match_notification_id")
+       })
+@Getter
+@Setter
+public class MatchNotification {
+
+    @Id
+    @Column(name = "match_notification_id", nullable = false, updatable = false)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer matchNotificationId;
+
+    @Column(name = "recipient_user_id", nullable = false)
+    private Integer recipientUserId;
+
+    @Column(name = "partner_preference_id", nullable = false)
+    private Integer partnerPreferenceId;
+
+    @Column(name = "matched_user_id", nullable = false)
+    private Integer matchedUserId;
+
+    @Column(name = "matched_profile_id", nullable = false)
+    private Integer matchedProfileId;
+
+    @Column(name = "seen", nullable = false)
+    private boolean seen;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,67 @@
+package com.spring.jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of processing an original upload with a given set of processing settings.
+ * A later upload with the same original hash and settings reuses the stored content
+ * instead of being processed again.
+ */
+@Entity
+@Table(name = "processed_upload", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_processed_upload_original_settings", columnNames = {"original_hash", "settings_hash"})
+}, indexes = {
+    @Index(name = "idx_processed_upload_content", columnList = "content_key")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessedUpload {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * SHA-256 of the upload as received
+     */
+    @Column(name = "original_hash", nullable = false, length = 64)
+    private String originalHash;
+
+    /**
+     * SHA-256 of the document type, content type and processing settings
+     */
+    @Column(name = "settings_hash", nullable = false, length = 64)
+    private String settingsHash;
+
+    /**
+     * Key of the processed content in the content store
+     */
+    @Column(name = "content_key", nullable = false, length = 64)
+    private String contentKey;
+
+    @Column(name = "original_size", nullable = false)
+    private Long originalSize;
+
+    @Column(name = "processed_size", nullable = false)
+    private Long processedSize;
+
+    @Column(name = "processing_type", nullable = false, length = 50)
+    private String processingType;
+
+    @Column(name = "hit_count", nullable = false)
+    private Long hitCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_hit_at")
+    private LocalDateTime lastHitAt;
+}
@@ -24,6 +24,8 @@ import java.time.LocalDateTime;
         @Index(name = "idx_profile_gender_status", columnList = "gender, status"),
         @Index(name = "idx_profile_religion_caste", columnList = "religion, caste"),
         @Index(name = "idx_profile_district", columnList = "district"),
+        @Index(name = "idx_profile_district_location", columnList = "district_location_id"),
+        @Index(name = "idx_profile_city_location", columnList = "current_city_location_id"),
         @Index(name = "idx_profile_deleted", columnList = "deleted")
 })
 @SQLDelete(sql = "UPDATE user_profile SET deleted = true, updated_at = CURRENT_TIMESTAMP WHERE user_profile_id = ? AND version = ?")
@@ -115,6 +117,12 @@ public class UserProfile
     @Column(length = 45, nullable = false)
     private String currentCity;
 
+    @Column(name = "district_location_id")
+    private Integer districtLocationId;
+
+    @Column(name = "current_city_location_id")
+    private Integer currentCityLocationId;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -5,6 +5,7 @@ import com.spring.jwt.config.DocumentProperties;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -12,6 +13,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartException;
 
+import java.time.LocalDateTime;
+
 /**
  * Specialized exception handler for document management APIs
  * 
@@ -113,5 +116,55 @@ public class DocumentExceptionHandler
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * Handle missing documents - 404 instead of the generic runtime error, so that
+     * public photo URLs of hidden profiles cannot be told apart from absent photos
+     */
+    @ExceptionHandler(DocumentNotFoundException.class)
+    public ResponseEntity<ErrorResponseDTO> handleDocumentNotFound
+    (
+            DocumentNotFoundException ex, HttpServletRequest request
+    )
+    {
+
+        log.debug("Document not found for request: {} {} - {}",
+                request.getMethod(), request.getRequestURI(), ex.getMessage());
+
+        ErrorResponseDTO error = ErrorResponseDTO.builder()
+                .status(HttpStatus.NOT_FOUND.value())
+                .errorCode("DOCUMENT_NOT_FOUND")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .method(request.getMethod())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    /**
+     * Handle a full upload queue - fast 429 so clients back off instead of waiting
+     */
+    @ExceptionHandler(UploadQueueFullException.class)
+    public ResponseEntity<ErrorResponseDTO> handleUploadQueueFull
+    (
+            UploadQueueFullException ex, HttpServletRequest request
+    )
+    {
+
+        log.warn("Upload rejected, processing queue full: {} {}", request.getMethod(), request.getRequestURI());
 
-}
\ No newline at end of file
+        ErrorResponseDTO error = ErrorResponseDTO.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .errorCode("UPLOAD_QUEUE_FULL")
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .method(request.getMethod())
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+}
@@ -0,0 +1,20 @@
+package com.spring.jwt.exception;
+
+/**
+ * Thrown when the document upload queue cannot accept more work
+ */
+public class UploadQueueFullException extends RuntimeException
+{
+    private final int retryAfterSeconds;
+
+    public UploadQueueFullException(String message, int retryAfterSeconds)
+    {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds()
+    {
+        return retryAfterSeconds;
+    }
+}
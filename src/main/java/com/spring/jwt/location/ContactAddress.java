@@ -0,0 +1,7 @@
+package com.spring.jwt.location;
+
+/**
+ * The free-text address of a contact details row, for resolving it to location ids
+ */
+public record ContactAddress(Integer contactDetailsId, String country, String state, String city) {
+}
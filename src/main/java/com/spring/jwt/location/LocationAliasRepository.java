@@ -0,0 +1,22 @@
+package com.spring.jwt.location;
+
+import com.spring.jwt.entity.LocationAlias;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LocationAliasRepository extends JpaRepository<LocationAlias, Integer> {
+
+    /**
+     * Aliases after the given id, in id order, for loading the dictionary in chunks
+     */
+    @Query("SELECT a FROM LocationAlias a WHERE a.locationAliasId > :afterId ORDER BY a.locationAliasId")
+    List<LocationAlias> findAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
+    boolean existsByLocationIdAndNormalizedAlias(Integer locationId, String normalizedAlias);
+}
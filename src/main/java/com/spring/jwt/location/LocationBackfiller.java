@@ -0,0 +1,148 @@
+package com.spring.jwt.location;
+
+import com.spring.jwt.ContactDetails.ContactDetailsRepository;
+import com.spring.jwt.repository.UserProfileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resolves the location ids of contact details and profiles written before the ids
+ * existed.
+ *
+ * Rows still lacking ids are walked in id order, a chunk per transaction. The ids are
+ * set with an update statement so that neither the row's version nor its updated_at
+ * moves and no user's pending edit conflicts with the backfill. Once a pass has found
+ * every contact address resolved, location searches switch from text to ids.
+ */
+@Component
+@Slf4j
+public class LocationBackfiller {
+
+    private final ContactDetailsRepository contactDetailsRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final LocationService locationService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+    private volatile boolean contactDetailsComplete;
+
+    public LocationBackfiller(ContactDetailsRepository contactDetailsRepository,
+                              UserProfileRepository userProfileRepository,
+                              LocationService locationService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.location.backfill.enabled:true}") boolean enabled,
+                              @Value("${app.location.backfill.batch-size:500}") int batchSize) {
+        this.contactDetailsRepository = contactDetailsRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.locationService = locationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.location.backfill.interval-ms:600000}",
+               initialDelayString = "${app.location.backfill.initial-delay-ms:30000}")
+    public void backfillScheduled() {
+        if (enabled) {
+            backfill();
+        }
+    }
+
+    /**
+     * Resolve every contact address and profile that has no location ids yet
+     *
+     * @return number of rows updated, or -1 if a pass is already running
+     */
+    public int backfill() {
+        if (!backfilling.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            int contacts = backfillContactDetails();
+            contactDetailsComplete = true;
+            int profiles = backfillProfiles();
+            if (contacts + profiles > 0) {
+                log.info("Resolved locations of {} contact details and {} profiles", contacts, profiles);
+            }
+            return contacts + profiles;
+        } finally {
+            backfilling.set(false);
+        }
+    }
+
+    /**
+     * Whether every contact address is known to have location ids, so that location
+     * searches can filter on them
+     */
+    public boolean isContactDetailsComplete() {
+        return contactDetailsComplete;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(locationService.getStats());
+        stats.put("backfilling", backfilling.get());
+        stats.put("contactDetailsComplete", contactDetailsComplete);
+        return stats;
+    }
+
+    private int backfillContactDetails() {
+        int updated = 0;
+        Integer afterId = 0;
+        List<ContactAddress> chunk;
+        do {
+            Integer from = afterId;
+            chunk = transactionTemplate.execute(status -> {
+                List<ContactAddress> addresses = contactDetailsRepository.findAddressesWithoutLocation(from,
+                        PageRequest.of(0, batchSize));
+                for (ContactAddress address : addresses) {
+                    LocationRef ref = locationService.resolveAddress(address.country(), address.state(), address.city());
+                    contactDetailsRepository.updateLocationIds(address.contactDetailsId(), ref.cityId(), ref.stateId(),
+                            ref.countryId());
+                }
+                return addresses;
+            });
+            updated += chunk.size();
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).contactDetailsId();
+            }
+        } while (chunk.size() == batchSize);
+        return updated;
+    }
+
+    private int backfillProfiles() {
+        int updated = 0;
+        Integer afterId = 0;
+        List<ProfilePlace> chunk;
+        do {
+            Integer from = afterId;
+            chunk = transactionTemplate.execute(status -> {
+                List<ProfilePlace> places = userProfileRepository.findPlacesWithoutLocation(from,
+                        PageRequest.of(0, batchSize));
+                for (ProfilePlace place : places) {
+                    LocationRef ref = locationService.resolveProfile(place.district(), place.currentCity());
+                    userProfileRepository.updateLocationIds(place.profileId(), ref.districtId(), ref.cityId());
+                }
+                return places;
+            });
+            updated += chunk.size();
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).profileId();
+            }
+        } while (chunk.size() == batchSize);
+        return updated;
+    }
+}
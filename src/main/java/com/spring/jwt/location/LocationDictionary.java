@@ -0,0 +1,217 @@
+package com.spring.jwt.location;
+
+import com.spring.jwt.PartnerPreference.search.ValueDictionary;
+import com.spring.jwt.entity.Enums.LocationType;
+import com.spring.jwt.profile.search.CompressedBitmap;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory copy of the location hierarchy, looked up by normalized name or alias
+ *
+ * Names and aliases of each location type are kept in a {@link ValueDictionary}, so an
+ * exact lookup is a hash probe and a substring search touches only the distinct names
+ * sharing the needle's trigrams. A name can belong to several places (a district and its
+ * headquarters city, or two towns in different states), so lookups take an optional
+ * scope: the id of an ancestor the place must sit under.
+ */
+public final class LocationDictionary {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * A place and the ids of its ancestors
+     */
+    public record Place(int id, LocationType type, String name, Integer parentId, Integer countryId,
+                        Integer stateId, Integer districtId, boolean verified) {
+
+        public LocationRef ref() {
+            return switch (type) {
+                case COUNTRY -> new LocationRef(id, null, null, null);
+                case STATE -> new LocationRef(countryId, id, null, null);
+                case DISTRICT -> new LocationRef(countryId, stateId, id, null);
+                case CITY -> new LocationRef(countryId, stateId, districtId, id);
+            };
+        }
+
+        boolean isWithin(Integer scopeId) {
+            return scopeId == id || scopeId.equals(parentId) || scopeId.equals(countryId)
+                    || scopeId.equals(stateId) || scopeId.equals(districtId);
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Place> places = new HashMap<>();
+    private final Map<LocationType, ValueDictionary> names = new EnumMap<>(LocationType.class);
+    private final Map<LocationType, List<List<Integer>>> placesByName = new EnumMap<>(LocationType.class);
+    private final Map<LocationType, Map<String, Integer>> nameIds = new EnumMap<>(LocationType.class);
+    private int aliases;
+
+    public LocationDictionary() {
+        for (LocationType type : LocationType.values()) {
+            names.put(type, new ValueDictionary());
+            placesByName.put(type, new ArrayList<>());
+            nameIds.put(type, new HashMap<>());
+        }
+    }
+
+    /**
+     * Fold a place name for comparison: accents, case, punctuation and repeated spaces are
+     * dropped, so "Pune", " pune " and "PUNE." agree
+     *
+     * @return the normalized name, or null if nothing is left of it
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        folded = SEPARATORS.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return folded.isEmpty() ? null : folded;
+    }
+
+    public void add(Place place) {
+        lock.writeLock().lock();
+        try {
+            if (places.putIfAbsent(place.id(), place) == null) {
+                index(place.type(), normalize(place.name()), place.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Make a place findable under another name
+     *
+     * @return false if the place is unknown or already has that name
+     */
+    public boolean addAlias(int placeId, String alias) {
+        String normalized = normalize(alias);
+        lock.writeLock().lock();
+        try {
+            Place place = places.get(placeId);
+            if (place == null || normalized == null || !index(place.type(), normalized, placeId)) {
+                return false;
+            }
+            aliases++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Place get(Integer placeId) {
+        if (placeId == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return places.get(placeId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public LocationRef ref(Integer placeId) {
+        Place place = get(placeId);
+        return place != null ? place.ref() : LocationRef.UNKNOWN;
+    }
+
+    /**
+     * The place of this type known by this name or alias, under the given ancestor if
+     * there is one. Verified places win over ones learned from user input, then the
+     * oldest place wins, so the answer is stable across nodes.
+     *
+     * @param scopeId id of an ancestor to look under, or null to look everywhere
+     * @return the place, or null if none matches
+     */
+    public Place find(LocationType type, String name, Integer scopeId) {
+        String normalized = normalize(name);
+        if (normalized == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            Integer nameId = nameIds.get(type).get(normalized);
+            if (nameId == null) {
+                return null;
+            }
+            return placesByName.get(type).get(nameId).stream()
+                    .map(places::get)
+                    .filter(place -> scopeId == null || place.isWithin(scopeId))
+                    .min(Comparator.comparing((Place place) -> !place.verified()).thenComparingInt(Place::id))
+                    .orElse(null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the places of this type with a name or alias containing the needle, in
+     * ascending order
+     */
+    public List<Integer> idsContaining(LocationType type, String needle) {
+        String normalized = normalize(needle);
+        lock.readLock().lock();
+        try {
+            List<List<Integer>> byName = placesByName.get(type);
+            CompressedBitmap ids = new CompressedBitmap();
+            if (normalized == null) {
+                places.values().stream().filter(place -> place.type() == type).forEach(place -> ids.add(place.id()));
+            } else {
+                names.get(type).idsContaining(normalized).forEach(nameId -> byName.get(nameId).forEach(ids::add));
+            }
+            List<Integer> result = new ArrayList<>(ids.cardinality());
+            ids.forEach(result::add);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return places.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int aliasCount() {
+        lock.readLock().lock();
+        try {
+            return aliases;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean index(LocationType type, String normalized, int placeId) {
+        ValueDictionary dictionary = names.get(type);
+        List<List<Integer>> byName = placesByName.get(type);
+        int nameId = dictionary.idOf(normalized);
+        if (nameId == byName.size()) {
+            byName.add(new ArrayList<>(1));
+            nameIds.get(type).put(normalized, nameId);
+        }
+        List<Integer> ids = byName.get(nameId);
+        if (ids.contains(placeId)) {
+            return false;
+        }
+        ids.add(placeId);
+        return true;
+    }
+}
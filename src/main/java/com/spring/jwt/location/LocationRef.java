@@ -0,0 +1,34 @@
+package com.spring.jwt.location;
+
+import java.util.Objects;
+
+/**
+ * Where a place sits in the location hierarchy, as dictionary ids. Any level may be
+ * null when it is unknown. Two places are in the same city, state or country when the
+ * ids at that level are equal, which is a constant-time comparison whatever spelling
+ * the user typed.
+ */
+public record LocationRef(Integer countryId, Integer stateId, Integer districtId, Integer cityId) {
+
+    public static final LocationRef UNKNOWN = new LocationRef(null, null, null, null);
+
+    public boolean sameCountry(LocationRef other) {
+        return same(countryId, other.countryId);
+    }
+
+    public boolean sameState(LocationRef other) {
+        return same(stateId, other.stateId);
+    }
+
+    public boolean sameDistrict(LocationRef other) {
+        return same(districtId, other.districtId);
+    }
+
+    public boolean sameCity(LocationRef other) {
+        return same(cityId, other.cityId);
+    }
+
+    private static boolean same(Integer a, Integer b) {
+        return a != null && Objects.equals(a, b);
+    }
+}
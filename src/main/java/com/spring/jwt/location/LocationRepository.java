@@ -0,0 +1,25 @@
+package com.spring.jwt.location;
+
+import com.spring.jwt.entity.Enums.LocationType;
+import com.spring.jwt.entity.Location;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LocationRepository extends JpaRepository<Location, Integer> {
+
+    /**
+     * Locations after the given id, in id order, for loading the dictionary in chunks
+     */
+    @Query("SELECT l FROM Location l WHERE l.locationId > :afterId ORDER BY l.locationId")
+    List<Location> findAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
+    Optional<Location> findFirstByTypeAndParentIdAndNormalizedNameOrderByLocationId(LocationType type, Integer parentId,
+                                                                                   String normalizedName);
+}
@@ -0,0 +1,426 @@
+package com.spring.jwt.location;
+
+import com.spring.jwt.entity.ContactDetails;
+import com.spring.jwt.entity.Enums.LocationType;
+import com.spring.jwt.entity.Location;
+import com.spring.jwt.entity.LocationAlias;
+import com.spring.jwt.entity.UserProfile;
+import com.spring.jwt.location.LocationDictionary.Place;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Resolves free-text places to ids in the country, state, district, city hierarchy.
+ *
+ * The hierarchy is seeded from {@code locations/seed.txt} and held in memory by a
+ * {@link LocationDictionary}, so resolving a name or alias costs a few hash lookups.
+ * A place first seen in user input is stored unverified under the nearest place that
+ * was resolved, so that every spelling in use has an id. Places learned on other nodes
+ * are picked up by a periodic refresh.
+ */
+@Service
+@Slf4j
+public class LocationService {
+
+    static final String SEED_RESOURCE = "locations/seed.txt";
+
+    /** Ids re-read behind the last one seen, for rows whose insert committed out of order */
+    private static final int REFRESH_OVERLAP = 100;
+    private static final int REFRESH_BATCH = 1000;
+
+    private final LocationRepository locationRepository;
+    private final LocationAliasRepository aliasRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String defaultCountry;
+    private final Resource seed;
+
+    private final LocationDictionary dictionary = new LocationDictionary();
+    private volatile boolean loaded;
+    private int lastLocationId;
+    private int lastAliasId;
+
+    public LocationService(LocationRepository locationRepository,
+                           LocationAliasRepository aliasRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.location.default-country:India}") String defaultCountry) {
+        this(locationRepository, aliasRepository, transactionManager, defaultCountry, new ClassPathResource(SEED_RESOURCE));
+    }
+
+    LocationService(LocationRepository locationRepository, LocationAliasRepository aliasRepository,
+                    PlatformTransactionManager transactionManager, String defaultCountry, Resource seed) {
+        this.locationRepository = locationRepository;
+        this.aliasRepository = aliasRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.defaultCountry = defaultCountry;
+        this.seed = seed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            ensureLoaded();
+        } catch (RuntimeException e) {
+            // Resolution retries the load on first use
+            log.error("Failed to load the location dictionary: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.location.refresh-interval-ms:60000}",
+               initialDelayString = "${app.location.refresh-interval-ms:60000}")
+    public void refreshScheduled() {
+        if (loaded) {
+            refresh();
+        }
+    }
+
+    /**
+     * Set the location ids of a contact address from its city, state and country,
+     * adding any place not seen before
+     *
+     * @return true if any id changed
+     */
+    public boolean assign(ContactDetails contactDetails) {
+        LocationRef ref = resolveAddress(contactDetails.getCountry(), contactDetails.getState(), contactDetails.getCity());
+        boolean changed = !Objects.equals(ref.countryId(), contactDetails.getCountryLocationId())
+                || !Objects.equals(ref.stateId(), contactDetails.getStateLocationId())
+                || !Objects.equals(ref.cityId(), contactDetails.getCityLocationId());
+        contactDetails.setCountryLocationId(ref.countryId());
+        contactDetails.setStateLocationId(ref.stateId());
+        contactDetails.setCityLocationId(ref.cityId());
+        return changed;
+    }
+
+    /**
+     * Set the location ids of a profile from its district and current city, adding any
+     * place not seen before
+     *
+     * @return true if any id changed
+     */
+    public boolean assign(UserProfile profile) {
+        LocationRef ref = resolveProfile(profile.getDistrict(), profile.getCurrentCity());
+        boolean changed = !Objects.equals(ref.districtId(), profile.getDistrictLocationId())
+                || !Objects.equals(ref.cityId(), profile.getCurrentCityLocationId());
+        profile.setDistrictLocationId(ref.districtId());
+        profile.setCurrentCityLocationId(ref.cityId());
+        return changed;
+    }
+
+    /**
+     * Resolve a profile's district and current city, adding any place not seen before.
+     * Profiles carry no state or country, so the district is looked for in the default
+     * country first and the city in the district first.
+     *
+     * @return the district's ancestors with the district and city ids
+     */
+    public LocationRef resolveProfile(String district, String currentCity) {
+        ensureLoaded();
+        Place country = findOrCreate(LocationType.COUNTRY, defaultCountry, null);
+        Place districtPlace = resolveDistrict(district, country);
+        Place cityPlace = resolveCity(currentCity, districtPlace != null ? districtPlace : country);
+        LocationRef ref = districtPlace != null ? districtPlace.ref() : country.ref();
+        return new LocationRef(ref.countryId(), ref.stateId(), ref.districtId(),
+                cityPlace != null ? cityPlace.id() : null);
+    }
+
+    /**
+     * Resolve an address, adding any place not seen before. A missing country is taken
+     * to be the default one; a missing state or city resolves to null at that level.
+     */
+    public LocationRef resolveAddress(String country, String state, String city) {
+        ensureLoaded();
+        Place countryPlace = findOrCreate(LocationType.COUNTRY,
+                LocationDictionary.normalize(country) != null ? country : defaultCountry, null);
+        Place statePlace = findOrCreate(LocationType.STATE, state, countryPlace);
+        Place cityPlace = resolveCity(city, statePlace != null ? statePlace : countryPlace);
+        if (cityPlace != null) {
+            return cityPlace.ref();
+        }
+        return statePlace != null ? statePlace.ref() : countryPlace.ref();
+    }
+
+    /**
+     * Resolve an address against the known places only. Levels that are not known
+     * resolve to null. Unlike {@link #resolveAddress}, a missing or unknown country is
+     * not replaced by the default one: the state and city are looked up in any country,
+     * and the result carries no country id, so it is never in the same country as
+     * another address.
+     */
+    public LocationRef lookupAddress(String country, String state, String city) {
+        ensureLoaded();
+        Place countryPlace = dictionary.find(LocationType.COUNTRY, country, null);
+        Integer countryId = countryPlace != null ? countryPlace.id() : null;
+        Place statePlace = dictionary.find(LocationType.STATE, state, countryId);
+        Integer scopeId = statePlace != null ? Integer.valueOf(statePlace.id()) : countryId;
+        Place cityPlace = dictionary.find(LocationType.CITY, city, scopeId);
+        LocationRef ref = cityPlace != null ? cityPlace.ref()
+                : statePlace != null ? statePlace.ref()
+                : countryPlace != null ? countryPlace.ref()
+                : LocationRef.UNKNOWN;
+        return countryPlace != null ? ref : new LocationRef(null, ref.stateId(), ref.districtId(), ref.cityId());
+    }
+
+    /**
+     * Resolve a city name alone against the known places
+     */
+    public LocationRef lookupCity(String city) {
+        ensureLoaded();
+        Place country = dictionary.find(LocationType.COUNTRY, defaultCountry, null);
+        Place place = country != null ? dictionary.find(LocationType.CITY, city, country.id()) : null;
+        if (place == null) {
+            place = dictionary.find(LocationType.CITY, city, null);
+        }
+        return place != null ? place.ref() : LocationRef.UNKNOWN;
+    }
+
+    /**
+     * The display name of a location, or null if it is unknown
+     */
+    public String name(Integer locationId) {
+        ensureLoaded();
+        Place place = dictionary.get(locationId);
+        return place != null ? place.name() : null;
+    }
+
+    public LocationRef ref(Integer locationId) {
+        ensureLoaded();
+        return dictionary.ref(locationId);
+    }
+
+    /**
+     * Ids of the places of this type whose name or any alias contains the text
+     */
+    public List<Integer> idsContaining(LocationType type, String text) {
+        ensureLoaded();
+        return dictionary.idsContaining(type, text);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", loaded);
+        stats.put("locations", dictionary.size());
+        stats.put("aliases", dictionary.aliasCount());
+        return stats;
+    }
+
+    /**
+     * Load the dictionary from the database and add any seeded place or alias it lacks
+     */
+    void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            refresh();
+            int seeded = seed();
+            loaded = true;
+            log.info("Loaded {} locations and {} aliases ({} seeded) in {}ms", dictionary.size(),
+                    dictionary.aliasCount(), seeded, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Add places and aliases stored since the last refresh, including those added by
+     * other nodes
+     */
+    synchronized void refresh() {
+        List<Location> locations;
+        int afterId = Math.max(0, lastLocationId - REFRESH_OVERLAP);
+        do {
+            locations = locationRepository.findAfter(afterId, PageRequest.of(0, REFRESH_BATCH));
+            for (Location location : locations) {
+                dictionary.add(toPlace(location));
+                afterId = location.getLocationId();
+            }
+        } while (locations.size() == REFRESH_BATCH);
+        lastLocationId = Math.max(lastLocationId, afterId);
+
+        List<LocationAlias> aliases;
+        afterId = Math.max(0, lastAliasId - REFRESH_OVERLAP);
+        do {
+            aliases = aliasRepository.findAfter(afterId, PageRequest.of(0, REFRESH_BATCH));
+            for (LocationAlias alias : aliases) {
+                dictionary.addAlias(alias.getLocationId(), alias.getNormalizedAlias());
+                afterId = alias.getLocationAliasId();
+            }
+        } while (aliases.size() == REFRESH_BATCH);
+        lastAliasId = Math.max(lastAliasId, afterId);
+    }
+
+    private Place resolveDistrict(String district, Place country) {
+        if (LocationDictionary.normalize(district) == null) {
+            return null;
+        }
+        Place place = dictionary.find(LocationType.DISTRICT, district, country.id());
+        if (place == null) {
+            place = dictionary.find(LocationType.DISTRICT, district, null);
+        }
+        return place != null ? place : create(LocationType.DISTRICT, district, country, false);
+    }
+
+    /**
+     * A city under the scope, then, for a district, anywhere in its country, before
+     * adding it under the scope. A profile's district and city need not agree; an
+     * address's state and city must.
+     */
+    private Place resolveCity(String city, Place scope) {
+        if (LocationDictionary.normalize(city) == null) {
+            return null;
+        }
+        Place place = dictionary.find(LocationType.CITY, city, scope.id());
+        if (place == null && scope.type() == LocationType.DISTRICT && scope.countryId() != null) {
+            place = dictionary.find(LocationType.CITY, city, scope.countryId());
+        }
+        return place != null ? place : create(LocationType.CITY, city, scope, false);
+    }
+
+    private Place findOrCreate(LocationType type, String name, Place parent) {
+        if (LocationDictionary.normalize(name) == null) {
+            return null;
+        }
+        Place place = dictionary.find(type, name, parent != null ? parent.id() : null);
+        return place != null ? place : create(type, name, parent, false);
+    }
+
+    /**
+     * Store a new place in its own transaction, so that it stays valid in the dictionary
+     * even if the caller's transaction rolls back. If another node stored the same place
+     * first, that one is used.
+     */
+    private synchronized Place create(LocationType type, String name, Place parent, boolean verified) {
+        String normalized = LocationDictionary.normalize(name);
+        Integer parentId = parent != null ? parent.id() : null;
+        Place existing = dictionary.find(type, name, parentId);
+        if (existing != null && Objects.equals(existing.parentId(), parentId)) {
+            return existing;
+        }
+
+        LocationRef ancestors = parent != null ? parent.ref() : LocationRef.UNKNOWN;
+        Location location = new Location();
+        location.setType(type);
+        location.setName(name.trim().replaceAll("\\s+", " "));
+        location.setNormalizedName(normalized);
+        location.setParentId(parentId);
+        location.setCountryId(ancestors.countryId());
+        location.setStateId(ancestors.stateId());
+        location.setDistrictId(ancestors.districtId());
+        location.setVerified(verified);
+
+        Location saved;
+        try {
+            saved = transactionTemplate.execute(status -> locationRepository.save(location));
+        } catch (DataIntegrityViolationException e) {
+            saved = locationRepository.findFirstByTypeAndParentIdAndNormalizedNameOrderByLocationId(type, parentId,
+                    normalized).orElseThrow(() -> e);
+        }
+        Place place = toPlace(saved);
+        dictionary.add(place);
+        if (!verified) {
+            log.debug("Added unverified {} '{}' under location {}", type, place.name(), parentId);
+        }
+        return place;
+    }
+
+    private void addAlias(Place place, String alias) {
+        String normalized = LocationDictionary.normalize(alias);
+        if (normalized == null || !dictionary.addAlias(place.id(), normalized)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!aliasRepository.existsByLocationIdAndNormalizedAlias(place.id(), normalized)) {
+                    LocationAlias entity = new LocationAlias();
+                    entity.setLocationId(place.id());
+                    entity.setNormalizedAlias(normalized);
+                    aliasRepository.save(entity);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Alias '{}' of location {} was stored concurrently", normalized, place.id());
+        }
+    }
+
+    /**
+     * Walk the seed file, adding the places and aliases the dictionary lacks
+     *
+     * @return number of places added
+     */
+    private int seed() {
+        int added = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(seed.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = trimmed.split("\\|", -1);
+                String[] path = columns.length > 1 ? columns[1].split("/") : new String[0];
+                LocationType type = columns.length > 1 ? LocationType.valueOf(columns[0].trim()) : null;
+                if (type == null || path.length != type.ordinal() + 1) {
+                    throw new IllegalStateException("Malformed location seed at line " + lineNumber + ": " + line);
+                }
+
+                Place parent = null;
+                for (int depth = 0; depth < path.length - 1; depth++) {
+                    Integer parentId = parent != null ? parent.id() : null;
+                    parent = dictionary.find(LocationType.values()[depth], path[depth], parentId);
+                    if (parent == null) {
+                        throw new IllegalStateException("Location seed line " + lineNumber + " precedes its parent: " + line);
+                    }
+                }
+                String name = path[path.length - 1].trim();
+                Place place = dictionary.find(type, name, parent != null ? parent.id() : null);
+                if (place == null || !Objects.equals(place.parentId(), parent != null ? parent.id() : null)) {
+                    place = create(type, name, parent, true);
+                    added++;
+                }
+                if (columns.length > 2) {
+                    for (String alias : columns[2].split(",")) {
+                        addAlias(place, alias);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the location seed", e);
+        }
+        return added;
+    }
+
+    private static Place toPlace(Location location) {
+        return new Place(location.getLocationId(), location.getType(), location.getName(), location.getParentId(),
+                location.getCountryId(), location.getStateId(), location.getDistrictId(),
+                Boolean.TRUE.equals(location.getVerified()));
+    }
+}
@@ -0,0 +1,7 @@
+package com.spring.jwt.location;
+
+/**
+ * The free-text district and current city of a profile, for resolving them to location ids
+ */
+public record ProfilePlace(Integer profileId, String district, String currentCity) {
+}
@@ -1,12 +1,15 @@
 package com.spring.jwt.mapper;
 
+import com.spring.jwt.Document.domain.DocumentSummary;
+import com.spring.jwt.Document.domain.ImageRendition;
 import com.spring.jwt.dto.DocumentDetailResponseDTO;
 import com.spring.jwt.dto.DocumentResponseDTO;
+import com.spring.jwt.dto.DocumentUploadJobDTO;
 import com.spring.jwt.dto.PaginatedDocumentResponseDTO;
 import com.spring.jwt.entity.Document;
+import com.spring.jwt.entity.DocumentUploadJob;
 import org.springframework.stereotype.Component;
 
-import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -14,6 +17,21 @@ import java.util.stream.Collectors;
 @Component
 public class DocumentResponseMapper {
 
+    /**
+     * Streaming endpoint for document content; see DocumentController
+     */
+    public static final String CONTENT_URL_TEMPLATE = "/api/v1/documents/%d/content";
+
+    /**
+     * Status endpoint of a queued upload; see DocumentController
+     */
+    public static final String UPLOAD_STATUS_URL_TEMPLATE = "/api/v1/documents/uploads/%s";
+
+    /**
+     * Public profile photo endpoint; see ProfilePhotoController
+     */
+    public static final String PROFILE_PHOTO_URL_TEMPLATE = "/api/v1/profiles/public/users/%d/photo?size=%s";
+
     /**
      * Convert Document entity to DocumentResponseDTO (without file data)
      * 
@@ -28,35 +46,78 @@ public class DocumentResponseMapper {
                         .description(doc.getDescription())
                         .fileSize(doc.getFileSize())
                         .contentType(doc.getContentType())
+                        .downloadUrl(contentUrl(doc.getDocumentId()))
+                        .thumbnailUrl(renditionUrl(doc.getDocumentId(), doc.getContentType(), ImageRendition.THUMBNAIL))
+                        .cardUrl(renditionUrl(doc.getDocumentId(), doc.getContentType(), ImageRendition.CARD))
                         .uploadedAt(doc.getUploadedAt())
                         .updatedAt(doc.getUpdatedAt())
                         .build());
     }
 
     /**
-     * Convert Document entity to DocumentDetailResponseDTO (with file data)
+     * Convert Document entity to DocumentDetailResponseDTO
+     * The file content is not embedded; clients fetch it from the download URL
      * 
      * @return Optional containing the detail DTO, or empty if document is null
      */
     public Optional<DocumentDetailResponseDTO> toDetailResponseDTO(Document document) {
         return Optional.ofNullable(document)
-                .map(doc -> {
-                    String base64FileData = doc.getFileData() != null
-                            ? Base64.getEncoder().encodeToString(doc.getFileData())
-                            : null;
-
-                    return DocumentDetailResponseDTO.builder()
-                            .documentId(doc.getDocumentId())
-                            .documentType(doc.getDocumentType())
-                            .fileName(doc.getFileName())
-                            .description(doc.getDescription())
-                            .fileSize(doc.getFileSize())
-                            .contentType(doc.getContentType())
-                            .fileData(base64FileData)
-                            .uploadedAt(doc.getUploadedAt())
-                            .updatedAt(doc.getUpdatedAt())
-                            .build();
-                });
+                .map(doc -> DocumentDetailResponseDTO.builder()
+                        .documentId(doc.getDocumentId())
+                        .documentType(doc.getDocumentType())
+                        .fileName(doc.getFileName())
+                        .description(doc.getDescription())
+                        .fileSize(doc.getFileSize())
+                        .contentType(doc.getContentType())
+                        .downloadUrl(contentUrl(doc.getDocumentId()))
+                        .previewUrl(renditionUrl(doc.getDocumentId(), doc.getContentType(), ImageRendition.FULL))
+                        .uploadedAt(doc.getUploadedAt())
+                        .updatedAt(doc.getUpdatedAt())
+                        .build());
+    }
+
+    /**
+     * URL of the streaming content endpoint for a document
+     */
+    public String contentUrl(Integer documentId) {
+        return documentId != null ? String.format(CONTENT_URL_TEMPLATE, documentId) : null;
+    }
+
+    /**
+     * URL of an image rendition of a document, or null if the document is not an image
+     */
+    public String renditionUrl(Integer documentId, String contentType, ImageRendition rendition) {
+        if (documentId == null || contentType == null || !contentType.startsWith("image/")) {
+            return null;
+        }
+        return contentUrl(documentId) + "?size=" + rendition.name();
+    }
+
+    /**
+     * URL of a rendition of a user's profile photo
+     */
+    public static String profilePhotoUrl(Integer userId, ImageRendition rendition) {
+        return userId != null ? String.format(PROFILE_PHOTO_URL_TEMPLATE, userId, rendition.name()) : null;
+    }
+
+    /**
+     * Convert a queued upload to its status DTO
+     */
+    public DocumentUploadJobDTO toUploadJobDTO(DocumentUploadJob job) {
+        return DocumentUploadJobDTO.builder()
+                .jobId(job.getJobId())
+                .status(job.getStatus())
+                .documentType(job.getDocumentType())
+                .fileName(job.getFileName())
+                .originalSize(job.getOriginalSize())
+                .statusUrl(String.format(UPLOAD_STATUS_URL_TEMPLATE, job.getJobId()))
+                .documentId(job.getDocumentId())
+                .downloadUrl(contentUrl(job.getDocumentId()))
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
     }
 
     /**
@@ -72,6 +133,36 @@ public class DocumentResponseMapper {
                 .orElse(List.of());
     }
 
+    /**
+     * Convert a listing projection to DocumentResponseDTO
+     */
+    public DocumentResponseDTO toResponseDTO(DocumentSummary summary) {
+        return DocumentResponseDTO.builder()
+                .documentId(summary.getDocumentId())
+                .documentType(summary.getDocumentType())
+                .fileName(summary.getFileName())
+                .description(summary.getDescription())
+                .fileSize(summary.getFileSize())
+                .contentType(summary.getContentType())
+                .downloadUrl(contentUrl(summary.getDocumentId()))
+                .thumbnailUrl(renditionUrl(summary.getDocumentId(), summary.getContentType(), ImageRendition.THUMBNAIL))
+                .cardUrl(renditionUrl(summary.getDocumentId(), summary.getContentType(), ImageRendition.CARD))
+                .uploadedAt(summary.getUploadedAt())
+                .updatedAt(summary.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Convert listing projections to DocumentResponseDTOs
+     */
+    public List<DocumentResponseDTO> toSummaryResponseDTOList(List<DocumentSummary> summaries) {
+        return Optional.ofNullable(summaries)
+                .map(list -> list.stream()
+                        .map(this::toResponseDTO)
+                        .collect(Collectors.toList()))
+                .orElse(List.of());
+    }
+
     /**
      * Convert Spring Data Page to PaginatedDocumentResponseDTO
      * Centralizes pagination metadata mapping following Single Responsibility
@@ -1,12 +1,14 @@
 package com.spring.jwt.profile;
 
+import com.spring.jwt.cache.EntityChangeEvent;
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
 import com.spring.jwt.entity.Enums.Status;
 import com.spring.jwt.entity.UserProfile;
 
 import com.spring.jwt.repository.UserProfileRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,9 +18,9 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProfileActivationService {
 
     private final UserProfileRepository profileRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
-    @CacheEvict(value = {"profiles", "publicProfiles", "completeProfiles"}, allEntries = true)
     public void activateProfile(Integer userId) {
         UserProfile profile = profileRepository.findByUserId(userId)
             .orElseThrow(() -> new RuntimeException("Profile not found for user: " + userId));
@@ -30,12 +32,14 @@ public class ProfileActivationService {
         
         profile.setStatus(Status.ACTIVE);
         profileRepository.save(profile);
+        eventPublisher.publishEvent(EntityChangeEvent.updated(
+                EntityType.USER_PROFILE, profile.getUserProfileId(), userId));
+        eventPublisher.publishEvent(new ProfileMatchingChangeEvent(profile.getUserProfileId()));
         
         log.info("Profile activated for user: {}", userId);
     }
 
     @Transactional
-    @CacheEvict(value = {"profiles", "publicProfiles", "completeProfiles"}, allEntries = true)
     public void deactivateProfile(Integer userId) {
         UserProfile profile = profileRepository.findByUserId(userId)
             .orElseThrow(() -> new RuntimeException("Profile not found for user: " + userId));
@@ -47,6 +51,8 @@ public class ProfileActivationService {
         
         profile.setStatus(Status.DEACTIVE);
         profileRepository.save(profile);
+        eventPublisher.publishEvent(EntityChangeEvent.updated(
+                EntityType.USER_PROFILE, profile.getUserProfileId(), userId));
         
         log.info("Profile deactivated for user: {}", userId);
     }
@@ -0,0 +1,26 @@
+package com.spring.jwt.profile;
+
+import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.entity.Enums.Status;
+import com.spring.jwt.entity.UserProfile;
+
+/**
+ * Published with a profile write that may change which partner preferences the profile
+ * satisfies: its creation, or a change of its status or of an attribute preferences are
+ * matched on. Writes that leave those alone publish only the {@code EntityChangeEvent}.
+ */
+public record ProfileMatchingChangeEvent(Integer profileId) {
+
+    /**
+     * The attributes of a profile that partner preferences are matched on, compared before
+     * and after a write to decide whether to publish the event
+     */
+    public record MatchingFields(Gender gender, Status status, Integer age, Double height, String religion,
+                                 String caste, String maritalStatus) {
+
+        public static MatchingFields of(UserProfile profile) {
+            return new MatchingFields(profile.getGender(), profile.getStatus(), profile.getAge(),
+                    profile.getHeight(), profile.getReligion(), profile.getCaste(), profile.getMaritalStatus());
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package com.spring.jwt.profile;
 
+import com.spring.jwt.dto.CursorPageResponseDto;
 import com.spring.jwt.profile.dto.request.CreateProfileRequest;
 import com.spring.jwt.profile.dto.request.ProfileSearchCriteria;
 import com.spring.jwt.profile.dto.request.UpdateProfileRequest;
+import com.spring.jwt.profile.dto.response.ProfileFacetedSearchResponse;
 import com.spring.jwt.profile.dto.response.ProfileListView;
 import com.spring.jwt.profile.dto.response.ProfileResponse;
 import com.spring.jwt.profile.dto.response.PublicProfileView;
+import com.spring.jwt.profile.search.ProfileFacet;
+import com.spring.jwt.profile.view.ProfileView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Service interface for profile management.
@@ -51,6 +60,15 @@ public interface ProfileService {
      */
     ProfileResponse getProfileByUserId(Integer userId);
 
+    /**
+     * Get the profiles of several users, such as a page of suggestion cards.
+     * Cached profiles come from the cache and the rest are loaded in one query.
+     *
+     * @param userIds the user IDs
+     * @return the profiles in the order of the IDs; users without a profile are left out
+     */
+    List<ProfileResponse> getProfilesByUserIds(Collection<Integer> userIds);
+
     /**
      * Get public profile view by profile ID (no authentication required).
      * 
@@ -62,6 +80,7 @@ public interface ProfileService {
 
     /**
      * Get all profiles with pagination (Admin only).
+     * Returns whole list views; there is no view or field selection.
      * 
      * @param pageable pagination information
      * @return paginated profiles
@@ -77,8 +96,50 @@ public interface ProfileService {
      */
     Page<ProfileListView> searchProfiles(ProfileSearchCriteria criteria, Pageable pageable);
 
+    /**
+     * Search profiles with criteria, returning each match in the given list view.
+     *
+     * @param criteria search criteria
+     * @param pageable pagination information
+     * @param view     {@link ProfileView#CARD} for {@link com.spring.jwt.profile.dto.response.ProfileCardView},
+     *                 otherwise {@link ProfileListView}
+     * @return paginated search results
+     */
+    Page<?> searchProfiles(ProfileSearchCriteria criteria, Pageable pageable, ProfileView view);
+
+    /**
+     * Search profiles with criteria, with value counts for the requested facets
+     * over all matching profiles.
+     *
+     * @param criteria search criteria
+     * @param pageable pagination information
+     * @param facets   facets to count
+     * @return paginated search results with facet counts
+     */
+    ProfileFacetedSearchResponse searchProfilesWithFacets(ProfileSearchCriteria criteria, Pageable pageable,
+                                                          Set<ProfileFacet> facets);
+
+    /**
+     * Search profile text (names, places, education, profession and family details),
+     * ranked by relevance, under the same filters as {@link #searchProfiles}.
+     *
+     * @param text     words to search for
+     * @param criteria search criteria
+     * @param pageable pagination information; its sort is ignored
+     * @return paginated search results, best match first
+     */
+    Page<ProfileListView> textSearchProfiles(String text, ProfileSearchCriteria criteria, Pageable pageable);
+
+    /**
+     * Search profile text like {@link #textSearchProfiles(String, ProfileSearchCriteria, Pageable)},
+     * returning each match in the given list view.
+     */
+    Page<?> textSearchProfiles(String text, ProfileSearchCriteria criteria, Pageable pageable, ProfileView view);
+
     /**
      * Browse profiles by gender.
+     * Signed-in callers get list views and anonymous callers public views; there is no view
+     * or field selection.
      * 
      * @param gender the gender
      * @param pageable pagination information
@@ -86,6 +147,49 @@ public interface ProfileService {
      */
     Page<?> browseProfilesByGender(String gender, Pageable pageable);
 
+    /**
+     * Get all profiles with keyset pagination (Admin only).
+     * Returns whole list views, like {@link #getAllProfiles}.
+     * 
+     * @param cursor cursor of the previous slice, or null for the first slice
+     * @param size slice size
+     * @param sort sort field
+     * @param direction sort direction
+     * @param includeTotal whether to include the total count
+     * @return slice of profiles with the cursor of the next slice
+     */
+    CursorPageResponseDto<ProfileListView> scrollAllProfiles(String cursor, int size, String sort,
+                                                             Sort.Direction direction, boolean includeTotal);
+
+    /**
+     * Search profiles with criteria and keyset pagination.
+     * Returns whole list views: unlike {@link #searchProfiles(ProfileSearchCriteria, Pageable, ProfileView)}
+     * it takes no view.
+     * 
+     * @param criteria search criteria
+     * @param cursor cursor of the previous slice, or null for the first slice
+     * @param size slice size
+     * @param sort sort field
+     * @param direction sort direction
+     * @param includeTotal whether to include the total count
+     * @return slice of search results with the cursor of the next slice
+     */
+    CursorPageResponseDto<ProfileListView> scrollSearchProfiles(ProfileSearchCriteria criteria, String cursor, int size,
+                                                                String sort, Sort.Direction direction,
+                                                                boolean includeTotal);
+
+    /**
+     * Browse profiles by gender with keyset pagination, newest first.
+     * The views are those of {@link #browseProfilesByGender}.
+     * 
+     * @param gender the gender
+     * @param cursor cursor of the previous slice, or null for the first slice
+     * @param size slice size
+     * @param includeTotal whether to include the total count
+     * @return slice of profiles with the cursor of the next slice
+     */
+    CursorPageResponseDto<?> scrollProfilesByGender(String gender, String cursor, int size, boolean includeTotal);
+
     /**
      * Update profile for the current authenticated user.
      * 
@@ -2,33 +2,55 @@ package com.spring.jwt.profile;
 
 import com.spring.jwt.CompleteProfile.CompleteProfileRepository;
 import com.spring.jwt.CompleteProfile.CompleteProfileService;
+import com.spring.jwt.cache.EntityChangeEvent;
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
+import com.spring.jwt.dto.CursorPageResponseDto;
 import com.spring.jwt.entity.CompleteProfile;
 import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.entity.Enums.Status;
 import com.spring.jwt.entity.User;
 import com.spring.jwt.entity.UserProfile;
 import com.spring.jwt.exception.ResourceNotFoundException;
+import com.spring.jwt.location.LocationService;
+import com.spring.jwt.profile.ProfileMatchingChangeEvent.MatchingFields;
 import com.spring.jwt.profile.domain.ProfileOwnershipService;
 import com.spring.jwt.profile.dto.request.CreateProfileRequest;
 import com.spring.jwt.profile.dto.request.ProfileSearchCriteria;
 import com.spring.jwt.profile.dto.request.UpdateProfileRequest;
+import com.spring.jwt.profile.dto.response.ProfileFacetedSearchResponse;
 import com.spring.jwt.profile.dto.response.ProfileListView;
 import com.spring.jwt.profile.dto.response.ProfileResponse;
 import com.spring.jwt.profile.dto.response.PublicProfileView;
 import com.spring.jwt.profile.exception.DuplicateProfileException;
 import com.spring.jwt.profile.exception.ProfileNotFoundException;
+import com.spring.jwt.profile.exception.TextSearchUnavailableException;
 import com.spring.jwt.profile.mapper.ProfileDtoMapper;
+import com.spring.jwt.profile.search.ProfileFacet;
+import com.spring.jwt.profile.search.ProfileFacetService;
+import com.spring.jwt.profile.search.ProfileQuery;
+import com.spring.jwt.profile.search.ProfileScrollService;
+import com.spring.jwt.profile.search.ProfileScrollService.ProfileSlice;
+import com.spring.jwt.profile.search.ProfileQuery.SortField;
+import com.spring.jwt.profile.search.ProfileSearchIndex;
+import com.spring.jwt.profile.search.ProfileSearchIndex.SearchHits;
+import com.spring.jwt.profile.text.ProfileTextIndex;
+import com.spring.jwt.profile.text.ProfileTextIndex.TextHits;
+import com.spring.jwt.profile.view.ProfileCardRow;
+import com.spring.jwt.profile.view.ProfileSummaryRow;
+import com.spring.jwt.profile.view.ProfileView;
 import com.spring.jwt.repository.UserProfileRepository;
 import com.spring.jwt.repository.UserRepository;
 import com.spring.jwt.utils.CacheUtils;
 import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
@@ -36,6 +58,13 @@ import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of ProfileService interface.
@@ -53,14 +82,17 @@ public class ProfileServiceImpl implements ProfileService {
     private final CompleteProfileService completeProfileService;
     private final ProfileOwnershipService ownershipService;
     private final ProfileDtoMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProfileSearchIndex profileSearchIndex;
+    private final ProfileScrollService profileScrollService;
+    private final ProfileFacetService profileFacetService;
+    private final LocationService locationService;
+    private final ProfileTextIndex profileTextIndex;
+    private final CacheUtils cacheUtils;
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
     @Retryable(retryFor = { SQLException.class }, maxAttempts = 3, backoff = @Backoff(delay = 1000))
-    @Caching(evict = {
-        @CacheEvict(value = CacheUtils.CacheNames.PROFILES, key = "#root.target.getCurrentUserId()"),
-        @CacheEvict(value = CacheUtils.CacheNames.PROFILE_STATS, allEntries = true)
-    })
     public ProfileResponse createProfile(CreateProfileRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Creating profile for authenticated user ID: {}", currentUserId);
@@ -71,10 +103,6 @@ public class ProfileServiceImpl implements ProfileService {
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
     @Retryable(retryFor = { SQLException.class }, maxAttempts = 3, backoff = @Backoff(delay = 1000))
-    @Caching(evict = {
-        @CacheEvict(value = CacheUtils.CacheNames.PROFILES, key = "#userId"),
-        @CacheEvict(value = CacheUtils.CacheNames.PROFILE_STATS, allEntries = true)
-    })
     public ProfileResponse createProfileForUser(Integer userId, CreateProfileRequest request) {
         log.info("Creating profile for user ID: {}", userId);
 
@@ -90,6 +118,7 @@ public class ProfileServiceImpl implements ProfileService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
         UserProfile profile = mapper.toEntity(request, user);
+        locationService.assign(profile);
 
         // For admin operations, use the target user ID as creator
         profile.setCreatedBy(userId);
@@ -98,6 +127,10 @@ public class ProfileServiceImpl implements ProfileService {
         UserProfile savedProfile = userProfileRepository.save(profile);
         log.info("Profile created successfully with ID: {}", savedProfile.getUserProfileId());
 
+        eventPublisher.publishEvent(EntityChangeEvent.created(
+                EntityType.USER_PROFILE, savedProfile.getUserProfileId(), userId));
+        eventPublisher.publishEvent(new ProfileMatchingChangeEvent(savedProfile.getUserProfileId()));
+
         synchronizeCompleteProfile(user, savedProfile);
 
         return mapper.toResponse(savedProfile);
@@ -116,7 +149,7 @@ public class ProfileServiceImpl implements ProfileService {
     }
 
     @Override
-    @Cacheable(value = CacheUtils.CacheNames.PROFILES, key = "#userId")
+    @Cacheable(value = CacheUtils.CacheNames.PROFILES, key = "#userId", sync = true)
     public ProfileResponse getProfileByUserId(Integer userId) {
         log.debug("Fetching profile for user ID: {}", userId);
 
@@ -127,7 +160,18 @@ public class ProfileServiceImpl implements ProfileService {
     }
 
     @Override
-    @Cacheable(value = CacheUtils.CacheNames.PUBLIC_PROFILES, key = "#profileId")
+    public List<ProfileResponse> getProfilesByUserIds(Collection<Integer> userIds) {
+        log.debug("Fetching profiles for {} user IDs", userIds.size());
+
+        return List.copyOf(cacheUtils.getAll(CacheUtils.CacheNames.PROFILES, userIds, userId -> userId,
+                ProfileResponse.class,
+                missing -> userProfileRepository.findAllWithUserByUserIds(missing).stream()
+                        .collect(Collectors.toMap(profile -> profile.getUser().getId(), mapper::toResponse)))
+                .values());
+    }
+
+    @Override
+    @Cacheable(value = CacheUtils.CacheNames.PUBLIC_PROFILES, key = "#profileId", sync = true)
     public PublicProfileView getPublicProfileById(Integer profileId) {
         log.debug("Fetching public view of profile ID: {}", profileId);
 
@@ -147,23 +191,116 @@ public class ProfileServiceImpl implements ProfileService {
 
     @Override
     public Page<ProfileListView> searchProfiles(ProfileSearchCriteria criteria, Pageable pageable) {
-        log.debug("Searching profiles with criteria: {}", criteria);
+        return searchProfiles(criteria, pageable, ProfileView.SUMMARY).map(ProfileListView.class::cast);
+    }
+
+    @Override
+    public Page<?> searchProfiles(ProfileSearchCriteria criteria, Pageable pageable, ProfileView view) {
+        log.debug("Searching profiles with criteria: {}, view: {}", criteria, view);
 
         Gender gender = null;
         if (criteria.getGender() != null && !criteria.getGender().trim().isEmpty()) {
             gender = validateAndConvertGender(criteria.getGender());
         }
 
-        Page<UserProfile> profiles = userProfileRepository.searchProfiles(
-                gender,
-                criteria.getReligion(),
-                criteria.getCaste(),
-                criteria.getDistrict(),
-                criteria.getMinAge(),
-                criteria.getMaxAge(),
-                pageable);
+        ProfileQuery query = toQuery(criteria, gender);
 
-        return profiles.map(mapper::toListView);
+        SearchHits hits = searchIndex(query, pageable);
+        if (hits != null) {
+            return new PageImpl<>(loadViews(hits.profileIds(), view), pageable, hits.total());
+        }
+
+        if (view == ProfileView.CARD) {
+            return userProfileRepository.searchCardRows(query, pageable).map(mapper::toCardView);
+        }
+        return userProfileRepository.searchSummaryRows(query, pageable).map(mapper::toListView);
+    }
+
+    @Override
+    public ProfileFacetedSearchResponse searchProfilesWithFacets(ProfileSearchCriteria criteria, Pageable pageable,
+                                                                 Set<ProfileFacet> facets) {
+        Gender gender = null;
+        if (criteria.getGender() != null && !criteria.getGender().trim().isEmpty()) {
+            gender = validateAndConvertGender(criteria.getGender());
+        }
+
+        return ProfileFacetedSearchResponse.builder()
+                .results(searchProfiles(criteria, pageable))
+                .facets(profileFacetService.facetCounts(toQuery(criteria, gender), facets))
+                .build();
+    }
+
+    @Override
+    public Page<ProfileListView> textSearchProfiles(String text, ProfileSearchCriteria criteria, Pageable pageable) {
+        return textSearchProfiles(text, criteria, pageable, ProfileView.SUMMARY).map(ProfileListView.class::cast);
+    }
+
+    @Override
+    public Page<?> textSearchProfiles(String text, ProfileSearchCriteria criteria, Pageable pageable, ProfileView view) {
+        log.debug("Text search for '{}' with criteria: {}, view: {}", text, criteria, view);
+
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search text is required");
+        }
+        if (!profileTextIndex.isReady()) {
+            throw new TextSearchUnavailableException("Text search is not available while its index is being built");
+        }
+
+        Gender gender = null;
+        if (criteria.getGender() != null && !criteria.getGender().trim().isEmpty()) {
+            gender = validateAndConvertGender(criteria.getGender());
+        }
+
+        TextHits hits = profileTextIndex.search(text, toQuery(criteria, gender),
+                (int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(loadViews(hits.profileIds(), view), pageable, hits.total());
+    }
+
+    /**
+     * Answer a search from the in-memory index.
+     *
+     * @return the IDs on the page and the total, or null when the index is not built yet or
+     *         cannot apply the requested order
+     */
+    private SearchHits searchIndex(ProfileQuery query, Pageable pageable) {
+        if (!profileSearchIndex.isReady() || pageable.isUnpaged()) {
+            return null;
+        }
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("userProfileId"));
+        SortField sortField = SortField.of(order.getProperty());
+        if (sortField == null || pageable.getSort().stream().count() > 1) {
+            return null;
+        }
+
+        return profileSearchIndex.search(query, sortField, order.isAscending(),
+                (int) pageable.getOffset(), pageable.getPageSize());
+    }
+
+    /**
+     * Load the given profiles in the requested list view, keeping the order of the IDs and
+     * leaving out profiles deleted since they were matched. Card and summary views are
+     * read with constructor projections, in one query and without hydrating entities.
+     */
+    private List<?> loadViews(List<Integer> profileIds, ProfileView view) {
+        if (profileIds.isEmpty()) {
+            return List.of();
+        }
+        if (view == ProfileView.CARD) {
+            return inOrder(profileIds, userProfileRepository.findCardRowsByIds(profileIds),
+                    ProfileCardRow::userProfileId, mapper::toCardView);
+        }
+        return inOrder(profileIds, userProfileRepository.findSummaryRowsByIds(profileIds),
+                ProfileSummaryRow::userProfileId, mapper::toListView);
+    }
+
+    private static <R, V> List<V> inOrder(List<Integer> profileIds, List<R> rows, Function<R, Integer> idOf,
+                                          Function<R, V> toView) {
+        Map<Integer, R> byId = rows.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return profileIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(toView)
+                .toList();
     }
 
     @Override
@@ -180,15 +317,53 @@ public class ProfileServiceImpl implements ProfileService {
         }
     }
 
+    @Override
+    public CursorPageResponseDto<ProfileListView> scrollAllProfiles(String cursor, int size, String sort,
+                                                                    Sort.Direction direction, boolean includeTotal) {
+        log.debug("Scrolling all profiles, sort: {} {}", sort, direction);
+
+        ProfileQuery query = new ProfileQuery(null, null, null, null, null, null, null, null, null, null);
+        ProfileSlice slice = profileScrollService.scroll(query, toSortField(sort), direction.isAscending(),
+                cursor, size, includeTotal);
+        return toCursorPage(slice, size, slice.profiles().stream().map(mapper::toListView).toList());
+    }
+
+    @Override
+    public CursorPageResponseDto<ProfileListView> scrollSearchProfiles(ProfileSearchCriteria criteria, String cursor,
+                                                                       int size, String sort,
+                                                                       Sort.Direction direction,
+                                                                       boolean includeTotal) {
+        log.debug("Scrolling profile search with criteria: {}", criteria);
+
+        Gender gender = null;
+        if (criteria.getGender() != null && !criteria.getGender().trim().isEmpty()) {
+            gender = validateAndConvertGender(criteria.getGender());
+        }
+        ProfileSlice slice = profileScrollService.scroll(toQuery(criteria, gender), toSortField(sort),
+                direction.isAscending(), cursor, size, includeTotal);
+        return toCursorPage(slice, size, slice.profiles().stream().map(mapper::toListView).toList());
+    }
+
+    @Override
+    public CursorPageResponseDto<?> scrollProfilesByGender(String gender, String cursor, int size,
+                                                           boolean includeTotal) {
+        log.debug("Scrolling profiles by gender: {}", gender);
+
+        ProfileQuery query = new ProfileQuery(validateAndConvertGender(gender), Status.ACTIVE,
+                null, null, null, null, null, null, null, null);
+        ProfileSlice slice = profileScrollService.scroll(query, SortField.PROFILE_ID, false, cursor, size,
+                includeTotal);
+        if (ownershipService.isAuthenticated()) {
+            return toCursorPage(slice, size, slice.profiles().stream().map(mapper::toListView).toList());
+        } else {
+            return toCursorPage(slice, size, slice.profiles().stream().map(mapper::toPublicView).toList());
+        }
+    }
+
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
     @Retryable(retryFor = { SQLException.class, OptimisticLockingFailureException.class }, 
                maxAttempts = 3, backoff = @Backoff(delay = 1000))
-    @Caching(evict = {
-        @CacheEvict(value = CacheUtils.CacheNames.PROFILES, key = "#root.target.getCurrentUserId()"),
-        @CacheEvict(value = CacheUtils.CacheNames.PUBLIC_PROFILES, key = "#result.userProfileId"),
-        @CacheEvict(value = CacheUtils.CacheNames.PROFILE_STATS, allEntries = true)
-    })
     public ProfileResponse updateCurrentUserProfile(UpdateProfileRequest request) {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Updating profile for current user ID: {}", currentUserId);
@@ -203,7 +378,9 @@ public class ProfileServiceImpl implements ProfileService {
                     "Profile has been modified by another transaction. Please refresh and try again.");
         }
 
+        MatchingFields matchingBefore = MatchingFields.of(existing);
         mapper.applyUpdate(request, existing);
+        locationService.assign(existing);
 
         existing.setUpdatedBy(currentUserId);
 
@@ -211,6 +388,12 @@ public class ProfileServiceImpl implements ProfileService {
             UserProfile updated = userProfileRepository.save(existing);
             log.info("Profile for user {} updated successfully to version {}", currentUserId, updated.getVersion());
 
+            eventPublisher.publishEvent(EntityChangeEvent.updated(
+                    EntityType.USER_PROFILE, updated.getUserProfileId(), currentUserId));
+            if (!MatchingFields.of(updated).equals(matchingBefore)) {
+                eventPublisher.publishEvent(new ProfileMatchingChangeEvent(updated.getUserProfileId()));
+            }
+
             recalculateCompleteProfileAsync(updated);
 
             return mapper.toResponse(updated);
@@ -223,11 +406,6 @@ public class ProfileServiceImpl implements ProfileService {
 
     @Override
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = CacheUtils.CacheNames.PROFILES, key = "#root.target.getCurrentUserId()"),
-        @CacheEvict(value = CacheUtils.CacheNames.PUBLIC_PROFILES, allEntries = true),
-        @CacheEvict(value = CacheUtils.CacheNames.PROFILE_STATS, allEntries = true)
-    })
     public void deleteCurrentUserProfile() {
         Integer currentUserId = ownershipService.getCurrentUserId();
         log.info("Deleting profile for current user ID: {}", currentUserId);
@@ -237,13 +415,20 @@ public class ProfileServiceImpl implements ProfileService {
 
         userProfileRepository.delete(existing);
 
+        eventPublisher.publishEvent(EntityChangeEvent.deleted(
+                EntityType.USER_PROFILE, existing.getUserProfileId(), currentUserId));
+
         log.info("Profile for user {} soft deleted successfully", currentUserId);
     }
 
     @Override
-    @Cacheable(value = CacheUtils.CacheNames.PROFILE_STATS, key = "#gender")
+    @Cacheable(value = CacheUtils.CacheNames.PROFILE_STATS, key = "#gender?.trim()?.toUpperCase()")
     public long getProfileCountByGender(String gender) {
         Gender genderEnum = validateAndConvertGender(gender);
+        if (profileSearchIndex.isReady()) {
+            return profileSearchIndex.count(new ProfileQuery(genderEnum, Status.ACTIVE,
+                    null, null, null, null, null, null, null, null));
+        }
         return userProfileRepository.countByGenderAndActiveStatus(genderEnum);
     }
 
@@ -257,6 +442,36 @@ public class ProfileServiceImpl implements ProfileService {
         return ownershipService.getCurrentUserId();
     }
 
+    private static ProfileQuery toQuery(ProfileSearchCriteria criteria, Gender gender) {
+        return new ProfileQuery(
+                gender,
+                Status.ACTIVE,
+                blankToNull(criteria.getReligion()),
+                blankToNull(criteria.getCaste()),
+                blankToNull(criteria.getDistrict()),
+                blankToNull(criteria.getMaritalStatus()),
+                criteria.getMinAge(),
+                criteria.getMaxAge(),
+                criteria.getMinHeight(),
+                criteria.getMaxHeight());
+    }
+
+    private static SortField toSortField(String sort) {
+        SortField sortField = SortField.of(sort);
+        if (sortField == null) {
+            throw new IllegalArgumentException("Invalid sort field: " + sort);
+        }
+        return sortField;
+    }
+
+    private static <T> CursorPageResponseDto<T> toCursorPage(ProfileSlice slice, int size, List<T> content) {
+        return new CursorPageResponseDto<>(content, size, slice.hasNext(), slice.nextCursor(), slice.total());
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
     /**
      * Validate and convert gender string to enum.
      */
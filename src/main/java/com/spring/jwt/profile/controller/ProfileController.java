@@ -2,14 +2,20 @@ package com.spring.jwt.profile.controller;
 
 import com.spring.jwt.aspect.Loggable;
 import com.spring.jwt.aspect.RequiresSubscription;
+import com.spring.jwt.dto.CursorPageResponseDto;
 import com.spring.jwt.dto.ResponseDto;
 import com.spring.jwt.profile.ProfileService;
 import com.spring.jwt.profile.dto.request.CreateProfileRequest;
 import com.spring.jwt.profile.dto.request.ProfileSearchCriteria;
 import com.spring.jwt.profile.dto.request.UpdateProfileRequest;
+import com.spring.jwt.profile.dto.response.ProfileCardView;
+import com.spring.jwt.profile.dto.response.ProfileFacetedSearchResponse;
 import com.spring.jwt.profile.dto.response.ProfileListView;
 import com.spring.jwt.profile.dto.response.ProfileResponse;
 import com.spring.jwt.profile.dto.response.PublicProfileView;
+import com.spring.jwt.profile.search.ProfileFacet;
+import com.spring.jwt.profile.view.FieldSelector;
+import com.spring.jwt.profile.view.ProfileView;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -19,8 +25,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,6 +42,11 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * REST Controller for user profile management.
  * Implements RESTful API design with proper HTTP semantics, security, and
@@ -50,7 +63,12 @@ import org.springframework.web.bind.annotation.*;
 @SecurityRequirement(name = "bearerAuth")
 public class ProfileController {
 
+    private static final Map<ProfileView, Class<?>> LIST_VIEWS = new EnumMap<>(Map.of(
+            ProfileView.CARD, ProfileCardView.class,
+            ProfileView.SUMMARY, ProfileListView.class));
+
     private final ProfileService profileService;
+    private final FieldSelector fieldSelector;
 
     /**
      * Create a new user profile.
@@ -138,6 +156,34 @@ public class ProfileController {
                 ResponseDto.success("Profile retrieved successfully", response));
     }
 
+    /**
+     * Get the profiles of several users (Admin only).
+     * GET /api/v1/profiles/users?userIds=1,2,3
+     *
+     * @param userIds the user IDs
+     * @return the profiles in the order of the IDs; users without a profile are left out
+     */
+    @GetMapping("/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    @RateLimiter(name = "profileApi")
+    @Operation(summary = "Get profiles of several users (Admin only)",
+            description = "Retrieve the profiles of up to 50 users in one call, in the order of the IDs.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Profiles retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "No user IDs, or more than 50"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "403", description = "User not authorized (Admin role required)"),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+    })
+    public ResponseEntity<ResponseDto<List<ProfileResponse>>> getProfilesByUserIds(
+            @RequestParam @NotEmpty @Size(max = 50) @Parameter(description = "User IDs, comma separated") List<Integer> userIds) {
+
+        List<ProfileResponse> response = profileService.getProfilesByUserIds(userIds);
+
+        return ResponseEntity.ok(
+                ResponseDto.success("Profiles retrieved successfully", response));
+    }
+
     /**
      * Get public profile view by profile ID (no authentication required).
      * GET /api/v1/profiles/{profileId}/public
@@ -178,7 +224,8 @@ public class ProfileController {
     @PreAuthorize("hasRole('ADMIN')")
     @RateLimiter(name = "profileApi")
     @Operation(summary = "Browse all profiles (Admin only)",
-            description = "Retrieve paginated list of all profiles. Only accessible by administrators.")
+            description = "Retrieve paginated list of all profiles. Only accessible by administrators." +
+                    " The view and fields parameters of /search are not supported.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Profiles retrieved successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid pagination or sort parameters"),
@@ -213,17 +260,59 @@ public class ProfileController {
                 ResponseDto.success("Profiles retrieved successfully", profiles));
     }
 
+    /**
+     * Browse all profiles with cursor pagination (admin only).
+     * GET /api/v1/profiles/scroll
+     *
+     * @param cursor       cursor from the previous slice; omit for the first slice
+     * @param size         slice size
+     * @param sort         sort field (default: userProfileId)
+     * @param direction    sort direction (default: DESC)
+     * @param includeTotal whether to include the (briefly cached) total count
+     * @return slice of profiles with the cursor of the next slice
+     */
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    @RateLimiter(name = "profileApi")
+    @Operation(summary = "Scroll all profiles (Admin only)",
+            description = "Cursor-paginated list of all profiles. Pass nextCursor back to get the next slice." +
+                    " The view and fields parameters of /search are not supported.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Profiles retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, size or sort parameters"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "403", description = "User not authorized (Admin role required)"),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+    })
+    public ResponseEntity<ResponseDto<CursorPageResponseDto<ProfileListView>>> scrollAllProfiles(
+            @RequestParam(required = false) @Parameter(description = "Cursor from the previous slice") String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(30) @Parameter(description = "Slice size (1-30)") int size,
+            @RequestParam(defaultValue = "userProfileId")
+            @Parameter(description = "Sort field (userProfileId, createdAt, age, height)") String sort,
+            @RequestParam(defaultValue = "DESC") @Parameter(description = "Sort direction") Sort.Direction direction,
+            @RequestParam(defaultValue = "false") @Parameter(description = "Include the total count") boolean includeTotal) {
+
+        CursorPageResponseDto<ProfileListView> profiles =
+                profileService.scrollAllProfiles(cursor, size, sort, direction, includeTotal);
+
+        return ResponseEntity.ok(
+                ResponseDto.success("Profiles retrieved successfully", profiles));
+    }
+
     /**
      * Search profiles with criteria.
      * GET /api/v1/profiles/search
      *
      * Supports filtering by gender, religion, caste, district, age range, etc.
+     * {@code view=CARD} or a short {@code fields} list returns only name, age, city and photo.
      *
      * @param criteria  search criteria
      * @param page      page number
      * @param size      page size
      * @param sort      sort field
      * @param direction sort direction
+     * @param view      profile view, SUMMARY by default
+     * @param fields    fields to return, all fields of the view by default
      * @return paginated search results
      */
     @GetMapping("/search")
@@ -240,19 +329,152 @@ public class ProfileController {
             @ApiResponse(responseCode = "403", description = "User not authorized"),
             @ApiResponse(responseCode = "429", description = "Rate limit exceeded")
     })
-    public ResponseEntity<ResponseDto<Page<ProfileListView>>> searchProfiles(
+    public ResponseEntity<ResponseDto<Page<?>>> searchProfiles(
+            @Valid @ModelAttribute @Parameter(description = "Search criteria") ProfileSearchCriteria criteria,
+            @RequestParam(defaultValue = "0") @Min(0) @Parameter(description = "Page number") int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(50) @Parameter(description = "Page size") int size,
+            @RequestParam(defaultValue = "userProfileId") @Parameter(description = "Sort field") String sort,
+            @RequestParam(defaultValue = "DESC") @Parameter(description = "Sort direction") Sort.Direction direction,
+            @RequestParam(required = false) @Parameter(description = "Profile view (CARD, SUMMARY); default SUMMARY") ProfileView view,
+            @RequestParam(required = false) @Parameter(description = "Fields to return, comma separated") Set<String> fields) {
+
+        if (!sort.matches("^(userProfileId|createdAt|age|height)$")) {
+            throw new IllegalArgumentException("Invalid sort field: " + sort);
+        }
+
+        ProfileView resolved = fieldSelector.resolve(view, fields, ProfileView.SUMMARY, LIST_VIEWS);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort));
+        Page<?> profiles = profileService.searchProfiles(criteria, pageable, resolved);
+
+        return ResponseEntity.ok(
+                ResponseDto.success("Profiles retrieved successfully", fieldSelector.select(profiles, fields)));
+    }
+
+    /**
+     * Search profiles with criteria, with value counts for the requested facets.
+     * GET /api/v1/profiles/search/facets
+     *
+     * @param criteria  search criteria
+     * @param page      page number
+     * @param size      page size
+     * @param sort      sort field
+     * @param direction sort direction
+     * @param facets    facets to count (default: RELIGION, CASTE, DISTRICT, AGE_BAND)
+     * @return paginated search results with facet counts over all matches
+     */
+    @GetMapping("/search/facets")
+    @PreAuthorize("hasRole('USER')")
+    @RateLimiter(name = "profileApi")
+    @Loggable(action = "SEARCH_PROFILES")
+    @Operation(summary = "Search profiles with facet counts",
+            description = "Same filters as /search, plus counts per religion, caste, district, etc. under those filters")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Profiles retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid search criteria, facets or pagination parameters"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "403", description = "User not authorized"),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+    })
+    public ResponseEntity<ResponseDto<ProfileFacetedSearchResponse>> searchProfilesWithFacets(
             @Valid @ModelAttribute @Parameter(description = "Search criteria") ProfileSearchCriteria criteria,
             @RequestParam(defaultValue = "0") @Min(0) @Parameter(description = "Page number") int page,
             @RequestParam(defaultValue = "20") @Min(1) @Max(50) @Parameter(description = "Page size") int size,
             @RequestParam(defaultValue = "userProfileId") @Parameter(description = "Sort field") String sort,
-            @RequestParam(defaultValue = "DESC") @Parameter(description = "Sort direction") Sort.Direction direction) {
+            @RequestParam(defaultValue = "DESC") @Parameter(description = "Sort direction") Sort.Direction direction,
+            @RequestParam(defaultValue = "RELIGION,CASTE,DISTRICT,AGE_BAND")
+            @Parameter(description = "Facets to count") Set<ProfileFacet> facets) {
 
         if (!sort.matches("^(userProfileId|createdAt|age|height)$")) {
             throw new IllegalArgumentException("Invalid sort field: " + sort);
         }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort));
-        Page<ProfileListView> profiles = profileService.searchProfiles(criteria, pageable);
+        ProfileFacetedSearchResponse response = profileService.searchProfilesWithFacets(criteria, pageable, facets);
+
+        return ResponseEntity.ok(
+                ResponseDto.success("Profiles retrieved successfully", response));
+    }
+
+    /**
+     * Search profile text, ranked by relevance.
+     * GET /api/v1/profiles/search/text
+     *
+     * Matches names, places, education, profession and family details; the filters of
+     * /search narrow the matches without changing their order.
+     *
+     * @param q        words to search for, e.g. "software engineer pune"
+     * @param criteria search criteria
+     * @param page     page number
+     * @param size     page size
+     * @param view     profile view, SUMMARY by default
+     * @param fields   fields to return, all fields of the view by default
+     * @return paginated search results, best match first
+     */
+    @GetMapping("/search/text")
+    @PreAuthorize("hasRole('USER')")
+    @RateLimiter(name = "profileApi")
+    @Loggable(action = "SEARCH_PROFILES")
+    @Operation(summary = "Full-text search over profiles",
+            description = "Relevance-ranked search over profile, education, profession and family text, with the same filters as /search")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Profiles retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Missing search text, invalid search criteria or pagination parameters"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "403", description = "User not authorized"),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded"),
+            @ApiResponse(responseCode = "503", description = "Text index is being built")
+    })
+    public ResponseEntity<ResponseDto<Page<?>>> textSearchProfiles(
+            @RequestParam @Size(max = 200) @Parameter(description = "Words to search for") String q,
+            @Valid @ModelAttribute @Parameter(description = "Search criteria") ProfileSearchCriteria criteria,
+            @RequestParam(defaultValue = "0") @Min(0) @Max(100) @Parameter(description = "Page number") int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(50) @Parameter(description = "Page size") int size,
+            @RequestParam(required = false) @Parameter(description = "Profile view (CARD, SUMMARY); default SUMMARY") ProfileView view,
+            @RequestParam(required = false) @Parameter(description = "Fields to return, comma separated") Set<String> fields) {
+
+        ProfileView resolved = fieldSelector.resolve(view, fields, ProfileView.SUMMARY, LIST_VIEWS);
+        Page<?> profiles = profileService.textSearchProfiles(q, criteria, PageRequest.of(page, size), resolved);
+
+        return ResponseEntity.ok(
+                ResponseDto.success("Profiles retrieved successfully", fieldSelector.select(profiles, fields)));
+    }
+
+    /**
+     * Search profiles with criteria and cursor pagination.
+     * GET /api/v1/profiles/search/scroll
+     *
+     * @param criteria     search criteria
+     * @param cursor       cursor from the previous slice; omit for the first slice
+     * @param size         slice size
+     * @param sort         sort field
+     * @param direction    sort direction
+     * @param includeTotal whether to include the total count
+     * @return slice of search results with the cursor of the next slice
+     */
+    @GetMapping("/search/scroll")
+    @PreAuthorize("hasRole('USER')")
+    @RateLimiter(name = "profileApi")
+    @Loggable(action = "SEARCH_PROFILES")
+    @Operation(summary = "Search profiles with cursor pagination",
+            description = "Same filters as /search; pass nextCursor back to get the next slice." +
+                    " The view and fields parameters of /search are not supported.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Profiles retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid search criteria, cursor or size"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "403", description = "User not authorized"),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+    })
+    public ResponseEntity<ResponseDto<CursorPageResponseDto<ProfileListView>>> scrollSearchProfiles(
+            @Valid @ModelAttribute @Parameter(description = "Search criteria") ProfileSearchCriteria criteria,
+            @RequestParam(required = false) @Parameter(description = "Cursor from the previous slice") String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(50) @Parameter(description = "Slice size") int size,
+            @RequestParam(defaultValue = "userProfileId") @Parameter(description = "Sort field") String sort,
+            @RequestParam(defaultValue = "DESC") @Parameter(description = "Sort direction") Sort.Direction direction,
+            @RequestParam(defaultValue = "false") @Parameter(description = "Include the total count") boolean includeTotal) {
+
+        CursorPageResponseDto<ProfileListView> profiles =
+                profileService.scrollSearchProfiles(criteria, cursor, size, sort, direction, includeTotal);
 
         return ResponseEntity.ok(
                 ResponseDto.success("Profiles retrieved successfully", profiles));
@@ -272,7 +494,8 @@ public class ProfileController {
     @GetMapping("/browse/gender/{gender}")
     @RateLimiter(name = "profileApi")
     @Operation(summary = "Browse profiles by gender",
-            description = "Browse profiles filtered by gender. Returns different views based on authentication status.")
+            description = "Browse profiles filtered by gender. Returns different views based on authentication status." +
+                    " The view and fields parameters of /search are not supported.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Profiles retrieved successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid gender or pagination parameters"),
@@ -290,6 +513,38 @@ public class ProfileController {
                 ResponseDto.success("Profiles retrieved successfully", profiles));
     }
 
+    /**
+     * Browse profiles by gender with cursor pagination, newest first.
+     * GET /api/v1/profiles/browse/gender/{gender}/scroll
+     *
+     * @param gender       the gender (MALE/FEMALE)
+     * @param cursor       cursor from the previous slice; omit for the first slice
+     * @param size         slice size
+     * @param includeTotal whether to include the total count
+     * @return slice of profiles with the cursor of the next slice
+     */
+    @GetMapping("/browse/gender/{gender}/scroll")
+    @RateLimiter(name = "profileApi")
+    @Operation(summary = "Scroll profiles by gender",
+            description = "Cursor-paginated browse by gender. Returns different views based on authentication status." +
+                    " The view and fields parameters of /search are not supported.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Profiles retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid gender, cursor or size"),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+    })
+    public ResponseEntity<ResponseDto<CursorPageResponseDto<?>>> scrollByGender(
+            @PathVariable @NotNull @Parameter(description = "Gender (MALE/FEMALE)") String gender,
+            @RequestParam(required = false) @Parameter(description = "Cursor from the previous slice") String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(50) @Parameter(description = "Slice size") int size,
+            @RequestParam(defaultValue = "false") @Parameter(description = "Include the total count") boolean includeTotal) {
+
+        CursorPageResponseDto<?> profiles = profileService.scrollProfilesByGender(gender, cursor, size, includeTotal);
+
+        return ResponseEntity.ok(
+                ResponseDto.success("Profiles retrieved successfully", profiles));
+    }
+
     /**
      * Update current user's profile (partial update - PATCH semantics).
      * PATCH /api/v1/profiles/me
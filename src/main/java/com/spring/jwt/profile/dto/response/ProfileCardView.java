@@ -0,0 +1,42 @@
+package com.spring.jwt.profile.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Smallest profile view, with only what a browse card renders.
+ * Returned by list endpoints for {@code view=CARD}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProfileCardView {
+
+    @Schema(description = "User profile ID", example = "1")
+    private Integer userProfileId;
+
+    @Schema(description = "Complete profile ID", example = "1")
+    private Integer completeProfileId;
+
+    @Schema(description = "First name", example = "John")
+    private String firstName;
+
+    @Schema(description = "Last name", example = "Doe")
+    private String lastName;
+
+    @Schema(description = "Age", example = "28")
+    private Integer age;
+
+    @Schema(description = "Current city", example = "Mumbai")
+    private String currentCity;
+
+    @Schema(description = "Card rendition (256px) of the profile photo", example = "/api/v1/profiles/public/users/42/photo?size=CARD")
+    private String profilePhotoUrl;
+
+    @Schema(description = "Whether user has uploaded a profile photo", example = "true")
+    private Boolean hasProfilePhoto;
+}
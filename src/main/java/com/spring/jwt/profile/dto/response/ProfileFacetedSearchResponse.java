@@ -0,0 +1,29 @@
+package com.spring.jwt.profile.dto.response;
+
+import com.spring.jwt.profile.search.ProfileFacet;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+/**
+ * A page of search results with value counts for the requested facets.
+ * Counts are taken over all profiles matching the search, not just the page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProfileFacetedSearchResponse {
+
+    @Schema(description = "Page of matching profiles")
+    private Page<ProfileListView> results;
+
+    @Schema(description = "Per facet, the number of matching profiles with each value",
+            example = "{\"RELIGION\": {\"Hindu\": 120, \"Jain\": 14}, \"AGE_BAND\": {\"25-29\": 61}}")
+    private Map<ProfileFacet, Map<String, Long>> facets;
+}
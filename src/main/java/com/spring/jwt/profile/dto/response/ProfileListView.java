@@ -56,11 +56,11 @@ public class ProfileListView {
     private String status;
     
     // Profile photo fields
-    @Schema(description = "Profile photo as base64 encoded string", example = "data:image/jpeg;base64,/9j/4AAQSkZJRgABAQAAAQ...")
-    private String profilePhotoBase64;
+    @Schema(description = "Card rendition (256px) of the profile photo", example = "/api/v1/profiles/public/users/42/photo?size=CARD")
+    private String profilePhotoUrl;
     
-    @Schema(description = "Profile photo content type", example = "image/jpeg")
-    private String profilePhotoContentType;
+    @Schema(description = "Thumbnail rendition (64px) of the profile photo", example = "/api/v1/profiles/public/users/42/photo?size=THUMBNAIL")
+    private String profilePhotoThumbnailUrl;
     
     @Schema(description = "Whether user has uploaded a profile photo", example = "true")
     private Boolean hasProfilePhoto;
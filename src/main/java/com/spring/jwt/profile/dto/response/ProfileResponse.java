@@ -30,6 +30,7 @@ public class ProfileResponse {
     private String address;
     private String taluka;
     private String district;
+    private Integer districtLocationId;
     private Integer pinCode;
 
     private String religion;
@@ -48,6 +49,7 @@ public class ProfileResponse {
     private String homeTownDistrict;
     private String nativeTaluka;
     private String currentCity;
+    private Integer currentCityLocationId;
 
     private Integer userId;
 
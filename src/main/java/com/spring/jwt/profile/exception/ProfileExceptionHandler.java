@@ -97,6 +97,15 @@ public class ProfileExceptionHandler {
                         "The profile has been modified by another user. Please refresh and try again."));
     }
 
+    @ExceptionHandler(TextSearchUnavailableException.class)
+    public ResponseEntity<ResponseDto<Object>> handleTextSearchUnavailable(TextSearchUnavailableException ex) {
+        log.warn("Text search unavailable: {}", ex.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ResponseDto.error("Text search unavailable", ex.getMessage()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ResponseDto<Object>> handleIllegalArgument(IllegalArgumentException ex) {
         log.warn("Illegal argument: {}", ex.getMessage());
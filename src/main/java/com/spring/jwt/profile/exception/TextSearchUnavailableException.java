@@ -0,0 +1,12 @@
+package com.spring.jwt.profile.exception;
+
+/**
+ * Exception thrown when the profile text index cannot answer a search yet, because it is
+ * being built for the first time or could not be opened.
+ */
+public class TextSearchUnavailableException extends RuntimeException {
+
+    public TextSearchUnavailableException(String message) {
+        super(message);
+    }
+}
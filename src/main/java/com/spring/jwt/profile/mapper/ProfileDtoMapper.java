@@ -2,24 +2,26 @@ package com.spring.jwt.profile.mapper;
 
 import com.spring.jwt.CompleteProfile.CompleteProfileRepository;
 import com.spring.jwt.Document.DocumentRepository;
+import com.spring.jwt.Document.domain.ImageRendition;
 import com.spring.jwt.Enums.DocumentType;
 import com.spring.jwt.entity.CompleteProfile;
-import com.spring.jwt.entity.Document;
 import com.spring.jwt.entity.Enums.Gender;
 import com.spring.jwt.entity.Enums.Status;
 import com.spring.jwt.entity.User;
 import com.spring.jwt.entity.UserProfile;
+import com.spring.jwt.mapper.DocumentResponseMapper;
 import com.spring.jwt.profile.dto.request.CreateProfileRequest;
 import com.spring.jwt.profile.dto.request.UpdateProfileRequest;
+import com.spring.jwt.profile.dto.response.ProfileCardView;
 import com.spring.jwt.profile.dto.response.ProfileListView;
 import com.spring.jwt.profile.dto.response.ProfileResponse;
 import com.spring.jwt.profile.dto.response.PublicProfileView;
+import com.spring.jwt.profile.view.ProfileCardRow;
+import com.spring.jwt.profile.view.ProfileSummaryRow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.Base64;
-import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -122,6 +124,7 @@ public class ProfileDtoMapper {
                 .address(profile.getAddress())
                 .taluka(profile.getTaluka())
                 .district(profile.getDistrict())
+                .districtLocationId(profile.getDistrictLocationId())
                 .pinCode(profile.getPinCode())
                 .religion(profile.getReligion())
                 .caste(profile.getCaste())
@@ -137,6 +140,7 @@ public class ProfileDtoMapper {
                 .homeTownDistrict(profile.getHomeTownDistrict())
                 .nativeTaluka(profile.getNativeTaluka())
                 .currentCity(profile.getCurrentCity())
+                .currentCityLocationId(profile.getCurrentCityLocationId())
                 .userId(profile.getUser().getId())
                 .createdAt(profile.getCreatedAt())
                 .updatedAt(profile.getUpdatedAt())
@@ -161,8 +165,8 @@ public class ProfileDtoMapper {
                 .complexion(profile.getComplexion())
                 .currentCity(profile.getCurrentCity())
                 .maritalStatus(profile.getMaritalStatus())
-                .profilePhotoBase64(photoData.base64Data)
-                .profilePhotoContentType(photoData.contentType)
+                .profilePhotoUrl(photoData.hasPhoto ? DocumentResponseMapper.profilePhotoUrl(profile.getUser().getId(), ImageRendition.CARD) : null)
+                .profilePhotoThumbnailUrl(photoData.hasPhoto ? DocumentResponseMapper.profilePhotoUrl(profile.getUser().getId(), ImageRendition.THUMBNAIL) : null)
                 .hasProfilePhoto(photoData.hasPhoto)
                 .build();
     }
@@ -185,29 +189,79 @@ public class ProfileDtoMapper {
                 .currentCity(profile.getCurrentCity())
                 .maritalStatus(profile.getMaritalStatus())
                 .status(profile.getStatus().name())
-                .profilePhotoBase64(photoData.base64Data)
-                .profilePhotoContentType(photoData.contentType)
+                .profilePhotoUrl(photoData.hasPhoto ? DocumentResponseMapper.profilePhotoUrl(profile.getUser().getId(), ImageRendition.CARD) : null)
+                .profilePhotoThumbnailUrl(photoData.hasPhoto ? DocumentResponseMapper.profilePhotoUrl(profile.getUser().getId(), ImageRendition.THUMBNAIL) : null)
                 .hasProfilePhoto(photoData.hasPhoto)
                 .build();
     }
 
     /**
-     * Helper method to fetch and convert profile photo to base64
+     * List view from a projected row; the row already carries the photo flag and the
+     * complete profile ID, so no further queries are made.
+     */
+    public ProfileListView toListView(ProfileSummaryRow row) {
+        boolean hasPhoto = Boolean.TRUE.equals(row.hasProfilePhoto());
+
+        return ProfileListView.builder()
+                .userProfileId(row.userProfileId())
+                .completeProfileId(row.completeProfileId())
+                .firstName(row.firstName())
+                .lastName(row.lastName())
+                .age(row.age())
+                .gender(row.gender() != null ? row.gender().name() : null)
+                .religion(row.religion())
+                .caste(row.caste())
+                .height(row.height())
+                .district(row.district())
+                .currentCity(row.currentCity())
+                .maritalStatus(row.maritalStatus())
+                .status(row.status() != null ? row.status().name() : null)
+                .profilePhotoUrl(hasPhoto ? DocumentResponseMapper.profilePhotoUrl(row.userId(), ImageRendition.CARD) : null)
+                .profilePhotoThumbnailUrl(hasPhoto ? DocumentResponseMapper.profilePhotoUrl(row.userId(), ImageRendition.THUMBNAIL) : null)
+                .hasProfilePhoto(hasPhoto)
+                .build();
+    }
+
+    public ProfileCardView toCardView(ProfileCardRow row) {
+        boolean hasPhoto = Boolean.TRUE.equals(row.hasProfilePhoto());
+
+        return ProfileCardView.builder()
+                .userProfileId(row.userProfileId())
+                .completeProfileId(row.completeProfileId())
+                .firstName(row.firstName())
+                .lastName(row.lastName())
+                .age(row.age())
+                .currentCity(row.currentCity())
+                .profilePhotoUrl(hasPhoto ? DocumentResponseMapper.profilePhotoUrl(row.userId(), ImageRendition.CARD) : null)
+                .hasProfilePhoto(hasPhoto)
+                .build();
+    }
+
+    public ProfileCardView toCardView(UserProfile profile) {
+        ProfilePhotoData photoData = getProfilePhotoData(profile.getUser().getId());
+
+        return ProfileCardView.builder()
+                .userProfileId(profile.getUserProfileId())
+                .completeProfileId(getCompleteProfileId(profile.getUser().getId()))
+                .firstName(profile.getFirstName())
+                .lastName(profile.getLastName())
+                .age(profile.getAge())
+                .currentCity(profile.getCurrentCity())
+                .profilePhotoUrl(photoData.hasPhoto ? DocumentResponseMapper.profilePhotoUrl(profile.getUser().getId(), ImageRendition.CARD) : null)
+                .hasProfilePhoto(photoData.hasPhoto)
+                .build();
+    }
+
+    /**
+     * Helper method to check for a profile photo
+     * Only the existence is queried; views link to the photo renditions instead of embedding the image
      */
     private ProfilePhotoData getProfilePhotoData(Integer userId) {
         try {
-            Optional<Document> profilePhotoDoc = documentRepository.findByUserIdAndDocumentType(userId, DocumentType.PROFILE_PHOTO);
-            
-            if (profilePhotoDoc.isPresent()) {
-                Document document = profilePhotoDoc.get();
-                String base64Data = Base64.getEncoder().encodeToString(document.getFileData());
-                return new ProfilePhotoData(base64Data, document.getContentType(), true);
-            } else {
-                return new ProfilePhotoData(null, null, false);
-            }
+            return new ProfilePhotoData(documentRepository.existsByUserIdAndDocumentType(userId, DocumentType.PROFILE_PHOTO));
         } catch (Exception e) {
             log.warn("Error fetching profile photo for user {}: {}", userId, e.getMessage());
-            return new ProfilePhotoData(null, null, false);
+            return new ProfilePhotoData(false);
         }
     }
 
@@ -229,13 +283,9 @@ public class ProfileDtoMapper {
      * Helper class to hold profile photo data
      */
     private static class ProfilePhotoData {
-        final String base64Data;
-        final String contentType;
         final boolean hasPhoto;
 
-        ProfilePhotoData(String base64Data, String contentType, boolean hasPhoto) {
-            this.base64Data = base64Data;
-            this.contentType = contentType;
+        ProfilePhotoData(boolean hasPhoto) {
             this.hasPhoto = hasPhoto;
         }
     }
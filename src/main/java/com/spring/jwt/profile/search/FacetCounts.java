@@ -0,0 +1,57 @@
+package com.spring.jwt.profile.search;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Running counts of facet values over a set of profiles, filled one profile at a time so
+ * every requested facet is counted in the same pass. Values that differ only in case or
+ * surrounding whitespace share a bucket, labelled as first seen. Not thread-safe.
+ */
+final class FacetCounts {
+
+    private final Map<ProfileFacet, Map<String, Bucket>> buckets = new EnumMap<>(ProfileFacet.class);
+
+    FacetCounts(Set<ProfileFacet> facets) {
+        facets.forEach(facet -> buckets.put(facet, new HashMap<>()));
+    }
+
+    void add(IndexedProfile profile) {
+        for (Map.Entry<ProfileFacet, Map<String, Bucket>> facet : buckets.entrySet()) {
+            String label = facet.getKey().label(profile);
+            if (label != null) {
+                facet.getValue().computeIfAbsent(ProfileSearchIndex.normalize(label), key -> new Bucket(label)).count++;
+            }
+        }
+    }
+
+    /**
+     * Counts per facet: age bands in age order, other values most frequent first
+     */
+    Map<ProfileFacet, Map<String, Long>> toMap() {
+        Map<ProfileFacet, Map<String, Long>> result = new EnumMap<>(ProfileFacet.class);
+        buckets.forEach((facet, values) -> {
+            Comparator<Bucket> order = facet == ProfileFacet.AGE_BAND
+                    ? Comparator.comparing(bucket -> bucket.label)
+                    : Comparator.<Bucket>comparingLong(bucket -> bucket.count).reversed()
+                            .thenComparing(bucket -> bucket.label);
+            Map<String, Long> counts = new LinkedHashMap<>();
+            values.values().stream().sorted(order).forEach(bucket -> counts.put(bucket.label, bucket.count));
+            result.put(facet, counts);
+        });
+        return result;
+    }
+
+    private static final class Bucket {
+        private final String label;
+        private long count;
+
+        private Bucket(String label) {
+            this.label = label;
+        }
+    }
+}
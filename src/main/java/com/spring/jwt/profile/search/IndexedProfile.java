@@ -0,0 +1,20 @@
+package com.spring.jwt.profile.search;
+
+import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.entity.Enums.Status;
+
+/**
+ * The searchable columns of a user profile, as held by {@link ProfileSearchIndex}.
+ * Loaded with a constructor expression so that rebuilding the index never hydrates entities.
+ */
+public record IndexedProfile(
+        Integer profileId,
+        Gender gender,
+        Status status,
+        String religion,
+        String caste,
+        String district,
+        String maritalStatus,
+        Integer age,
+        Double height) {
+}
@@ -0,0 +1,31 @@
+package com.spring.jwt.profile.search;
+
+import com.spring.jwt.profile.search.ProfileQuery.SortField;
+import com.spring.jwt.profile.search.ProfileSearchIndex.SortKey;
+import com.spring.jwt.utils.CursorCodec;
+
+/**
+ * Cursor of a keyset-paged profile listing: the order it was issued for and the sort key
+ * of the last profile returned. A cursor is only accepted for the same order.
+ */
+public record ProfileCursor(SortField sortField, boolean ascending, SortKey after) {
+
+    public String encode() {
+        return CursorCodec.encode(sortField, ascending ? "ASC" : "DESC", after.value(), after.profileId());
+    }
+
+    /**
+     * @return the position after which to continue, or null to start from the beginning
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another order
+     */
+    public static SortKey decode(String cursor, SortField sortField, boolean ascending) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts = CursorCodec.decode(cursor, 4);
+        if (!sortField.name().equals(parts[0]) || !(ascending ? "ASC" : "DESC").equals(parts[1])) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort order");
+        }
+        return new SortKey(CursorCodec.intPart(parts[2]), CursorCodec.intPart(parts[3]));
+    }
+}
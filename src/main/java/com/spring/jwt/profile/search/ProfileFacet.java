@@ -0,0 +1,51 @@
+package com.spring.jwt.profile.search;
+
+/**
+ * Profile attributes whose values can be counted next to search results
+ */
+public enum ProfileFacet {
+    GENDER,
+    RELIGION,
+    CASTE,
+    DISTRICT,
+    MARITAL_STATUS,
+    AGE_BAND;
+
+    private static final int MIN_AGE = 18;
+    private static final int BAND_WIDTH = 5;
+    private static final int FIRST_BAND_END = 25;
+    private static final int LAST_BAND = 50;
+
+    /**
+     * The bucket the profile falls in for this facet, or null if it has no value.
+     * Text values are trimmed; age bands are "18-24", then five years wide up to "50+".
+     */
+    String label(IndexedProfile profile) {
+        return switch (this) {
+            case GENDER -> profile.gender() != null ? profile.gender().name() : null;
+            case RELIGION -> trim(profile.religion());
+            case CASTE -> trim(profile.caste());
+            case DISTRICT -> trim(profile.district());
+            case MARITAL_STATUS -> trim(profile.maritalStatus());
+            case AGE_BAND -> ageBand(profile.age());
+        };
+    }
+
+    private static String trim(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String ageBand(Integer age) {
+        if (age == null || age < MIN_AGE) {
+            return null;
+        }
+        if (age >= LAST_BAND) {
+            return LAST_BAND + "+";
+        }
+        if (age < FIRST_BAND_END) {
+            return MIN_AGE + "-" + (FIRST_BAND_END - 1);
+        }
+        int from = age / BAND_WIDTH * BAND_WIDTH;
+        return from + "-" + (from + BAND_WIDTH - 1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.spring.jwt.profile.search;
+
+import com.spring.jwt.repository.UserProfileRepository;
+import com.spring.jwt.utils.CacheUtils;
+import com.spring.jwt.utils.CacheUtils.CacheNames;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Facet counts for profile searches.
+ *
+ * Counts come from one pass over the {@link ProfileSearchIndex} matches, so any number of
+ * facets costs about as much as one. Before the index is built they are counted over the
+ * matching rows read from the database. Either way they are cached briefly per normalized
+ * query and facet set, since search forms re-request the same counts on every page.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProfileFacetService {
+
+    private final ProfileSearchIndex profileSearchIndex;
+    private final UserProfileRepository userProfileRepository;
+    private final CacheUtils cacheUtils;
+
+    /**
+     * Counts of each requested facet's values among the profiles matching the query
+     */
+    public Map<ProfileFacet, Map<String, Long>> facetCounts(ProfileQuery query, Set<ProfileFacet> facets) {
+        if (facets == null || facets.isEmpty()) {
+            return Map.of();
+        }
+        Set<ProfileFacet> requested = EnumSet.copyOf(facets);
+        ProfileQuery normalized = query.normalized();
+        return cacheUtils.get(CacheNames.PROFILE_FACETS, "facets_" + requested + "_" + normalized,
+                () -> count(normalized, requested));
+    }
+
+    private Map<ProfileFacet, Map<String, Long>> count(ProfileQuery query, Set<ProfileFacet> facets) {
+        if (profileSearchIndex.isReady()) {
+            return profileSearchIndex.facetCounts(query, facets);
+        }
+        log.debug("Profile search index not ready, counting facets for {} from the database", query);
+        FacetCounts counts = new FacetCounts(facets);
+        userProfileRepository.findIndexedProfilesMatching(query).forEach(counts::add);
+        return counts.toMap();
+    }
+}
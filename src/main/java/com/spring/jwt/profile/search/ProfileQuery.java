@@ -0,0 +1,56 @@
+package com.spring.jwt.profile.search;
+
+import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.entity.Enums.Status;
+
+/**
+ * Filters for {@link ProfileSearchIndex#search}. Null fields match every profile;
+ * text fields match ignoring case and surrounding whitespace, like the database collation.
+ */
+public record ProfileQuery(
+        Gender gender,
+        Status status,
+        String religion,
+        String caste,
+        String district,
+        String maritalStatus,
+        Integer minAge,
+        Integer maxAge,
+        Double minHeight,
+        Double maxHeight) {
+
+    /**
+     * This query with text fields trimmed and lower-cased, as the index compares them.
+     * Queries that normalize to the same value match the same profiles.
+     */
+    public ProfileQuery normalized() {
+        return new ProfileQuery(gender, status,
+                ProfileSearchIndex.normalize(religion),
+                ProfileSearchIndex.normalize(caste),
+                ProfileSearchIndex.normalize(district),
+                ProfileSearchIndex.normalize(maritalStatus),
+                minAge, maxAge, minHeight, maxHeight);
+    }
+
+    /**
+     * Order of the matching profiles. {@code PROFILE_ID} is also used for creation order,
+     * since profile IDs are assigned in insertion order.
+     */
+    public enum SortField {
+        PROFILE_ID,
+        AGE,
+        HEIGHT;
+
+        /**
+         * The sort field for an entity property name, or null if the index cannot order by it
+         */
+        public static SortField of(String property) {
+            return switch (property) {
+                case "userProfileId", "createdAt" -> PROFILE_ID;
+                case "age" -> AGE;
+                case "height" -> HEIGHT;
+                default -> null;
+            };
+        }
+    }
+}
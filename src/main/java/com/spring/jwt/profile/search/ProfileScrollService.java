@@ -0,0 +1,106 @@
+package com.spring.jwt.profile.search;
+
+import com.spring.jwt.entity.UserProfile;
+import com.spring.jwt.profile.search.ProfileQuery.SortField;
+import com.spring.jwt.profile.search.ProfileSearchIndex.SearchHits;
+import com.spring.jwt.profile.search.ProfileSearchIndex.SortKey;
+import com.spring.jwt.repository.UserProfileRepository;
+import com.spring.jwt.utils.CacheUtils;
+import com.spring.jwt.utils.CacheUtils.CacheNames;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset (cursor) paging over profile listings.
+ *
+ * Each slice continues after the sort key of the last profile of the previous one, so
+ * page 5000 costs the same as page 1 and no COUNT is needed to page. Slices are served
+ * from the {@link ProfileSearchIndex}, which seeks straight to the cursor; before the index
+ * is built they come from keyset queries instead, whose totals are cached briefly.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProfileScrollService {
+
+    private final ProfileSearchIndex profileSearchIndex;
+    private final UserProfileRepository userProfileRepository;
+    private final CacheUtils cacheUtils;
+
+    /**
+     * One slice of profiles, the cursor for the next one (null on the last slice), and the
+     * number of matches when it was asked for
+     */
+    public record ProfileSlice(List<UserProfile> profiles, boolean hasNext, String nextCursor, Long total) {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another order
+     */
+    public ProfileSlice scroll(ProfileQuery query, SortField sortField, boolean ascending, String cursor, int size,
+                               boolean includeTotal) {
+        SortKey after = ProfileCursor.decode(cursor, sortField, ascending);
+        if (profileSearchIndex.isReady()) {
+            return scrollIndex(query, sortField, ascending, after, size, includeTotal);
+        }
+        log.debug("Profile search index not ready, paging {} from the database", query);
+        return scrollDatabase(query, sortField, ascending, after, size, includeTotal);
+    }
+
+    private ProfileSlice scrollIndex(ProfileQuery query, SortField sortField, boolean ascending, SortKey after,
+                                     int size, boolean includeTotal) {
+        SearchHits hits = profileSearchIndex.searchAfter(query, sortField, ascending, after, size);
+        List<UserProfile> profiles = List.of();
+        if (!hits.profileIds().isEmpty()) {
+            Map<Integer, UserProfile> loaded = userProfileRepository.findAllWithUserByIds(hits.profileIds()).stream()
+                    .collect(Collectors.toMap(UserProfile::getUserProfileId, Function.identity()));
+            profiles = hits.profileIds().stream()
+                    .map(loaded::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+        // The cursor comes from the index so a profile deleted since cannot stall paging
+        String nextCursor = hits.hasMore() ? new ProfileCursor(sortField, ascending, hits.last()).encode() : null;
+        return new ProfileSlice(profiles, hits.hasMore(), nextCursor, includeTotal ? (long) hits.total() : null);
+    }
+
+    private ProfileSlice scrollDatabase(ProfileQuery query, SortField sortField, boolean ascending, SortKey after,
+                                        int size, boolean includeTotal) {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Integer afterId = after != null ? after.profileId() : null;
+        List<UserProfile> rows = switch (sortField) {
+            case PROFILE_ID -> userProfileRepository.scrollProfilesById(query, ascending, afterId,
+                    PageRequest.of(0, size + 1, Sort.by(direction, "userProfileId")));
+            case AGE -> userProfileRepository.scrollProfilesByAge(query, ascending,
+                    after != null ? after.value() : null, afterId,
+                    PageRequest.of(0, size + 1, Sort.by(direction, "age", "userProfileId")));
+            case HEIGHT -> userProfileRepository.scrollProfilesByHeight(query, ascending,
+                    after != null ? after.value() / 100.0 : null, afterId,
+                    PageRequest.of(0, size + 1, Sort.by(direction, "height", "userProfileId")));
+        };
+
+        boolean hasNext = rows.size() > size;
+        List<UserProfile> profiles = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            UserProfile last = profiles.get(profiles.size() - 1);
+            SortKey key = new SortKey(ProfileSearchIndex.sortValue(sortField, last.getUserProfileId(),
+                    last.getAge(), last.getHeight()), last.getUserProfileId());
+            nextCursor = new ProfileCursor(sortField, ascending, key).encode();
+        }
+        Long total = includeTotal
+                ? cacheUtils.get(CacheNames.LISTING_COUNTS, "profiles_" + query,
+                        () -> userProfileRepository.countProfiles(query))
+                : null;
+        return new ProfileSlice(profiles, hasNext, nextCursor, total);
+    }
+}
@@ -0,0 +1,452 @@
+package com.spring.jwt.profile.search;
+
+import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.entity.Enums.Status;
+import com.spring.jwt.profile.search.ProfileQuery.SortField;
+import com.spring.jwt.search.LiveIndex;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory index answering profile searches without touching the database
+ *
+ * Every profile gets a dense ordinal, assigned in profile ID order. Each value of
+ * gender, status, religion, caste, district and marital status has a
+ * {@link CompressedBitmap} of the ordinals holding it, and age and height are kept as
+ * {@link SortedColumn}s. A search intersects the bitmaps of the requested values
+ * (smallest first), narrows the result by the age and height ranges, and picks the
+ * requested page by rank, so both the page and the total come out of memory and only
+ * the profiles on the page are loaded from the database.
+ *
+ * The index is filled by {@link ProfileSearchIndexer}, which rebuilds it from the
+ * database and feeds it profile changes.
+ */
+@Component
+public class ProfileSearchIndex extends LiveIndex<IndexedProfile, ProfileSearchIndex.State> {
+
+    // Stands in for a missing age or height; sorts first and never matches a range
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+    private static final int MIN_REMOVED_BEFORE_COMPACTION = 1024;
+
+    /**
+     * One page of matching profile IDs in the requested order, the sort key of the last
+     * one (null for an empty page), whether more matches follow, and the number of matches
+     */
+    public record SearchHits(List<Integer> profileIds, SortKey last, boolean hasMore, int total) {
+    }
+
+    /**
+     * Position of a profile in a sort order: its sort value (age, height in hundredths of
+     * a centimetre, or profile ID) with the profile ID breaking ties
+     */
+    public record SortKey(int value, int profileId) {
+    }
+
+    public record Stats(boolean ready, int profiles, int ordinals, int removed, boolean outOfOrder,
+                        LocalDateTime lastRebuiltAt) {
+    }
+
+    public ProfileSearchIndex() {
+        super(new State());
+    }
+
+    @Override
+    protected State build(List<IndexedProfile> profiles) {
+        return State.of(profiles);
+    }
+
+    @Override
+    protected Integer idOf(IndexedProfile profile) {
+        return profile.profileId();
+    }
+
+    /**
+     * Profiles matching the query, as the page starting at {@code offset}
+     */
+    public SearchHits search(ProfileQuery query, SortField sortField, boolean ascending, int offset, int limit) {
+        return search(query, sortField, ascending, null, offset, limit);
+    }
+
+    /**
+     * Profiles matching the query that come after the given sort key, as for keyset paging.
+     * The cost does not grow with how far into the results the key is.
+     */
+    public SearchHits searchAfter(ProfileQuery query, SortField sortField, boolean ascending, SortKey after,
+                                  int limit) {
+        return search(query, sortField, ascending, after, 0, limit);
+    }
+
+    private SearchHits search(ProfileQuery query, SortField sortField, boolean ascending, SortKey after,
+                              int offset, int limit) {
+        return read(state -> state.page(state.match(query), sortField, ascending, after, offset, limit));
+    }
+
+    /**
+     * Number of profiles matching the query
+     */
+    public int count(ProfileQuery query) {
+        return read(state -> state.match(query).cardinality());
+    }
+
+    /**
+     * Counts of each requested facet's values among the profiles matching the query,
+     * gathered in a single pass over the matches
+     */
+    public Map<ProfileFacet, Map<String, Long>> facetCounts(ProfileQuery query, Set<ProfileFacet> facets) {
+        return read(state -> {
+            FacetCounts counts = new FacetCounts(facets);
+            IndexedProfile[] profiles = state.profiles;
+            state.match(query).forEach(ordinal -> counts.add(profiles[ordinal]));
+            return counts.toMap();
+        });
+    }
+
+    /**
+     * The value a profile is ordered by for the given sort field, in the units of {@link SortKey}
+     */
+    public static int sortValue(SortField sortField, Integer profileId, Integer age, Double height) {
+        return switch (sortField) {
+            case PROFILE_ID -> profileId;
+            case AGE -> age != null ? age : NO_VALUE;
+            case HEIGHT -> heightKey(height);
+        };
+    }
+
+    /**
+     * Whether removals or out-of-order inserts have built up enough that a rebuild would
+     * restore a compact, profile ID ordered index
+     */
+    @Override
+    public boolean needsCompaction() {
+        return read(state -> state.outOfOrder
+                || state.removed > Math.max(MIN_REMOVED_BEFORE_COMPACTION, state.ordinals.size() / 4));
+    }
+
+    public Stats getStats() {
+        return read(state -> new Stats(isReady(), state.ordinals.size(), state.nextOrdinal, state.removed,
+                state.outOfOrder, getLastRebuiltAt()));
+    }
+
+    public static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static int heightKey(Double height) {
+        return height != null ? (int) Math.round(height * 100) : NO_VALUE;
+    }
+
+    static final class State implements LiveIndex.State<IndexedProfile> {
+
+        private final Map<Integer, Integer> ordinals = new HashMap<>();
+        private IndexedProfile[] profiles = new IndexedProfile[16];
+        private int[] ages = new int[16];
+        private int[] heights = new int[16];
+        private int nextOrdinal;
+        private int removed;
+        private int maxProfileId;
+        // A profile indexed after one with a higher ID breaks profile ID order of the ordinals;
+        // until the next rebuild, profile ID order is found by sorting the matches
+        private boolean outOfOrder;
+
+        private final CompressedBitmap live = new CompressedBitmap();
+        private final Map<Gender, CompressedBitmap> genders = new EnumMap<>(Gender.class);
+        private final Map<Status, CompressedBitmap> statuses = new EnumMap<>(Status.class);
+        private final Map<String, CompressedBitmap> religions = new HashMap<>();
+        private final Map<String, CompressedBitmap> castes = new HashMap<>();
+        private final Map<String, CompressedBitmap> districts = new HashMap<>();
+        private final Map<String, CompressedBitmap> maritalStatuses = new HashMap<>();
+        private SortedColumn ageColumn = new SortedColumn();
+        private SortedColumn heightColumn = new SortedColumn();
+
+        private static State of(List<IndexedProfile> profiles) {
+            List<IndexedProfile> sorted = new ArrayList<>(profiles);
+            sorted.sort(Comparator.comparing(IndexedProfile::profileId));
+            State state = new State();
+            state.ensureCapacity(sorted.size());
+            long[] ageEntries = new long[Math.max(16, sorted.size())];
+            long[] heightEntries = new long[Math.max(16, sorted.size())];
+            for (IndexedProfile profile : sorted) {
+                int ordinal = state.nextOrdinal++;
+                state.ordinals.put(profile.profileId(), ordinal);
+                state.maxProfileId = profile.profileId();
+                state.index(profile, ordinal);
+                ageEntries[ordinal] = SortedColumn.entry(state.ages[ordinal], ordinal);
+                heightEntries[ordinal] = SortedColumn.entry(state.heights[ordinal], ordinal);
+            }
+            state.ageColumn = SortedColumn.of(ageEntries, state.nextOrdinal);
+            state.heightColumn = SortedColumn.of(heightEntries, state.nextOrdinal);
+            return state;
+        }
+
+        @Override
+        public void upsert(IndexedProfile profile) {
+            Integer ordinal = ordinals.get(profile.profileId());
+            if (ordinal != null) {
+                unindex(ordinal);
+            } else {
+                ordinal = nextOrdinal++;
+                ensureCapacity(nextOrdinal);
+                ordinals.put(profile.profileId(), ordinal);
+                outOfOrder |= profile.profileId() < maxProfileId;
+                maxProfileId = Math.max(maxProfileId, profile.profileId());
+            }
+            index(profile, ordinal);
+            ageColumn.add(ages[ordinal], ordinal);
+            heightColumn.add(heights[ordinal], ordinal);
+        }
+
+        @Override
+        public void remove(Integer profileId) {
+            Integer ordinal = ordinals.remove(profileId);
+            if (ordinal != null) {
+                unindex(ordinal);
+                removed++;
+            }
+        }
+
+        private void index(IndexedProfile profile, int ordinal) {
+            profiles[ordinal] = profile;
+            ages[ordinal] = profile.age() != null ? profile.age() : NO_VALUE;
+            heights[ordinal] = heightKey(profile.height());
+            live.add(ordinal);
+            post(genders, profile.gender(), ordinal);
+            post(statuses, profile.status(), ordinal);
+            post(religions, normalize(profile.religion()), ordinal);
+            post(castes, normalize(profile.caste()), ordinal);
+            post(districts, normalize(profile.district()), ordinal);
+            post(maritalStatuses, normalize(profile.maritalStatus()), ordinal);
+        }
+
+        private void unindex(int ordinal) {
+            IndexedProfile profile = profiles[ordinal];
+            live.remove(ordinal);
+            unpost(genders, profile.gender(), ordinal);
+            unpost(statuses, profile.status(), ordinal);
+            unpost(religions, normalize(profile.religion()), ordinal);
+            unpost(castes, normalize(profile.caste()), ordinal);
+            unpost(districts, normalize(profile.district()), ordinal);
+            unpost(maritalStatuses, normalize(profile.maritalStatus()), ordinal);
+            ageColumn.remove(ages[ordinal], ordinal);
+            heightColumn.remove(heights[ordinal], ordinal);
+            profiles[ordinal] = null;
+        }
+
+        private CompressedBitmap match(ProfileQuery query) {
+            List<CompressedBitmap> terms = new ArrayList<>();
+            if (!addTerm(terms, genders, query.gender())
+                    || !addTerm(terms, statuses, query.status())
+                    || !addTerm(terms, religions, normalize(query.religion()))
+                    || !addTerm(terms, castes, normalize(query.caste()))
+                    || !addTerm(terms, districts, normalize(query.district()))
+                    || !addTerm(terms, maritalStatuses, normalize(query.maritalStatus()))) {
+                return new CompressedBitmap();
+            }
+
+            CompressedBitmap matches = live;
+            if (!terms.isEmpty()) {
+                terms.sort(Comparator.comparingInt(CompressedBitmap::cardinality));
+                matches = terms.get(0);
+                for (int i = 1; i < terms.size() && !matches.isEmpty(); i++) {
+                    matches = matches.and(terms.get(i));
+                }
+            }
+            matches = filterRange(matches, ages, ageColumn, query.minAge(), query.maxAge());
+            return filterRange(matches, heights, heightColumn,
+                    query.minHeight() != null ? heightKey(query.minHeight()) : null,
+                    query.maxHeight() != null ? heightKey(query.maxHeight()) : null);
+        }
+
+        /**
+         * Narrow the candidates to values in {@code [min, max]}: by checking each candidate's
+         * value when there are fewer candidates than values in range, otherwise by
+         * intersecting with the range taken from the sorted column
+         */
+        private CompressedBitmap filterRange(CompressedBitmap candidates, int[] values, SortedColumn column,
+                                             Integer min, Integer max) {
+            if (min == null && max == null) {
+                return candidates;
+            }
+            int low = min != null ? min : NO_VALUE + 1;
+            int high = max != null ? max : Integer.MAX_VALUE;
+            if (low > high) {
+                return new CompressedBitmap();
+            }
+            int from = column.lowerBound(low);
+            int to = column.upperBound(high);
+
+            if (candidates.cardinality() <= to - from) {
+                CompressedBitmap filtered = new CompressedBitmap();
+                candidates.forEach(ordinal -> {
+                    if (values[ordinal] >= low && values[ordinal] <= high) {
+                        filtered.add(ordinal);
+                    }
+                });
+                return filtered;
+            }
+            int[] inRange = new int[to - from];
+            for (int i = from; i < to; i++) {
+                inRange[i - from] = column.ordinal(i);
+            }
+            Arrays.sort(inRange);
+            return candidates.and(CompressedBitmap.of(inRange));
+        }
+
+        /**
+         * The page of matches in the requested order, starting {@code offset} entries after
+         * the given sort key, or after the start when there is none
+         */
+        private SearchHits page(CompressedBitmap matches, SortField sortField, boolean ascending, SortKey after,
+                                int offset, int limit) {
+            int total = matches.cardinality();
+            // One more than asked for, to tell whether anything follows the page
+            int wanted = limit + 1;
+            List<SortKey> keys = new ArrayList<>(Math.min(wanted, total));
+            if (sortField == SortField.PROFILE_ID && !outOfOrder) {
+                // Ordinals are in profile ID order, so the n-th match is the n-th profile ID
+                int start = after == null ? 0
+                        : ascending ? countAtMost(matches, total, after.profileId())
+                        : total - countAtMost(matches, total, after.profileId() - 1);
+                for (long rank = start + (long) offset; rank < total && keys.size() < wanted; rank++) {
+                    int profileId = profiles[matches.select((int) (ascending ? rank : total - 1 - rank))].profileId();
+                    keys.add(new SortKey(profileId, profileId));
+                }
+                return hits(keys, limit, total);
+            }
+
+            SortedColumn column = outOfOrder ? null : switch (sortField) {
+                case AGE -> ageColumn;
+                case HEIGHT -> heightColumn;
+                case PROFILE_ID -> null;
+            };
+            // Walking the column reaches the page after about (offset + limit) * size / total
+            // entries; for sparse matches sorting just the matches is cheaper. Ties in the column
+            // are in ordinal order, which is profile ID order unless the index is out of order.
+            if (column != null && ((long) offset + limit) * column.size() <= (long) total * total) {
+                int size = column.size();
+                int start = after == null ? 0
+                        : ascending ? column.lowerBound(after.value())
+                        : size - column.upperBound(after.value());
+                int skipped = 0;
+                for (int i = start; i < size && keys.size() < wanted; i++) {
+                    int index = ascending ? i : size - 1 - i;
+                    int ordinal = column.ordinal(index);
+                    if (!matches.contains(ordinal)) {
+                        continue;
+                    }
+                    int value = column.value(index);
+                    int profileId = profiles[ordinal].profileId();
+                    if (after != null && value == after.value()
+                            && (ascending ? profileId <= after.profileId() : profileId >= after.profileId())) {
+                        continue;
+                    }
+                    if (skipped < offset) {
+                        skipped++;
+                    } else {
+                        keys.add(new SortKey(value, profileId));
+                    }
+                }
+                return hits(keys, limit, total);
+            }
+
+            long[] entries = new long[total];
+            int[] count = {0};
+            matches.forEach(ordinal -> entries[count[0]++] =
+                    SortedColumn.entry(sortValue(sortField, ordinal), profiles[ordinal].profileId()));
+            Arrays.sort(entries);
+            int start = 0;
+            if (after != null) {
+                int found = Arrays.binarySearch(entries, SortedColumn.entry(after.value(), after.profileId()));
+                int before = found >= 0 ? found : -found - 1;
+                start = ascending ? (found >= 0 ? found + 1 : before) : total - before;
+            }
+            for (long rank = start + (long) offset; rank < total && keys.size() < wanted; rank++) {
+                long entry = entries[(int) (ascending ? rank : total - 1 - rank)];
+                keys.add(new SortKey((int) (entry >> 32), (int) entry));
+            }
+            return hits(keys, limit, total);
+        }
+
+        /**
+         * Number of matches with a profile ID of at most {@code profileId}; valid while
+         * ordinals are in profile ID order
+         */
+        private int countAtMost(CompressedBitmap matches, int total, int profileId) {
+            int low = 0;
+            int high = total;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (profiles[matches.select(mid)].profileId() <= profileId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static SearchHits hits(List<SortKey> keys, int limit, int total) {
+            boolean hasMore = keys.size() > limit;
+            List<SortKey> page = hasMore ? keys.subList(0, limit) : keys;
+            return new SearchHits(page.stream().map(SortKey::profileId).toList(),
+                    page.isEmpty() ? null : page.get(page.size() - 1), hasMore, total);
+        }
+
+        private int sortValue(SortField sortField, int ordinal) {
+            return switch (sortField) {
+                case AGE -> ages[ordinal];
+                case HEIGHT -> heights[ordinal];
+                case PROFILE_ID -> profiles[ordinal].profileId();
+            };
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > profiles.length) {
+                int newCapacity = Math.max(capacity, profiles.length * 2);
+                profiles = Arrays.copyOf(profiles, newCapacity);
+                ages = Arrays.copyOf(ages, newCapacity);
+                heights = Arrays.copyOf(heights, newCapacity);
+            }
+        }
+
+        private static <K> boolean addTerm(List<CompressedBitmap> terms, Map<K, CompressedBitmap> postings, K value) {
+            if (value == null) {
+                return true;
+            }
+            CompressedBitmap bitmap = postings.get(value);
+            if (bitmap == null) {
+                return false;
+            }
+            terms.add(bitmap);
+            return true;
+        }
+
+        private static <K> void post(Map<K, CompressedBitmap> postings, K value, int ordinal) {
+            if (value != null) {
+                postings.computeIfAbsent(value, key -> new CompressedBitmap()).add(ordinal);
+            }
+        }
+
+        private static <K> void unpost(Map<K, CompressedBitmap> postings, K value, int ordinal) {
+            CompressedBitmap bitmap = value != null ? postings.get(value) : null;
+            if (bitmap != null) {
+                bitmap.remove(ordinal);
+                if (bitmap.isEmpty()) {
+                    postings.remove(value);
+                }
+            }
+        }
+    }
+}
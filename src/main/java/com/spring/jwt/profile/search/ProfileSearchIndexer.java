@@ -0,0 +1,67 @@
+package com.spring.jwt.profile.search;
+
+import com.spring.jwt.cache.EntityChangeEvent;
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
+import com.spring.jwt.repository.UserProfileRepository;
+import com.spring.jwt.search.TableIndexer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the {@link ProfileSearchIndex} in step with the user_profile table: built once the
+ * application is ready, updated after each profile write commits and from a periodic poll
+ * of updated_at, and rebuilt when removals have left it fragmented.
+ */
+@Component
+public class ProfileSearchIndexer extends TableIndexer {
+
+    private final UserProfileRepository userProfileRepository;
+    private final List<Feed<?>> feeds;
+
+    public ProfileSearchIndexer(UserProfileRepository userProfileRepository,
+                                ProfileSearchIndex index,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.profile.search.index-enabled:true}") boolean enabled,
+                                @Value("${app.profile.search.batch-size:5000}") int batchSize,
+                                @Value("${app.profile.search.sync-overlap-seconds:60}") long syncOverlapSeconds) {
+        super("profile search index", transactionManager, enabled, batchSize, syncOverlapSeconds);
+        this.userProfileRepository = userProfileRepository;
+        this.feeds = List.of(new Feed<>(index, userProfileRepository::findIndexedProfiles,
+                userProfileRepository::findIndexedProfilesByIds));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.getEntityType() == EntityType.USER_PROFILE && event.getEntityId() instanceof Integer profileId) {
+            reindex(List.of(profileId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.profile.search.sync-interval-ms:30000}",
+               initialDelayString = "${app.profile.search.sync-interval-ms:30000}")
+    public void syncScheduled() {
+        syncOrRebuild();
+    }
+
+    @Override
+    protected List<Feed<?>> feeds() {
+        return feeds;
+    }
+
+    @Override
+    protected LocalDateTime findLatestUpdate() {
+        return userProfileRepository.findLatestUpdate();
+    }
+
+    @Override
+    protected List<Integer> findIdsUpdatedSince(LocalDateTime since) {
+        return userProfileRepository.findIdsUpdatedSince(since);
+    }
+}
@@ -0,0 +1,90 @@
+package com.spring.jwt.profile.search;
+
+import java.util.Arrays;
+
+/**
+ * Values of one numeric field in ascending order, each paired with the ordinal of its profile
+ *
+ * Entries are packed as {@code value << 32 | ordinal} in a single {@code long[]}, so a
+ * range of values is two binary searches and walking the array yields profiles in value
+ * order with ties broken by ordinal. Not thread-safe.
+ */
+final class SortedColumn {
+
+    private long[] entries;
+    private int size;
+
+    SortedColumn() {
+        this(new long[16], 0);
+    }
+
+    private SortedColumn(long[] entries, int size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    /**
+     * Build a column from unsorted entries made with {@link #entry}
+     */
+    static SortedColumn of(long[] entries, int size) {
+        Arrays.sort(entries, 0, size);
+        return new SortedColumn(entries, size);
+    }
+
+    static long entry(int value, int ordinal) {
+        return ((long) value << 32) | (ordinal & 0xFFFFFFFFL);
+    }
+
+    void add(int value, int ordinal) {
+        long entry = entry(value, ordinal);
+        int index = Arrays.binarySearch(entries, 0, size, entry);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        System.arraycopy(entries, insertAt, entries, insertAt + 1, size - insertAt);
+        entries[insertAt] = entry;
+        size++;
+    }
+
+    void remove(int value, int ordinal) {
+        int index = Arrays.binarySearch(entries, 0, size, entry(value, ordinal));
+        if (index >= 0) {
+            System.arraycopy(entries, index + 1, entries, index, size - index - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Position of the first entry whose value is at least {@code value}
+     */
+    int lowerBound(int value) {
+        int index = Arrays.binarySearch(entries, 0, size, entry(value, 0));
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Position after the last entry whose value is at most {@code value}
+     */
+    int upperBound(int value) {
+        if (value == Integer.MAX_VALUE) {
+            return size;
+        }
+        return lowerBound(value + 1);
+    }
+
+    int value(int index) {
+        return (int) (entries[index] >> 32);
+    }
+
+    int ordinal(int index) {
+        return (int) entries[index];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,40 @@
+package com.spring.jwt.profile.text;
+
+import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.entity.Enums.Status;
+
+/**
+ * What {@link ProfileTextIndex} holds for one profile: the filterable columns of the
+ * profile, and the free text of the profile and its owner's education, profession and
+ * family details. Loaded with a constructor expression so that indexing never hydrates
+ * entities.
+ */
+public record ProfileText(
+        Integer profileId,
+        Integer userId,
+        Gender gender,
+        Status status,
+        String religion,
+        String caste,
+        String district,
+        String maritalStatus,
+        Integer age,
+        Double height,
+        String firstName,
+        String lastName,
+        String taluka,
+        String homeTownDistrict,
+        String nativeTaluka,
+        String currentCity,
+        String education,
+        String degree,
+        String occupation,
+        String occupationDetails,
+        String additionalDetails,
+        String workLocation,
+        String companyName,
+        String fatherOccupation,
+        String motherOccupation,
+        String parentResiding,
+        String mamaPlace) {
+}
@@ -0,0 +1,397 @@
+package com.spring.jwt.profile.text;
+
+import com.spring.jwt.profile.search.ProfileQuery;
+import com.spring.jwt.profile.search.ProfileSearchIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Embedded full-text index over profile text, kept on local disk with Lucene.
+ *
+ * Each profile is one document. The names, places, career and family text of the
+ * profile and its owner's education and family details are analyzed into four text
+ * fields, ranked with BM25; the columns of a {@link ProfileQuery} are indexed as exact
+ * keywords and points so that the same filters as the structured search apply without
+ * affecting the score. A search needs most of its words to match in some field, so
+ * "software engineer in Pune" finds engineers whose place mentions Pune.
+ *
+ * Writes are visible to searches after {@link #refresh()} (near-real-time, without a
+ * commit) and survive a restart after {@link #commit}, which also records how far the
+ * index is in sync with the database. A rebuild replaces every document in the same
+ * writer; searches keep seeing the previous contents until it finishes.
+ */
+@Component
+@Slf4j
+public class ProfileTextIndex {
+
+    static final String ID = "id";
+    static final String NAME = "name";
+    static final String PLACE = "place";
+    static final String CAREER = "career";
+    static final String FAMILY = "family";
+
+    private static final Map<String, Float> TEXT_FIELDS = Map.of(NAME, 1.5f, PLACE, 1.0f, CAREER, 1.2f, FAMILY, 0.5f);
+    private static final String SYNCED_UP_TO = "syncedUpTo";
+    private static final CharArraySet STOP_WORDS = new CharArraySet(List.of("a", "an", "and", "are", "as", "at",
+            "be", "by", "for", "from", "in", "into", "is", "of", "on", "or", "the", "to", "with", "who", "works",
+            "working", "lives", "living", "based"), true);
+
+    /**
+     * One page of matching profile IDs, best match first, and the number of matches
+     */
+    public record TextHits(List<Integer> profileIds, int total) {
+    }
+
+    private final Path directoryPath;
+    private final Analyzer analyzer = new StandardAnalyzer(STOP_WORDS);
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    public ProfileTextIndex(@Value("${app.profile.text-search.directory:./data/profile-text-index}") String directory) {
+        this.directoryPath = Path.of(directory);
+        try {
+            open();
+        } catch (IOException e) {
+            log.error("Failed to open the profile text index at {}: {}", directoryPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Whether the index holds a complete build and can serve searches
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * When the database was last known to be fully reflected in the committed index, or
+     * null if the index has never been built
+     */
+    public synchronized LocalDateTime getSyncedUpTo() {
+        if (writer == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+            if (SYNCED_UP_TO.equals(entry.getKey())) {
+                return LocalDateTime.parse(entry.getValue());
+            }
+        }
+        return null;
+    }
+
+    public synchronized void upsert(ProfileText profile) {
+        try {
+            requireWriter().updateDocument(new Term(ID, profile.profileId().toString()), toDocument(profile));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized void remove(Integer profileId) {
+        try {
+            requireWriter().deleteDocuments(new Term(ID, profileId.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Make writes since the last refresh visible to searches. Does nothing while a rebuild
+     * is loading, so searches never see a half-built index.
+     */
+    public void refresh() {
+        if (rebuilding || searcherManager == null) {
+            return;
+        }
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Make every write durable and record how far the index reflects the database
+     *
+     * @param syncedUpTo latest update time the index now includes, or null to keep the recorded one
+     */
+    public synchronized void commit(LocalDateTime syncedUpTo) {
+        if (rebuilding) {
+            return;
+        }
+        try {
+            IndexWriter indexWriter = requireWriter();
+            if (syncedUpTo != null) {
+                indexWriter.setLiveCommitData(Map.of(SYNCED_UP_TO, syncedUpTo.toString()).entrySet());
+            }
+            indexWriter.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Drop every document ahead of reloading them with {@link #upsert}
+     */
+    public synchronized void startRebuild() {
+        try {
+            rebuilding = true;
+            requireWriter().deleteAll();
+        } catch (IOException e) {
+            rebuilding = false;
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Commit the rebuilt index and show it to searches
+     */
+    public synchronized void finishRebuild(LocalDateTime syncedUpTo) {
+        rebuilding = false;
+        commit(syncedUpTo);
+        refresh();
+        ready = true;
+    }
+
+    /**
+     * Discard a failed rebuild, returning to the last committed index
+     */
+    public synchronized void abortRebuild() {
+        rebuilding = false;
+        try {
+            close();
+            open();
+        } catch (IOException e) {
+            ready = false;
+            log.error("Failed to reopen the profile text index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Profiles matching the text and the filters, ranked by BM25 relevance
+     *
+     * @param text    words to look for; stop words are ignored
+     * @param filters structured filters; null fields match every profile
+     * @throws IllegalArgumentException if the text has no searchable words
+     */
+    public TextHits search(String text, ProfileQuery filters, int offset, int limit) {
+        Query query = toQuery(text, filters);
+        SearcherManager manager = searcherManager;
+        if (manager == null) {
+            throw new IllegalStateException("Profile text index is not open");
+        }
+        try {
+            IndexSearcher searcher = manager.acquire();
+            try {
+                TopScoreDocCollector collector = TopScoreDocCollector.create(offset + limit, Integer.MAX_VALUE);
+                searcher.search(query, collector);
+                TopDocs topDocs = collector.topDocs(offset, limit);
+                List<Integer> profileIds = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    profileIds.add(Integer.valueOf(searcher.storedFields().document(scoreDoc.doc).get(ID)));
+                }
+                return new TextHits(profileIds, collector.getTotalHits());
+            } finally {
+                manager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("rebuilding", rebuilding);
+        stats.put("directory", directoryPath.toAbsolutePath().toString());
+        synchronized (this) {
+            stats.put("documents", writer != null ? writer.getDocStats().numDocs : 0);
+        }
+        stats.put("syncedUpTo", getSyncedUpTo());
+        return stats;
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (searcherManager != null) {
+            searcherManager.close();
+            searcherManager = null;
+        }
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+        if (directory != null) {
+            directory.close();
+            directory = null;
+        }
+    }
+
+    private synchronized void open() throws IOException {
+        directory = FSDirectory.open(directoryPath);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setSimilarity(new BM25Similarity())
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+        // A previous build is usable straight away; the indexer catches it up with the database
+        ready = DirectoryReader.indexExists(directory) && getSyncedUpTo() != null;
+    }
+
+    private IndexWriter requireWriter() {
+        if (writer == null) {
+            throw new IllegalStateException("Profile text index is not open");
+        }
+        return writer;
+    }
+
+    private Query toQuery(String text, ProfileQuery filters) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search text has no searchable words");
+        }
+        BooleanQuery.Builder words = new BooleanQuery.Builder();
+        for (String term : terms) {
+            List<Query> perField = new ArrayList<>();
+            TEXT_FIELDS.forEach((field, boost) -> perField.add(new BoostQuery(new TermQuery(new Term(field, term)), boost)));
+            words.add(new DisjunctionMaxQuery(perField, 0.1f), Occur.SHOULD);
+        }
+        // Most words must match: all of up to two, one may be missing from three or four, and so on
+        words.setMinimumNumberShouldMatch(terms.size() - terms.size() / 3);
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(words.build(), Occur.MUST);
+        if (filters != null) {
+            ProfileQuery normalized = filters.normalized();
+            addKeyword(query, "gender", normalized.gender() != null ? normalized.gender().name() : null);
+            addKeyword(query, "status", normalized.status() != null ? normalized.status().name() : null);
+            addKeyword(query, "religion", normalized.religion());
+            addKeyword(query, "caste", normalized.caste());
+            addKeyword(query, "district", normalized.district());
+            addKeyword(query, "maritalStatus", normalized.maritalStatus());
+            if (normalized.minAge() != null || normalized.maxAge() != null) {
+                query.add(IntPoint.newRangeQuery("age",
+                        normalized.minAge() != null ? normalized.minAge() : Integer.MIN_VALUE,
+                        normalized.maxAge() != null ? normalized.maxAge() : Integer.MAX_VALUE), Occur.FILTER);
+            }
+            if (normalized.minHeight() != null || normalized.maxHeight() != null) {
+                query.add(DoublePoint.newRangeQuery("height",
+                        normalized.minHeight() != null ? normalized.minHeight() : Double.NEGATIVE_INFINITY,
+                        normalized.maxHeight() != null ? normalized.maxHeight() : Double.POSITIVE_INFINITY), Occur.FILTER);
+            }
+        }
+        return query.build();
+    }
+
+    private static void addKeyword(BooleanQuery.Builder query, String field, String value) {
+        if (value != null) {
+            query.add(new TermQuery(new Term(field, value)), Occur.FILTER);
+        }
+    }
+
+    private List<String> analyze(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return List.of();
+        }
+        try (TokenStream stream = analyzer.tokenStream(PLACE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return List.copyOf(terms);
+    }
+
+    private static Document toDocument(ProfileText profile) {
+        Document document = new Document();
+        document.add(new StringField(ID, profile.profileId().toString(), Field.Store.YES));
+        addText(document, NAME, profile.firstName(), profile.lastName());
+        addText(document, PLACE, profile.district(), profile.taluka(), profile.homeTownDistrict(),
+                profile.nativeTaluka(), profile.currentCity(), profile.workLocation());
+        addText(document, CAREER, profile.education(), profile.degree(), profile.occupation(),
+                profile.occupationDetails(), profile.additionalDetails(), profile.companyName());
+        addText(document, FAMILY, profile.fatherOccupation(), profile.motherOccupation(),
+                profile.parentResiding(), profile.mamaPlace());
+
+        addKeyword(document, "gender", profile.gender() != null ? profile.gender().name() : null);
+        addKeyword(document, "status", profile.status() != null ? profile.status().name() : null);
+        addKeyword(document, "religion", ProfileSearchIndex.normalize(profile.religion()));
+        addKeyword(document, "caste", ProfileSearchIndex.normalize(profile.caste()));
+        addKeyword(document, "district", ProfileSearchIndex.normalize(profile.district()));
+        addKeyword(document, "maritalStatus", ProfileSearchIndex.normalize(profile.maritalStatus()));
+        if (profile.age() != null) {
+            document.add(new IntPoint("age", profile.age()));
+        }
+        if (profile.height() != null) {
+            document.add(new DoublePoint("height", profile.height()));
+        }
+        return document;
+    }
+
+    private static void addText(Document document, String field, String... values) {
+        StringBuilder text = new StringBuilder();
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                text.append(value).append('\n');
+            }
+        }
+        if (!text.isEmpty()) {
+            document.add(new TextField(field, text.toString(), Field.Store.NO));
+        }
+    }
+
+    private static void addKeyword(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new StringField(field, value, Field.Store.NO));
+        }
+    }
+}
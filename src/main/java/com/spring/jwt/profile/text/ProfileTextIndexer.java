@@ -0,0 +1,206 @@
+package com.spring.jwt.profile.text;
+
+import com.spring.jwt.cache.EntityChangeEvent;
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
+import com.spring.jwt.repository.UserProfileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the {@link ProfileTextIndex} in step with the profile, education and family tables.
+ *
+ * Works like the profile search indexer, except that the index lives on disk: on startup
+ * a previously built index is caught up from the time recorded in its last commit instead
+ * of being rebuilt. Writes on this node re-index the affected profile after they commit,
+ * including education and family writes, which reach the profile through its owner.
+ * Writes are visible to searches on the next refresh and made durable on the next commit.
+ * The poll of updated_at only sees profile writes from other nodes; their education and
+ * family edits appear after the next rebuild.
+ */
+@Component
+@Slf4j
+public class ProfileTextIndexer {
+
+    private static final LocalDateTime SYNC_FROM_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final UserProfileRepository userProfileRepository;
+    private final ProfileTextIndex index;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long syncOverlapSeconds;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Profiles re-indexed while a rebuild was loading, which may have loaded an older copy
+    private final Set<Integer> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile LocalDateTime syncedUpTo;
+
+    public ProfileTextIndexer(UserProfileRepository userProfileRepository,
+                              ProfileTextIndex index,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.profile.text-search.enabled:true}") boolean enabled,
+                              @Value("${app.profile.text-search.batch-size:2000}") int batchSize,
+                              @Value("${app.profile.text-search.sync-overlap-seconds:60}") long syncOverlapSeconds) {
+        this.userProfileRepository = userProfileRepository;
+        this.index = index;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.syncOverlapSeconds = syncOverlapSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        if (index.isReady()) {
+            syncedUpTo = index.getSyncedUpTo();
+            log.info("Catching up the profile text index from {}", syncedUpTo);
+            sync();
+        } else {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (event.getEntityType() == EntityType.USER_PROFILE && event.getEntityId() instanceof Integer profileId) {
+                refresh(List.of(profileId));
+            } else if ((event.getEntityType() == EntityType.EDUCATION
+                    || event.getEntityType() == EntityType.FAMILY_BACKGROUND) && !event.getUserIds().isEmpty()) {
+                List<Integer> profileIds = transactionTemplate.execute(
+                        status -> userProfileRepository.findIdsByUserIds(event.getUserIds()));
+                if (!profileIds.isEmpty()) {
+                    refresh(profileIds);
+                }
+            } else {
+                return;
+            }
+            index.refresh();
+        } catch (RuntimeException e) {
+            // The write has committed; the next sync or rebuild picks the change up
+            log.warn("Failed to re-index profile text after a {} change: {}", event.getEntityType(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.profile.text-search.sync-interval-ms:60000}",
+               initialDelayString = "${app.profile.text-search.sync-interval-ms:60000}")
+    public void syncScheduled() {
+        if (enabled && !rebuilding.get()) {
+            if (!index.isReady()) {
+                rebuild();
+            } else {
+                sync();
+            }
+        }
+    }
+
+    /**
+     * Rebuild the index from the database in chunks, while the current index keeps serving
+     *
+     * @return number of indexed profiles, or -1 if a rebuild is already running or failed
+     */
+    public int rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            LocalDateTime latestUpdate = userProfileRepository.findLatestUpdate();
+            changedDuringRebuild.clear();
+            index.startRebuild();
+            int count = 0;
+            Integer afterId = 0;
+            List<ProfileText> chunk;
+            do {
+                Integer from = afterId;
+                chunk = transactionTemplate.execute(
+                        status -> userProfileRepository.findProfileTexts(from, PageRequest.of(0, batchSize)));
+                chunk.forEach(index::upsert);
+                count += chunk.size();
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).profileId();
+                }
+            } while (chunk.size() == batchSize);
+
+            index.finishRebuild(latestUpdate);
+            syncedUpTo = latestUpdate;
+            List<Integer> changed = new ArrayList<>(changedDuringRebuild);
+            changedDuringRebuild.clear();
+            if (!changed.isEmpty()) {
+                refresh(changed);
+                index.refresh();
+            }
+            log.info("Built the profile text index from {} profiles in {}ms", count, System.currentTimeMillis() - start);
+            return count;
+        } catch (RuntimeException e) {
+            index.abortRebuild();
+            log.error("Failed to build the profile text index: {}", e.getMessage(), e);
+            return -1;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Re-index profiles updated since the last sync, starting a little earlier so that a
+     * write committed late with an older updated_at is not missed, then commit
+     *
+     * @return number of profiles re-read
+     */
+    public int sync() {
+        LocalDateTime latestUpdate = userProfileRepository.findLatestUpdate();
+        if (latestUpdate == null) {
+            return 0;
+        }
+        LocalDateTime since = syncedUpTo != null ? syncedUpTo.minusSeconds(syncOverlapSeconds) : SYNC_FROM_START;
+        List<Integer> profileIds = userProfileRepository.findIdsUpdatedSince(since);
+        for (int from = 0; from < profileIds.size(); from += batchSize) {
+            refresh(profileIds.subList(from, Math.min(profileIds.size(), from + batchSize)));
+        }
+        index.commit(latestUpdate);
+        index.refresh();
+        syncedUpTo = latestUpdate;
+        return profileIds.size();
+    }
+
+    private void refresh(Collection<Integer> profileIds) {
+        if (rebuilding.get()) {
+            changedDuringRebuild.addAll(profileIds);
+        }
+        List<ProfileText> profiles = transactionTemplate.execute(
+                status -> userProfileRepository.findProfileTextsByIds(profileIds));
+        Set<Integer> missing = new HashSet<>(profileIds);
+        for (ProfileText profile : profiles) {
+            index.upsert(profile);
+            missing.remove(profile.profileId());
+        }
+        missing.forEach(index::remove);
+    }
+}
@@ -0,0 +1,90 @@
+package com.spring.jwt.profile.view;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the {@code view} and {@code fields} parameters of list endpoints.
+ *
+ * A requested field list picks the smallest view whose response type has every field,
+ * so that the query selects as few columns as possible, and the response is then cut
+ * down to those fields. Field names are the JSON property names of the response types.
+ */
+@Component
+@RequiredArgsConstructor
+public class FieldSelector {
+
+    private static final TypeReference<LinkedHashMap<String, Object>> PROPERTIES = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, Set<String>> propertiesByType = new ConcurrentHashMap<>();
+
+    /**
+     * The view to load
+     *
+     * @param requested   view asked for, or null
+     * @param fields      fields asked for, or null/empty for every field of the view
+     * @param defaultView view used when neither is given
+     * @param supported   response type of each view the endpoint serves
+     * @throws IllegalArgumentException if the view is not served, or a field is in none of the views
+     */
+    public ProfileView resolve(ProfileView requested, Set<String> fields, ProfileView defaultView,
+                               Map<ProfileView, Class<?>> supported) {
+        if (requested != null && !supported.containsKey(requested)) {
+            throw new IllegalArgumentException("Unsupported view: " + requested + ", expected one of " + supported.keySet());
+        }
+        if (fields == null || fields.isEmpty()) {
+            return requested != null ? requested : defaultView;
+        }
+        ProfileView widest = requested;
+        for (ProfileView view : ProfileView.values()) {
+            if (supported.containsKey(view) && (requested == null || view == requested)) {
+                if (properties(supported.get(view)).containsAll(fields)) {
+                    return view;
+                }
+                widest = view;
+            }
+        }
+        Set<String> known = properties(supported.get(widest));
+        Set<String> unknown = fields.stream()
+                .filter(field -> !known.contains(field))
+                .collect(Collectors.toCollection(TreeSet::new));
+        throw new IllegalArgumentException("Unknown fields: " + unknown);
+    }
+
+    /**
+     * The page with each item cut down to the given fields, or the page itself when no
+     * fields were asked for
+     */
+    public Page<?> select(Page<?> page, Set<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return page;
+        }
+        return page.map(item -> {
+            Map<String, Object> properties = objectMapper.convertValue(item, PROPERTIES);
+            properties.keySet().retainAll(fields);
+            return properties;
+        });
+    }
+
+    private Set<String> properties(Class<?> type) {
+        return propertiesByType.computeIfAbsent(type, key -> objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(key))
+                .findProperties()
+                .stream()
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+}
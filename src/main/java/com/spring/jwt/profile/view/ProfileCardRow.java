@@ -0,0 +1,29 @@
+package com.spring.jwt.profile.view;
+
+/**
+ * The columns of a profile card, selected with a constructor expression so that a page
+ * of cards costs one query and hydrates no entities.
+ */
+public record ProfileCardRow(
+        Integer userProfileId,
+        Integer completeProfileId,
+        String firstName,
+        String lastName,
+        Integer age,
+        String currentCity,
+        Integer userId,
+        Boolean hasProfilePhoto) {
+
+    /**
+     * Complete profile ID of the user {@code u}, as a select-clause subquery
+     */
+    public static final String COMPLETE_PROFILE_ID =
+            "(SELECT cp2.completeProfileId FROM CompleteProfile cp2 WHERE cp2.user = u)";
+
+    /**
+     * Whether the user {@code u} has a profile photo, as a select-clause expression
+     */
+    public static final String HAS_PROFILE_PHOTO =
+            "CASE WHEN EXISTS (SELECT d.documentId FROM Document d WHERE d.user = u " +
+            "AND d.documentType = com.spring.jwt.Enums.DocumentType.PROFILE_PHOTO) THEN true ELSE false END";
+}
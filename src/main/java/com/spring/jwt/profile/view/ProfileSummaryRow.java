@@ -0,0 +1,27 @@
+package com.spring.jwt.profile.view;
+
+import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.entity.Enums.Status;
+
+/**
+ * The columns of a profile list view, selected with a constructor expression together
+ * with the owner's complete profile ID and photo flag, so that a page costs one query
+ * instead of two more per profile.
+ */
+public record ProfileSummaryRow(
+        Integer userProfileId,
+        Integer completeProfileId,
+        String firstName,
+        String lastName,
+        Integer age,
+        Gender gender,
+        String religion,
+        String caste,
+        Double height,
+        String district,
+        String currentCity,
+        String maritalStatus,
+        Status status,
+        Integer userId,
+        Boolean hasProfilePhoto) {
+}
@@ -0,0 +1,15 @@
+package com.spring.jwt.profile.view;
+
+/**
+ * How much of each profile a list endpoint returns, from the smallest view to the largest.
+ * Endpoints map each view they support to a response type; the smaller views are read
+ * with constructor projections that select only their own columns.
+ */
+public enum ProfileView {
+    /** Name, age, city and photo: what a browse card renders */
+    CARD,
+    /** The list view with the searchable attributes */
+    SUMMARY,
+    /** Every section the endpoint can return */
+    FULL
+}
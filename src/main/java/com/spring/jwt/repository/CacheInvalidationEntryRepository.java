@@ -0,0 +1,37 @@
+package com.spring.jwt.repository;
+
+import com.spring.jwt.entity.CacheInvalidationEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the shared cache invalidation log.
+ */
+@Repository
+public interface CacheInvalidationEntryRepository extends JpaRepository<CacheInvalidationEntry, Long> {
+
+    /**
+     * Entries written after the given ID, oldest first
+     */
+    List<CacheInvalidationEntry> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Highest entry ID, used as the starting point when a node joins
+     */
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM CacheInvalidationEntry e")
+    Long findMaxId();
+
+    /**
+     * Delete entries older than the retention window (cleanup)
+     */
+    @Modifying
+    @Query("DELETE FROM CacheInvalidationEntry e WHERE e.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
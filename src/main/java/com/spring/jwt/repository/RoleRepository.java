@@ -1,14 +1,19 @@
 package com.spring.jwt.repository;
 
 import com.spring.jwt.entity.Role;
+import com.spring.jwt.utils.CacheUtils.CacheNames;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
     
+    @Cacheable(value = CacheNames.LOOKUP_DATA, key = "'role_' + #p0", unless = "#result == null")
     Role findByName(String name);
 
+    @CacheEvict(value = CacheNames.LOOKUP_DATA, key = "'role_' + #p0")
     void deleteByName(String role);
     
     boolean existsByName(String name);
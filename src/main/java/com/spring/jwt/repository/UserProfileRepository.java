@@ -1,15 +1,26 @@
 package com.spring.jwt.repository;
 
+import com.spring.jwt.PartnerPreference.match.ProfileFacts;
 import com.spring.jwt.entity.Enums.Gender;
 import com.spring.jwt.entity.Enums.Status;
 import com.spring.jwt.entity.UserProfile;
+import com.spring.jwt.location.ProfilePlace;
+import com.spring.jwt.profile.search.IndexedProfile;
+import com.spring.jwt.profile.search.ProfileQuery;
+import com.spring.jwt.profile.text.ProfileText;
+import com.spring.jwt.profile.view.ProfileCardRow;
+import com.spring.jwt.profile.view.ProfileSummaryRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -86,33 +97,293 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Intege
     Page<UserProfile> findAllWithUser(Pageable pageable);
 
     /**
-     * Search profiles with multiple criteria.
+     * Conditions of a {@link ProfileQuery} bound as {@code query}; null fields match every profile.
+     */
+    String PROFILE_QUERY_FILTER = "up.deleted = false " +
+            "AND (:#{#query.gender()} IS NULL OR up.gender = :#{#query.gender()}) " +
+            "AND (:#{#query.status()} IS NULL OR up.status = :#{#query.status()}) " +
+            "AND (:#{#query.religion()} IS NULL OR up.religion = :#{#query.religion()}) " +
+            "AND (:#{#query.caste()} IS NULL OR up.caste = :#{#query.caste()}) " +
+            "AND (:#{#query.district()} IS NULL OR up.district = :#{#query.district()}) " +
+            "AND (:#{#query.maritalStatus()} IS NULL OR up.maritalStatus = :#{#query.maritalStatus()}) " +
+            "AND (:#{#query.minAge()} IS NULL OR up.age >= :#{#query.minAge()}) " +
+            "AND (:#{#query.maxAge()} IS NULL OR up.age <= :#{#query.maxAge()}) " +
+            "AND (:#{#query.minHeight()} IS NULL OR up.height >= :#{#query.minHeight()}) " +
+            "AND (:#{#query.maxHeight()} IS NULL OR up.height <= :#{#query.maxHeight()}) ";
+
+    /**
+     * Constructor arguments of {@link ProfileText}, over a profile {@code up}, its user {@code u}
+     * and the user's education {@code ep} and family background {@code fb}.
+     */
+    String PROFILE_TEXT_COLUMNS = "up.userProfileId, u.id, up.gender, up.status, up.religion, up.caste, " +
+            "up.district, up.maritalStatus, up.age, up.height, up.firstName, up.lastName, up.taluka, " +
+            "up.homeTownDistrict, up.nativeTaluka, up.currentCity, ep.education, ep.degree, ep.occupation, " +
+            "ep.occupationDetails, ep.additionalDetails, ep.workLocation, ep.companyName, " +
+            "fb.fatherOccupation, fb.motherOccupation, fb.parentResiding, fb.mamaPlace";
+
+    /**
+     * Keyset page of profiles matching the query in profile ID order.
+     * Pass the sort and the page size (one more than wanted, to detect a next page) in the pageable.
+     *
+     * @param query     filters
+     * @param ascending whether the pageable sorts ascending
+     * @param afterId   profile ID of the last row of the previous page, or null for the first page
+     * @param pageable  sort and page size; the page number must be 0
+     * @return profiles after the given one
+     */
+    @Query("SELECT up FROM UserProfile up JOIN FETCH up.user WHERE " + PROFILE_QUERY_FILTER +
+            "AND (:afterId IS NULL " +
+            "OR (:ascending = true AND up.userProfileId > :afterId) " +
+            "OR (:ascending = false AND up.userProfileId < :afterId))")
+    List<UserProfile> scrollProfilesById(@Param("query") ProfileQuery query,
+                                         @Param("ascending") boolean ascending,
+                                         @Param("afterId") Integer afterId,
+                                         Pageable pageable);
+
+    /**
+     * Keyset page of profiles matching the query in (age, profile ID) order.
+     *
+     * @see #scrollProfilesById
+     */
+    @Query("SELECT up FROM UserProfile up JOIN FETCH up.user WHERE " + PROFILE_QUERY_FILTER +
+            "AND (:afterId IS NULL " +
+            "OR (:ascending = true AND (up.age > :afterAge " +
+            "OR (up.age = :afterAge AND up.userProfileId > :afterId))) " +
+            "OR (:ascending = false AND (up.age < :afterAge " +
+            "OR (up.age = :afterAge AND up.userProfileId < :afterId))))")
+    List<UserProfile> scrollProfilesByAge(@Param("query") ProfileQuery query,
+                                          @Param("ascending") boolean ascending,
+                                          @Param("afterAge") Integer afterAge,
+                                          @Param("afterId") Integer afterId,
+                                          Pageable pageable);
+
+    /**
+     * Keyset page of profiles matching the query in (height, profile ID) order.
+     *
+     * @see #scrollProfilesById
+     */
+    @Query("SELECT up FROM UserProfile up JOIN FETCH up.user WHERE " + PROFILE_QUERY_FILTER +
+            "AND (:afterId IS NULL " +
+            "OR (:ascending = true AND (up.height > :afterHeight " +
+            "OR (up.height = :afterHeight AND up.userProfileId > :afterId))) " +
+            "OR (:ascending = false AND (up.height < :afterHeight " +
+            "OR (up.height = :afterHeight AND up.userProfileId < :afterId))))")
+    List<UserProfile> scrollProfilesByHeight(@Param("query") ProfileQuery query,
+                                             @Param("ascending") boolean ascending,
+                                             @Param("afterHeight") Double afterHeight,
+                                             @Param("afterId") Integer afterId,
+                                             Pageable pageable);
+
+    /**
+     * Count profiles matching the query.
+     *
+     * @param query filters
+     * @return number of matching profiles
+     */
+    @Query("SELECT COUNT(up) FROM UserProfile up WHERE " + PROFILE_QUERY_FILTER)
+    long countProfiles(@Param("query") ProfileQuery query);
+
+    /**
+     * Page of card columns of the profiles matching the query, for searches asked for
+     * {@code view=CARD} when the search index cannot answer.
      *
-     * @param gender   optional gender filter
-     * @param religion optional religion filter
-     * @param caste    optional caste filter
-     * @param district optional district filter
-     * @param minAge   optional minimum age
-     * @param maxAge   optional maximum age
+     * @param query    filters
      * @param pageable pagination information
-     * @return page of profiles matching criteria
+     * @return page of rows matching the query
      */
-    @Query("SELECT up FROM UserProfile up JOIN FETCH up.user WHERE " +
-            "(:gender IS NULL OR up.gender = :gender) AND " +
-            "(:religion IS NULL OR up.religion = :religion) AND " +
-            "(:caste IS NULL OR up.caste = :caste) AND " +
-            "(:district IS NULL OR up.district = :district) AND " +
-            "(:minAge IS NULL OR up.age >= :minAge) AND " +
-            "(:maxAge IS NULL OR up.age <= :maxAge) AND " +
-            "up.deleted = false AND up.status = 'ACTIVE'")
-    Page<UserProfile> searchProfiles(
-            @Param("gender") Gender gender,
-            @Param("religion") String religion,
-            @Param("caste") String caste,
-            @Param("district") String district,
-            @Param("minAge") Integer minAge,
-            @Param("maxAge") Integer maxAge,
-            Pageable pageable);
+    @Query(value = "SELECT new com.spring.jwt.profile.view.ProfileCardRow(up.userProfileId, " +
+            ProfileCardRow.COMPLETE_PROFILE_ID + ", up.firstName, up.lastName, up.age, up.currentCity, u.id, " +
+            ProfileCardRow.HAS_PROFILE_PHOTO + ") " +
+            "FROM UserProfile up JOIN up.user u WHERE " + PROFILE_QUERY_FILTER,
+            countQuery = "SELECT COUNT(up) FROM UserProfile up WHERE " + PROFILE_QUERY_FILTER)
+    Page<ProfileCardRow> searchCardRows(@Param("query") ProfileQuery query, Pageable pageable);
+
+    /**
+     * Page of list view columns of the profiles matching the query, for searches when the
+     * search index cannot answer.
+     *
+     * @param query    filters
+     * @param pageable pagination information
+     * @return page of rows matching the query
+     */
+    @Query(value = "SELECT new com.spring.jwt.profile.view.ProfileSummaryRow(up.userProfileId, " +
+            ProfileCardRow.COMPLETE_PROFILE_ID + ", up.firstName, up.lastName, up.age, up.gender, up.religion, " +
+            "up.caste, up.height, up.district, up.currentCity, up.maritalStatus, up.status, u.id, " +
+            ProfileCardRow.HAS_PROFILE_PHOTO + ") " +
+            "FROM UserProfile up JOIN up.user u WHERE " + PROFILE_QUERY_FILTER,
+            countQuery = "SELECT COUNT(up) FROM UserProfile up WHERE " + PROFILE_QUERY_FILTER)
+    Page<ProfileSummaryRow> searchSummaryRows(@Param("query") ProfileQuery query, Pageable pageable);
+
+    /**
+     * Find profiles with user eagerly fetched by profile ID, in no particular order.
+     *
+     * @param ids profile IDs
+     * @return the profiles that exist and are not deleted
+     */
+    @Query("SELECT up FROM UserProfile up JOIN FETCH up.user WHERE up.userProfileId IN :ids AND up.deleted = false")
+    List<UserProfile> findAllWithUserByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Card columns of the given profiles, for list endpoints asked for {@code view=CARD}.
+     *
+     * @param ids profile IDs
+     * @return rows of the profiles that exist and are not deleted
+     */
+    @Query("SELECT new com.spring.jwt.profile.view.ProfileCardRow(up.userProfileId, " +
+            ProfileCardRow.COMPLETE_PROFILE_ID + ", up.firstName, up.lastName, up.age, up.currentCity, u.id, " +
+            ProfileCardRow.HAS_PROFILE_PHOTO + ") " +
+            "FROM UserProfile up JOIN up.user u WHERE up.userProfileId IN :ids AND up.deleted = false")
+    List<ProfileCardRow> findCardRowsByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * List view columns of the given profiles, with the owners' complete profile IDs and
+     * photo flags, in one query.
+     *
+     * @param ids profile IDs
+     * @return rows of the profiles that exist and are not deleted
+     */
+    @Query("SELECT new com.spring.jwt.profile.view.ProfileSummaryRow(up.userProfileId, " +
+            ProfileCardRow.COMPLETE_PROFILE_ID + ", up.firstName, up.lastName, up.age, up.gender, up.religion, " +
+            "up.caste, up.height, up.district, up.currentCity, up.maritalStatus, up.status, u.id, " +
+            ProfileCardRow.HAS_PROFILE_PHOTO + ") " +
+            "FROM UserProfile up JOIN up.user u WHERE up.userProfileId IN :ids AND up.deleted = false")
+    List<ProfileSummaryRow> findSummaryRowsByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Profiles of the given users with their users fetched, in one query.
+     *
+     * @param userIds user IDs
+     * @return the profiles that exist and are not deleted
+     */
+    @Query("SELECT up FROM UserProfile up JOIN FETCH up.user WHERE up.user.id IN :userIds AND up.deleted = false")
+    List<UserProfile> findAllWithUserByUserIds(@Param("userIds") Collection<Integer> userIds);
+
+    /**
+     * Searchable columns of the profiles after the given ID, in ID order, for building the search index.
+     *
+     * @param afterId  profile ID to continue after
+     * @param pageable chunk size
+     * @return indexed views of the next profiles
+     */
+    @Query("SELECT new com.spring.jwt.profile.search.IndexedProfile(up.userProfileId, up.gender, up.status, " +
+            "up.religion, up.caste, up.district, up.maritalStatus, up.age, up.height) " +
+            "FROM UserProfile up WHERE up.userProfileId > :afterId AND up.deleted = false ORDER BY up.userProfileId")
+    List<IndexedProfile> findIndexedProfiles(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * Searchable columns of the given profiles; deleted profiles are left out.
+     *
+     * @param ids profile IDs
+     * @return indexed views of the profiles that still exist
+     */
+    @Query("SELECT new com.spring.jwt.profile.search.IndexedProfile(up.userProfileId, up.gender, up.status, " +
+            "up.religion, up.caste, up.district, up.maritalStatus, up.age, up.height) " +
+            "FROM UserProfile up WHERE up.userProfileId IN :ids AND up.deleted = false")
+    List<IndexedProfile> findIndexedProfilesByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Searchable columns of every profile matching the query, for counting facets before
+     * the search index is built.
+     *
+     * @param query search filters
+     * @return indexed views of the matching profiles
+     */
+    @Query("SELECT new com.spring.jwt.profile.search.IndexedProfile(up.userProfileId, up.gender, up.status, " +
+            "up.religion, up.caste, up.district, up.maritalStatus, up.age, up.height) " +
+            "FROM UserProfile up WHERE " + PROFILE_QUERY_FILTER)
+    List<IndexedProfile> findIndexedProfilesMatching(@Param("query") ProfileQuery query);
+
+    /**
+     * Filterable columns and free text of the profiles after the given ID, in ID order,
+     * for building the text index.
+     *
+     * @param afterId  profile ID to continue after
+     * @param pageable chunk size
+     * @return text views of the next profiles
+     */
+    @Query("SELECT new com.spring.jwt.profile.text.ProfileText(" + PROFILE_TEXT_COLUMNS + ") " +
+            "FROM UserProfile up JOIN up.user u " +
+            "LEFT JOIN EducationAndProfession ep ON ep.user = u " +
+            "LEFT JOIN FamilyBackground fb ON fb.user = u " +
+            "WHERE up.userProfileId > :afterId AND up.deleted = false ORDER BY up.userProfileId")
+    List<ProfileText> findProfileTexts(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * Filterable columns and free text of the given profiles; deleted profiles are left out.
+     *
+     * @param ids profile IDs
+     * @return text views of the profiles that still exist
+     */
+    @Query("SELECT new com.spring.jwt.profile.text.ProfileText(" + PROFILE_TEXT_COLUMNS + ") " +
+            "FROM UserProfile up JOIN up.user u " +
+            "LEFT JOIN EducationAndProfession ep ON ep.user = u " +
+            "LEFT JOIN FamilyBackground fb ON fb.user = u " +
+            "WHERE up.userProfileId IN :ids AND up.deleted = false")
+    List<ProfileText> findProfileTextsByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * IDs of the profiles of the given users, for re-indexing a profile after a change to
+     * its owner's education or family details.
+     *
+     * @param userIds user IDs
+     * @return profile IDs
+     */
+    @Query("SELECT up.userProfileId FROM UserProfile up WHERE up.user.id IN :userIds")
+    List<Integer> findIdsByUserIds(@Param("userIds") Collection<Integer> userIds);
+
+    /**
+     * What stored partner preferences are evaluated against for one profile, with the
+     * yearly income from its owner's education and profession details.
+     *
+     * @param profileId profile ID
+     * @return the profile's facts, if the profile exists
+     */
+    @Query("SELECT new com.spring.jwt.PartnerPreference.match.ProfileFacts(up.userProfileId, u.id, up.gender, " +
+            "up.status, up.age, up.height, up.religion, up.caste, up.maritalStatus, ep.incomePerYear) " +
+            "FROM UserProfile up JOIN up.user u LEFT JOIN EducationAndProfession ep ON ep.user = u " +
+            "WHERE up.userProfileId = :profileId")
+    Optional<ProfileFacts> findProfileFacts(@Param("profileId") Integer profileId);
+
+    /**
+     * IDs of profiles updated at or after the given time, including soft-deleted ones.
+     *
+     * @param since earliest update time
+     * @return profile IDs
+     */
+    @Query(value = "SELECT user_profile_id FROM user_profile WHERE updated_at >= :since", nativeQuery = true)
+    List<Integer> findIdsUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Latest update time of any profile.
+     *
+     * @return the latest updated_at, or null when there are no profiles
+     */
+    @Query("SELECT MAX(up.updatedAt) FROM UserProfile up")
+    LocalDateTime findLatestUpdate();
+
+    /**
+     * Profiles whose district or current city is not yet resolved to a location ID,
+     * after the given ID in ID order.
+     *
+     * @param afterId ID to continue after
+     * @param pageable chunk size
+     * @return districts and cities
+     */
+    @Query("SELECT new com.spring.jwt.location.ProfilePlace(up.userProfileId, up.district, up.currentCity) " +
+            "FROM UserProfile up WHERE up.userProfileId > :afterId " +
+            "AND ((up.districtLocationId IS NULL AND TRIM(up.district) <> '') " +
+            "OR (up.currentCityLocationId IS NULL AND TRIM(up.currentCity) <> '')) " +
+            "ORDER BY up.userProfileId")
+    List<ProfilePlace> findPlacesWithoutLocation(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * Set the location IDs of a profile without touching its version or update time.
+     */
+    @Modifying
+    @Query("UPDATE UserProfile up SET up.districtLocationId = :districtId, up.currentCityLocationId = :cityId " +
+            "WHERE up.userProfileId = :profileId")
+    int updateLocationIds(@Param("profileId") Integer profileId, @Param("districtId") Integer districtId,
+                          @Param("cityId") Integer cityId);
 
     /**
      * Count profiles by gender for statistics.
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -86,4 +87,27 @@ public interface UserRepository extends JpaRepository<User, Integer> {
         countQuery = "SELECT COUNT(*) FROM users u",
         nativeQuery = true)
     Page<Map<String, Object>> findAllUsersForAdminList(Pageable pageable);
+
+    /**
+     * Fetch the admin list rows that follow the given user ID, newest first.
+     * Seeks on the primary key, so every page costs the same however deep it is.
+     * A null afterId starts from the newest user.
+     */
+    @Query(value = """
+        SELECT u.user_id, u.email, u.mobile_number, u.gender as user_gender,
+               up.user_profile_id, up.first_name, up.last_name, up.age, up.district as city,
+               up.religion, up.caste, up.status,
+               ep.occupation,
+               cp.verification_status,
+               cp.identity_verified
+        FROM users u
+        LEFT JOIN user_profile up ON u.user_id = up.user_id AND up.deleted = false
+        LEFT JOIN education_and_profession ep ON u.user_id = ep.user_id AND ep.deleted = false
+        LEFT JOIN complete_profile cp ON u.user_id = cp.user_id AND cp.deleted = false
+        WHERE (:afterId IS NULL OR u.user_id < :afterId)
+        ORDER BY u.user_id DESC
+        LIMIT :limit
+        """,
+        nativeQuery = true)
+    List<Map<String, Object>> findUsersForAdminListAfter(@Param("afterId") Integer afterId, @Param("limit") int limit);
 }
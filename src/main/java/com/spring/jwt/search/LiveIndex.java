@@ -0,0 +1,159 @@
+package com.spring.jwt.search;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory index over the rows of one table, kept current by a {@link TableIndexer}
+ *
+ * The index data lives in a {@link State} guarded by a read-write lock: changes take the
+ * write lock, subclasses answer queries under the read lock through {@link #read}. A
+ * rebuild loads a new state without the lock while the current one keeps serving.
+ * Changes arriving meanwhile are recorded and replayed onto the new state before it
+ * replaces the current one, so a row loaded before its change is not left stale.
+ *
+ * @param <V> the indexed entry, keyed by its row ID
+ * @param <S> the index data
+ */
+public abstract class LiveIndex<V, S extends LiveIndex.State<V>> {
+
+    /**
+     * The data of an index, only ever accessed under the index's lock
+     */
+    public interface State<V> {
+
+        /**
+         * Add an entry, or replace the one with the same ID
+         */
+        void upsert(V entry);
+
+        void remove(Integer id);
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private S state;
+    // Changes made while a rebuild is loading, replayed onto the rebuilt state; null marks a removal
+    private Map<Integer, V> changesDuringRebuild;
+    private volatile boolean ready;
+    private volatile LocalDateTime lastRebuiltAt;
+
+    protected LiveIndex(S emptyState) {
+        this.state = emptyState;
+    }
+
+    /**
+     * A new state holding the given entries; called without the lock
+     */
+    protected abstract S build(List<V> entries);
+
+    protected abstract Integer idOf(V entry);
+
+    /**
+     * Whether the index has been built and can serve queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public LocalDateTime getLastRebuiltAt() {
+        return lastRebuiltAt;
+    }
+
+    /**
+     * Whether changes have degraded the index enough that a rebuild would restore it
+     */
+    public boolean needsCompaction() {
+        return false;
+    }
+
+    /**
+     * Start recording changes so they can be replayed onto the index being rebuilt
+     */
+    public void startRebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the index with one built from the given entries, then replay the changes
+     * recorded since {@link #startRebuild()}
+     */
+    public void finishRebuild(List<V> entries) {
+        S rebuilt = build(entries);
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.forEach((id, entry) -> {
+                    if (entry != null) {
+                        rebuilt.upsert(entry);
+                    } else {
+                        rebuilt.remove(id);
+                    }
+                });
+            }
+            state = rebuilt;
+            changesDuringRebuild = null;
+            ready = true;
+            lastRebuiltAt = LocalDateTime.now();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void abortRebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add an entry, or replace the indexed values of one already indexed
+     */
+    public void upsert(V entry) {
+        lock.writeLock().lock();
+        try {
+            state.upsert(entry);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(idOf(entry), entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            state.remove(id);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Run a query against the current state under the read lock
+     */
+    protected <R> R read(Function<S, R> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(state);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.spring.jwt.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keeps one or more {@link LiveIndex}es in step with a table that has an updated_at column.
+ *
+ * The indexes are built from the database once the application is ready. Writes on this
+ * node are re-read and re-indexed after they commit, or dropped if the row is gone; the
+ * subclass listens for its entity's change events and passes the IDs to {@link #reindex}.
+ * Writes on other nodes, and writers that publish no event, are picked up by a periodic
+ * poll of rows whose updated_at moved since the last poll, which the subclass schedules
+ * through {@link #syncOrRebuild()}. The poll also rebuilds the indexes when one of them
+ * needs compaction, or when the startup build failed; until then queries use the database.
+ */
+@Slf4j
+public abstract class TableIndexer {
+
+    private static final LocalDateTime SYNC_FROM_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * An index fed by this indexer, with the queries loading its entries: in row ID order
+     * after a given ID for rebuilds, and by row ID for changes
+     */
+    public record Feed<V>(LiveIndex<V, ?> index,
+                          BiFunction<Integer, Pageable, List<V>> loadAfter,
+                          Function<Collection<Integer>, List<V>> loadByIds) {
+    }
+
+    private final String description;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long syncOverlapSeconds;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile LocalDateTime syncedUpTo;
+
+    /**
+     * @param description what is indexed, for log messages, e.g. "profile search index"
+     */
+    protected TableIndexer(String description, PlatformTransactionManager transactionManager, boolean enabled,
+                           int batchSize, long syncOverlapSeconds) {
+        this.description = description;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.syncOverlapSeconds = syncOverlapSeconds;
+    }
+
+    /**
+     * The indexes to keep in step; the first one's entry count is reported by {@link #rebuild()}
+     */
+    protected abstract List<Feed<?>> feeds();
+
+    protected abstract LocalDateTime findLatestUpdate();
+
+    protected abstract List<Integer> findIdsUpdatedSince(LocalDateTime since);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Re-index rows whose write has committed
+     */
+    protected void reindex(Collection<Integer> ids) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refresh(ids);
+        } catch (RuntimeException e) {
+            // The write has committed; the next sync picks the change up
+            log.warn("Failed to update the {} for {}: {}", description, ids, e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild if an index is not ready or needs compaction, otherwise sync
+     */
+    protected void syncOrRebuild() {
+        if (!enabled) {
+            return;
+        }
+        boolean rebuild = feeds().stream().anyMatch(feed -> !feed.index().isReady() || feed.index().needsCompaction());
+        if (rebuild) {
+            rebuild();
+        } else {
+            sync();
+        }
+    }
+
+    /**
+     * Rebuild the indexes from the database in chunks, while the current ones keep serving
+     *
+     * @return number of rows indexed, or -1 if a rebuild is already running or failed
+     */
+    public int rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return -1;
+        }
+        List<Feed<?>> feeds = feeds();
+        try {
+            long start = System.currentTimeMillis();
+            LocalDateTime latestUpdate = findLatestUpdate();
+            feeds.forEach(feed -> feed.index().startRebuild());
+            int count = rebuild(feeds.get(0));
+            for (Feed<?> feed : feeds.subList(1, feeds.size())) {
+                rebuild(feed);
+            }
+            syncedUpTo = latestUpdate;
+            log.info("Built the {} from {} rows in {}ms", description, count, System.currentTimeMillis() - start);
+            return count;
+        } catch (RuntimeException e) {
+            feeds.forEach(feed -> feed.index().abortRebuild());
+            log.error("Failed to build the {}: {}", description, e.getMessage(), e);
+            return -1;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Re-index rows updated since the last sync, starting a little earlier so that a
+     * write committed late with an older updated_at is not missed
+     *
+     * @return number of rows re-read
+     */
+    public int sync() {
+        LocalDateTime latestUpdate = findLatestUpdate();
+        if (latestUpdate == null) {
+            return 0;
+        }
+        LocalDateTime since = syncedUpTo != null ? syncedUpTo.minusSeconds(syncOverlapSeconds) : SYNC_FROM_START;
+        List<Integer> ids = findIdsUpdatedSince(since);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            refresh(ids.subList(from, Math.min(ids.size(), from + batchSize)));
+        }
+        syncedUpTo = latestUpdate;
+        return ids.size();
+    }
+
+    private <V> int rebuild(Feed<V> feed) {
+        List<V> entries = new ArrayList<>();
+        Integer afterId = 0;
+        List<V> chunk;
+        do {
+            chunk = feed.loadAfter().apply(afterId, PageRequest.of(0, batchSize));
+            entries.addAll(chunk);
+            if (!chunk.isEmpty()) {
+                afterId = feed.index().idOf(chunk.get(chunk.size() - 1));
+            }
+        } while (chunk.size() == batchSize);
+        feed.index().finishRebuild(entries);
+        return entries.size();
+    }
+
+    private void refresh(Collection<Integer> ids) {
+        feeds().forEach(feed -> refresh(feed, ids));
+    }
+
+    private <V> void refresh(Feed<V> feed, Collection<Integer> ids) {
+        List<V> entries = transactionTemplate.execute(status -> feed.loadByIds().apply(ids));
+        Set<Integer> missing = new HashSet<>(ids);
+        for (V entry : entries) {
+            feed.index().upsert(entry);
+            missing.remove(feed.index().idOf(entry));
+        }
+        missing.forEach(feed.index()::remove);
+    }
+}
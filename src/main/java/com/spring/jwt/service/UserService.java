@@ -1,6 +1,7 @@
 package com.spring.jwt.service;
 
 import com.spring.jwt.admin.dto.AdminUserListResponse;
+import com.spring.jwt.dto.CursorPageResponseDto;
 import com.spring.jwt.dto.ResetPassword;
 import com.spring.jwt.dto.UserDTO;
 import com.spring.jwt.dto.UserProfileDTO;
@@ -31,6 +32,16 @@ public interface UserService {
     
     Page<AdminUserListResponse> getAllUsersForAdmin(int pageNo, int pageSize);
 
+    /**
+     * Cursor-paginated admin user list, newest first.
+     *
+     * @param cursor       cursor from the previous slice, or null for the first one
+     * @param size         slice size
+     * @param includeTotal whether to include the (briefly cached) total user count
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    CursorPageResponseDto<AdminUserListResponse> getAllUsersForAdminAfter(String cursor, int size, boolean includeTotal);
+
     UserDTO getUserById(Integer id);
     
     UserProfileDTO getUserProfileById(Integer id);
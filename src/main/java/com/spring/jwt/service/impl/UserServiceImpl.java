@@ -19,6 +19,8 @@ import com.spring.jwt.repository.UserProfileRepository;
 import com.spring.jwt.repository.UserRepository;
 import com.spring.jwt.service.UserService;
 import com.spring.jwt.utils.BaseResponseDTO;
+import com.spring.jwt.utils.CacheUtils;
+import com.spring.jwt.utils.CursorCodec;
 import com.spring.jwt.utils.EmailService;
 import com.spring.jwt.utils.EmailVerificationService.EmailVerification;
 import com.spring.jwt.utils.EmailVerificationService.EmailVerificationRepo;
@@ -81,6 +83,8 @@ public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
 
+    private final CacheUtils cacheUtils;
+
     @Value("${app.url.password-reset}")
     private String passwordResetUrl;
 
@@ -350,62 +354,83 @@ public class UserServiceImpl implements UserService {
         Pageable pageable = PageRequest.of(pageNo, pageSize);
         Page<Map<String, Object>> usersData = userRepository.findAllUsersForAdminList(pageable);
         
-        return usersData.map(data -> {
-            Integer userId = (Integer) data.get("user_id");
-            
-            // Get express interest counts
-            int sentRequests = getExpressInterestSentCount(userId);
-            int receivedRequests = getExpressInterestReceivedCount(userId);
-            
-            // Build profile ID (e.g., "MAT10001")
-            String profileId = "MAT" + userId;
-            
-            // Map verification status
-            String verificationStatus = data.get("verification_status") != null 
-                ? data.get("verification_status").toString() 
-                : "UNVERIFIED";
-            Boolean identityVerified = data.get("identity_verified") != null 
-                ? (Boolean) data.get("identity_verified") 
-                : false;
-            String verification = identityVerified ? "Verified" : "Non-Verified";
-            
-            // Map membership
-            String membership = data.get("membership") != null 
-                ? data.get("membership").toString() 
-                : "Basic";
-            
-            // Map status
-            String status = data.get("status") != null 
-                ? data.get("status").toString() 
-                : "DEACTIVE";
-            String userStatus = "ACTIVE".equals(status) ? "Active" : "Deactivate";
-            
-            // Map gender
-            String genderStr = data.get("user_gender") != null 
-                ? data.get("user_gender").toString() 
+        return usersData.map(this::toAdminUserListResponse);
+    }
+
+    @Override
+    public CursorPageResponseDto<AdminUserListResponse> getAllUsersForAdminAfter(String cursor, int size,
+                                                                                 boolean includeTotal) {
+        Integer afterId = cursor != null && !cursor.isBlank()
+                ? CursorCodec.intPart(CursorCodec.decode(cursor, 1)[0])
                 : null;
-            Gender gender = genderStr != null ? Gender.valueOf(genderStr) : null;
-            
-            return AdminUserListResponse.builder()
-                    .userId(userId)
-                    .profileId(profileId)
-                    .firstName((String) data.get("first_name"))
-                    .lastName((String) data.get("last_name"))
-                    .age((Integer) data.get("age"))
-                    .city((String) data.get("city"))
-                    .gender(gender)
-                    .religion((String) data.get("religion"))
-                    .caste((String) data.get("caste"))
-                    .profession((String) data.get("occupation"))
-                    .membership(membership)
-                    .verification(verification)
-                    .sendRequests(sentRequests)
-                    .receiveRequests(receivedRequests)
-                    .status(userStatus)
-                    .email((String) data.get("email"))
-                    .mobileNumber(data.get("mobile_number") != null ? ((Number) data.get("mobile_number")).longValue() : null)
-                    .build();
-        });
+        List<Map<String, Object>> rows = userRepository.findUsersForAdminListAfter(afterId, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<AdminUserListResponse> users = (hasNext ? rows.subList(0, size) : rows).stream()
+                .map(this::toAdminUserListResponse)
+                .toList();
+        String nextCursor = hasNext ? CursorCodec.encode(users.get(users.size() - 1).getUserId()) : null;
+        Long total = includeTotal
+                ? cacheUtils.get(CacheUtils.CacheNames.LISTING_COUNTS, "users_all", userRepository::count)
+                : null;
+        return new CursorPageResponseDto<>(users, users.size(), hasNext, nextCursor, total);
+    }
+
+    private AdminUserListResponse toAdminUserListResponse(Map<String, Object> data) {
+        Integer userId = (Integer) data.get("user_id");
+        
+        // Get express interest counts
+        int sentRequests = getExpressInterestSentCount(userId);
+        int receivedRequests = getExpressInterestReceivedCount(userId);
+        
+        // Build profile ID (e.g., "MAT10001")
+        String profileId = "MAT" + userId;
+        
+        // Map verification status
+        String verificationStatus = data.get("verification_status") != null 
+            ? data.get("verification_status").toString() 
+            : "UNVERIFIED";
+        Boolean identityVerified = data.get("identity_verified") != null 
+            ? (Boolean) data.get("identity_verified") 
+            : false;
+        String verification = identityVerified ? "Verified" : "Non-Verified";
+        
+        // Map membership
+        String membership = data.get("membership") != null 
+            ? data.get("membership").toString() 
+            : "Basic";
+        
+        // Map status
+        String status = data.get("status") != null 
+            ? data.get("status").toString() 
+            : "DEACTIVE";
+        String userStatus = "ACTIVE".equals(status) ? "Active" : "Deactivate";
+        
+        // Map gender
+        String genderStr = data.get("user_gender") != null 
+            ? data.get("user_gender").toString() 
+            : null;
+        Gender gender = genderStr != null ? Gender.valueOf(genderStr) : null;
+        
+        return AdminUserListResponse.builder()
+                .userId(userId)
+                .profileId(profileId)
+                .firstName((String) data.get("first_name"))
+                .lastName((String) data.get("last_name"))
+                .age((Integer) data.get("age"))
+                .city((String) data.get("city"))
+                .gender(gender)
+                .religion((String) data.get("religion"))
+                .caste((String) data.get("caste"))
+                .profession((String) data.get("occupation"))
+                .membership(membership)
+                .verification(verification)
+                .sendRequests(sentRequests)
+                .receiveRequests(receivedRequests)
+                .status(userStatus)
+                .email((String) data.get("email"))
+                .mobileNumber(data.get("mobile_number") != null ? ((Number) data.get("mobile_number")).longValue() : null)
+                .build();
     }
     
     private int getExpressInterestSentCount(Integer userId) {
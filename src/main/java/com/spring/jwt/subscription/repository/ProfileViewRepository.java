@@ -55,6 +55,14 @@ public interface ProfileViewRepository extends JpaRepository<ProfileView, Long>
     @Query("SELECT COUNT(pv) FROM ProfileView pv WHERE pv.viewedProfile.id = :profileId")
     long countViewsForProfile(@Param("profileId") Integer profileId);
 
+    /**
+     * IDs of the most viewed profiles, most viewed first
+     */
+    @Query("SELECT pv.viewedProfile.id FROM ProfileView pv " +
+           "GROUP BY pv.viewedProfile.id " +
+           "ORDER BY COUNT(pv) DESC")
+    List<Integer> findMostViewedProfileIds(Pageable pageable);
+
     /**
      * Count profiles viewed by user
      */
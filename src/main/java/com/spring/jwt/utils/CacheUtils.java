@@ -1,11 +1,24 @@
 package com.spring.jwt.utils;
 
+import com.spring.jwt.cache.CacheStatistics;
+import com.spring.jwt.cache.InstrumentedCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 /**
  * Utility class for cache operations across the application.
  * Provides centralized cache management and monitoring capabilities.
@@ -37,6 +50,10 @@ public class CacheUtils {
         public static final String PARTNER_PREFERENCES = "partnerPreferences";
         public static final String CONTACT_DETAILS = "contactDetails";
         public static final String COMPLETE_PROFILES = "completeProfiles";
+        public static final String PUBLIC_BROWSE = "publicBrowse";
+        public static final String LISTING_COUNTS = "listingCounts";
+        public static final String PROFILE_FACETS = "profileFacets";
+        public static final String ABSENT_SECTIONS = "absentSections";
 
         public static final String APPLICATION_SETTINGS = "applicationSettings";
         public static final String LOOKUP_DATA = "lookupData";
@@ -60,6 +77,99 @@ public class CacheUtils {
         }
     }
 
+    /**
+     * Get a cached value, loading and caching it on a miss.
+     * Falls back to the loader when the cache is missing or fails.
+     *
+     * @param cacheName the cache name
+     * @param key       the cache key
+     * @param loader    computes the value on a miss
+     * @return the cached or loaded value
+     */
+    public <T> T get(String cacheName, Object key, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        try {
+            return cache.get(key, loader::get);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("Failed to read cache entry: cache={}, key={}, error={}", cacheName, key, e.getMessage());
+            return loader.get();
+        }
+    }
+
+    /**
+     * Get a cached value without loading it on a miss.
+     *
+     * @param cacheName the cache name
+     * @param key       the cache key
+     * @param type      the expected value type
+     * @return the cached value, or null if absent or unreadable
+     */
+    public <T> T getIfPresent(String cacheName, Object key, Class<T> type) {
+        try {
+            Cache cache = cacheManager.getCache(cacheName);
+            return cache != null ? cache.get(key, type) : null;
+        } catch (RuntimeException e) {
+            log.warn("Failed to read cache entry: cache={}, key={}, error={}", cacheName, key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Get several cached values, loading every miss with one call and caching the results.
+     *
+     * @param cacheName the cache name
+     * @param ids       the IDs to look up; duplicates are looked up once
+     * @param cacheKey  the cache key of an ID
+     * @param type      the expected value type
+     * @param loader    loads the values of the missed IDs, keyed by ID; IDs it leaves out are absent
+     * @return the values found, keyed by ID in the order of {@code ids}
+     */
+    public <K, V> Map<K, V> getAll(String cacheName, Collection<K> ids, Function<K, Object> cacheKey, Class<V> type,
+                                   Function<List<K>, Map<K, V>> loader) {
+        Map<K, V> found = new LinkedHashMap<>();
+        List<K> missing = new ArrayList<>();
+        for (K id : new LinkedHashSet<>(ids)) {
+            V value = getIfPresent(cacheName, cacheKey.apply(id), type);
+            found.put(id, value);
+            if (value == null) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<K, V> loaded = loader.apply(missing);
+            loaded.forEach((id, value) -> put(cacheName, cacheKey.apply(id), value));
+            missing.forEach(id -> found.put(id, loaded.get(id)));
+        }
+        found.values().removeIf(Objects::isNull);
+        return found;
+    }
+
+    /**
+     * Cache a value, replacing any previous one.
+     *
+     * @param cacheName the cache name
+     * @param key       the cache key
+     * @param value     the value to cache
+     */
+    public void put(String cacheName, Object key, Object value) {
+        try {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.put(key, value);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to write cache entry: cache={}, key={}, error={}", cacheName, key, e.getMessage());
+        }
+    }
+
     /**
      * Clear all entries from a specific cache.
      *
@@ -70,7 +180,7 @@ public class CacheUtils {
             Cache cache = cacheManager.getCache(cacheName);
             if (cache != null) {
                 cache.clear();
-                log.info("Cleared cache: {}", cacheName);
+                log.debug("Cleared cache: {}", cacheName);
             }
         } catch (Exception e) {
             log.warn("Failed to clear cache: cache={}, error={}", cacheName, e.getMessage());
@@ -98,6 +208,12 @@ public class CacheUtils {
     public String getCacheStats(String cacheName) {
         try {
             Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof InstrumentedCache instrumented) {
+                CacheStatistics stats = instrumented.snapshot();
+                return String.format("Cache: %s, hits: %d, misses: %d, hit rate: %.1f%%, evictions: %d, clears: %d, size: %d",
+                        cacheName, stats.getHits(), stats.getMisses(), stats.getHitRate() * 100,
+                        stats.getEvictions(), stats.getClears(), stats.getSize());
+            }
             if (cache != null) {
                 return String.format("Cache: %s, Native Cache: %s", cacheName, cache.getNativeCache().getClass().getSimpleName());
             }
@@ -107,6 +223,34 @@ public class CacheUtils {
         }
     }
 
+    /**
+     * Get hit/miss statistics for every instrumented cache.
+     *
+     * @return statistics per cache name
+     */
+    public Map<String, CacheStatistics> getAllCacheStatistics() {
+        Map<String, CacheStatistics> statistics = new TreeMap<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(cacheName) instanceof InstrumentedCache instrumented) {
+                statistics.put(cacheName, instrumented.snapshot());
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Reset hit/miss counters on every instrumented cache, so that hit rates can be
+     * compared over a fresh measurement window.
+     */
+    public void resetCacheStatistics() {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(cacheName) instanceof InstrumentedCache instrumented) {
+                instrumented.resetStatistics();
+            }
+        }
+        log.info("Reset statistics for all instrumented caches");
+    }
+
     /**
      * Check if a cache exists.
      *
@@ -12,10 +12,11 @@ import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.WriterProperties;
 import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
 import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.spring.jwt.Document.Service.DocumentPipelineMetrics;
 import com.spring.jwt.config.DocumentProperties;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.coobird.thumbnailator.Thumbnails;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import javax.imageio.IIOImage;
@@ -24,14 +25,32 @@ import javax.imageio.ImageReadParam;
 import javax.imageio.ImageReader;
 import javax.imageio.ImageWriteParam;
 import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
 import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
 /**
  * Service for optimized image and PDF processing.
@@ -40,10 +59,50 @@ import java.util.Set;
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class ImageOptimizationService {
 
+    /**
+     * Candidate qualities at full size, best first
+     */
+    private static final float[] QUALITY_STEPS = {0.95f, 0.90f, 0.85f, 0.80f, 0.75f, 0.70f};
+    private static final float SCALED_QUALITY = 0.75f;
+    private static final double MIN_SCALE = 0.5;
+    /**
+     * JPEG payload shrinks with scale^e, where e is 2 for noise-like detail and
+     * closer to 1 for edges and text, which get denser as the image shrinks
+     */
+    private static final double MIN_SCALE_EXPONENT = 1.0;
+    private static final double MAX_SCALE_EXPONENT = 2.0;
+    /**
+     * Aim slightly under the target so that prediction error rarely needs a correction pass
+     */
+    private static final double TARGET_MARGIN = 0.95;
+    private static final int PROBE_TILE = 64;
+    private static final int PROBE_GRID = 4;
+
+    private static final long PDF_THRESHOLD_BYTES = 100 * 1024;
+    private static final int PDF_IMAGE_MAX_DIMENSION = 1800;
+    private static final float PDF_IMAGE_QUALITY = 0.75f;
+
+    // Perceptual hash: 32x32 grey grid, 8x8 lowest DCT frequencies
+    private static final int HASH_GRID = 32;
+    private static final int HASH_FREQUENCIES = 8;
+    private static final int HASH_DECODE_SIZE = HASH_GRID * 4;
+    private static final double[][] HASH_DCT = hashDctTable();
+
     private final DocumentProperties documentProperties;
+    private final DocumentPipelineMetrics pipelineMetrics;
+    private final Executor pdfImageExecutor;
+
+    private volatile long jpegHeaderBytes;
+
+    public ImageOptimizationService(DocumentProperties documentProperties,
+                                    DocumentPipelineMetrics pipelineMetrics,
+                                    @Qualifier("pdfImageExecutor") Executor pdfImageExecutor) {
+        this.documentProperties = documentProperties;
+        this.pipelineMetrics = pipelineMetrics;
+        this.pdfImageExecutor = pdfImageExecutor;
+    }
 
     static {
         ImageIO.setUseCache(false);
@@ -64,7 +123,7 @@ public class ImageOptimizationService {
         }
 
         if (contentType != null && contentType.startsWith("image/")) {
-            return compressImageIteratively(fileData, documentType, targetSizeBytes);
+            return compressImageToTarget(fileData, documentType, targetSizeBytes);
         } else if ("application/pdf".equals(contentType)) {
             return compressPdf(fileData);
         }
@@ -72,40 +131,61 @@ public class ImageOptimizationService {
         return fileData;
     }
 
+    /**
+     * Compress an image to the target size with the configured strategy
+     */
+    byte[] compressImageToTarget(byte[] originalImageBytes, String documentType, long targetSizeBytes)
+            throws IOException {
+        return documentProperties.getImage().isPredictiveQuality()
+                ? compressImagePredictively(originalImageBytes, documentType, targetSizeBytes)
+                : compressImageIteratively(originalImageBytes, documentType, targetSizeBytes);
+    }
+
+    /**
+     * Compress an image file to the configured target size
+     * The file is decoded straight from disk with source subsampling, so the upload
+     * itself is never held on the heap; only the decoded (already reduced) image is
+     *
+     * @return the compressed image, or null if the file could not be decoded
+     */
+    public byte[] compressImage(Path source, String documentType) throws IOException {
+        long targetSizeBytes = documentProperties.getFileSize().getTargetFileSizeKb() * 1024;
+        BufferedImage image = decodeForTarget(source, documentType);
+        if (image == null) {
+            log.warn("Failed to decode image file {}", source.getFileName());
+            return null;
+        }
+        return documentProperties.getImage().isPredictiveQuality()
+                ? encodePredictively(image, targetSizeBytes)
+                : encodeIteratively(image, targetSizeBytes);
+    }
+
     /**
      * Optimized image compression V5: Source Subsampling + Efficient Resizing +
      * TIMING LOGS
+     * Up to three full encodes; kept as the fallback when predictive quality is disabled
      */
-    private byte[] compressImageIteratively(byte[] originalImageBytes, String documentType, long targetSizeBytes)
+    byte[] compressImageIteratively(byte[] originalImageBytes, String documentType, long targetSizeBytes)
             throws IOException {
-        long startTime = System.currentTimeMillis();
-
         if (originalImageBytes == null || originalImageBytes.length == 0)
             return originalImageBytes;
 
-        int maxWidth = "PROFILE_PHOTO".equalsIgnoreCase(documentType)
-                ? documentProperties.getImage().getProfilePhotoSize()
-                : documentProperties.getImage().getMaxWidth();
-        int maxHeight = "PROFILE_PHOTO".equalsIgnoreCase(documentType)
-                ? documentProperties.getImage().getProfilePhotoSize()
-                : documentProperties.getImage().getMaxHeight();
-
-        long decodeStart = System.currentTimeMillis();
-        BufferedImage currentImage = decodeCompressed(originalImageBytes, maxWidth, maxHeight);
-        long decodeTime = System.currentTimeMillis() - decodeStart;
-
+        BufferedImage currentImage = decodeForTarget(originalImageBytes, documentType);
         if (currentImage == null) {
             log.warn("Failed to decode image efficiently, falling back to original");
             return originalImageBytes;
         }
+        return encodeIteratively(currentImage, targetSizeBytes);
+    }
 
-        log.info("TIMING-DECODE: Decoded in {}ms. Resulting size: {}x{}", decodeTime, currentImage.getWidth(),
-                currentImage.getHeight());
+    private byte[] encodeIteratively(BufferedImage currentImage, long targetSizeBytes) throws IOException {
+        long startTime = System.currentTimeMillis();
 
         int currentWidth = currentImage.getWidth();
 
-        byte[] compressedBytes = originalImageBytes;
+        byte[] compressedBytes;
         float quality = 0.95f;
+        long encodeStart = System.nanoTime();
 
         long compressStart = System.currentTimeMillis();
         byte[] fastAttempt = compressWithFixedQuality(currentImage, quality);
@@ -114,6 +194,9 @@ public class ImageOptimizationService {
                 fastAttempt.length / 1024);
 
         if (fastAttempt.length <= targetSizeBytes) {
+            pipelineMetrics.recordStage(DocumentPipelineMetrics.ENCODE, DocumentPipelineMetrics.IMAGE,
+                    System.nanoTime() - encodeStart);
+            pipelineMetrics.recordEncodePasses(1);
             log.info("TIMING-TOTAL: Fnished in {}ms", System.currentTimeMillis() - startTime);
             return fastAttempt;
         }
@@ -126,7 +209,9 @@ public class ImageOptimizationService {
         log.info("TIMING-COMPRESS-2: Second pass (Q={}, Scale=0.9) took {}ms. Size: {}KB", quality,
                 System.currentTimeMillis() - compressStart, compressedBytes.length / 1024);
 
+        int passes = 2;
         if (compressedBytes.length > targetSizeBytes) {
+            passes = 3;
             quality = 0.60f;
             currentImage = Thumbnails.of(currentImage).scale(0.9).asBufferedImage();
             compressStart = System.currentTimeMillis();
@@ -139,20 +224,275 @@ public class ImageOptimizationService {
             }
         }
 
+        pipelineMetrics.recordStage(DocumentPipelineMetrics.ENCODE, DocumentPipelineMetrics.IMAGE,
+                System.nanoTime() - encodeStart);
+        pipelineMetrics.recordEncodePasses(passes);
         log.info("TIMING-TOTAL: Loop finished in {}ms", System.currentTimeMillis() - startTime);
         return compressedBytes;
     }
 
+    /**
+     * Predictive image compression: choose quality and scale up front, then encode once
+     *
+     * A probe built from full-resolution tiles sampled across the image is encoded at
+     * candidate qualities (highest first, stopping at the first that fits). Because the
+     * tiles keep the image's own detail density, the probe's bytes per pixel predict
+     * the full encode closely, unlike a downscaled probe. The highest quality whose
+     * prediction fits the target is used; if none does at full size, the image is
+     * scaled just enough at {@link #SCALED_QUALITY}, using how much a half-size probe
+     * shrinks to extrapolate the effect of scaling. Should the full encode still miss
+     * the target, the model is calibrated with the real size and one correction pass
+     * is made.
+     */
+    byte[] compressImagePredictively(byte[] originalImageBytes, String documentType, long targetSizeBytes)
+            throws IOException {
+        if (originalImageBytes == null || originalImageBytes.length == 0)
+            return originalImageBytes;
+
+        BufferedImage image = decodeForTarget(originalImageBytes, documentType);
+        if (image == null) {
+            log.warn("Failed to decode image efficiently, falling back to original");
+            return originalImageBytes;
+        }
+        return encodePredictively(image, targetSizeBytes);
+    }
+
+    private byte[] encodePredictively(BufferedImage image, long targetSizeBytes) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long encodeStart = System.nanoTime();
+        SizeModel model = new SizeModel(image);
+        long budget = (long) (targetSizeBytes * TARGET_MARGIN);
+
+        EncodingPlan plan = plan(model, budget, 1.0);
+        byte[] result = encode(image, plan);
+        int passes = 1;
+
+        if (result.length > targetSizeBytes) {
+            double calibration = Math.max(1.0, (result.length - model.headerBytes)
+                    / Math.max(1.0, plan.predictedBytes - model.headerBytes));
+            EncodingPlan corrected = plan(model, budget, calibration);
+            byte[] retry = encode(image, corrected);
+            passes++;
+            log.info("TIMING-CORRECTION: Predicted {}KB at Q={} scale={}, got {}KB; retried at Q={} scale={}: {}KB",
+                    (long) plan.predictedBytes / 1024, plan.quality, plan.scale, result.length / 1024,
+                    corrected.quality, corrected.scale, retry.length / 1024);
+            if (retry.length < result.length) {
+                result = retry;
+            }
+        }
+
+        pipelineMetrics.recordStage(DocumentPipelineMetrics.ENCODE, DocumentPipelineMetrics.IMAGE,
+                System.nanoTime() - encodeStart);
+        pipelineMetrics.recordEncodePasses(passes);
+        log.info("TIMING-TOTAL: Predictive compression of {}x{} to {}KB (Q={}, scale={}, passes={}, probes={}) in {}ms",
+                image.getWidth(), image.getHeight(), result.length / 1024, plan.quality, plan.scale, passes,
+                model.probeEncodes, System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * Pick the highest quality predicted to fit the budget at full size, otherwise
+     * the scale predicted to fit at {@link #SCALED_QUALITY}
+     *
+     * @param calibration observed/predicted payload ratio from a previous encode, 1.0 if none
+     */
+    private EncodingPlan plan(SizeModel model, long budget, double calibration) throws IOException {
+        long pixels = (long) model.width * model.height;
+        for (float quality : QUALITY_STEPS) {
+            double predicted = model.headerBytes + model.bytesPerPixel(quality) * pixels * calibration;
+            if (predicted <= budget) {
+                return new EncodingPlan(quality, 1.0, predicted);
+            }
+        }
+
+        double fullSizePayload = model.bytesPerPixel(SCALED_QUALITY) * pixels * calibration;
+        double exponent = model.scaleExponent();
+        double scale = Math.pow(Math.max(1.0, budget - model.headerBytes) / fullSizePayload, 1.0 / exponent);
+        scale = Math.max(MIN_SCALE, Math.min(1.0, scale));
+        double predicted = model.headerBytes + fullSizePayload * Math.pow(scale, exponent);
+        return new EncodingPlan(SCALED_QUALITY, scale, predicted);
+    }
+
+    private byte[] encode(BufferedImage image, EncodingPlan plan) throws IOException {
+        BufferedImage source = plan.scale < 1.0
+                ? Thumbnails.of(image).scale(plan.scale).asBufferedImage()
+                : image;
+        return compressWithFixedQuality(source, plan.quality);
+    }
+
+    private int maxWidthFor(String documentType) {
+        return "PROFILE_PHOTO".equalsIgnoreCase(documentType)
+                ? documentProperties.getImage().getProfilePhotoSize()
+                : documentProperties.getImage().getMaxWidth();
+    }
+
+    private int maxHeightFor(String documentType) {
+        return "PROFILE_PHOTO".equalsIgnoreCase(documentType)
+                ? documentProperties.getImage().getProfilePhotoSize()
+                : documentProperties.getImage().getMaxHeight();
+    }
+
+    /**
+     * JPEG size model of one image, fed by encodes of a tile mosaic
+     * Qualities are probed on demand and cached, so an image that fits at the first
+     * quality costs a single probe encode
+     */
+    private final class SizeModel {
+        final int width;
+        final int height;
+        final long headerBytes;
+        final BufferedImage probe;
+        final long probePixels;
+        final Map<Float, Double> bytesPerPixel = new LinkedHashMap<>();
+        int probeEncodes;
+        double scaleExponent;
+
+        SizeModel(BufferedImage image) throws IOException {
+            this.width = image.getWidth();
+            this.height = image.getHeight();
+            this.headerBytes = jpegHeaderBytes();
+            this.probe = buildProbe(image);
+            this.probePixels = (long) probe.getWidth() * probe.getHeight();
+        }
+
+        /**
+         * Exponent e of payload ~ scale^e, measured by encoding the probe at half size
+         */
+        double scaleExponent() throws IOException {
+            if (scaleExponent == 0) {
+                double fullPayload = bytesPerPixel(SCALED_QUALITY) * probePixels;
+                BufferedImage half = Thumbnails.of(probe).scale(0.5).imageType(BufferedImage.TYPE_INT_RGB)
+                        .asBufferedImage();
+                long halfPayload = compressWithFixedQuality(half, SCALED_QUALITY).length - headerBytes;
+                probeEncodes++;
+                double measured = halfPayload > 0 ? Math.log(fullPayload / halfPayload) / Math.log(2) : MAX_SCALE_EXPONENT;
+                scaleExponent = Math.max(MIN_SCALE_EXPONENT, Math.min(MAX_SCALE_EXPONENT, measured));
+            }
+            return scaleExponent;
+        }
+
+        double bytesPerPixel(float quality) throws IOException {
+            Double cached = bytesPerPixel.get(quality);
+            if (cached == null) {
+                long payload = Math.max(0, compressWithFixedQuality(probe, quality).length - headerBytes);
+                probeEncodes++;
+                cached = (double) payload / probePixels;
+                bytesPerPixel.put(quality, cached);
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * Mosaic of tiles taken at full resolution from a grid across the image
+     * Small images are probed whole, which makes the prediction exact
+     */
+    static BufferedImage buildProbe(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int mosaicSize = PROBE_TILE * PROBE_GRID;
+        if ((long) width * height <= 4L * mosaicSize * mosaicSize) {
+            return image;
+        }
+
+        int tileWidth = Math.min(PROBE_TILE, width / PROBE_GRID);
+        int tileHeight = Math.min(PROBE_TILE, height / PROBE_GRID);
+        BufferedImage probe = new BufferedImage(tileWidth * PROBE_GRID, tileHeight * PROBE_GRID,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = probe.createGraphics();
+        try {
+            for (int row = 0; row < PROBE_GRID; row++) {
+                for (int col = 0; col < PROBE_GRID; col++) {
+                    // Centre of each grid cell, aligned to the 8x8 JPEG block grid
+                    int x = ((2 * col + 1) * width / (2 * PROBE_GRID) - tileWidth / 2) & ~7;
+                    int y = ((2 * row + 1) * height / (2 * PROBE_GRID) - tileHeight / 2) & ~7;
+                    x = Math.max(0, Math.min(x, width - tileWidth));
+                    y = Math.max(0, Math.min(y, height - tileHeight));
+                    graphics.drawImage(image.getSubimage(x, y, tileWidth, tileHeight),
+                            col * tileWidth, row * tileHeight, null);
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return probe;
+    }
+
+    /**
+     * Fixed cost of a JPEG written by ImageIO (markers, quantization and Huffman tables)
+     */
+    private long jpegHeaderBytes() throws IOException {
+        long header = jpegHeaderBytes;
+        if (header == 0) {
+            header = compressWithFixedQuality(new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB), 0.95f).length;
+            jpegHeaderBytes = header;
+        }
+        return header;
+    }
+
+    private record EncodingPlan(float quality, double scale, double predictedBytes) {
+    }
+
+    private BufferedImage decodeForTarget(byte[] imageBytes, String documentType) throws IOException {
+        long decodeStart = System.nanoTime();
+        BufferedImage image = decodeCompressed(imageBytes, maxWidthFor(documentType), maxHeightFor(documentType));
+        recordDecode(image, decodeStart);
+        return image;
+    }
+
+    private BufferedImage decodeForTarget(Path source, String documentType) throws IOException {
+        long decodeStart = System.nanoTime();
+        BufferedImage image = decodeCompressed(source, maxWidthFor(documentType), maxHeightFor(documentType));
+        recordDecode(image, decodeStart);
+        return image;
+    }
+
+    private void recordDecode(BufferedImage image, long decodeStart) {
+        long decodeNanos = System.nanoTime() - decodeStart;
+        pipelineMetrics.recordStage(DocumentPipelineMetrics.DECODE, DocumentPipelineMetrics.IMAGE, decodeNanos);
+        if (image != null) {
+            log.info("TIMING-DECODE: Decoded in {}ms. Resulting size: {}x{}", decodeNanos / 1_000_000,
+                    image.getWidth(), image.getHeight());
+        }
+    }
+
     private BufferedImage decodeCompressed(byte[] imageBytes, int maxWidth, int maxHeight) throws IOException {
         long start = System.currentTimeMillis();
         try (ByteArrayInputStream bis = new ByteArrayInputStream(imageBytes);
-                javax.imageio.stream.ImageInputStream iis = ImageIO.createImageInputStream(bis)) {
+                ImageInputStream iis = ImageIO.createImageInputStream(bis)) {
+            return decodeCompressed(iis, maxWidth, maxHeight);
+        } catch (Exception e) {
+            log.warn("Subsampling decode failed after {}ms, trying standard read", System.currentTimeMillis() - start,
+                    e);
+            return ImageIO.read(new ByteArrayInputStream(imageBytes));
+        }
+    }
 
-            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
-            if (!readers.hasNext())
-                return null;
+    /**
+     * Decode from a file through a random-access ImageInputStream rather than a byte[]
+     */
+    private BufferedImage decodeCompressed(Path source, int maxWidth, int maxHeight) throws IOException {
+        long start = System.currentTimeMillis();
+        try (ImageInputStream iis = ImageIO.createImageInputStream(source.toFile())) {
+            return decodeCompressed(iis, maxWidth, maxHeight);
+        } catch (Exception e) {
+            log.warn("Subsampling decode failed after {}ms, trying standard read", System.currentTimeMillis() - start,
+                    e);
+            return ImageIO.read(source.toFile());
+        }
+    }
+
+    private BufferedImage decodeCompressed(ImageInputStream iis, int maxWidth, int maxHeight) throws IOException {
+        long start = System.currentTimeMillis();
+        if (iis == null)
+            return null;
 
-            ImageReader reader = readers.next();
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+        if (!readers.hasNext())
+            return null;
+
+        ImageReader reader = readers.next();
+        try {
             reader.setInput(iis);
 
             int originalWidth = reader.getWidth(0);
@@ -172,10 +512,8 @@ public class ImageOptimizationService {
             BufferedImage result = reader.read(0, param);
             log.info("TIMING-READ: decodeCompressed took {}ms", System.currentTimeMillis() - start);
             return result;
-        } catch (Exception e) {
-            log.warn("Subsampling decode failed after {}ms, trying standard read", System.currentTimeMillis() - start,
-                    e);
-            return ImageIO.read(new ByteArrayInputStream(imageBytes));
+        } finally {
+            reader.dispose();
         }
     }
 
@@ -184,7 +522,147 @@ public class ImageOptimizationService {
      */
     public byte[] compressImage(byte[] originalImageBytes, String documentType) throws IOException {
         long targetSizeBytes = documentProperties.getFileSize().getTargetFileSizeKb() * 1024;
-        return compressImageIteratively(originalImageBytes, documentType, targetSizeBytes);
+        return compressImageToTarget(originalImageBytes, documentType, targetSizeBytes);
+    }
+
+    /**
+     * Create resized JPEG renditions of an image with a single decode
+     *
+     * The source is decoded with subsampling to roughly the largest requested size,
+     * then each rendition is scaled from the previous (larger) one. Sizes are the
+     * longest edge in pixels; an image smaller than a size is kept at its own size.
+     *
+     * @return JPEG bytes keyed by size, or an empty map if the image cannot be decoded
+     */
+    public Map<Integer, byte[]> createRenditions(byte[] imageBytes, List<Integer> sizes, float quality)
+            throws IOException {
+        Map<Integer, byte[]> renditions = new LinkedHashMap<>();
+        if (imageBytes == null || imageBytes.length == 0 || sizes.isEmpty())
+            return renditions;
+
+        List<Integer> descending = new ArrayList<>(sizes);
+        descending.sort(Comparator.reverseOrder());
+
+        BufferedImage current = decodeCompressed(imageBytes, descending.get(0), descending.get(0));
+        if (current == null) {
+            log.warn("Failed to decode image for renditions");
+            return renditions;
+        }
+
+        for (Integer size : descending) {
+            if (Math.max(current.getWidth(), current.getHeight()) > size || current.getType() != BufferedImage.TYPE_INT_RGB) {
+                // JPEG has no alpha channel, so every rendition is drawn as opaque RGB
+                current = Thumbnails.of(current)
+                        .size(Math.min(size, current.getWidth()), Math.min(size, current.getHeight()))
+                        .keepAspectRatio(true)
+                        .imageType(BufferedImage.TYPE_INT_RGB)
+                        .asBufferedImage();
+            }
+            renditions.put(size, compressWithFixedQuality(current, quality));
+        }
+        return renditions;
+    }
+
+    /**
+     * 64-bit perceptual hash (pHash) of an image
+     *
+     * The image is decoded with subsampling, box-averaged to a 32x32 grey grid and
+     * transformed with a DCT. Each bit tells whether one of the 8x8 lowest-frequency
+     * coefficients is above their median, so re-encoding, resizing and small edits
+     * flip few bits and similar images are close in Hamming distance.
+     *
+     * @return the hash, or null if the image cannot be decoded
+     */
+    public Long perceptualHash(Path source) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(source.toFile())) {
+            return perceptualHash(decodeCompressed(iis, HASH_DECODE_SIZE, HASH_DECODE_SIZE));
+        }
+    }
+
+    public Long perceptualHash(byte[] imageBytes) throws IOException {
+        if (imageBytes == null || imageBytes.length == 0)
+            return null;
+        return perceptualHash(decodeCompressed(imageBytes, HASH_DECODE_SIZE, HASH_DECODE_SIZE));
+    }
+
+    private static Long perceptualHash(BufferedImage image) {
+        if (image == null)
+            return null;
+
+        double[][] grey = greyGrid(image);
+
+        // Separable DCT-II, only the low frequencies are needed
+        double[][] rows = new double[HASH_FREQUENCIES][HASH_GRID];
+        for (int u = 0; u < HASH_FREQUENCIES; u++) {
+            for (int y = 0; y < HASH_GRID; y++) {
+                double sum = 0;
+                for (int x = 0; x < HASH_GRID; x++) {
+                    sum += HASH_DCT[u][x] * grey[y][x];
+                }
+                rows[u][y] = sum;
+            }
+        }
+        double[] coefficients = new double[HASH_FREQUENCIES * HASH_FREQUENCIES];
+        for (int u = 0; u < HASH_FREQUENCIES; u++) {
+            for (int v = 0; v < HASH_FREQUENCIES; v++) {
+                double sum = 0;
+                for (int y = 0; y < HASH_GRID; y++) {
+                    sum += HASH_DCT[v][y] * rows[u][y];
+                }
+                coefficients[v * HASH_FREQUENCIES + u] = sum;
+            }
+        }
+
+        // The DC term is the average brightness, which would dominate the median
+        double[] ac = Arrays.copyOfRange(coefficients, 1, coefficients.length);
+        Arrays.sort(ac);
+        double median = ac[ac.length / 2];
+
+        long hash = 0;
+        for (int i = 0; i < coefficients.length; i++) {
+            if (coefficients[i] > median) {
+                hash |= 1L << i;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Average luminance of each cell of a 32x32 grid over the image
+     */
+    private static double[][] greyGrid(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+
+        double[][] grey = new double[HASH_GRID][HASH_GRID];
+        for (int gy = 0; gy < HASH_GRID; gy++) {
+            int y0 = gy * height / HASH_GRID;
+            int y1 = Math.max(y0 + 1, (gy + 1) * height / HASH_GRID);
+            for (int gx = 0; gx < HASH_GRID; gx++) {
+                int x0 = gx * width / HASH_GRID;
+                int x1 = Math.max(x0 + 1, (gx + 1) * width / HASH_GRID);
+                double sum = 0;
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        int rgb = pixels[y * width + x];
+                        sum += 0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF);
+                    }
+                }
+                grey[gy][gx] = sum / ((y1 - y0) * (x1 - x0));
+            }
+        }
+        return grey;
+    }
+
+    private static double[][] hashDctTable() {
+        double[][] table = new double[HASH_FREQUENCIES][HASH_GRID];
+        for (int u = 0; u < HASH_FREQUENCIES; u++) {
+            for (int x = 0; x < HASH_GRID; x++) {
+                table[u][x] = Math.cos((2 * x + 1) * u * Math.PI / (2 * HASH_GRID));
+            }
+        }
+        return table;
     }
 
     private byte[] compressWithFixedQuality(BufferedImage image, float quality) throws IOException {
@@ -214,26 +692,14 @@ public class ImageOptimizationService {
      */
     public byte[] compressPdf(byte[] originalPdfBytes) throws IOException {
 
-        long thresholdBytes = 100 * 1024;
-        if (originalPdfBytes.length < thresholdBytes) {
+        if (originalPdfBytes.length < PDF_THRESHOLD_BYTES) {
             return originalPdfBytes;
         }
 
         try (ByteArrayInputStream inputStream = new ByteArrayInputStream(originalPdfBytes);
                 ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
 
-            PdfReader reader = new PdfReader(inputStream);
-            WriterProperties writerProps = new WriterProperties()
-                    .setCompressionLevel(9)
-                    .setFullCompressionMode(true);
-
-            PdfWriter writer = new PdfWriter(outputStream, writerProps);
-            PdfDocument pdfDoc = new PdfDocument(reader, writer);
-
-            long targetImageSize = 300 * 1024;
-            optimizePdfImages(pdfDoc, targetImageSize);
-
-            pdfDoc.close();
+            rewritePdf(new PdfReader(inputStream), outputStream);
 
             byte[] compressedBytes = outputStream.toByteArray();
             log.info("PDF compressed from {}KB to {}KB", originalPdfBytes.length / 1024, compressedBytes.length / 1024);
@@ -248,18 +714,138 @@ public class ImageOptimizationService {
         }
     }
 
+    /**
+     * Compress a PDF file into {@code target}
+     * iText reads the source through a random-access file source and the result is
+     * written straight to disk, so neither PDF is held on the heap
+     *
+     * @return true if {@code target} holds a smaller PDF, false if the source should be kept
+     */
+    public boolean compressPdf(Path source, Path target) throws IOException {
+        long originalSize = Files.size(source);
+        if (originalSize < PDF_THRESHOLD_BYTES) {
+            return false;
+        }
+
+        try (OutputStream outputStream = Files.newOutputStream(target)) {
+            rewritePdf(new PdfReader(source.toString()), outputStream);
+        } catch (Exception e) {
+            log.error("Error during PDF compression", e);
+            throw new IOException("PDF Compression failed", e);
+        }
+
+        long compressedSize = Files.size(target);
+        log.info("PDF compressed from {}KB to {}KB", originalSize / 1024, compressedSize / 1024);
+        return compressedSize < originalSize;
+    }
+
+    private void rewritePdf(PdfReader reader, OutputStream outputStream) throws IOException {
+        long decodeStart = System.nanoTime();
+        WriterProperties writerProps = new WriterProperties()
+                .setCompressionLevel(9)
+                .setFullCompressionMode(true);
+
+        PdfWriter writer = new PdfWriter(outputStream, writerProps);
+        PdfDocument pdfDoc = new PdfDocument(reader, writer);
+        pipelineMetrics.recordStage(DocumentPipelineMetrics.DECODE, DocumentPipelineMetrics.PDF,
+                System.nanoTime() - decodeStart);
+
+        long encodeStart = System.nanoTime();
+        long targetImageSize = 300 * 1024;
+        optimizePdfImages(pdfDoc, targetImageSize);
+
+        pdfDoc.close();
+        pipelineMetrics.recordStage(DocumentPipelineMetrics.ENCODE, DocumentPipelineMetrics.PDF,
+                System.nanoTime() - encodeStart);
+    }
+
+    /**
+     * Recompress the images embedded in a PDF on the {@code pdfImageExecutor}
+     *
+     * iText documents are not thread safe, so everything that touches {@code pdfDoc}
+     * (walking the pages, reading image streams, replacing XObjects) stays on the
+     * calling thread; only decoding, scaling and JPEG encoding run in parallel. The
+     * calling thread reads an image only once a permit is free, and a permit is held
+     * until the recompressed image has been written out, which caps the raw, decoded
+     * and recompressed images in memory at {@code pdf.max-images-in-flight}. While it
+     * waits for a permit, the calling thread writes out the images that have finished.
+     * An image shared by several pages is recompressed once and replaced everywhere
+     * it is used.
+     */
     private void optimizePdfImages(PdfDocument pdfDoc, long targetImageSize) {
+        Map<PdfStream, List<PdfImageSlot>> images = collectPdfImages(pdfDoc);
+        Semaphore inFlight = new Semaphore(documentProperties.getPdf().resolveMaxImagesInFlight());
+        List<PendingPdfImage> pending = new ArrayList<>();
+
+        for (Map.Entry<PdfStream, List<PdfImageSlot>> entry : images.entrySet()) {
+            while (!inFlight.tryAcquire()) {
+                // Every permit is held by a pending image, so one finishing frees a permit
+                CompletableFuture.anyOf(pending.stream().map(PendingPdfImage::result).toArray(CompletableFuture[]::new))
+                        .exceptionally(error -> null)
+                        .join();
+                replaceFinishedPdfImages(pdfDoc, pending, inFlight);
+            }
+            byte[] imageBytes = readPdfImage(entry.getKey());
+            if (imageBytes == null || imageBytes.length < targetImageSize) {
+                inFlight.release();
+                continue;
+            }
+
+            CompletableFuture<byte[]> result;
+            try {
+                result = CompletableFuture.supplyAsync(() -> recompressPdfImage(imageBytes), pdfImageExecutor);
+            } catch (RejectedExecutionException e) {
+                inFlight.release();
+                log.warn("PDF image pool is full, image left as is");
+                continue;
+            }
+            pending.add(new PendingPdfImage(entry.getValue(), imageBytes.length, result));
+        }
+
+        for (PendingPdfImage image : pending) {
+            replacePdfImage(pdfDoc, image);
+        }
+    }
+
+    /**
+     * Write out the pending images whose recompression has finished and drop them,
+     * releasing their permits
+     */
+    private void replaceFinishedPdfImages(PdfDocument pdfDoc, List<PendingPdfImage> pending, Semaphore inFlight) {
+        Iterator<PendingPdfImage> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            PendingPdfImage image = iterator.next();
+            if (image.result().isDone()) {
+                iterator.remove();
+                replacePdfImage(pdfDoc, image);
+                inFlight.release();
+            }
+        }
+    }
+
+    /**
+     * Image XObjects of every page, including those nested in form XObjects, with
+     * each place they are referenced from
+     */
+    private Map<PdfStream, List<PdfImageSlot>> collectPdfImages(PdfDocument pdfDoc) {
+        Map<PdfStream, List<PdfImageSlot>> images = new IdentityHashMap<>();
+        Set<PdfDictionary> visited = Collections.newSetFromMap(new IdentityHashMap<>());
         int numberOfPages = pdfDoc.getNumberOfPages();
         for (int i = 1; i <= numberOfPages; i++) {
             PdfPage page = pdfDoc.getPage(i);
             PdfDictionary resources = page.getResources().getResource(PdfName.XObject);
             if (resources != null) {
-                optimizePdfDictionary(resources, targetImageSize);
+                collectPdfDictionary(resources, images, visited);
             }
         }
+        return images;
     }
 
-    private void optimizePdfDictionary(PdfDictionary resources, long targetImageSize) {
+    private void collectPdfDictionary(PdfDictionary resources, Map<PdfStream, List<PdfImageSlot>> images,
+            Set<PdfDictionary> visited) {
+        if (!visited.add(resources)) {
+            return;
+        }
         Set<PdfName> keys = new HashSet<>(resources.keySet());
         for (PdfName key : keys) {
             PdfObject obj = resources.get(key);
@@ -272,13 +858,13 @@ public class ImageOptimizationService {
                 PdfName subtype = stream.getAsName(PdfName.Subtype);
 
                 if (PdfName.Image.equals(subtype)) {
-                    optimizeSinglePdfImage(stream, resources, key, targetImageSize);
+                    images.computeIfAbsent(stream, s -> new ArrayList<>()).add(new PdfImageSlot(resources, key));
                 } else if (PdfName.Form.equals(subtype)) {
                     PdfDictionary formResources = stream.getAsDictionary(PdfName.Resources);
                     if (formResources != null) {
                         PdfDictionary formXObjects = formResources.getAsDictionary(PdfName.XObject);
                         if (formXObjects != null) {
-                            optimizePdfDictionary(formXObjects, targetImageSize);
+                            collectPdfDictionary(formXObjects, images, visited);
                         }
                     }
                 }
@@ -286,36 +872,64 @@ public class ImageOptimizationService {
         }
     }
 
-    private void optimizeSinglePdfImage(PdfStream stream, PdfDictionary resources, PdfName key, long targetSize) {
+    private byte[] readPdfImage(PdfStream stream) {
         try {
-            PdfImageXObject imageXObject = new PdfImageXObject(stream);
-            byte[] imageBytes = imageXObject.getImageBytes();
-
-            if (imageBytes == null || imageBytes.length < targetSize)
-                return;
+            return new PdfImageXObject(stream).getImageBytes();
+        } catch (Exception e) {
+            log.warn("Failed to read PDF image: {}", e.getMessage());
+            return null;
+        }
+    }
 
-            BufferedImage bi = imageXObject.getBufferedImage();
+    /**
+     * Decode, downscale and re-encode one embedded image; runs on the pool
+     *
+     * @return the JPEG, or null if the image could not be decoded
+     */
+    private byte[] recompressPdfImage(byte[] imageBytes) {
+        try {
+            BufferedImage bi = ImageIO.read(new ByteArrayInputStream(imageBytes));
             if (bi == null)
-                return;
+                return null;
 
-            if (bi.getWidth() > 1800 || bi.getHeight() > 1800) {
-                bi = Thumbnails.of(bi).size(1800, 1800).asBufferedImage();
+            if (bi.getWidth() > PDF_IMAGE_MAX_DIMENSION || bi.getHeight() > PDF_IMAGE_MAX_DIMENSION) {
+                bi = Thumbnails.of(bi).size(PDF_IMAGE_MAX_DIMENSION, PDF_IMAGE_MAX_DIMENSION).asBufferedImage();
             }
+            return compressWithFixedQuality(bi, PDF_IMAGE_QUALITY);
+        } catch (Exception e) {
+            log.warn("Failed to optimize PDF image: {}", e.getMessage());
+            return null;
+        }
+    }
 
-            byte[] compressedBytes = compressWithFixedQuality(bi, 0.75f);
+    private void replacePdfImage(PdfDocument pdfDoc, PendingPdfImage image) {
+        byte[] compressedBytes;
+        try {
+            compressedBytes = image.result().join();
+        } catch (CompletionException e) {
+            log.warn("Failed to optimize PDF image: {}", e.getMessage());
+            return;
+        }
 
-            if (compressedBytes.length < imageBytes.length) {
-                ImageData newData = ImageDataFactory.create(compressedBytes);
-                PdfImageXObject newXObject = new PdfImageXObject(newData);
-                resources.put(key, newXObject.getPdfObject());
-                log.debug("Optimized PDF embedding: {}KB -> {}KB", imageBytes.length / 1024,
-                        compressedBytes.length / 1024);
+        if (compressedBytes != null && compressedBytes.length < image.originalSize()) {
+            PdfStream replacement = new PdfImageXObject(ImageDataFactory.create(compressedBytes)).getPdfObject();
+            replacement.makeIndirect(pdfDoc);
+            for (PdfImageSlot slot : image.slots()) {
+                slot.resources().put(slot.key(), replacement);
             }
-        } catch (Exception e) {
-            log.warn("Failed to optimize PDF image: {}", e.getMessage());
+            // Written to the output now rather than when the document closes
+            replacement.flush();
+            log.debug("Optimized PDF embedding: {}KB -> {}KB", image.originalSize() / 1024,
+                    compressedBytes.length / 1024);
         }
     }
 
+    private record PdfImageSlot(PdfDictionary resources, PdfName key) {
+    }
+
+    private record PendingPdfImage(List<PdfImageSlot> slots, int originalSize, CompletableFuture<byte[]> result) {
+    }
+
     /**
      * Check if processing is needed
      */
@@ -0,0 +1,15 @@
+-- V12__create_cache_invalidation_log.sql
+-- Shared log used by the JDBC cache invalidation bus
+-- Each node appends its evictions and polls for rows written by other nodes
+
+CREATE TABLE cache_invalidation_log (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    cache_name VARCHAR(100) NOT NULL,
+    cache_key VARCHAR(255) NULL,
+    origin_node VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    INDEX idx_cache_invalidation_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+ALTER TABLE cache_invalidation_log COMMENT = 'Cross-node cache invalidation messages, purged after the retention window';
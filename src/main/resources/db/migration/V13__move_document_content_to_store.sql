@@ -0,0 +1,10 @@
+-- V13__move_document_content_to_store.sql
+-- Document content moves out of MySQL into the content store
+-- file_data becomes nullable: new uploads only set content_key, and the blob
+-- migrator clears file_data once a row's content has been copied to the store
+
+ALTER TABLE document MODIFY COLUMN file_data MEDIUMBLOB NULL;
+
+ALTER TABLE document ADD COLUMN content_key VARCHAR(64) NULL;
+
+CREATE INDEX idx_document_content_key ON document (content_key);
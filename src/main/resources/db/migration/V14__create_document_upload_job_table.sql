@@ -0,0 +1,21 @@
+-- V14__create_document_upload_job_table.sql
+-- Uploads accepted into the asynchronous document processing queue
+-- Clients poll a row through its status URL; finished rows are purged after the retention window
+
+CREATE TABLE document_upload_job (
+    job_id VARCHAR(36) NOT NULL PRIMARY KEY,
+    user_id INT NOT NULL,
+    document_type VARCHAR(50) NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    original_size BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    document_id INT NULL,
+    error_message VARCHAR(500) NULL,
+    created_at DATETIME(6) NOT NULL,
+    started_at DATETIME(6) NULL,
+    completed_at DATETIME(6) NULL,
+
+    INDEX idx_upload_job_user (user_id),
+    INDEX idx_upload_job_status_created (status, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,31 @@
+-- V15__add_upload_dedup_and_content_references.sql
+-- Reference counts for stored document content, and the index of processed uploads
+-- used to skip reprocessing an upload that has been seen with the same settings
+
+CREATE TABLE document_content_reference (
+    content_key VARCHAR(64) NOT NULL PRIMARY KEY,
+    reference_count INT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Count the references of content stored before this migration
+INSERT INTO document_content_reference (content_key, reference_count)
+SELECT content_key, COUNT(*)
+FROM document
+WHERE content_key IS NOT NULL
+GROUP BY content_key;
+
+CREATE TABLE processed_upload (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    original_hash VARCHAR(64) NOT NULL,
+    settings_hash VARCHAR(64) NOT NULL,
+    content_key VARCHAR(64) NOT NULL,
+    original_size BIGINT NOT NULL,
+    processed_size BIGINT NOT NULL,
+    processing_type VARCHAR(50) NOT NULL,
+    hit_count BIGINT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    last_hit_at DATETIME(6) NULL,
+
+    UNIQUE KEY uk_processed_upload_original_settings (original_hash, settings_hash),
+    INDEX idx_processed_upload_content (content_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,8 @@
+-- V16__add_document_perceptual_hash.sql
+-- 64-bit perceptual hash of image documents, loaded into the in-memory duplicate photo
+-- index. Existing images are hashed in the background after deployment; images that
+-- cannot be decoded get perceptual_hash_failed_at so they are not decoded again.
+
+ALTER TABLE document
+    ADD COLUMN perceptual_hash BIGINT NULL,
+    ADD COLUMN perceptual_hash_failed_at DATETIME NULL;
@@ -0,0 +1,5 @@
+-- V17__add_user_profile_updated_at_index.sql
+-- The profile search index polls for profiles updated since its last sync, including
+-- soft-deleted ones; this keeps that poll off a full table scan.
+
+CREATE INDEX idx_user_profile_updated_at ON user_profile (updated_at);
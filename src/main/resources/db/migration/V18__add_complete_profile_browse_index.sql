@@ -0,0 +1,5 @@
+-- V18__add_complete_profile_browse_index.sql
+-- Cursor-paged public browsing seeks on (completeness_score, updated_at, complete_profile_id)
+-- in descending order; this index serves both the seek and the order without a filesort.
+
+CREATE INDEX idx_complete_profile_browse ON complete_profile (completeness_score, updated_at, complete_profile_id);
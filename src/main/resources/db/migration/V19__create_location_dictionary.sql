@@ -0,0 +1,44 @@
+-- V19__create_location_dictionary.sql
+-- Normalised country > state > district > city hierarchy with aliases, and the location ids
+-- resolved from the free-text address of contact details and the district and current city
+-- of profiles. Existing rows are resolved by the location backfill job after deployment.
+
+CREATE TABLE IF NOT EXISTS location (
+    location_id INT AUTO_INCREMENT PRIMARY KEY,
+    location_type VARCHAR(20) NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    normalized_name VARCHAR(100) NOT NULL,
+    parent_id INT NULL,
+    -- parent_id with 0 for top-level places, so the unique key also covers countries
+    parent_key INT AS (COALESCE(parent_id, 0)) STORED NOT NULL,
+    country_id INT NULL,
+    state_id INT NULL,
+    district_id INT NULL,
+    verified BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at DATETIME NOT NULL,
+    CONSTRAINT uk_location_parent_name UNIQUE (location_type, parent_key, normalized_name),
+    INDEX idx_location_normalized_name (normalized_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS location_alias (
+    location_alias_id INT AUTO_INCREMENT PRIMARY KEY,
+    location_id INT NOT NULL,
+    normalized_alias VARCHAR(100) NOT NULL,
+    CONSTRAINT uk_location_alias UNIQUE (location_id, normalized_alias)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+ALTER TABLE contact_details
+    ADD COLUMN city_location_id INT NULL,
+    ADD COLUMN state_location_id INT NULL,
+    ADD COLUMN country_location_id INT NULL;
+
+CREATE INDEX idx_contact_details_city_location ON contact_details (city_location_id);
+CREATE INDEX idx_contact_details_state_location ON contact_details (state_location_id);
+CREATE INDEX idx_contact_details_country_location ON contact_details (country_location_id);
+
+ALTER TABLE user_profile
+    ADD COLUMN district_location_id INT NULL,
+    ADD COLUMN current_city_location_id INT NULL;
+
+CREATE INDEX idx_profile_district_location ON user_profile (district_location_id);
+CREATE INDEX idx_profile_city_location ON user_profile (current_city_location_id);
@@ -0,0 +1,16 @@
+-- V20__create_match_notification.sql
+-- "New match for you" notifications, written when a profile becomes active or changes and
+-- satisfies another user's partner preference. Each matched user is announced to a
+-- recipient once.
+
+CREATE TABLE IF NOT EXISTS match_notification (
+    match_notification_id INT AUTO_INCREMENT PRIMARY KEY,
+    recipient_user_id INT NOT NULL,
+    partner_preference_id INT NOT NULL,
+    matched_user_id INT NOT NULL,
+    matched_profile_id INT NOT NULL,
+    seen BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at DATETIME NOT NULL,
+    CONSTRAINT uk_match_notification_pair UNIQUE (recipient_user_id, matched_user_id),
+    INDEX idx_match_notification_recipient (recipient_user_id, match_notification_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
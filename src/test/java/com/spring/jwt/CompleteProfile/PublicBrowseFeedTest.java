@@ -0,0 +1,123 @@
+package com.spring.jwt.CompleteProfile;
+
+import com.spring.jwt.CompleteProfile.dto.CompleteProfileResponse;
+import com.spring.jwt.entity.CompleteProfile;
+import com.spring.jwt.entity.User;
+import com.spring.jwt.utils.CacheUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Public Browse Feed Tests")
+public class PublicBrowseFeedTest
+{
+
+    private final List<PublicBrowseEntry> publicProfiles = new ArrayList<>();
+    private final List<Integer> hidden = new ArrayList<>();
+    private CompleteProfileRepository repository;
+    private CacheUtils cacheUtils;
+    private PublicBrowseFeed feed;
+
+    @BeforeEach
+    void setUp()
+    {
+        repository = mock(CompleteProfileRepository.class);
+        CompleteProfileMapper mapper = mock(CompleteProfileMapper.class);
+        when(repository.findPublicBrowseEntries()).thenAnswer(invocation -> List.copyOf(publicProfiles));
+        when(repository.findPublicProfilesByIds(anyCollection())).thenAnswer(invocation ->
+        {
+            Collection<Integer> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> !hidden.contains(id)).map(PublicBrowseFeedTest::profile).toList();
+        });
+        when(mapper.toPublicResponse(any(CompleteProfile.class))).thenAnswer(invocation ->
+        {
+            CompleteProfile profile = invocation.getArgument(0);
+            CompleteProfileResponse response = new CompleteProfileResponse();
+            response.setCompleteProfileId(profile.getCompleteProfileId());
+            response.setUserId(profile.getUser().getId());
+            return response;
+        });
+        cacheUtils = new CacheUtils(new ConcurrentMapCacheManager());
+        feed = new PublicBrowseFeed(repository, mapper, cacheUtils, mock(PlatformTransactionManager.class), 2);
+
+        for (int id = 1; id <= 10; id++)
+        {
+            publicProfiles.add(new PublicBrowseEntry(id, 100 + id));
+        }
+    }
+
+    @Test
+    @DisplayName("Should page through one snapshot without duplicates while the order changes")
+    void shouldPageThroughOneSnapshot()
+    {
+        PublicBrowseSnapshot snapshot = feed.current();
+        List<Integer> seen = new ArrayList<>(ids(feed.cards(snapshot.slice(0, 4))));
+
+        // Profile 10 moves to the top and a new profile appears before the next page is read
+        publicProfiles.add(0, publicProfiles.remove(9));
+        publicProfiles.add(0, new PublicBrowseEntry(11, 111));
+        feed.rebuild();
+
+        PublicBrowseSnapshot same = feed.snapshot(snapshot.getVersion());
+        seen.addAll(ids(feed.cards(same.slice(4, 4))));
+        seen.addAll(ids(feed.cards(same.slice(8, 4))));
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), seen);
+        assertEquals(11, feed.current().size());
+        assertEquals(List.of(11, 10), ids(feed.cards(feed.current().slice(0, 2))));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the current snapshot once a cursor's snapshot is dropped")
+    void shouldFallBackToCurrentSnapshot()
+    {
+        long first = feed.current().getVersion();
+        feed.rebuild();
+        feed.rebuild();
+
+        assertNotEquals(first, feed.snapshot(first).getVersion());
+        assertSame(feed.current(), feed.snapshot(first));
+    }
+
+    @Test
+    @DisplayName("Should load only uncached cards, in one query, and skip profiles hidden since the snapshot")
+    void shouldLoadMissingCardsInBulk()
+    {
+        PublicBrowseSnapshot snapshot = feed.current();
+        feed.cards(snapshot.slice(0, 3));
+        verify(repository, times(1)).findPublicProfilesByIds(List.of(1, 2, 3));
+
+        cacheUtils.evict(CacheUtils.CacheNames.PUBLIC_BROWSE, PublicBrowseFeed.CARD_KEY_PREFIX + 102);
+        hidden.add(2);
+        hidden.add(4);
+
+        assertEquals(List.of(1, 3, 5), ids(feed.cards(snapshot.slice(0, 5))));
+        verify(repository, times(1)).findPublicProfilesByIds(List.of(2, 4, 5));
+    }
+
+    private static List<Integer> ids(List<CompleteProfileResponse> cards)
+    {
+        return cards.stream().map(CompleteProfileResponse::getCompleteProfileId).toList();
+    }
+
+    private static CompleteProfile profile(Integer completeProfileId)
+    {
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(100 + completeProfileId);
+        CompleteProfile profile = new CompleteProfile();
+        profile.setCompleteProfileId(completeProfileId);
+        profile.setUser(user);
+        return profile;
+    }
+}
@@ -0,0 +1,120 @@
+package com.spring.jwt.Document;
+
+import com.spring.jwt.Enums.DocumentType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the document listing queries through Hibernate against a stubbed JDBC
+ * connection and inspects the generated SQL, so no database is needed.
+ */
+@DisplayName("Document Listing Query Tests")
+public class DocumentListingQueryTest {
+
+    private static final List<String> executedSql = new CopyOnWriteArrayList<>();
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static DocumentRepository documentRepository;
+
+    @BeforeAll
+    static void setUpPersistence() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class, RETURNS_DEEP_STUBS);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.dialect", "org.hibernate.dialect.MySQLDialect");
+        properties.put("hibernate.temp.use_jdbc_metadata_defaults", false);
+        properties.put("hibernate.hbm2ddl.auto", "none");
+        properties.put("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName());
+        properties.put("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName());
+        properties.put("hibernate.session_factory.statement_inspector", (StatementInspector) sql -> {
+            executedSql.add(sql);
+            return sql;
+        });
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.spring.jwt");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(properties);
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        documentRepository = new JpaRepositoryFactory(entityManager).getRepository(DocumentRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (entityManagerFactory != null) {
+            entityManagerFactory.close();
+        }
+    }
+
+    @BeforeEach
+    void clearCapturedSql() {
+        executedSql.clear();
+    }
+
+    @Test
+    @DisplayName("Listing a user's documents does not select the blob column")
+    void listingByUserSelectsNoBlob() {
+        documentRepository.findSummariesByUserId(1);
+
+        assertSelectsWithoutBlob();
+    }
+
+    @Test
+    @DisplayName("Listing documents by type does not select the blob column")
+    void listingByTypesSelectsNoBlob() {
+        documentRepository.findSummariesByUserIdAndDocumentTypes(1, List.of(DocumentType.PROFILE_PHOTO));
+
+        assertSelectsWithoutBlob();
+    }
+
+    @Test
+    @DisplayName("Loading a document entity leaves its inline content unloaded")
+    void entityLoadSelectsNoBlob() {
+        documentRepository.findByUserIdAndDocumentType(1, DocumentType.PROFILE_PHOTO);
+
+        assertSelectsWithoutBlob();
+    }
+
+    @Test
+    @DisplayName("Inline content is only selected by the explicit content query")
+    void explicitContentQuerySelectsBlob() {
+        documentRepository.findInlineContent(1);
+
+        assertTrue(executedSql.stream().anyMatch(sql -> sql.contains("file_data")), executedSql.toString());
+    }
+
+    private static void assertSelectsWithoutBlob() {
+        assertFalse(executedSql.isEmpty(), "Expected a query to be executed");
+        executedSql.forEach(sql -> assertFalse(sql.contains("file_data"), sql));
+    }
+}
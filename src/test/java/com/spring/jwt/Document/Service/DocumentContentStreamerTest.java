@@ -0,0 +1,132 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.domain.DocumentContent;
+import com.spring.jwt.config.DocumentProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Document Content Streaming Tests")
+public class DocumentContentStreamerTest {
+
+    private static final String KEY = "a".repeat(64);
+    private static final String ETAG = "\"" + KEY + "\"";
+
+    @TempDir
+    Path tempDir;
+
+    private DocumentContentStreamer streamer;
+    private DocumentContent content;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        streamer = new DocumentContentStreamer(new DocumentProperties());
+        Path file = Files.writeString(tempDir.resolve(KEY), "0123456789", StandardCharsets.US_ASCII);
+        content = DocumentContent.builder()
+                .documentId(1)
+                .fileName("photo.jpg")
+                .contentType("image/jpeg")
+                .contentKey(KEY)
+                .contentLength(10)
+                .lastModified(LocalDateTime.now())
+                .file(file)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Full download streams the file with ETag and caching headers")
+    void fullDownload() throws Exception {
+        MockHttpServletResponse response = stream(new MockHttpServletRequest("GET", "/"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals(ETAG, response.getHeader("ETag"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals("private, no-cache", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    @DisplayName("Range request returns 206 with only the requested bytes")
+    void rangeRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=2-5");
+
+        MockHttpServletResponse response = stream(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals(4, response.getContentLengthLong());
+    }
+
+    @Test
+    @DisplayName("Suffix range returns the last bytes of inline content")
+    void suffixRangeOnInlineContent() throws Exception {
+        DocumentContent inline = DocumentContent.builder()
+                .documentId(1).fileName("a.pdf").contentType("application/pdf").contentKey(KEY)
+                .contentLength(10).inlineData("0123456789".getBytes(StandardCharsets.US_ASCII))
+                .build();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        streamer.stream(inline, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("789", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Matching If-None-Match returns 304 without a body")
+    void notModified() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-None-Match", "\"other\", " + ETAG);
+
+        MockHttpServletResponse response = stream(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(ETAG, response.getHeader("ETag"));
+    }
+
+    @Test
+    @DisplayName("Range beyond the end returns 416")
+    void unsatisfiableRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=20-");
+
+        MockHttpServletResponse response = stream(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    @DisplayName("Stale If-Range falls back to the full content")
+    void staleIfRangeIgnoresRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=2-5");
+        request.addHeader("If-Range", "\"old\"");
+
+        MockHttpServletResponse response = stream(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    private MockHttpServletResponse stream(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        streamer.stream(content, request, response);
+        return response;
+    }
+}
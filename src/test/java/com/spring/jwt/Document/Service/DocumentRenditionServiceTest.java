@@ -0,0 +1,132 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.domain.DocumentContent;
+import com.spring.jwt.Document.domain.ImageRendition;
+import com.spring.jwt.Document.storage.LocalFileSystemContentStore;
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.entity.Document;
+import com.spring.jwt.utils.ImageOptimizationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Document Rendition Service Tests")
+public class DocumentRenditionServiceTest {
+
+    @TempDir
+    Path root;
+
+    private LocalFileSystemContentStore store;
+    private DocumentRenditionService renditionService;
+
+    @BeforeEach
+    void setUp() {
+        DocumentProperties properties = new DocumentProperties();
+        properties.getStorage().setRootDirectory(root.toString());
+        store = new LocalFileSystemContentStore(properties);
+        renditionService = new DocumentRenditionService(store, new ImageOptimizationService(properties,
+                new DocumentPipelineMetrics(new SimpleMeterRegistry()), Runnable::run),
+                properties, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Each rendition is a JPEG bounded by its size, stored next to the original")
+    void generatesAllSizes() throws IOException {
+        String key = store.put(png(2000, 1000));
+
+        assertEquals(3, renditionService.generate(key));
+
+        assertLongestEdge(64, store.getVariant(key, "thumbnail").orElseThrow());
+        assertLongestEdge(256, store.getVariant(key, "card").orElseThrow());
+        assertLongestEdge(1024, store.getVariant(key, "full").orElseThrow());
+        assertTrue(Files.isRegularFile(store.resolve(key).resolveSibling(key + ".card")));
+        assertEquals(0, renditionService.generate(key));
+    }
+
+    @Test
+    @DisplayName("Images smaller than a rendition are not upscaled")
+    void smallImagesAreNotUpscaled() throws IOException {
+        String key = store.put(png(100, 50));
+
+        renditionService.generate(key);
+
+        assertLongestEdge(64, store.getVariant(key, "thumbnail").orElseThrow());
+        assertLongestEdge(100, store.getVariant(key, "full").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("A missing rendition is generated on first request and served afterwards")
+    void missingRenditionIsScheduled() throws IOException {
+        Document document = document(store.put(png(600, 400)), "image/png");
+
+        assertTrue(renditionService.findRendition(document, ImageRendition.CARD).isEmpty());
+
+        Optional<DocumentContent> card = renditionService.findRendition(document, ImageRendition.CARD);
+        assertTrue(card.isPresent());
+        assertTrue(card.get().isFileBacked());
+        assertEquals("image/jpeg", card.get().getContentType());
+        assertEquals("photo-card.jpg", card.get().getFileName());
+        assertNotEquals(document.getContentKey(), card.get().getContentKey());
+    }
+
+    @Test
+    @DisplayName("Documents that are not images have no renditions")
+    void nonImagesHaveNoRenditions() {
+        Document document = document(store.put("%PDF-1.4".getBytes()), "application/pdf");
+
+        assertTrue(renditionService.findRendition(document, ImageRendition.THUMBNAIL).isEmpty());
+        assertFalse(store.variantExists(document.getContentKey(), "thumbnail"));
+    }
+
+    @Test
+    @DisplayName("Deleting the original removes its renditions")
+    void deleteRemovesRenditions() throws IOException {
+        String key = store.put(png(300, 300));
+        renditionService.generate(key);
+
+        store.delete(key);
+
+        assertFalse(store.exists(key));
+        for (ImageRendition rendition : ImageRendition.values()) {
+            assertFalse(store.variantExists(key, rendition.variantName()));
+        }
+    }
+
+    private static Document document(String contentKey, String contentType) {
+        return Document.builder()
+                .documentId(7)
+                .fileName("photo.png")
+                .contentType(contentType)
+                .contentKey(contentKey)
+                .build();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x++) {
+            image.setRGB(x, x * height / width, 0xFF3366CC);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static void assertLongestEdge(int expected, byte[] jpeg) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(jpeg));
+        assertNotNull(image, "rendition is not a readable image");
+        assertEquals(expected, Math.max(image.getWidth(), image.getHeight()));
+    }
+}
@@ -0,0 +1,177 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.DocumentRepository;
+import com.spring.jwt.Document.DocumentUploadJobRepository;
+import com.spring.jwt.Document.domain.FileProcessingResult;
+import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.entity.Document;
+import com.spring.jwt.entity.DocumentUploadJob;
+import com.spring.jwt.entity.Enums.UploadStatus;
+import com.spring.jwt.exception.DocumentProcessingException;
+import com.spring.jwt.exception.UploadQueueFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Document Upload Queue Tests")
+public class DocumentUploadQueueTest {
+
+    @Mock
+    private DocumentUploadJobRepository jobRepository;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentServiceHelper documentServiceHelper;
+
+    @Mock
+    private FileValidationService fileValidationService;
+
+    @Mock
+    private DocumentSecurityService documentSecurityService;
+
+    @Mock
+    private UploadDeduplicationService uploadDeduplicationService;
+
+    @Mock
+    private ThreadPoolTaskExecutor uploadExecutor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path root;
+
+    private final Map<String, DocumentUploadJob> jobs = new HashMap<>();
+    private SimpleMeterRegistry meterRegistry;
+    private DocumentUploadQueue queue;
+
+    private final MockMultipartFile file =
+            new MockMultipartFile("file", "photo.jpg", "image/jpeg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 1});
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        DocumentProperties properties = new DocumentProperties();
+        properties.getStorage().setRootDirectory(root.toString());
+        queue = new DocumentUploadQueue(jobRepository, documentRepository, documentServiceHelper,
+                fileValidationService, documentSecurityService, uploadDeduplicationService,
+                new UploadStagingService(properties), new DocumentPipelineMetrics(meterRegistry), properties,
+                uploadExecutor, transactionManager);
+
+        when(documentSecurityService.canUploadDocument(anyInt(), any())).thenReturn(true);
+        when(uploadExecutor.getQueueCapacity()).thenReturn(2);
+        when(jobRepository.save(any(DocumentUploadJob.class))).thenAnswer(invocation -> {
+            DocumentUploadJob job = invocation.getArgument(0);
+            jobs.put(job.getJobId(), job);
+            return job;
+        });
+        when(jobRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(jobs.get(invocation.getArgument(0))));
+        // Run queued work inline
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(uploadExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("A full queue rejects the upload before anything is stored")
+    void fullQueueRejectsFast() {
+        when(uploadExecutor.getQueueSize()).thenReturn(2);
+
+        UploadQueueFullException ex = assertThrows(UploadQueueFullException.class,
+                () -> queue.submit(1, file, DocumentType.PROFILE_PHOTO, null, false));
+
+        assertEquals(5, ex.getRetryAfterSeconds());
+        verify(jobRepository, never()).save(any());
+        assertEquals(1.0, meterRegistry.counter(DocumentPipelineMetrics.JOB_COUNTER, "outcome", "rejected").count());
+    }
+
+    @Test
+    @DisplayName("An upload the executor rejects is removed and reported as 429")
+    void executorRejectionRemovesJob() throws IOException {
+        doThrow(new TaskRejectedException("full")).when(uploadExecutor).execute(any(Runnable.class));
+
+        assertThrows(UploadQueueFullException.class,
+                () -> queue.submit(1, file, DocumentType.PROFILE_PHOTO, null, false));
+
+        verify(jobRepository).delete(any(DocumentUploadJob.class));
+        assertEquals(0, stagedFiles());
+    }
+
+    @Test
+    @DisplayName("A processed upload becomes READY with its document and stage timings")
+    void processedUploadBecomesReady() throws IOException {
+        FileProcessingResult result = FileProcessingResult.builder()
+                .processedData(new byte[]{9})
+                .originalSize(3L)
+                .processedSize(1L)
+                .processingType("TEST")
+                .build();
+        when(uploadDeduplicationService.process(argThat(upload -> upload.getSize() == 4
+                        && "image/jpeg".equals(upload.getContentType())), eq(DocumentType.PROFILE_PHOTO)))
+                .thenReturn(result);
+        Document document = Document.builder().documentType(DocumentType.PROFILE_PHOTO).build();
+        when(documentServiceHelper.createDocumentEntity(any(), eq("photo.jpg"), eq("image/jpeg"),
+                eq(DocumentType.PROFILE_PHOTO), eq("mine"), eq(result))).thenReturn(document);
+        when(documentRepository.save(document)).thenAnswer(invocation -> {
+            document.setDocumentId(42);
+            return document;
+        });
+
+        DocumentUploadJob job = queue.submit(1, file, DocumentType.PROFILE_PHOTO, " mine ", false);
+
+        assertEquals(UploadStatus.READY, job.getStatus());
+        assertEquals(42, job.getDocumentId());
+        assertNotNull(job.getStartedAt());
+        assertNotNull(job.getCompletedAt());
+        assertEquals(1, meterRegistry.timer(DocumentPipelineMetrics.STAGE_TIMER,
+                "stage", DocumentPipelineMetrics.QUEUE_WAIT, "type", DocumentPipelineMetrics.IMAGE).count());
+        assertEquals(1, meterRegistry.timer(DocumentPipelineMetrics.STAGE_TIMER,
+                "stage", DocumentPipelineMetrics.STORE, "type", DocumentPipelineMetrics.IMAGE).count());
+        assertEquals(0, stagedFiles(), "staged upload is removed once processed");
+    }
+
+    @Test
+    @DisplayName("A processing error marks the upload FAILED with the reason")
+    void processingErrorMarksFailed() throws IOException {
+        when(uploadDeduplicationService.process(any(), any()))
+                .thenThrow(new DocumentProcessingException("Image is corrupt"));
+
+        DocumentUploadJob job = queue.submit(1, file, DocumentType.PROFILE_PHOTO, null, false);
+
+        assertEquals(UploadStatus.FAILED, job.getStatus());
+        assertEquals("Image is corrupt", job.getErrorMessage());
+        verify(documentRepository, never()).save(any());
+        assertEquals(0, stagedFiles());
+    }
+
+    private long stagedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(root.resolve("tmp"))) {
+            return files.count();
+        }
+    }
+}
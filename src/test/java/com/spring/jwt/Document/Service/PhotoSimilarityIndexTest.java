@@ -0,0 +1,125 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.DocumentRepository;
+import com.spring.jwt.Document.storage.LocalFileSystemContentStore;
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.entity.Document;
+import com.spring.jwt.utils.ImageOptimizationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Photo Similarity Index Tests")
+public class PhotoSimilarityIndexTest {
+
+    @TempDir
+    Path root;
+
+    private final Set<Integer> unhashed = new TreeSet<>();
+    private LocalFileSystemContentStore store;
+    private DocumentRepository documentRepository;
+    private ImageOptimizationService imageOptimizationService;
+    private PhotoSimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        DocumentProperties properties = new DocumentProperties();
+        properties.getStorage().setRootDirectory(root.toString());
+        store = new LocalFileSystemContentStore(properties);
+        imageOptimizationService = spy(new ImageOptimizationService(properties,
+                new DocumentPipelineMetrics(new SimpleMeterRegistry()), Runnable::run));
+
+        // The repository keeps the documents still to be hashed, like the perceptual_hash columns would
+        documentRepository = mock(DocumentRepository.class);
+        when(documentRepository.findIdsWithoutPerceptualHash(anyInt(), any(Pageable.class))).thenAnswer(call -> {
+            Integer afterId = call.getArgument(0);
+            return unhashed.stream().filter(id -> id > afterId).toList();
+        });
+        when(documentRepository.findPerceptualHashesByContentKey(anyString(), any(Pageable.class))).thenReturn(List.of());
+        when(documentRepository.setPerceptualHash(anyInt(), anyLong())).thenAnswer(call ->
+                unhashed.remove(call.<Integer>getArgument(0)) ? 1 : 0);
+        when(documentRepository.markPerceptualHashFailed(anyInt(), any())).thenAnswer(call ->
+                unhashed.remove(call.<Integer>getArgument(0)) ? 1 : 0);
+
+        index = new PhotoSimilarityIndex(documentRepository, store, imageOptimizationService, properties,
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    @DisplayName("An image that cannot be decoded is not decoded again by later passes")
+    void undecodableImageIsNotRetried() throws IOException {
+        stored(7, store.put("not an image".getBytes()));
+
+        assertEquals(0, index.backfill());
+        assertEquals(0, index.backfill());
+
+        verify(documentRepository).markPerceptualHashFailed(eq(7), any());
+        verify(documentRepository, times(1)).findById(7);
+        verify(imageOptimizationService, times(1)).perceptualHash(any(Path.class));
+    }
+
+    @Test
+    @DisplayName("A decodable image is hashed and indexed")
+    void decodableImageIsHashed() throws IOException {
+        stored(7, store.put(png()));
+
+        assertEquals(1, index.backfill());
+
+        verify(documentRepository).setPerceptualHash(eq(7), anyLong());
+        verify(documentRepository, never()).markPerceptualHashFailed(anyInt(), any());
+        assertEquals(1, index.getStats().get("indexed"));
+    }
+
+    @Test
+    @DisplayName("An image whose content cannot be loaded is tried again on the next pass")
+    void unloadableContentIsRetried() {
+        stored(7, "0".repeat(64));
+
+        assertEquals(0, index.backfill());
+        assertEquals(0, index.backfill());
+
+        verify(documentRepository, times(2)).findById(7);
+        verify(documentRepository, never()).markPerceptualHashFailed(anyInt(), any());
+    }
+
+    private void stored(Integer documentId, String contentKey) {
+        unhashed.add(documentId);
+        when(documentRepository.findById(documentId)).thenReturn(Optional.of(Document.builder()
+                .documentId(documentId)
+                .fileName("photo.png")
+                .contentType("image/png")
+                .contentKey(contentKey)
+                .build()));
+    }
+
+    private static byte[] png() throws IOException {
+        BufferedImage image = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 200; x++) {
+            image.setRGB(x, x / 2, 0xFF3366CC);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
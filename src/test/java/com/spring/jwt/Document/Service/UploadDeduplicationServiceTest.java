@@ -0,0 +1,234 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.DocumentContentReferenceRepository;
+import com.spring.jwt.Document.DocumentRepository;
+import com.spring.jwt.Document.ProcessedUploadRepository;
+import com.spring.jwt.Document.domain.FileProcessingResult;
+import com.spring.jwt.Document.domain.StagedUpload;
+import com.spring.jwt.Document.storage.LocalFileSystemContentStore;
+import com.spring.jwt.Enums.DocumentType;
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.entity.DocumentContentReference;
+import com.spring.jwt.entity.ProcessedUpload;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Upload Deduplication Service Tests")
+public class UploadDeduplicationServiceTest {
+
+    private static final byte[] ORIGINAL = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 1, 2, 3, 4, 5};
+    private static final byte[] PROCESSED = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 9};
+
+    @Mock
+    private ProcessedUploadRepository processedUploadRepository;
+
+    @Mock
+    private FileProcessingService fileProcessingService;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentContentReferenceRepository referenceRepository;
+
+    @Mock
+    private DocumentRenditionService documentRenditionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path root;
+
+    private final List<ProcessedUpload> records = new ArrayList<>();
+    private DocumentProperties properties;
+    private LocalFileSystemContentStore store;
+    private SimpleMeterRegistry meterRegistry;
+    private UploadDeduplicationService dedupService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new DocumentProperties();
+        properties.getStorage().setRootDirectory(root.toString());
+        store = new LocalFileSystemContentStore(properties);
+        meterRegistry = new SimpleMeterRegistry();
+        DocumentContentService contentService = new DocumentContentService(store, documentRepository,
+                referenceRepository, processedUploadRepository, documentRenditionService, transactionManager);
+        dedupService = new UploadDeduplicationService(processedUploadRepository, fileProcessingService,
+                contentService, new DocumentPipelineMetrics(meterRegistry), properties, transactionManager);
+
+        when(processedUploadRepository.save(any(ProcessedUpload.class))).thenAnswer(invocation -> {
+            ProcessedUpload record = invocation.getArgument(0);
+            record.setId((long) records.size() + 1);
+            records.add(record);
+            return record;
+        });
+        when(processedUploadRepository.findByOriginalHashAndSettingsHash(anyString(), anyString()))
+                .thenAnswer(invocation -> records.stream()
+                        .filter(record -> record.getOriginalHash().equals(invocation.getArgument(0))
+                                && record.getSettingsHash().equals(invocation.getArgument(1)))
+                        .findFirst());
+        // Every stored result is in use by the document of the upload that produced it
+        when(referenceRepository.findForUpdate(anyString())).thenAnswer(invocation ->
+                Optional.of(new DocumentContentReference(invocation.getArgument(0), 1)));
+        when(fileProcessingService.processStaged(any(), any())).thenReturn(CompletableFuture.completedFuture(
+                FileProcessingResult.builder()
+                        .processedData(PROCESSED)
+                        .originalSize((long) ORIGINAL.length)
+                        .processedSize((long) PROCESSED.length)
+                        .processingType("OPTIMIZED_IMAGE_PROCESSING")
+                        .build()));
+    }
+
+    @Test
+    @DisplayName("A repeated upload reuses the stored result without processing it again")
+    void repeatedUploadSkipsProcessing() throws IOException {
+        FileProcessingResult first = process(DocumentType.PROFILE_PHOTO);
+        FileProcessingResult second = process(DocumentType.PROFILE_PHOTO);
+
+        verify(fileProcessingService, times(1)).processStaged(any(), any());
+        assertEquals(LocalFileSystemContentStore.sha256(PROCESSED), first.getContentKey());
+        assertEquals(first.getContentKey(), second.getContentKey());
+        assertArrayEquals(PROCESSED, store.get(second.getContentKey()));
+        assertEquals(UploadDeduplicationService.DEDUPLICATED, second.getProcessingType());
+        assertEquals((long) PROCESSED.length, second.getProcessedSize());
+        verify(processedUploadRepository).recordHit(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Different document types or settings are processed separately")
+    void settingsChangeMisses() throws IOException {
+        process(DocumentType.PROFILE_PHOTO);
+        process(DocumentType.AADHAAR_CARD);
+        properties.getFileSize().setTargetFileSizeKb(512);
+        process(DocumentType.PROFILE_PHOTO);
+
+        verify(fileProcessingService, times(3)).processStaged(any(), any());
+        assertEquals(3, records.size());
+    }
+
+    @Test
+    @DisplayName("A record whose content is gone from the store is not reused")
+    void missingContentIsProcessedAgain() throws IOException {
+        String contentKey = process(DocumentType.PROFILE_PHOTO).getContentKey();
+        store.delete(contentKey);
+
+        process(DocumentType.PROFILE_PHOTO);
+
+        verify(fileProcessingService, times(2)).processStaged(any(), any());
+        assertTrue(store.exists(contentKey));
+    }
+
+    @Test
+    @DisplayName("A reused result keeps its content referenced until the upload is closed")
+    void reusedContentIsReferencedUntilClose() throws IOException {
+        String contentKey = process(DocumentType.PROFILE_PHOTO).getContentKey();
+
+        StagedUpload upload = stage();
+        FileProcessingResult reused = dedupService.process(upload, DocumentType.PROFILE_PHOTO);
+
+        assertEquals(UploadDeduplicationService.DEDUPLICATED, reused.getProcessingType());
+        verify(referenceRepository).acquire(eq(contentKey), anyInt());
+        verify(referenceRepository, never()).release(contentKey);
+
+        upload.close();
+        verify(referenceRepository).release(contentKey);
+        assertTrue(store.exists(contentKey));
+    }
+
+    @Test
+    @DisplayName("Content deleted between the lookup and the reference is processed again")
+    void contentReleasedDuringLookupIsProcessedAgain() throws IOException {
+        String contentKey = process(DocumentType.PROFILE_PHOTO).getContentKey();
+        // The last document using it is released just before the reference row is locked
+        when(referenceRepository.acquire(eq(contentKey), anyInt())).thenAnswer(invocation -> {
+            store.delete(contentKey);
+            return 1;
+        });
+
+        FileProcessingResult result = process(DocumentType.PROFILE_PHOTO);
+
+        verify(fileProcessingService, times(2)).processStaged(any(), any());
+        assertNotEquals(UploadDeduplicationService.DEDUPLICATED, result.getProcessingType());
+        assertTrue(store.exists(contentKey));
+        verify(referenceRepository, times(1)).release(contentKey);
+        verify(processedUploadRepository, never()).recordHit(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("The dedup ratio is the share of uploads that were reused")
+    void dedupRatio() throws IOException {
+        process(DocumentType.PROFILE_PHOTO);
+        process(DocumentType.PROFILE_PHOTO);
+        process(DocumentType.PROFILE_PHOTO);
+        process(DocumentType.PROFILE_PHOTO);
+
+        assertEquals(3.0, meterRegistry.counter(DocumentPipelineMetrics.DEDUP_COUNTER, "result", "hit").count());
+        assertEquals(1.0, meterRegistry.counter(DocumentPipelineMetrics.DEDUP_COUNTER, "result", "miss").count());
+        assertEquals(0.75, meterRegistry.get(DocumentPipelineMetrics.DEDUP_RATIO).gauge().value());
+    }
+
+    @Test
+    @DisplayName("With deduplication disabled every upload is processed")
+    void disabledProcessesEveryUpload() throws IOException {
+        properties.getDedup().setEnabled(false);
+
+        FileProcessingResult result = process(DocumentType.PROFILE_PHOTO);
+        process(DocumentType.PROFILE_PHOTO);
+
+        verify(fileProcessingService, times(2)).processStaged(any(), any());
+        assertArrayEquals(PROCESSED, result.getProcessedData());
+        verifyNoInteractions(processedUploadRepository);
+    }
+
+    @Test
+    @DisplayName("Content is deleted only when its last reference is released")
+    void contentIsDeletedWithLastReference() throws IOException {
+        String contentKey = process(DocumentType.PROFILE_PHOTO).getContentKey();
+        DocumentContentService contentService = new DocumentContentService(store, documentRepository,
+                referenceRepository, processedUploadRepository, documentRenditionService, transactionManager);
+        DocumentContentReference reference = new DocumentContentReference(contentKey, 1);
+        when(referenceRepository.findForUpdate(contentKey)).thenReturn(Optional.of(reference));
+
+        contentService.releaseAfterCommit(contentKey);
+        assertTrue(store.exists(contentKey), "still referenced");
+
+        reference.setReferenceCount(0);
+        contentService.releaseAfterCommit(contentKey);
+        assertFalse(store.exists(contentKey));
+        verify(referenceRepository).delete(reference);
+        verify(processedUploadRepository).deleteByContentKey(contentKey);
+    }
+
+    private FileProcessingResult process(DocumentType documentType) throws IOException {
+        try (StagedUpload upload = stage()) {
+            return dedupService.process(upload, documentType);
+        }
+    }
+
+    private StagedUpload stage() throws IOException {
+        Path file = Files.createTempFile(root, "upload-", ".tmp");
+        Files.write(file, ORIGINAL);
+        return new StagedUpload(file, ORIGINAL.length, LocalFileSystemContentStore.sha256(ORIGINAL),
+                "image/jpeg", "photo.jpg");
+    }
+}
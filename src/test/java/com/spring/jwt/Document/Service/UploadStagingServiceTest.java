@@ -0,0 +1,133 @@
+package com.spring.jwt.Document.Service;
+
+import com.spring.jwt.Document.domain.StagedUpload;
+import com.spring.jwt.Document.storage.LocalFileSystemContentStore;
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.exception.InvalidDocumentException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Upload Staging Service Tests")
+public class UploadStagingServiceTest {
+
+    private static final byte[] PDF_HEADER = "%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path root;
+
+    private DocumentProperties properties;
+    private UploadStagingService stagingService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DocumentProperties();
+        properties.getStorage().setRootDirectory(root.toString());
+        properties.getPdf().setMaxInputSizeBytes(1024);
+        stagingService = new UploadStagingService(properties);
+    }
+
+    @Test
+    @DisplayName("An upload is streamed to a temp file with its hash and sniffed type, and removed on close")
+    void stagesUpload() throws IOException {
+        byte[] content = pdf(600);
+
+        Path file;
+        try (StagedUpload upload = stagingService.stage(multipart("application/pdf", content))) {
+            file = upload.getFile();
+            assertArrayEquals(content, Files.readAllBytes(file));
+            assertEquals(600, upload.getSize());
+            assertEquals(LocalFileSystemContentStore.sha256(content), upload.getSha256());
+            assertEquals("application/pdf", upload.getContentType());
+            upload.createWorkFile(".pdf");
+        }
+
+        assertFalse(Files.exists(file));
+        assertEquals(0, stagedFiles());
+    }
+
+    @Test
+    @DisplayName("An upload that under-reports its size is cut off once it passes the limit")
+    void enforcesLimitWhileStreaming() throws IOException {
+        InputStream endless = new InputStream() {
+            private long served;
+
+            @Override
+            public int read() {
+                return served++ < PDF_HEADER.length ? PDF_HEADER[(int) served - 1] : 'x';
+            }
+        };
+        MockMultipartFile lying = new MockMultipartFile("file", "big.pdf", "application/pdf", new byte[0]) {
+            @Override
+            public long getSize() {
+                return 10;
+            }
+
+            @Override
+            public InputStream getInputStream() {
+                return endless;
+            }
+        };
+
+        InvalidDocumentException ex = assertThrows(InvalidDocumentException.class, () -> stagingService.stage(lying));
+
+        assertTrue(ex.getMessage().contains("1KB"));
+        assertEquals(0, stagedFiles());
+    }
+
+    @Test
+    @DisplayName("Content that does not match its declared type is rejected")
+    void rejectsMismatchedContent() throws IOException {
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0};
+
+        assertThrows(InvalidDocumentException.class,
+                () -> stagingService.stage(multipart("application/pdf", jpeg)));
+        assertThrows(InvalidDocumentException.class,
+                () -> stagingService.stage(multipart("image/png", "<html>".getBytes())));
+        assertEquals(0, stagedFiles());
+    }
+
+    @Test
+    @DisplayName("File signatures are recognised")
+    void sniffsSignatures() {
+        assertEquals("image/jpeg", UploadStagingService.sniffContentType(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0}));
+        assertEquals("image/png", UploadStagingService.sniffContentType(
+                new byte[]{(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A}));
+        assertEquals("image/webp", UploadStagingService.sniffContentType("RIFF\0\0\0\0WEBPVP8 ".getBytes()));
+        assertEquals("application/pdf", UploadStagingService.sniffContentType(PDF_HEADER));
+        assertNull(UploadStagingService.sniffContentType("GIF89a".getBytes()));
+        assertNull(UploadStagingService.sniffContentType(new byte[0]));
+    }
+
+    private static MockMultipartFile multipart(String contentType, byte[] content) throws IOException {
+        return new MockMultipartFile("file", "upload", contentType, new ByteArrayInputStream(content));
+    }
+
+    private static byte[] pdf(int length) {
+        byte[] content = new byte[length];
+        System.arraycopy(PDF_HEADER, 0, content, 0, PDF_HEADER.length);
+        return content;
+    }
+
+    private long stagedFiles() throws IOException {
+        Path tmp = root.resolve("tmp");
+        if (!Files.isDirectory(tmp)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(tmp)) {
+            return files.count();
+        }
+    }
+}
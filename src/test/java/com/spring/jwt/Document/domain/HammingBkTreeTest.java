@@ -0,0 +1,76 @@
+package com.spring.jwt.Document.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Hamming BK-Tree Tests")
+public class HammingBkTreeTest {
+
+    @Test
+    @DisplayName("Search returns exactly the documents a full scan finds, before and after removals")
+    void searchMatchesFullScan() {
+        Random random = new Random(7);
+        HammingBkTree tree = new HammingBkTree();
+        Map<Integer, Long> hashes = new HashMap<>();
+        for (int documentId = 1; documentId <= 2000; documentId++) {
+            // Clusters of near-duplicates around a few base hashes, plus unrelated hashes
+            long hash = documentId % 3 == 0
+                    ? random.nextLong()
+                    : (documentId % 10) * 0x9E3779B97F4A7C15L ^ (1L << random.nextInt(64)) ^ (1L << random.nextInt(64));
+            hashes.put(documentId, hash);
+            tree.add(hash, documentId);
+        }
+        assertSearchMatchesScan(tree, hashes, random);
+
+        for (int documentId = 1; documentId <= 2000; documentId += 4) {
+            assertTrue(tree.remove(hashes.remove(documentId), documentId));
+        }
+        assertFalse(tree.remove(12345L, 2));
+        assertEquals(hashes.size(), tree.size());
+        assertSearchMatchesScan(tree, hashes, random);
+    }
+
+    @Test
+    @DisplayName("Documents with the same hash share a node")
+    void identicalHashesShareNode() {
+        HammingBkTree tree = new HammingBkTree();
+        tree.add(42L, 1);
+        tree.add(42L, 2);
+        tree.add(43L, 3);
+
+        assertEquals(3, tree.size());
+        assertEquals(2, tree.nodes());
+        assertEquals(Set.of(1, 2), tree.search(42L, 0).stream()
+                .map(HammingBkTree.Match::documentId).collect(Collectors.toSet()));
+
+        tree.remove(42L, 1);
+        tree.remove(42L, 2);
+        assertEquals(1, tree.emptyNodes());
+        tree.add(42L, 4);
+        assertEquals(0, tree.emptyNodes());
+    }
+
+    private static void assertSearchMatchesScan(HammingBkTree tree, Map<Integer, Long> hashes, Random random) {
+        for (int query = 0; query < 50; query++) {
+            long hash = hashes.get(hashes.keySet().stream().skip(random.nextInt(hashes.size())).findFirst().orElseThrow());
+            int maxDistance = random.nextInt(12);
+
+            Set<Integer> expected = hashes.entrySet().stream()
+                    .filter(entry -> HammingBkTree.distance(hash, entry.getValue()) <= maxDistance)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+            Set<Integer> found = tree.search(hash, maxDistance).stream()
+                    .map(HammingBkTree.Match::documentId)
+                    .collect(Collectors.toSet());
+            assertEquals(expected, found);
+        }
+    }
+}
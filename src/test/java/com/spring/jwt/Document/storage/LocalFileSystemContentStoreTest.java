@@ -0,0 +1,83 @@
+package com.spring.jwt.Document.storage;
+
+import com.spring.jwt.config.DocumentProperties;
+import com.spring.jwt.exception.DocumentNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Local Filesystem Content Store Tests")
+public class LocalFileSystemContentStoreTest {
+
+    @TempDir
+    Path root;
+
+    private LocalFileSystemContentStore store;
+
+    @BeforeEach
+    void setUp() {
+        DocumentProperties properties = new DocumentProperties();
+        properties.getStorage().setRootDirectory(root.toString());
+        store = new LocalFileSystemContentStore(properties);
+    }
+
+    @Test
+    @DisplayName("Content is stored under its SHA-256 in a sharded directory")
+    void storesByHashInShardedTree() {
+        byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+
+        String key = store.put(content);
+
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", key);
+        assertTrue(Files.isRegularFile(root.resolve("2c").resolve("f2").resolve(key)));
+        assertArrayEquals(content, store.get(key));
+    }
+
+    @Test
+    @DisplayName("Storing identical content twice yields one file and no leftover temp files")
+    void putIsIdempotent() throws Exception {
+        byte[] content = new byte[]{1, 2, 3};
+
+        assertEquals(store.put(content), store.put(content));
+
+        try (var temps = Files.list(root.resolve("tmp"))) {
+            assertEquals(0, temps.count());
+        }
+    }
+
+    @Test
+    @DisplayName("A file is stored under the same key as its bytes")
+    void putFileMatchesPut() throws Exception {
+        Path source = Files.write(root.resolve("source.bin"), "hello".getBytes(StandardCharsets.UTF_8));
+
+        String key = store.putFile(source, null);
+
+        assertEquals(LocalFileSystemContentStore.sha256("hello".getBytes(StandardCharsets.UTF_8)), key);
+        assertArrayEquals(Files.readAllBytes(source), store.get(key));
+        assertTrue(Files.exists(source));
+    }
+
+    @Test
+    @DisplayName("Deleted content is reported as not found")
+    void deleteRemovesContent() {
+        String key = store.put(new byte[]{9});
+
+        store.delete(key);
+
+        assertFalse(store.exists(key));
+        assertThrows(DocumentNotFoundException.class, () -> store.get(key));
+    }
+
+    @Test
+    @DisplayName("Keys that are not SHA-256 hex are rejected")
+    void rejectsInvalidKeys() {
+        assertThrows(IllegalArgumentException.class, () -> store.get("../../etc/passwd"));
+    }
+}
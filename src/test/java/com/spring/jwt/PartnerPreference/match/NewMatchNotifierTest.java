@@ -0,0 +1,88 @@
+package com.spring.jwt.PartnerPreference.match;
+
+import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.entity.Enums.Status;
+import com.spring.jwt.entity.MatchNotification;
+import com.spring.jwt.profile.ProfileMatchingChangeEvent;
+import com.spring.jwt.repository.UserProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@DisplayName("New Match Notifier Tests")
+public class NewMatchNotifierTest {
+
+    private static final ProfileFacts PROFILE = new ProfileFacts(100, 20, Gender.FEMALE, Status.ACTIVE, 27, 160.0,
+            "Hindu", "Maratha", "Never Married", null);
+
+    private UserProfileRepository userProfileRepository;
+    private MatchNotificationRepository matchNotificationRepository;
+    private PreferencePercolator percolator;
+    private final List<Runnable> queued = new ArrayList<>();
+    private NewMatchNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        userProfileRepository = mock(UserProfileRepository.class);
+        matchNotificationRepository = mock(MatchNotificationRepository.class);
+        percolator = mock(PreferencePercolator.class);
+        when(percolator.isReady()).thenReturn(true);
+        when(userProfileRepository.findProfileFacts(100)).thenReturn(Optional.of(PROFILE));
+        when(matchNotificationRepository.findNotifiedRecipients(anyInt(), anyCollection())).thenReturn(List.of());
+
+        notifier = new NewMatchNotifier(userProfileRepository, matchNotificationRepository, percolator,
+                mock(PlatformTransactionManager.class), queued::add, true, 500);
+    }
+
+    @Test
+    @DisplayName("Should announce a profile on the executor, not on the thread that committed it")
+    void shouldAnnounceOnExecutor() {
+        when(percolator.match(PROFILE)).thenReturn(List.of(new PreferencePercolator.Match(1, 21)));
+
+        notifier.onMatchingChange(new ProfileMatchingChangeEvent(100));
+        verifyNoInteractions(userProfileRepository, matchNotificationRepository);
+
+        queued.forEach(Runnable::run);
+        ArgumentCaptor<MatchNotification> saved = ArgumentCaptor.forClass(MatchNotification.class);
+        verify(matchNotificationRepository).save(saved.capture());
+        assertEquals(21, saved.getValue().getRecipientUserId());
+        assertEquals(20, saved.getValue().getMatchedUserId());
+    }
+
+    @Test
+    @DisplayName("Should never tell the owner of a profile about it")
+    void shouldSkipOwnProfile() {
+        when(percolator.match(PROFILE)).thenReturn(List.of(
+                new PreferencePercolator.Match(1, 20), new PreferencePercolator.Match(2, 21)));
+
+        assertEquals(1, notifier.notifyMatches(100));
+        ArgumentCaptor<MatchNotification> saved = ArgumentCaptor.forClass(MatchNotification.class);
+        verify(matchNotificationRepository).save(saved.capture());
+        assertEquals(21, saved.getValue().getRecipientUserId());
+    }
+
+    @Test
+    @DisplayName("Should drop the announcement when the queue is full")
+    void shouldDropWhenQueueFull() {
+        NewMatchNotifier saturated = new NewMatchNotifier(userProfileRepository, matchNotificationRepository,
+                percolator, mock(PlatformTransactionManager.class), task -> {
+                    throw new RejectedExecutionException("full");
+                }, true, 500);
+
+        assertDoesNotThrow(() -> saturated.onMatchingChange(new ProfileMatchingChangeEvent(100)));
+        verify(matchNotificationRepository, never()).save(any());
+    }
+}
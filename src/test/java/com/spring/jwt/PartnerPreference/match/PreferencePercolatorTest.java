@@ -0,0 +1,151 @@
+package com.spring.jwt.PartnerPreference.match;
+
+import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.entity.Enums.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Preference Percolator Tests")
+public class PreferencePercolatorTest {
+
+    private static final String[] RELIGIONS = {"Hindu", "Muslim", "Christian", "Jain", "Sikh"};
+    private static final String[] CASTES = {"Maratha", "Brahmin", "Kunbi", "Mali", "Dhangar", "Teli"};
+    private static final String[] MARITAL_STATUSES = {"Never Married", "Divorced", "Widowed"};
+
+    private PreferencePercolator percolator;
+
+    @BeforeEach
+    void setUp() {
+        percolator = new PreferencePercolator();
+    }
+
+    @Test
+    @DisplayName("Should compile age, height and set columns")
+    void shouldCompileColumns() {
+        CompiledPreference compiled = PreferenceCompiler.compile(new StoredPreference(1, 10, Gender.MALE,
+                "25 to 30", "5'4\" - 5'8\"", "Hindu, Jain", "Doesn't matter", "Never Married / Divorced", 500000));
+
+        assertEquals(Gender.FEMALE, compiled.targetGender());
+        assertEquals(new CompiledPreference.Range(25, 30), compiled.age());
+        assertEquals(new CompiledPreference.Range(162, 173), compiled.heightCm());
+        assertEquals(500000, compiled.minIncome());
+        assertEquals(Set.of("hindu", "jain"), compiled.religions());
+        assertTrue(compiled.castes().isEmpty());
+        assertEquals(Set.of("never married", "divorced"), compiled.maritalStatuses());
+    }
+
+    @Test
+    @DisplayName("Should read heights in centimetres, inches and unitless sides")
+    void shouldReadHeightUnits() {
+        assertEquals(new CompiledPreference.Range(160, 175), PreferenceCompiler.heightRange("160-175 cm"));
+        assertEquals(new CompiledPreference.Range(152, 183), PreferenceCompiler.heightRange("5 - 6 ft"));
+        assertEquals(new CompiledPreference.Range(157, 168), PreferenceCompiler.heightRange("62 in to 66 in"));
+        assertNull(PreferenceCompiler.heightRange("tall"));
+        assertNull(PreferenceCompiler.ageRange("any"));
+    }
+
+    @Test
+    @DisplayName("Should match a profile against the preferences it satisfies")
+    void shouldMatchSatisfiedPreferences() {
+        percolator.finishRebuild(List.of(
+                new StoredPreference(1, 10, Gender.MALE, "25-30", null, "Hindu", "Maratha", null, null),
+                new StoredPreference(2, 11, Gender.MALE, "31-35", null, "Hindu", null, null, null),
+                new StoredPreference(3, 12, Gender.FEMALE, "25-30", null, null, null, null, null),
+                new StoredPreference(4, 13, null, null, null, null, null, null, null)));
+
+        ProfileFacts profile = profile(100, 20, Gender.FEMALE, 27, 160.0, "Hindu", "maratha", "Never Married", null);
+
+        assertEquals(List.of(new PreferencePercolator.Match(1, 10), new PreferencePercolator.Match(4, 13)),
+                percolator.match(profile));
+    }
+
+    @Test
+    @DisplayName("Should not match a user against their own preference or below a minimum income")
+    void shouldRespectOwnerAndIncome() {
+        percolator.finishRebuild(List.of(
+                new StoredPreference(1, 20, null, null, null, null, null, null, null),
+                new StoredPreference(2, 21, Gender.MALE, null, null, null, null, null, 600000)));
+
+        assertEquals(List.of(new PreferencePercolator.Match(2, 21)),
+                percolator.match(profile(100, 20, Gender.FEMALE, 27, 160.0, null, null, null, 700000)));
+        assertEquals(List.of(new PreferencePercolator.Match(1, 20), new PreferencePercolator.Match(2, 21)),
+                percolator.match(profile(101, 30, Gender.FEMALE, 27, 160.0, null, null, null, 700000)));
+        assertTrue(percolator.match(profile(102, 31, Gender.FEMALE, 27, 160.0, null, null, null, null))
+                .stream().noneMatch(match -> match.preferenceId() == 2));
+    }
+
+    @Test
+    @DisplayName("Should apply updates and removals, including those made during a rebuild")
+    void shouldReplayChangesDuringRebuild() {
+        percolator.finishRebuild(List.of(new StoredPreference(1, 10, Gender.MALE, "25-30", null, null, null, null, null)));
+        ProfileFacts profile = profile(100, 20, Gender.FEMALE, 27, null, null, null, null, null);
+        assertEquals(1, percolator.match(profile).size());
+
+        percolator.upsert(new StoredPreference(1, 10, Gender.MALE, "31-35", null, null, null, null, null));
+        assertTrue(percolator.match(profile).isEmpty());
+
+        percolator.startRebuild();
+        percolator.upsert(new StoredPreference(2, 11, Gender.MALE, "26-28", null, null, null, null, null));
+        percolator.remove(1);
+        percolator.finishRebuild(List.of(new StoredPreference(1, 10, Gender.MALE, "25-30", null, null, null, null, null)));
+
+        assertEquals(List.of(new PreferencePercolator.Match(2, 11)), percolator.match(profile));
+    }
+
+    @Test
+    @DisplayName("Should find exactly the preferences a brute-force evaluation finds")
+    void shouldAgreeWithBruteForce() {
+        Random random = new Random(46);
+        List<StoredPreference> preferences = new ArrayList<>();
+        for (int id = 1; id <= 2000; id++) {
+            int minAge = 18 + random.nextInt(30);
+            preferences.add(new StoredPreference(id, 1000 + id,
+                    random.nextInt(10) == 0 ? null : random.nextBoolean() ? Gender.MALE : Gender.FEMALE,
+                    random.nextInt(5) == 0 ? null : minAge + "-" + (minAge + random.nextInt(20)),
+                    random.nextInt(3) == 0 ? null : (150 + random.nextInt(20)) + "-" + (170 + random.nextInt(20)) + " cm",
+                    random.nextInt(3) == 0 ? "Any" : pick(random, RELIGIONS) + ", " + pick(random, RELIGIONS),
+                    random.nextInt(2) == 0 ? null : pick(random, CASTES),
+                    random.nextInt(2) == 0 ? null : pick(random, MARITAL_STATUSES),
+                    random.nextInt(4) == 0 ? 300000 + random.nextInt(500000) : null));
+        }
+        percolator.finishRebuild(preferences);
+        List<CompiledPreference> compiled = preferences.stream().map(PreferenceCompiler::compile).toList();
+
+        for (int i = 0; i < 300; i++) {
+            ProfileFacts profile = profile(i, 1000 + random.nextInt(3000),
+                    random.nextBoolean() ? Gender.MALE : Gender.FEMALE,
+                    18 + random.nextInt(45),
+                    random.nextInt(10) == 0 ? null : 145.0 + random.nextInt(50),
+                    pick(random, RELIGIONS), pick(random, CASTES), pick(random, MARITAL_STATUSES),
+                    random.nextBoolean() ? 200000 + random.nextInt(800000) : null);
+
+            List<PreferencePercolator.Match> expected = compiled.stream()
+                    .filter(preference -> preference.matches(profile))
+                    .map(preference -> new PreferencePercolator.Match(preference.preferenceId(), preference.ownerUserId()))
+                    .toList();
+            assertEquals(expected, percolator.match(profile));
+        }
+
+        long candidates = (long) percolator.getStats().get("candidatesExamined");
+        assertTrue(candidates < 300L * preferences.size() / 2,
+                "examined " + candidates + " candidates for 300 profiles");
+    }
+
+    private static ProfileFacts profile(int profileId, int userId, Gender gender, Integer age, Double height,
+                                        String religion, String caste, String maritalStatus, Integer income) {
+        return new ProfileFacts(profileId, userId, gender, Status.ACTIVE, age, height, religion, caste,
+                maritalStatus, income);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
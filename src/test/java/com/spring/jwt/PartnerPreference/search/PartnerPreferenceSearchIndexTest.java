@@ -0,0 +1,227 @@
+package com.spring.jwt.PartnerPreference.search;
+
+import com.spring.jwt.PartnerPreference.search.PartnerPreferenceSearchIndex.SearchHits;
+import com.spring.jwt.PartnerPreference.search.PartnerPreferenceSearchIndex.SortField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the index with the repository's {@code LOWER(column) LIKE LOWER('%value%')}
+ * semantics, evaluated over every preference
+ */
+@DisplayName("Partner Preference Search Index Tests")
+public class PartnerPreferenceSearchIndexTest {
+
+    private static final String[] RELIGIONS = {"Hindu", "HINDU", "Muslim", "Christian", "Jain", "Any", "Vegetarian Hindu"};
+    private static final String[] CASTES = {"Maratha", "Brahmin", "Deshastha Brahmin", "Kunbi", "Mali", "Any Caste"};
+    private static final String[] EDUCATIONS = {"Graduate", "Post Graduate", "B.E.", "MBA", "PhD", "Undergraduate"};
+    private static final String[] MARITAL_STATUSES = {"Never Married", "Divorced", "Widowed", "Awaiting Divorce"};
+    private static final String[] CITIES = {"Pune", "Mumbai", "Nashik", "Navi Mumbai", "Bangalore"};
+    private static final String[] STATES = {"Maharashtra", "Karnataka", "Goa", "Gujarat"};
+    private static final String[] COUNTRIES = {"India", "USA", "United Kingdom", "Indonesia"};
+    private static final String[] OCCUPATIONS = {"Software Engineer", "Doctor", "Engineer", "Teacher", "Business"};
+    private static final String[] HABITS = {"Vegetarian", "Non-Vegetarian", "Eggetarian", "Never", "Occasionally", "Yes"};
+    private static final String[] NEEDLES = {"", "a", "in", "hin", "HINDU", "brahmin", "graduate", "engineer",
+            "mumbai", "ind", "maharashtra", "never", "veg", "xyz", "ma", "uk", "divorce", "any"};
+
+    private final Random random = new Random(17);
+    private final Map<Integer, IndexedPreference> preferences = new LinkedHashMap<>();
+    private PartnerPreferenceSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        for (int id = 1; id <= 2000; id++) {
+            preferences.put(id, randomPreference(id));
+        }
+        index = new PartnerPreferenceSearchIndex();
+        index.startRebuild();
+        index.finishRebuild(new ArrayList<>(preferences.values()));
+    }
+
+    @Test
+    @DisplayName("Searches return the same page and total as the LIKE queries")
+    void matchesLikeQueries() {
+        assertTrue(index.isReady());
+        for (int i = 0; i < 400; i++) {
+            PreferenceQuery query = i % 4 == 0 ? randomLifestyleQuery() : randomSearchQuery();
+            assertMatchesScan(query, SortField.values()[i % 2], i % 3 == 0, random.nextInt(3) * 20);
+        }
+    }
+
+    @Test
+    @DisplayName("Substring counts match the LIKE count queries")
+    void countsMatchLikeQueries() {
+        for (PreferenceField field : PreferenceField.values()) {
+            for (String needle : NEEDLES) {
+                long expected = preferences.values().stream()
+                        .filter(preference -> like(field.valueOf(preference), needle))
+                        .count();
+                assertEquals(expected, index.count(field, needle), field + " " + needle);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Updates and removals, including ones made during a rebuild, are reflected in results")
+    void followsChanges() {
+        for (int i = 0; i < 400; i++) {
+            change();
+        }
+        index.startRebuild();
+        List<IndexedPreference> snapshot = new ArrayList<>(preferences.values());
+        for (int i = 0; i < 200; i++) {
+            change();
+        }
+        index.finishRebuild(snapshot);
+
+        for (int i = 0; i < 150; i++) {
+            assertMatchesScan(i % 2 == 0 ? randomSearchQuery() : randomLifestyleQuery(),
+                    SortField.values()[i % 2], i % 2 == 1, 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Dictionary lookups find substrings, not just values sharing the needle's trigrams")
+    void dictionaryConfirmsTrigramCandidates() {
+        ValueDictionary dictionary = new ValueDictionary();
+        int abcxbcd = dictionary.idOf("ABCXBCD");
+        int abcd = dictionary.idOf("xabcdx");
+        dictionary.idOf("abcXbcd");
+
+        assertEquals(2, dictionary.size());
+        assertTrue(dictionary.idsContaining("abcd").contains(abcd));
+        assertFalse(dictionary.idsContaining("abcd").contains(abcxbcd));
+        assertEquals(2, dictionary.idsContaining("").cardinality());
+        assertEquals(2, dictionary.idsContaining("Bc").cardinality());
+        assertTrue(dictionary.idsContaining("zzz").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Filters holding LIKE wildcards are left to the database")
+    void wildcardsAreDetected() {
+        assertTrue(PreferenceQuery.search("Hin%", null, null, null, null, null, null).hasWildcards());
+        assertTrue(PreferenceQuery.lifestyle(null, "n_ver", null).hasWildcards());
+        assertFalse(PreferenceQuery.search("Hindu", null, "B.E.", 1, 2, "Pune", null).hasWildcards());
+    }
+
+    private void change() {
+        int id = 1 + random.nextInt(2300);
+        if (random.nextInt(4) == 0) {
+            preferences.remove(id);
+            index.remove(id);
+        } else {
+            IndexedPreference preference = randomPreference(id);
+            preferences.put(id, preference);
+            index.upsert(preference);
+        }
+    }
+
+    private void assertMatchesScan(PreferenceQuery query, SortField sortField, boolean ascending, int offset) {
+        // MySQL sorts NULL before any value; ties in income are broken by ID in the index
+        Comparator<IndexedPreference> order = sortField == SortField.INCOME
+                ? Comparator.comparing(IndexedPreference::partnerIncome, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(IndexedPreference::partnerPreferenceId)
+                : Comparator.comparing(IndexedPreference::partnerPreferenceId);
+        List<Integer> expected = preferences.values().stream()
+                .filter(matches(query))
+                .sorted(ascending ? order : order.reversed())
+                .map(IndexedPreference::partnerPreferenceId)
+                .toList();
+
+        SearchHits hits = index.search(query, sortField, ascending, offset, 20);
+
+        assertEquals(expected.size(), hits.total(), query::toString);
+        assertEquals(expected.subList(Math.min(offset, expected.size()), Math.min(offset + 20, expected.size())),
+                hits.preferenceIds(), query::toString);
+    }
+
+    private static Predicate<IndexedPreference> matches(PreferenceQuery query) {
+        return preference -> optionalLike(preference.religion(), query.religion())
+                && optionalLike(preference.caste(), query.caste())
+                && optionalLike(preference.education(), query.education())
+                && (query.minIncome() == null
+                        || (preference.partnerIncome() != null && preference.partnerIncome() >= query.minIncome()))
+                && (query.maxIncome() == null
+                        || (preference.partnerIncome() != null && preference.partnerIncome() <= query.maxIncome()))
+                && (query.location() == null
+                        || like(preference.cityLivingIn(), query.location())
+                        || like(preference.stateLivingIn(), query.location())
+                        || like(preference.countryLivingIn(), query.location()))
+                && optionalLike(preference.maritalStatus(), query.maritalStatus())
+                && optionalLike(preference.eatingHabits(), query.eatingHabits())
+                && optionalLike(preference.drinkingHabits(), query.drinkingHabits())
+                && optionalLike(preference.smokingHabits(), query.smokingHabits());
+    }
+
+    private static boolean optionalLike(String value, String needle) {
+        return needle == null || like(value, needle);
+    }
+
+    /**
+     * {@code LOWER(value) LIKE LOWER(CONCAT('%', needle, '%'))}; NULL never matches
+     */
+    private static boolean like(String value, String needle) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(needle.toLowerCase(Locale.ROOT));
+    }
+
+    private PreferenceQuery randomSearchQuery() {
+        Integer minIncome = random.nextInt(3) == 0 ? 2 + random.nextInt(20) : null;
+        return PreferenceQuery.search(
+                random.nextInt(3) == 0 ? needle() : null,
+                random.nextInt(3) == 0 ? needle() : null,
+                random.nextInt(3) == 0 ? needle() : null,
+                minIncome,
+                random.nextInt(3) == 0 ? (minIncome != null ? minIncome : 0) + random.nextInt(30) : null,
+                random.nextInt(3) == 0 ? needle() : null,
+                random.nextInt(4) == 0 ? needle() : null);
+    }
+
+    private PreferenceQuery randomLifestyleQuery() {
+        return PreferenceQuery.lifestyle(
+                random.nextBoolean() ? needle() : null,
+                random.nextBoolean() ? needle() : null,
+                random.nextBoolean() ? needle() : null);
+    }
+
+    private String needle() {
+        String needle = NEEDLES[random.nextInt(NEEDLES.length)];
+        return random.nextBoolean() ? needle.toUpperCase(Locale.ROOT) : needle;
+    }
+
+    private IndexedPreference randomPreference(int id) {
+        return new IndexedPreference(
+                id,
+                maybe(RELIGIONS),
+                maybe(CASTES),
+                maybe(EDUCATIONS),
+                maybe(MARITAL_STATUSES),
+                maybe(CITIES),
+                maybe(STATES),
+                maybe(COUNTRIES),
+                maybe(OCCUPATIONS),
+                maybe(HABITS),
+                maybe(HABITS),
+                maybe(HABITS),
+                random.nextInt(6) == 0 ? null : random.nextInt(50));
+    }
+
+    private String maybe(String[] values) {
+        if (random.nextInt(8) == 0) {
+            return null;
+        }
+        String value = values[random.nextInt(values.length)];
+        return random.nextInt(5) == 0 ? value.toLowerCase(Locale.ROOT) : value;
+    }
+}
@@ -0,0 +1,317 @@
+package com.spring.jwt.cache;
+
+import com.spring.jwt.CompleteProfile.CompleteProfileServiceImpl;
+import com.spring.jwt.CompleteProfile.PublicBrowseFeed;
+import com.spring.jwt.ContactDetails.ContactDetailsServiceImpl;
+import com.spring.jwt.EducationAndProfession.EducationAndProfessionServiceImpl;
+import com.spring.jwt.ExpressInterest.service.ExpressInterestServiceImpl;
+import com.spring.jwt.FamilyBackground.FamilyBackgroundServiceImpl;
+import com.spring.jwt.HoroscopeDetails.HoroscopeDetailsServiceImpl;
+import com.spring.jwt.PartnerPreference.PartnerPreferenceServiceImpl;
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
+import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.profile.ProfileServiceImpl;
+import com.spring.jwt.utils.CacheUtils;
+import com.spring.jwt.utils.CacheUtils.CacheNames;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link CacheInvalidationListener} evicts exactly the keys the
+ * {@code @Cacheable} reads use, and only once the publishing transaction commits.
+ *
+ * The expected keys are computed by evaluating the key expressions of the
+ * annotations themselves, so a changed key on either side fails here instead of
+ * serving stale entries.
+ */
+@DisplayName("Cache Invalidation Listener Tests")
+public class CacheInvalidationListenerTest {
+
+    private static final int USER_ID = 7;
+    private static final int OTHER_USER_ID = 8;
+    private static final int UNRELATED_USER_ID = 9;
+    private static final long INTEREST_ID = 700L;
+    private static final long OTHER_INTEREST_ID = 900L;
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+
+    private AnnotationConfigApplicationContext context;
+    private CacheManager cacheManager;
+    private ApplicationEventPublisher eventPublisher;
+    private TransactionTemplate transaction;
+    private Set<CacheEntry> seeded;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(ListenerTestConfig.class);
+        cacheManager = context.getBean(CacheManager.class);
+        eventPublisher = context;
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        seeded = new LinkedHashSet<>(profileStats());
+        for (int userId : new int[]{USER_ID, OTHER_USER_ID, UNRELATED_USER_ID}) {
+            seeded.addAll(profileEntries(userId));
+            seeded.addAll(completeProfileViews(userId));
+            seeded.addAll(publicCompleteProfile(userId));
+            seeded.addAll(interestEntries(userId, INTEREST_ID));
+            seeded.addAll(interestEntries(userId, OTHER_INTEREST_ID));
+            for (EntityType section : new EntityType[]{EntityType.HOROSCOPE, EntityType.EDUCATION,
+                    EntityType.FAMILY_BACKGROUND, EntityType.PARTNER_PREFERENCE, EntityType.CONTACT_DETAILS}) {
+                seeded.addAll(sectionEntries(section, userId));
+            }
+        }
+        seeded.forEach(entry -> cache(entry.cacheName()).put(entry.key(), "cached"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(EntityType.class)
+    @DisplayName("Should evict exactly the keys read through @Cacheable for the changed users")
+    void shouldEvictCacheableKeys(EntityType entityType) {
+        Set<CacheEntry> expected = expectedEvictions(entityType);
+        assertTrue(seeded.containsAll(expected));
+
+        transaction.executeWithoutResult(status -> eventPublisher.publishEvent(event(entityType)));
+
+        Set<CacheEntry> remaining = new LinkedHashSet<>(seeded);
+        remaining.removeAll(expected);
+        expected.forEach(entry -> assertNull(cache(entry.cacheName()).get(entry.key()), entry + " was not evicted"));
+        remaining.forEach(entry -> assertNotNull(cache(entry.cacheName()).get(entry.key()), entry + " was evicted"));
+    }
+
+    @Test
+    @DisplayName("Should evict only after commit, and not at all on rollback")
+    void shouldEvictOnlyAfterCommit() {
+        CacheEntry profile = cacheable(ProfileServiceImpl.class, "getProfileByUserId", USER_ID, Map.of());
+        EntityChangeEvent event = event(EntityType.USER_PROFILE);
+
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event);
+            status.setRollbackOnly();
+        });
+        assertNotNull(cache(profile.cacheName()).get(profile.key()), "rolled back changes must not evict");
+
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event);
+            assertNotNull(cache(profile.cacheName()).get(profile.key()), "evicted before commit");
+        });
+        assertNull(cache(profile.cacheName()).get(profile.key()));
+
+        cache(profile.cacheName()).put(profile.key(), "cached");
+        eventPublisher.publishEvent(event);
+        assertNull(cache(profile.cacheName()).get(profile.key()), "events outside a transaction evict at once");
+    }
+
+    private static EntityChangeEvent event(EntityType entityType) {
+        return switch (entityType) {
+            case USER_PROFILE -> EntityChangeEvent.updated(entityType, profileId(USER_ID), USER_ID);
+            case COMPLETE_PROFILE -> EntityChangeEvent.updated(entityType, completeProfileId(USER_ID), USER_ID);
+            case EXPRESS_INTEREST -> EntityChangeEvent.updated(entityType, INTEREST_ID, USER_ID, OTHER_USER_ID);
+            default -> EntityChangeEvent.created(entityType, 1L, USER_ID);
+        };
+    }
+
+    private static Set<CacheEntry> expectedEvictions(EntityType entityType) {
+        Set<CacheEntry> expected = new LinkedHashSet<>();
+        switch (entityType) {
+            case USER_PROFILE -> {
+                expected.addAll(profileEntries(USER_ID));
+                expected.addAll(profileStats());
+                expected.addAll(completeProfileViews(USER_ID));
+            }
+            case COMPLETE_PROFILE -> {
+                expected.addAll(publicCompleteProfile(USER_ID));
+                expected.addAll(completeProfileViews(USER_ID));
+            }
+            case EXPRESS_INTEREST -> {
+                expected.addAll(interestEntries(USER_ID, INTEREST_ID));
+                expected.addAll(interestEntries(OTHER_USER_ID, INTEREST_ID));
+            }
+            default -> {
+                expected.addAll(sectionEntries(entityType, USER_ID));
+                expected.addAll(completeProfileViews(USER_ID));
+            }
+        }
+        return expected;
+    }
+
+    private static Set<CacheEntry> profileEntries(int userId) {
+        return entries(
+                cacheable(ProfileServiceImpl.class, "getCurrentUserProfile", userId, Map.of()),
+                cacheable(ProfileServiceImpl.class, "getProfileByUserId", userId, Map.of()),
+                cacheable(ProfileServiceImpl.class, "getPublicProfileById", userId, Map.of("profileId", profileId(userId))));
+    }
+
+    private static Set<CacheEntry> profileStats() {
+        Set<CacheEntry> entries = new LinkedHashSet<>();
+        for (Gender gender : Gender.values()) {
+            entries.add(cacheable(ProfileServiceImpl.class, "getProfileCountByGender", USER_ID,
+                    Map.of("gender", " " + gender.name().toLowerCase() + " ")));
+        }
+        return entries;
+    }
+
+    private static Set<CacheEntry> completeProfileViews(int userId) {
+        return entries(
+                cacheable(CompleteProfileServiceImpl.class, "getCurrentUserCompleteProfile", userId, Map.of()),
+                cacheable(CompleteProfileServiceImpl.class, "getByUserId", userId, Map.of()),
+                cacheable(CompleteProfileServiceImpl.class, "getPublicProfileByUserId", userId, Map.of()),
+                cacheable(CompleteProfileServiceImpl.class, "checkCurrentUserMissingSections", userId, Map.of()),
+                cacheable(CompleteProfileServiceImpl.class, "checkMissingSections", userId, Map.of()),
+                new CacheEntry(CacheNames.PUBLIC_BROWSE, PublicBrowseFeed.CARD_KEY_PREFIX + userId));
+    }
+
+    private static Set<CacheEntry> publicCompleteProfile(int userId) {
+        return entries(cacheable(CompleteProfileServiceImpl.class, "getPublicProfileByCompleteProfileId", userId,
+                Map.of("completeProfileId", completeProfileId(userId))));
+    }
+
+    private static Set<CacheEntry> interestEntries(int userId, long interestId) {
+        return entries(
+                cacheable(ExpressInterestServiceImpl.class, "getInterestById", userId, Map.of("interestId", interestId)),
+                cacheable(ExpressInterestServiceImpl.class, "getPersonalStatistics", userId, Map.of()));
+    }
+
+    private static Set<CacheEntry> sectionEntries(EntityType section, int userId) {
+        Set<CacheEntry> entries = new LinkedHashSet<>();
+        Class<?> service = switch (section) {
+            case HOROSCOPE -> HoroscopeDetailsServiceImpl.class;
+            case EDUCATION -> EducationAndProfessionServiceImpl.class;
+            case FAMILY_BACKGROUND -> FamilyBackgroundServiceImpl.class;
+            case PARTNER_PREFERENCE -> PartnerPreferenceServiceImpl.class;
+            case CONTACT_DETAILS -> ContactDetailsServiceImpl.class;
+            default -> throw new IllegalArgumentException("Not a section: " + section);
+        };
+        List<Method> reads = Arrays.stream(service.getMethods())
+                .filter(method -> method.getName().startsWith("getCurrentUser") || method.getName().equals("getByUserId"))
+                .filter(method -> AnnotatedElementUtils.hasAnnotation(method, Cacheable.class))
+                .toList();
+        assertEquals(2, reads.size(), "current-user and by-user reads of " + section);
+        reads.forEach(method -> entries.add(cacheable(method, userId, Map.of())));
+        entries.add(new CacheEntry(CacheNames.ABSENT_SECTIONS, AbsentSection.key(section, userId)));
+        return entries;
+    }
+
+    private static CacheEntry cacheable(Class<?> service, String methodName, int currentUserId, Map<String, Object> args) {
+        Method method = Arrays.stream(service.getMethods())
+                .filter(candidate -> candidate.getName().equals(methodName))
+                .filter(candidate -> AnnotatedElementUtils.hasAnnotation(candidate, Cacheable.class))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No @Cacheable " + service.getSimpleName() + "." + methodName));
+        return cacheable(method, currentUserId, args);
+    }
+
+    /**
+     * The cache entry a {@code @Cacheable} method reads, with {@code #userId} and
+     * {@code #root.target.getCurrentUserId()} both resolving to the given user
+     */
+    private static CacheEntry cacheable(Method method, int currentUserId, Map<String, Object> args) {
+        Cacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(method, Cacheable.class);
+        StandardEvaluationContext evaluation = new StandardEvaluationContext(new Root(new CurrentUser(currentUserId)));
+        Map<String, Object> variables = new HashMap<>(args);
+        variables.putIfAbsent("userId", currentUserId);
+        variables.forEach(evaluation::setVariable);
+        Object key = PARSER.parseExpression(cacheable.key()).getValue(evaluation);
+        return new CacheEntry(cacheable.cacheNames()[0], key);
+    }
+
+    private static Set<CacheEntry> entries(CacheEntry... entries) {
+        return new LinkedHashSet<>(Arrays.asList(entries));
+    }
+
+    private static Integer profileId(int userId) {
+        return userId * 10;
+    }
+
+    private static Long completeProfileId(int userId) {
+        return userId * 1000L;
+    }
+
+    private Cache cache(String cacheName) {
+        return cacheManager.getCache(cacheName);
+    }
+
+    private record CacheEntry(String cacheName, Object key) {
+    }
+
+    public static class Root {
+        private final CurrentUser target;
+
+        Root(CurrentUser target) {
+            this.target = target;
+        }
+
+        public CurrentUser getTarget() {
+            return target;
+        }
+    }
+
+    public static class CurrentUser {
+        private final Integer userId;
+
+        CurrentUser(Integer userId) {
+            this.userId = userId;
+        }
+
+        public Integer getCurrentUserId() {
+            return userId;
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class ListenerTestConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+
+        @Bean
+        CacheUtils cacheUtils(CacheManager cacheManager) {
+            return new CacheUtils(cacheManager);
+        }
+
+        @Bean
+        CacheInvalidationListener cacheInvalidationListener(CacheUtils cacheUtils) {
+            return new CacheInvalidationListener(cacheUtils);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new NoOpTransactionManager();
+        }
+    }
+}
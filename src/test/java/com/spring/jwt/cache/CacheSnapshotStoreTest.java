@@ -0,0 +1,68 @@
+package com.spring.jwt.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.jwt.subscription.dto.SubscriptionPlanDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cache Snapshot Store Tests")
+public class CacheSnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Snapshot round-trips typed keys, DTOs and lists of DTOs")
+    void snapshotRoundTrip() {
+        SubscriptionPlanDTO plan = SubscriptionPlanDTO.builder().subscriptionId(3).planCode("GOLD").build();
+        TwoLevelCacheManager before = newManager();
+        before.getCache("subscriptionPlans").put("plan_3", plan);
+        before.getCache("subscriptionPlans").put("activePlans", List.of(plan));
+        before.getCache("profiles").put(42, "profile-42");
+
+        assertEquals(3, newStore(before, Duration.ofMinutes(15)).save());
+
+        TwoLevelCacheManager after = newManager();
+        assertEquals(3, newStore(after, Duration.ofMinutes(15)).restore());
+
+        assertEquals(plan, after.getCache("subscriptionPlans").get("plan_3", SubscriptionPlanDTO.class));
+        List<?> plans = after.getCache("subscriptionPlans").get("activePlans", List.class);
+        assertEquals(plan, plans.get(0));
+        assertEquals("profile-42", after.getCache("profiles").get(42, String.class));
+        assertNull(after.getCache("profiles").get("42"));
+    }
+
+    @Test
+    @DisplayName("Snapshots older than max-age are ignored")
+    void staleSnapshotIsIgnored() {
+        TwoLevelCacheManager before = newManager();
+        before.getCache("profiles").put(1, "v");
+        newStore(before, Duration.ofMinutes(15)).save();
+
+        TwoLevelCacheManager after = newManager();
+        assertEquals(0, newStore(after, Duration.ofMillis(-1)).restore());
+        assertNull(after.getCache("profiles").get(1));
+    }
+
+    private CacheSnapshotStore newStore(TwoLevelCacheManager cacheManager, Duration maxAge) {
+        CacheSnapshotStore store = new CacheSnapshotStore(cacheManager, new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "path", tempDir.resolve("snapshot.json.gz").toString());
+        ReflectionTestUtils.setField(store, "cacheNames", List.of("profiles", "subscriptionPlans"));
+        ReflectionTestUtils.setField(store, "maxAge", maxAge);
+        return store;
+    }
+
+    private static TwoLevelCacheManager newManager() {
+        return new TwoLevelCacheManager("node", new InMemoryCacheInvalidationBus(), null,
+                TwoLevelCacheSettings.builder().build());
+    }
+}
@@ -0,0 +1,254 @@
+package com.spring.jwt.cache;
+
+import com.spring.jwt.CompleteProfile.CompleteProfileRepository;
+import com.spring.jwt.CompleteProfile.CompleteProfileService;
+import com.spring.jwt.entity.UserProfile;
+import com.spring.jwt.location.LocationService;
+import com.spring.jwt.profile.ProfileService;
+import com.spring.jwt.profile.ProfileServiceImpl;
+import com.spring.jwt.profile.domain.ProfileOwnershipService;
+import com.spring.jwt.profile.dto.response.ProfileResponse;
+import com.spring.jwt.profile.mapper.ProfileDtoMapper;
+import com.spring.jwt.profile.search.ProfileFacetService;
+import com.spring.jwt.profile.search.ProfileScrollService;
+import com.spring.jwt.profile.search.ProfileSearchIndex;
+import com.spring.jwt.profile.text.ProfileTextIndex;
+import com.spring.jwt.repository.UserProfileRepository;
+import com.spring.jwt.repository.UserRepository;
+import com.spring.jwt.utils.CacheUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Concurrency tests for single-flight loading, refresh-ahead and
+ * stale-while-revalidate in {@link TwoLevelCache}.
+ */
+@DisplayName("Cache Stampede Protection Tests")
+public class CacheStampedeProtectionTest {
+
+    private static final int PARALLEL_CALLERS = 100;
+
+    private AnnotationConfigApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(CachingTestConfig.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("100 parallel misses on getProfileByUserId cause a single database load")
+    void parallelMissesAreCoalesced() throws Exception {
+        ProfileService profileService = context.getBean(ProfileService.class);
+        UserProfileRepository repository = context.getBean(UserProfileRepository.class);
+
+        AtomicInteger databaseLoads = new AtomicInteger();
+        when(repository.findByUser_Id(anyInt())).thenAnswer(invocation -> {
+            databaseLoads.incrementAndGet();
+            Thread.sleep(200);
+            return Optional.of(new UserProfile());
+        });
+
+        List<ProfileResponse> results = callInParallel(() -> profileService.getProfileByUserId(42));
+
+        assertEquals(1, databaseLoads.get());
+        assertEquals(PARALLEL_CALLERS, results.size());
+        results.forEach(result -> assertSame(results.get(0), result));
+    }
+
+    @Test
+    @DisplayName("A failed load is reported to every waiting caller and not cached")
+    void failedLoadIsSharedAndNotCached() throws Exception {
+        Cache cache = newCache(Duration.ofMinutes(10), 0.0, Duration.ZERO, new AtomicLong(), Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(executor.submit(() -> cache.get("k", () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    throw new IllegalStateException("database down");
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<Object> future : futures) {
+                Exception ex = assertThrows(Exception.class, future::get);
+                assertInstanceOf(Cache.ValueRetrievalException.class, ex.getCause());
+                assertInstanceOf(IllegalStateException.class, ex.getCause().getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertNull(cache.get("k"));
+    }
+
+    @Test
+    @DisplayName("Entries past the refresh-ahead point are reloaded in the background")
+    void refreshAheadReloadsBeforeExpiry() {
+        AtomicLong clock = new AtomicLong();
+        List<Runnable> reloads = new ArrayList<>();
+        Cache cache = newCache(Duration.ofMinutes(10), 0.8, Duration.ZERO, clock, reloads::add);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1, (int) cache.get("k", loads::incrementAndGet));
+
+        clock.set(Duration.ofMinutes(7).toNanos());
+        assertEquals(1, (int) cache.get("k", loads::incrementAndGet));
+        assertTrue(reloads.isEmpty());
+
+        clock.set(Duration.ofMinutes(9).toNanos());
+        assertEquals(1, (int) cache.get("k", loads::incrementAndGet), "the caller that starts the reload does not wait");
+        assertEquals(1, (int) cache.get("k", () -> fail("Only one reload may be started")));
+        assertEquals(1, reloads.size());
+        assertEquals(1, loads.get());
+
+        reloads.get(0).run();
+        assertEquals(2, (int) cache.get("k", loads::incrementAndGet));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Expired entries are served stale while they are revalidated in the background")
+    void staleWhileRevalidateServesExpiredValue() {
+        AtomicLong clock = new AtomicLong();
+        List<Runnable> reloads = new ArrayList<>();
+        Cache cache = newCache(Duration.ofMinutes(10), 0.0, Duration.ofMinutes(5), clock, reloads::add);
+        cache.put("k", "old");
+        clock.set(Duration.ofMinutes(12).toNanos());
+
+        assertNull(cache.get("k"), "Plain reads must not see expired entries");
+
+        assertEquals("old", cache.get("k", () -> "new"), "the caller that starts the reload gets the stale value");
+        assertEquals("old", cache.get("k", () -> fail("Only one caller may revalidate")));
+        assertEquals(1, reloads.size());
+
+        reloads.get(0).run();
+        assertEquals("new", cache.get("k", String.class));
+    }
+
+    @Test
+    @DisplayName("A failed background reload keeps serving the cached value")
+    void failedRefreshKeepsCachedValue() {
+        AtomicLong clock = new AtomicLong();
+        List<Runnable> reloads = new ArrayList<>();
+        Cache cache = newCache(Duration.ofMinutes(10), 0.8, Duration.ZERO, clock, reloads::add);
+        cache.put("k", "old");
+        clock.set(Duration.ofMinutes(9).toNanos());
+
+        assertEquals("old", cache.get("k", () -> {
+            throw new IllegalStateException("database down");
+        }));
+        reloads.get(0).run();
+
+        assertEquals("old", cache.get("k", String.class));
+        assertEquals("old", cache.get("k", () -> "new"), "a later read starts a new reload");
+        assertEquals(2, reloads.size());
+    }
+
+    private <T> List<T> callInParallel(java.util.concurrent.Callable<T> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_CALLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < PARALLEL_CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Cache newCache(Duration timeToLive, double refreshAheadRatio, Duration staleWhileRevalidate,
+                                  AtomicLong clock, Executor refreshExecutor) {
+        TwoLevelCacheSettings settings = TwoLevelCacheSettings.builder()
+                .timeToLive(timeToLive)
+                .refreshAheadRatio(refreshAheadRatio)
+                .staleWhileRevalidate(staleWhileRevalidate)
+                .ticker(clock::get)
+                .refreshExecutor(refreshExecutor)
+                .build();
+        return new TwoLevelCache("test", settings, null, new InMemoryCacheInvalidationBus(), "node");
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CachingTestConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new TwoLevelCacheManager("test-node", new InMemoryCacheInvalidationBus(), null,
+                    TwoLevelCacheSettings.builder().build());
+        }
+
+        @Bean
+        UserProfileRepository userProfileRepository() {
+            return mock(UserProfileRepository.class);
+        }
+
+        @Bean
+        ProfileDtoMapper profileDtoMapper() {
+            ProfileDtoMapper mapper = mock(ProfileDtoMapper.class);
+            when(mapper.toResponse(any(UserProfile.class))).thenAnswer(invocation -> new ProfileResponse());
+            return mapper;
+        }
+
+        @Bean
+        ProfileService profileService(UserProfileRepository userProfileRepository, ProfileDtoMapper mapper) {
+            return new ProfileServiceImpl(userProfileRepository, mock(UserRepository.class),
+                    mock(CompleteProfileRepository.class), mock(CompleteProfileService.class),
+                    mock(ProfileOwnershipService.class), mapper, mock(ApplicationEventPublisher.class),
+                    new ProfileSearchIndex(), mock(ProfileScrollService.class),
+                    mock(ProfileFacetService.class), mock(LocationService.class), mock(ProfileTextIndex.class),
+                    mock(CacheUtils.class));
+        }
+    }
+}
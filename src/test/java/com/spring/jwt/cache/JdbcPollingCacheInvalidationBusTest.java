@@ -0,0 +1,84 @@
+package com.spring.jwt.cache;
+
+import com.spring.jwt.entity.CacheInvalidationEntry;
+import com.spring.jwt.repository.CacheInvalidationEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("JDBC Polling Cache Invalidation Bus Tests")
+public class JdbcPollingCacheInvalidationBusTest {
+
+    private CacheInvalidationEntryRepository repository;
+    private JdbcPollingCacheInvalidationBus bus;
+    private List<String> delivered;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CacheInvalidationEntryRepository.class);
+        when(repository.findMaxId()).thenReturn(10L);
+
+        bus = new JdbcPollingCacheInvalidationBus(repository, new NoOpTransactionManager());
+        ReflectionTestUtils.setField(bus, "batchSize", 500);
+        ReflectionTestUtils.setField(bus, "rescanWindowSeconds", 60L);
+        bus.initialisePosition();
+
+        delivered = new ArrayList<>();
+        bus.subscribe(message -> delivered.add(message.getEncodedKey()));
+    }
+
+    @Test
+    @DisplayName("Should deliver a row that commits after a higher ID, exactly once")
+    void shouldDeliverRowsCommittedOutOfOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        CacheInvalidationEntry first = entry(11L, "11", now);
+        CacheInvalidationEntry second = entry(12L, "12", now);
+
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(second));
+        bus.poll();
+        assertEquals(List.of("12"), delivered);
+
+        // Row 11 was allocated first but committed after row 12 had been read
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(first, second));
+        bus.poll();
+        bus.poll();
+        assertEquals(List.of("12", "11"), delivered);
+    }
+
+    @Test
+    @DisplayName("Should stop re-reading rows once they are older than the window")
+    void shouldAdvancePastSettledRows() {
+        LocalDateTime old = LocalDateTime.now().minusMinutes(5);
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(entry(11L, "11", old), entry(12L, "12", LocalDateTime.now())));
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(11L), any(Pageable.class)))
+                .thenReturn(List.of(entry(12L, "12", LocalDateTime.now()), entry(13L, "13", LocalDateTime.now())));
+
+        bus.poll();
+        bus.poll();
+
+        assertEquals(List.of("11", "12", "13"), delivered);
+    }
+
+    private static CacheInvalidationEntry entry(long id, String key, LocalDateTime createdAt) {
+        return CacheInvalidationEntry.builder()
+                .id(id)
+                .cacheName("profiles")
+                .cacheKey(key)
+                .originNode("node-b")
+                .createdAt(createdAt)
+                .build();
+    }
+}
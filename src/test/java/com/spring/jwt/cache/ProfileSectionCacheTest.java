@@ -0,0 +1,147 @@
+package com.spring.jwt.cache;
+
+import com.spring.jwt.cache.EntityChangeEvent.EntityType;
+import com.spring.jwt.utils.CacheUtils;
+import com.spring.jwt.utils.CacheUtils.CacheNames;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Negative caching of absent profile sections, together with the listener that
+ * evicts the sentinel when the section is created.
+ */
+@DisplayName("Profile Section Cache Tests")
+public class ProfileSectionCacheTest {
+
+    private static final Integer USER_ID = 7;
+
+    private AnnotationConfigApplicationContext context;
+    private ProfileSectionCache sectionCache;
+    private CacheManager cacheManager;
+    private TransactionTemplate transaction;
+
+    private final AtomicReference<String> stored = new AtomicReference<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(SectionCacheTestConfig.class);
+        sectionCache = context.getBean(ProfileSectionCache.class);
+        cacheManager = context.getBean(CacheManager.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Should cache a missing section, then serve it once it is created")
+    void createdSectionIsNotHiddenByNotFound() {
+        assertEquals(Optional.empty(), find());
+        assertEquals(Optional.empty(), find());
+        assertEquals(1, loads.get(), "the second lookup is answered by the sentinel");
+        assertNotNull(cacheManager.getCache(CacheNames.ABSENT_SECTIONS).get(AbsentSection.key(EntityType.EDUCATION, USER_ID)));
+
+        // What the service does on create: write, then publish inside the transaction
+        transaction.executeWithoutResult(status -> {
+            stored.set("B.Tech");
+            context.publishEvent(EntityChangeEvent.created(EntityType.EDUCATION, 1L, USER_ID));
+        });
+
+        assertEquals(Optional.of("B.Tech"), find());
+        assertEquals(2, loads.get());
+        assertNull(cacheManager.getCache(CacheNames.ABSENT_SECTIONS).get(AbsentSection.key(EntityType.EDUCATION, USER_ID)));
+        assertEquals("B.Tech", cacheManager.getCache(CacheNames.EDUCATION_PROFILES).get(USER_ID, String.class));
+    }
+
+    @Test
+    @DisplayName("Should keep sentinels per section and per user")
+    void sentinelIsScopedToSectionAndUser() {
+        assertEquals(Optional.empty(), find());
+
+        transaction.executeWithoutResult(status ->
+                context.publishEvent(EntityChangeEvent.created(EntityType.CONTACT_DETAILS, 1L, USER_ID)));
+        transaction.executeWithoutResult(status ->
+                context.publishEvent(EntityChangeEvent.created(EntityType.EDUCATION, 1L, USER_ID + 1)));
+
+        assertEquals(Optional.empty(), find());
+        assertEquals(1, loads.get(), "other sections and users do not evict this sentinel");
+    }
+
+    @Test
+    @DisplayName("Should not store the sentinel when the section is created while it is loading")
+    void creationDuringLoadDropsSentinel() throws InterruptedException {
+        Optional<String> found = sectionCache.find(EntityType.EDUCATION, CacheNames.EDUCATION_PROFILES, USER_ID,
+                String.class, () -> {
+                    loads.incrementAndGet();
+                    Optional<String> read = Optional.ofNullable(stored.get());
+                    // Another request creates the section and commits after this read
+                    Thread creator = new Thread(() -> transaction.executeWithoutResult(status -> {
+                        stored.set("B.Tech");
+                        context.publishEvent(EntityChangeEvent.created(EntityType.EDUCATION, 1L, USER_ID));
+                    }));
+                    creator.start();
+                    try {
+                        creator.join();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return read;
+                });
+
+        assertEquals(Optional.empty(), found);
+        assertNull(cacheManager.getCache(CacheNames.ABSENT_SECTIONS).get(AbsentSection.key(EntityType.EDUCATION, USER_ID)));
+        assertEquals(Optional.of("B.Tech"), find());
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<String> find() {
+        return sectionCache.find(EntityType.EDUCATION, CacheNames.EDUCATION_PROFILES, USER_ID, String.class, () -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(stored.get());
+        });
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class SectionCacheTestConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new TwoLevelCacheManager("node", new InMemoryCacheInvalidationBus(), null,
+                    TwoLevelCacheSettings.builder().build());
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new NoOpTransactionManager();
+        }
+
+        @Bean
+        ProfileSectionCache profileSectionCache(CacheManager cacheManager, PlatformTransactionManager transactionManager) {
+            return new ProfileSectionCache(cacheManager, transactionManager);
+        }
+
+        @Bean
+        CacheInvalidationListener cacheInvalidationListener(CacheManager cacheManager) {
+            return new CacheInvalidationListener(new CacheUtils(cacheManager));
+        }
+    }
+}
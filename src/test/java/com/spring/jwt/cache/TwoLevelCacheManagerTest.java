@@ -0,0 +1,114 @@
+package com.spring.jwt.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two cache managers sharing one in-memory bus stand in for two application nodes.
+ */
+@DisplayName("Two-Level Cache Invalidation Tests")
+public class TwoLevelCacheManagerTest {
+
+    private InMemoryCacheInvalidationBus bus;
+    private ConcurrentMapCacheManager sharedTier;
+    private TwoLevelCacheManager nodeA;
+    private TwoLevelCacheManager nodeB;
+
+    @BeforeEach
+    void setUp() {
+        bus = new InMemoryCacheInvalidationBus();
+        sharedTier = new ConcurrentMapCacheManager();
+        nodeA = new TwoLevelCacheManager("node-a", bus, sharedTier, settings(100, Duration.ofMinutes(10)));
+        nodeB = new TwoLevelCacheManager("node-b", bus, sharedTier, settings(100, Duration.ofMinutes(10)));
+    }
+
+    @Test
+    @DisplayName("Eviction on one node removes the L1 entry on the other")
+    void evictionPropagatesToOtherNodes() {
+        nodeA.getCache("profiles").put(42, "v1");
+        assertEquals("v1", nodeB.getCache("profiles").get(42, String.class));
+
+        nodeA.getCache("profiles").evict(42);
+
+        assertNull(nodeB.getCache("profiles").get(42));
+        assertNull(sharedTier.getCache("profiles").get(42));
+    }
+
+    @Test
+    @DisplayName("Integer and String keys with the same text are evicted independently")
+    void keyTypeIsPreserved() {
+        Cache cacheB = nodeB.getCache("completeProfiles");
+        cacheB.put(7, "by-id");
+        cacheB.put("7", "by-string");
+
+        nodeA.getCache("completeProfiles").evict(7);
+
+        assertNull(cacheB.get(7));
+        assertEquals("by-string", cacheB.get("7", String.class));
+    }
+
+    @Test
+    @DisplayName("Clear on one node clears the region on the other")
+    void clearPropagatesToOtherNodes() {
+        Cache cacheB = nodeB.getCache("publicBrowse");
+        cacheB.put("0_20", "page");
+
+        nodeA.getCache("publicBrowse").clear();
+
+        assertNull(cacheB.get("0_20"));
+    }
+
+    @Test
+    @DisplayName("L2 hit is promoted into L1 without calling the loader")
+    void sharedTierServesMisses() {
+        sharedTier.getCache("profiles").put(1, "from-l2");
+
+        String value = nodeA.getCache("profiles").get(1, () -> {
+            fail("Loader should not run when L2 holds the value");
+            return null;
+        });
+
+        assertEquals("from-l2", value);
+        sharedTier.getCache("profiles").evict(1);
+        assertEquals("from-l2", nodeA.getCache("profiles").get(1, String.class));
+    }
+
+    @Test
+    @DisplayName("A value loaded while its key is evicted is kept out of both tiers")
+    void evictionDuringLoadSkipsBothTiers() {
+        Cache cacheA = nodeA.getCache("profiles");
+
+        String value = cacheA.get(3, () -> {
+            nodeB.getCache("profiles").evict(3);
+            return "read-before-eviction";
+        });
+
+        assertEquals("read-before-eviction", value);
+        assertNull(cacheA.get(3));
+        assertNull(sharedTier.getCache("profiles").get(3));
+    }
+
+    @Test
+    @DisplayName("Works without a shared tier")
+    void l1OnlyConfiguration() {
+        TwoLevelCacheManager standalone = new TwoLevelCacheManager("solo", bus, null, settings(10, Duration.ofMinutes(1)));
+        standalone.getCache("profiles").put(5, "local");
+        nodeA.getCache("profiles").evict(5);
+
+        assertNull(standalone.getCache("profiles").get(5));
+    }
+
+    private static TwoLevelCacheSettings settings(long maximumSize, Duration timeToLive) {
+        return TwoLevelCacheSettings.builder()
+                .maximumSize(maximumSize)
+                .timeToLive(timeToLive)
+                .build();
+    }
+}
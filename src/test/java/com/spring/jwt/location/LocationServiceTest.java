@@ -0,0 +1,141 @@
+package com.spring.jwt.location;
+
+import com.spring.jwt.entity.Enums.LocationType;
+import com.spring.jwt.entity.Location;
+import com.spring.jwt.entity.LocationAlias;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Location Service Tests")
+public class LocationServiceTest {
+
+    private final List<Location> saved = new ArrayList<>();
+    private LocationService service;
+
+    @BeforeEach
+    void setUp() {
+        LocationRepository locationRepository = mock(LocationRepository.class);
+        LocationAliasRepository aliasRepository = mock(LocationAliasRepository.class);
+        when(locationRepository.save(any(Location.class))).thenAnswer(invocation -> {
+            Location location = invocation.getArgument(0);
+            location.setLocationId(saved.size() + 1);
+            saved.add(location);
+            return location;
+        });
+        when(aliasRepository.save(any(LocationAlias.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        service = new LocationService(locationRepository, aliasRepository, mock(PlatformTransactionManager.class),
+                "India", new ClassPathResource(LocationService.SEED_RESOURCE));
+    }
+
+    @Test
+    @DisplayName("Spellings, spacing and former names of a city resolve to the same id")
+    void aliasesResolveToOneCity() {
+        LocationRef pune = service.resolveAddress("India", "Maharashtra", "Pune");
+
+        assertNotNull(pune.cityId());
+        assertEquals(pune, service.resolveAddress("india", "maharashtra", "pune "));
+        assertEquals(pune, service.resolveAddress("Bharat", "MH", "Poona"));
+        assertEquals(pune, service.resolveAddress(" INDIA ", null, "PUNE."));
+        assertEquals("Pune", service.name(pune.cityId()));
+        assertEquals("Pune", service.name(pune.districtId()));
+        assertEquals("Maharashtra", service.name(pune.stateId()));
+    }
+
+    @Test
+    @DisplayName("Same city, state and country checks compare ids")
+    void hierarchyComparisons() {
+        LocationRef pune = service.resolveAddress("India", "Maharashtra", "Pune");
+        LocationRef bombay = service.resolveAddress("India", "Maharashtra", "Bombay");
+        LocationRef bangalore = service.resolveAddress("India", "Karnataka", "Bangalore");
+        LocationRef toronto = service.resolveAddress("Canada", "Ontario", "Toronto");
+
+        assertFalse(pune.sameCity(bombay));
+        assertTrue(pune.sameState(bombay));
+        assertFalse(pune.sameState(bangalore));
+        assertTrue(pune.sameCountry(bangalore));
+        assertFalse(pune.sameCountry(toronto));
+        assertFalse(LocationRef.UNKNOWN.sameCountry(LocationRef.UNKNOWN));
+    }
+
+    @Test
+    @DisplayName("A place seen for the first time is stored once under its state")
+    void unknownPlacesAreLearned() {
+        LocationRef maharashtra = service.resolveAddress("India", "Maharashtra", null);
+        int known = saved.size();
+        LocationRef village = service.resolveAddress("India", "Maharashtra", "Saswad");
+        LocationRef again = service.resolveAddress("India", "Maharashtra", " saswad");
+
+        assertEquals(known + 1, saved.size());
+        assertEquals(village, again);
+        assertEquals(maharashtra.stateId(), village.stateId());
+        assertFalse(saved.get(saved.size() - 1).getVerified());
+
+        LocationRef otherPune = service.resolveAddress("India", "Karnataka", "Pune");
+        assertNotEquals(service.resolveAddress("India", "Maharashtra", "Pune").cityId(), otherPune.cityId());
+    }
+
+    @Test
+    @DisplayName("Lookups do not add places")
+    void lookupsAreReadOnly() {
+        service.resolveAddress("India", "Maharashtra", "Pune");
+        int known = saved.size();
+
+        LocationRef unknown = service.lookupAddress("India", "Maharashtra", "Nowhere");
+
+        assertEquals(known, saved.size());
+        assertNull(unknown.cityId());
+        assertNotNull(unknown.stateId());
+        assertEquals(service.lookupCity("Poona").cityId(), service.lookupAddress("India", null, "Pune").cityId());
+    }
+
+    @Test
+    @DisplayName("An address without a known country is in no country")
+    void lookupsWithoutCountryHaveNoCountry() {
+        LocationRef pune = service.resolveAddress("India", "Maharashtra", "Pune");
+
+        LocationRef noCountry = service.lookupAddress(null, "Maharashtra", "Pune");
+        assertNull(noCountry.countryId());
+        assertEquals(pune.cityId(), noCountry.cityId());
+        assertFalse(noCountry.sameCountry(pune));
+        assertFalse(noCountry.sameCountry(service.lookupAddress(" ", null, null)));
+        assertNull(service.lookupAddress("Atlantis", "Maharashtra", null).countryId());
+        assertEquals(pune.countryId(), service.lookupAddress("Bharat", null, null).countryId());
+    }
+
+    @Test
+    @DisplayName("A profile's district and city resolve without a state")
+    void profilesResolveByDistrict() {
+        LocationRef profile = service.resolveProfile("Nasik", "Malegaon");
+
+        assertEquals("Nashik", service.name(profile.districtId()));
+        assertEquals("Malegaon", service.name(profile.cityId()));
+        assertEquals(service.ref(profile.cityId()).districtId(), profile.districtId());
+        assertEquals("Maharashtra", service.name(profile.stateId()));
+
+        LocationRef commuter = service.resolveProfile("Thane", "Pune");
+        assertEquals(service.lookupCity("Pune").cityId(), commuter.cityId());
+    }
+
+    @Test
+    @DisplayName("Location search matches names and aliases")
+    void searchMatchesAliases() {
+        LocationRef mumbai = service.resolveAddress("India", "Maharashtra", "Mumbai");
+        LocationRef navi = service.resolveAddress("India", "Maharashtra", "Navi Mumbai");
+
+        assertTrue(service.idsContaining(LocationType.CITY, "bomb").contains(mumbai.cityId()));
+        assertTrue(service.idsContaining(LocationType.CITY, "bomb").contains(navi.cityId()));
+        assertEquals(List.of(mumbai.stateId()), service.idsContaining(LocationType.STATE, "maharash"));
+        assertTrue(service.idsContaining(LocationType.COUNTRY, "atlantis").isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+package com.spring.jwt.profile.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Compressed Bitmap Tests")
+public class CompressedBitmapTest {
+
+    @Test
+    @DisplayName("Adds, removes, intersections and rank lookups match a BitSet across sparse and dense chunks")
+    void matchesBitSet() {
+        Random random = new Random(7);
+        CompressedBitmap a = new CompressedBitmap();
+        CompressedBitmap b = new CompressedBitmap();
+        BitSet expectedA = new BitSet();
+        BitSet expectedB = new BitSet();
+        // Dense in the first chunk, sparse in the rest, so both container kinds and conversions are exercised
+        for (int i = 0; i < 60_000; i++) {
+            int value = i % 3 == 0 ? random.nextInt(300_000) : random.nextInt(65_536);
+            a.add(value);
+            expectedA.set(value);
+            int other = random.nextInt(200_000);
+            b.add(other);
+            expectedB.set(other);
+        }
+        for (int i = 0; i < 40_000; i++) {
+            int value = random.nextInt(65_536);
+            a.remove(value);
+            expectedA.clear(value);
+        }
+
+        assertEquals(expectedA.cardinality(), a.cardinality());
+        assertEquals(expectedA, toBitSet(a));
+        BitSet and = (BitSet) expectedA.clone();
+        and.and(expectedB);
+        assertEquals(and, toBitSet(a.and(b)));
+        BitSet or = (BitSet) expectedA.clone();
+        or.or(expectedB);
+        assertEquals(or, toBitSet(a.or(b)));
+
+        List<Integer> ascending = new ArrayList<>();
+        expectedA.stream().forEach(ascending::add);
+        for (int rank = 0; rank < ascending.size(); rank += 997) {
+            assertEquals(ascending.get(rank), a.select(rank));
+        }
+        assertTrue(a.contains(ascending.get(0)));
+        assertThrows(IndexOutOfBoundsException.class, () -> a.select(ascending.size()));
+    }
+
+    @Test
+    @DisplayName("Removing every value leaves an empty bitmap")
+    void removeAll() {
+        CompressedBitmap bitmap = CompressedBitmap.of(1, 70_000, 140_000);
+        CompressedBitmap copy = bitmap.copy();
+
+        bitmap.remove(1);
+        bitmap.remove(70_000);
+        bitmap.remove(140_000);
+
+        assertTrue(bitmap.isEmpty());
+        assertEquals(3, copy.cardinality());
+    }
+
+    private static BitSet toBitSet(CompressedBitmap bitmap) {
+        BitSet bits = new BitSet();
+        bitmap.forEach(bits::set);
+        return bits;
+    }
+}
@@ -0,0 +1,253 @@
+package com.spring.jwt.profile.search;
+
+import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.entity.Enums.Status;
+import com.spring.jwt.profile.search.ProfileQuery.SortField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Profile Search Index Tests")
+public class ProfileSearchIndexTest {
+
+    private static final String[] RELIGIONS = {"Hindu", "Muslim", "Christian", "Jain", "Buddhist"};
+    private static final String[] CASTES = {"Maratha", "Brahmin", "Kunbi", "Mali", "Dhangar", "Teli", "Sonar"};
+    private static final String[] DISTRICTS = {"Pune", "Nashik", "Satara", "Kolhapur", "Sangli", "Solapur"};
+    private static final String[] MARITAL_STATUSES = {"Never Married", "Divorced", "Widowed"};
+
+    private final Random random = new Random(11);
+    private final Map<Integer, IndexedProfile> profiles = new LinkedHashMap<>();
+    private ProfileSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        for (int id = 1; id <= 3000; id++) {
+            profiles.put(id, randomProfile(id));
+        }
+        index = new ProfileSearchIndex();
+        index.startRebuild();
+        index.finishRebuild(new ArrayList<>(profiles.values()));
+    }
+
+    @Test
+    @DisplayName("Searches return the same page and total as filtering every profile")
+    void matchesFullScan() {
+        assertTrue(index.isReady());
+        for (int i = 0; i < 300; i++) {
+            assertMatchesScan(randomQuery(), SortField.values()[i % 3], i % 2 == 0, random.nextInt(3) * 20);
+        }
+    }
+
+    @Test
+    @DisplayName("Text filters ignore case and surrounding whitespace")
+    void textFiltersIgnoreCase() {
+        ProfileQuery query = new ProfileQuery(null, Status.ACTIVE, " hindu ", "MARATHA", null, "never married",
+                null, null, null, null);
+
+        assertMatchesScan(query, SortField.PROFILE_ID, true, 0);
+        assertTrue(index.search(query, SortField.PROFILE_ID, true, 0, 20).total() > 0);
+    }
+
+    @Test
+    @DisplayName("Updates and removals, including ones made during a rebuild, are reflected in results")
+    void followsChanges() {
+        for (int i = 0; i < 500; i++) {
+            change();
+        }
+        index.startRebuild();
+        List<IndexedProfile> snapshot = new ArrayList<>(profiles.values());
+        for (int i = 0; i < 200; i++) {
+            change();
+        }
+        index.finishRebuild(snapshot);
+
+        for (int i = 0; i < 100; i++) {
+            assertMatchesScan(randomQuery(), SortField.values()[i % 3], i % 2 == 1, 0);
+        }
+        assertEquals(profiles.size(), index.getStats().profiles());
+    }
+
+    @Test
+    @DisplayName("Scrolling with cursors visits every match once, in order, before and after changes")
+    void cursorsScrollEveryMatch() {
+        for (int i = 0; i < 60; i++) {
+            if (i == 30) {
+                for (int c = 0; c < 300; c++) {
+                    change();
+                }
+            }
+            ProfileQuery query = randomQuery();
+            SortField sortField = SortField.values()[i % 3];
+            boolean ascending = i % 2 == 0;
+            List<Integer> expected = profiles.values().stream()
+                    .filter(matches(query))
+                    .sorted(ascending ? order(sortField) : order(sortField).reversed())
+                    .map(IndexedProfile::profileId)
+                    .toList();
+
+            List<Integer> scrolled = new ArrayList<>();
+            String cursor = null;
+            ProfileSearchIndex.SearchHits hits;
+            do {
+                hits = index.searchAfter(query, sortField, ascending,
+                        ProfileCursor.decode(cursor, sortField, ascending), 25);
+                scrolled.addAll(hits.profileIds());
+                assertEquals(expected.size(), hits.total(), query::toString);
+                cursor = hits.hasMore() ? new ProfileCursor(sortField, ascending, hits.last()).encode() : null;
+            } while (cursor != null);
+
+            assertEquals(expected, scrolled, query::toString);
+        }
+    }
+
+    @Test
+    @DisplayName("A cursor issued for one sort order is rejected for another")
+    void cursorIsTiedToSortOrder() {
+        String cursor = new ProfileCursor(SortField.AGE, true, new ProfileSearchIndex.SortKey(30, 7)).encode();
+
+        assertEquals(new ProfileSearchIndex.SortKey(30, 7), ProfileCursor.decode(cursor, SortField.AGE, true));
+        assertThrows(IllegalArgumentException.class, () -> ProfileCursor.decode(cursor, SortField.AGE, false));
+        assertThrows(IllegalArgumentException.class, () -> ProfileCursor.decode(cursor, SortField.HEIGHT, true));
+        assertThrows(IllegalArgumentException.class, () -> ProfileCursor.decode("not a cursor", SortField.AGE, true));
+    }
+
+    @Test
+    @DisplayName("Facet counts match grouping every matching profile, including after changes")
+    void facetCountsMatchFullScan() {
+        for (int i = 0; i < 40; i++) {
+            if (i == 20) {
+                for (int c = 0; c < 300; c++) {
+                    change();
+                }
+            }
+            ProfileQuery query = randomQuery();
+            Map<ProfileFacet, Map<String, Long>> counts = index.facetCounts(query, EnumSet.allOf(ProfileFacet.class));
+
+            for (ProfileFacet facet : ProfileFacet.values()) {
+                Map<String, Long> expected = profiles.values().stream()
+                        .filter(matches(query))
+                        .filter(profile -> facet.label(profile) != null)
+                        .collect(Collectors.groupingBy(facet::label, Collectors.counting()));
+                assertEquals(expected, counts.get(facet), () -> facet + " " + query);
+            }
+        }
+        assertEquals(List.of("18-24", "25-29", "30-34", "35-39", "40-44", "45-49", "50+"),
+                new ArrayList<>(index.facetCounts(new ProfileQuery(null, null, null, null, null, null,
+                        null, null, null, null), EnumSet.of(ProfileFacet.AGE_BAND)).get(ProfileFacet.AGE_BAND).keySet()));
+    }
+
+    private void change() {
+        int id = 1 + random.nextInt(3500);
+        if (random.nextInt(4) == 0) {
+            profiles.remove(id);
+            index.remove(id);
+        } else {
+            IndexedProfile profile = randomProfile(id);
+            profiles.put(id, profile);
+            index.upsert(profile);
+        }
+    }
+
+    private void assertMatchesScan(ProfileQuery query, SortField sortField, boolean ascending, int offset) {
+        Comparator<IndexedProfile> order = order(sortField);
+        List<Integer> expected = profiles.values().stream()
+                .filter(matches(query))
+                .sorted(ascending ? order : order.reversed())
+                .map(IndexedProfile::profileId)
+                .toList();
+
+        ProfileSearchIndex.SearchHits hits = index.search(query, sortField, ascending, offset, 20);
+
+        assertEquals(expected.size(), hits.total(), query::toString);
+        if (sortField == SortField.PROFILE_ID) {
+            assertEquals(expected.subList(Math.min(offset, expected.size()), Math.min(offset + 20, expected.size())),
+                    hits.profileIds(), query::toString);
+        } else {
+            // Ties in age or height may be ordered by ordinal, which changes with upserts of new profiles
+            List<IndexedProfile> page = hits.profileIds().stream().map(profiles::get).toList();
+            assertTrue(page.stream().allMatch(matches(query)), query::toString);
+            for (int i = 1; i < page.size(); i++) {
+                int compared = order.compare(page.get(i - 1), page.get(i));
+                assertTrue(ascending ? compared <= 0 || sameKey(sortField, page.get(i - 1), page.get(i))
+                        : compared >= 0 || sameKey(sortField, page.get(i - 1), page.get(i)), query::toString);
+            }
+            assertEquals(Math.max(0, Math.min(20, expected.size() - offset)), page.size());
+        }
+    }
+
+    private static Comparator<IndexedProfile> order(SortField sortField) {
+        return switch (sortField) {
+            case PROFILE_ID -> Comparator.comparing(IndexedProfile::profileId);
+            case AGE -> Comparator.comparing(IndexedProfile::age).thenComparing(IndexedProfile::profileId);
+            case HEIGHT -> Comparator.comparing((IndexedProfile profile) -> Math.round(profile.height() * 100))
+                    .thenComparing(IndexedProfile::profileId);
+        };
+    }
+
+    private static boolean sameKey(SortField sortField, IndexedProfile a, IndexedProfile b) {
+        return sortField == SortField.AGE ? a.age().equals(b.age())
+                : Math.round(a.height() * 100) == Math.round(b.height() * 100);
+    }
+
+    private static Predicate<IndexedProfile> matches(ProfileQuery query) {
+        return profile -> (query.gender() == null || query.gender() == profile.gender())
+                && (query.status() == null || query.status() == profile.status())
+                && textMatches(query.religion(), profile.religion())
+                && textMatches(query.caste(), profile.caste())
+                && textMatches(query.district(), profile.district())
+                && textMatches(query.maritalStatus(), profile.maritalStatus())
+                && (query.minAge() == null || profile.age() >= query.minAge())
+                && (query.maxAge() == null || profile.age() <= query.maxAge())
+                && (query.minHeight() == null || profile.height() >= query.minHeight())
+                && (query.maxHeight() == null || profile.height() <= query.maxHeight());
+    }
+
+    private static boolean textMatches(String wanted, String actual) {
+        return wanted == null || wanted.trim().equalsIgnoreCase(actual);
+    }
+
+    private ProfileQuery randomQuery() {
+        Integer minAge = random.nextBoolean() ? 18 + random.nextInt(30) : null;
+        Double minHeight = random.nextInt(3) == 0 ? 150.0 + random.nextInt(30) : null;
+        return new ProfileQuery(
+                random.nextBoolean() ? Gender.values()[random.nextInt(2)] : null,
+                random.nextInt(4) > 0 ? Status.ACTIVE : null,
+                random.nextInt(3) == 0 ? pick(RELIGIONS) : null,
+                random.nextInt(3) == 0 ? pick(CASTES) : null,
+                random.nextInt(3) == 0 ? pick(DISTRICTS) : null,
+                random.nextInt(4) == 0 ? pick(MARITAL_STATUSES) : null,
+                minAge,
+                random.nextBoolean() ? (minAge != null ? minAge : 18) + random.nextInt(15) : null,
+                minHeight,
+                random.nextInt(3) == 0 ? (minHeight != null ? minHeight : 140.0) + random.nextInt(40) : null);
+    }
+
+    private IndexedProfile randomProfile(int id) {
+        return new IndexedProfile(
+                id,
+                Gender.values()[random.nextInt(2)],
+                random.nextInt(5) == 0 ? Status.DEACTIVE : Status.ACTIVE,
+                pick(RELIGIONS),
+                pick(CASTES),
+                pick(DISTRICTS),
+                pick(MARITAL_STATUSES),
+                18 + random.nextInt(40),
+                140.0 + random.nextInt(600) / 10.0);
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
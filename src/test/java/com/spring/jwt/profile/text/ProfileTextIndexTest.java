@@ -0,0 +1,92 @@
+package com.spring.jwt.profile.text;
+
+import com.spring.jwt.entity.Enums.Gender;
+import com.spring.jwt.entity.Enums.Status;
+import com.spring.jwt.profile.search.ProfileQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Profile Text Index Tests")
+public class ProfileTextIndexTest {
+
+    private static final LocalDateTime SYNCED = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @TempDir
+    Path directory;
+
+    private ProfileTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProfileTextIndex(directory.toString());
+        index.startRebuild();
+        index.upsert(profile(1, Gender.FEMALE, "Hindu", "Pune", 27, "Software Engineer", "Infosys", "Farmer"));
+        index.upsert(profile(2, Gender.FEMALE, "Hindu", "Nashik", 29, "Software Engineer", "TCS", "Teacher"));
+        index.upsert(profile(3, Gender.MALE, "Jain", "Pune", 31, "Doctor", "Ruby Hall", "Lawyer"));
+        index.upsert(profile(4, Gender.FEMALE, "Hindu", "Pune", 35, "Teacher", "Zilla Parishad", "Software engineer"));
+        index.finishRebuild(SYNCED);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    @DisplayName("Should rank career matches above family matches and honour filters")
+    void shouldRankAndFilter() {
+        assertTrue(index.isReady());
+
+        ProfileTextIndex.TextHits hits = index.search("software engineer in Pune", null, 0, 10);
+        assertEquals(1, hits.profileIds().get(0));
+        assertTrue(hits.profileIds().containsAll(List.of(1, 2, 4)));
+        assertFalse(hits.profileIds().contains(3), "a single matching word out of three is not enough");
+
+        ProfileQuery hindu = new ProfileQuery(Gender.FEMALE, null, " HINDU ", null, null, null, 28, null, null, null);
+        assertEquals(List.of(2, 4), index.search("software engineer", hindu, 0, 10).profileIds().stream().sorted().toList());
+        assertEquals(2, index.search("software engineer", hindu, 1, 1).total());
+    }
+
+    @Test
+    @DisplayName("Should show updates and removals after a refresh")
+    void shouldApplyChangesNearRealTime() {
+        index.upsert(profile(5, Gender.MALE, "Hindu", "Kolhapur", 30, "Chartered Accountant", "Deloitte", null));
+        index.remove(1);
+        assertEquals(List.of(1), index.search("infosys", null, 0, 10).profileIds());
+
+        index.refresh();
+        assertEquals(List.of(5), index.search("accountant kolhapur", null, 0, 10).profileIds());
+        assertTrue(index.search("infosys", null, 0, 10).profileIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reopen a committed index with its sync point and reject empty searches")
+    void shouldSurviveRestart() throws IOException {
+        index.upsert(profile(6, Gender.FEMALE, "Sikh", "Nagpur", 26, "Architect", null, null));
+        index.commit(SYNCED.plusHours(1));
+        index.close();
+
+        index = new ProfileTextIndex(directory.toString());
+        assertTrue(index.isReady());
+        assertEquals(SYNCED.plusHours(1), index.getSyncedUpTo());
+        assertEquals(List.of(6), index.search("architect", null, 0, 10).profileIds());
+        assertThrows(IllegalArgumentException.class, () -> index.search("the and of", null, 0, 10));
+    }
+
+    private static ProfileText profile(int profileId, Gender gender, String religion, String district, int age,
+                                       String occupation, String companyName, String fatherOccupation) {
+        return new ProfileText(profileId, 100 + profileId, gender, Status.ACTIVE, religion, null, district, null,
+                age, 165.0, "First" + profileId, "Last", null, null, null, district, null, null, occupation,
+                null, null, district, companyName, fatherOccupation, null, null, null);
+    }
+}
@@ -0,0 +1,63 @@
+package com.spring.jwt.profile.view;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.jwt.profile.dto.response.ProfileCardView;
+import com.spring.jwt.profile.dto.response.ProfileListView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Field Selector Tests")
+public class FieldSelectorTest {
+
+    private static final Map<ProfileView, Class<?>> VIEWS = new EnumMap<>(Map.of(
+            ProfileView.CARD, ProfileCardView.class,
+            ProfileView.SUMMARY, ProfileListView.class));
+
+    private final FieldSelector fieldSelector = new FieldSelector(new ObjectMapper());
+
+    @Test
+    @DisplayName("Should pick the smallest view that has every requested field")
+    void shouldPickSmallestView() {
+        assertEquals(ProfileView.SUMMARY, fieldSelector.resolve(null, null, ProfileView.SUMMARY, VIEWS));
+        assertEquals(ProfileView.CARD, fieldSelector.resolve(ProfileView.CARD, Set.of(), ProfileView.SUMMARY, VIEWS));
+        assertEquals(ProfileView.CARD,
+                fieldSelector.resolve(null, Set.of("firstName", "age", "currentCity"), ProfileView.SUMMARY, VIEWS));
+        assertEquals(ProfileView.SUMMARY,
+                fieldSelector.resolve(null, Set.of("firstName", "religion"), ProfileView.SUMMARY, VIEWS));
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported views and fields outside the view")
+    void shouldRejectUnknownFields() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> fieldSelector.resolve(null, Set.of("age", "salary"), ProfileView.SUMMARY, VIEWS));
+        assertEquals("Unknown fields: [salary]", unknown.getMessage());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> fieldSelector.resolve(ProfileView.CARD, Set.of("religion"), ProfileView.SUMMARY, VIEWS));
+        assertThrows(IllegalArgumentException.class,
+                () -> fieldSelector.resolve(ProfileView.FULL, null, ProfileView.SUMMARY, VIEWS));
+    }
+
+    @Test
+    @DisplayName("Should cut each item down to the requested fields")
+    void shouldSelectFields() {
+        Page<ProfileCardView> page = new PageImpl<>(List.of(ProfileCardView.builder()
+                .userProfileId(1).firstName("Asha").age(27).currentCity("Pune").hasProfilePhoto(false).build()),
+                PageRequest.of(0, 20), 1);
+
+        assertSame(page, fieldSelector.select(page, null));
+        assertEquals(List.of(Map.of("firstName", "Asha", "age", 27)),
+                fieldSelector.select(page, Set.of("firstName", "age")).getContent());
+    }
+}
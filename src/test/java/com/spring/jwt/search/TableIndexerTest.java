@@ -0,0 +1,152 @@
+package com.spring.jwt.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Table Indexer Tests")
+public class TableIndexerTest {
+
+    private final Map<Integer, String> table = new TreeMap<>();
+    private final NameIndex names = new NameIndex();
+    private final NameIndex otherNames = new NameIndex();
+    private boolean otherFeedFails;
+    private TestIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        for (int id = 1; id <= 5; id++) {
+            table.put(id, "row-" + id);
+        }
+        indexer = new TestIndexer();
+    }
+
+    @Test
+    @DisplayName("Should load every feed in chunks and apply committed changes")
+    void shouldRebuildAndReindex() {
+        assertEquals(5, indexer.rebuild());
+        assertEquals(table, names.snapshot());
+        assertEquals(table, otherNames.snapshot());
+
+        // A change made while the rebuild loads is replayed onto the rebuilt index
+        names.startRebuild();
+        names.upsert(new Row(6, "row-6"));
+        names.finishRebuild(List.of(new Row(1, "row-1")));
+        assertEquals(Map.of(1, "row-1", 6, "row-6"), names.snapshot());
+
+        table.remove(1);
+        table.put(6, "renamed");
+        indexer.reindex(List.of(1, 6));
+        assertEquals(Map.of(6, "renamed"), names.snapshot());
+        assertEquals(Map.of(2, "row-2", 3, "row-3", 4, "row-4", 5, "row-5", 6, "renamed"), otherNames.snapshot());
+    }
+
+    @Test
+    @DisplayName("Should abort every feed when one of them fails to load")
+    void shouldAbortAllFeedsOnFailure() {
+        otherFeedFails = true;
+        assertEquals(-1, indexer.rebuild());
+        assertFalse(otherNames.isReady());
+
+        // The failed feed no longer records changes for a rebuild that will not finish
+        otherNames.upsert(new Row(9, "late"));
+        otherNames.finishRebuild(List.of());
+        assertEquals(Map.of(), otherNames.snapshot());
+    }
+
+    private record Row(Integer id, String name) {
+    }
+
+    private static final class NameIndex extends LiveIndex<Row, NameIndex.Names> {
+
+        NameIndex() {
+            super(new Names());
+        }
+
+        @Override
+        protected Names build(List<Row> rows) {
+            Names names = new Names();
+            rows.forEach(names::upsert);
+            return names;
+        }
+
+        @Override
+        protected Integer idOf(Row row) {
+            return row.id();
+        }
+
+        Map<Integer, String> snapshot() {
+            return read(names -> new TreeMap<>(names.byId));
+        }
+
+        static final class Names implements LiveIndex.State<Row> {
+            private final Map<Integer, String> byId = new TreeMap<>();
+
+            @Override
+            public void upsert(Row row) {
+                byId.put(row.id(), row.name());
+            }
+
+            @Override
+            public void remove(Integer id) {
+                byId.remove(id);
+            }
+        }
+    }
+
+    private final class TestIndexer extends TableIndexer {
+
+        TestIndexer() {
+            super("test index", mock(PlatformTransactionManager.class), true, 2, 60);
+        }
+
+        @Override
+        protected List<Feed<?>> feeds() {
+            return List.of(
+                    new Feed<>(names, this::loadAfter, this::loadByIds),
+                    new Feed<>(otherNames, (afterId, pageable) -> {
+                        if (otherFeedFails) {
+                            throw new IllegalStateException("connection lost");
+                        }
+                        return loadAfter(afterId, pageable);
+                    }, this::loadByIds));
+        }
+
+        @Override
+        protected LocalDateTime findLatestUpdate() {
+            return LocalDateTime.now();
+        }
+
+        @Override
+        protected List<Integer> findIdsUpdatedSince(LocalDateTime since) {
+            return new ArrayList<>(table.keySet());
+        }
+
+        private List<Row> loadAfter(Integer afterId, Pageable pageable) {
+            return table.entrySet().stream()
+                    .filter(row -> row.getKey() > afterId)
+                    .limit(pageable.getPageSize())
+                    .map(row -> new Row(row.getKey(), row.getValue()))
+                    .toList();
+        }
+
+        private List<Row> loadByIds(Collection<Integer> ids) {
+            return ids.stream()
+                    .filter(table::containsKey)
+                    .map(id -> new Row(id, table.get(id)))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.spring.jwt.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cache Utils Tests")
+public class CacheUtilsTest {
+
+    private CacheUtils cacheUtils;
+    private List<List<Integer>> loads;
+
+    @BeforeEach
+    void setUp() {
+        cacheUtils = new CacheUtils(new ConcurrentMapCacheManager());
+        loads = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Should load only cache misses, in one call, and keep the request order")
+    void shouldLoadMissesInBulk() {
+        cacheUtils.put(CacheUtils.CacheNames.PROFILES, 2, "cached-2");
+
+        Map<Integer, String> first = getAll(List.of(3, 2, 1, 3, 9));
+
+        assertEquals(List.of(3, 2, 1), List.copyOf(first.keySet()));
+        assertEquals("cached-2", first.get(2));
+        assertEquals(List.of(List.of(3, 1, 9)), loads);
+
+        Map<Integer, String> second = getAll(List.of(1, 3));
+
+        assertEquals(List.of("loaded-1", "loaded-3"), List.copyOf(second.values()));
+        assertEquals(1, loads.size(), "everything found was cached by the first call");
+    }
+
+    private Map<Integer, String> getAll(List<Integer> ids) {
+        return cacheUtils.getAll(CacheUtils.CacheNames.PROFILES, ids, id -> id, String.class, missing -> {
+            loads.add(List.copyOf(missing));
+            Map<Integer, String> loaded = new HashMap<>();
+            // ID 9 does not exist
+            missing.stream().filter(id -> id != 9).forEach(id -> loaded.put(id, "loaded-" + id));
+            return loaded;
+        });
+    }
+}
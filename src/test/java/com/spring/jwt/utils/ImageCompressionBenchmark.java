@@ -0,0 +1,139 @@
+package com.spring.jwt.utils;
+
+import com.spring.jwt.Document.Service.DocumentPipelineMetrics;
+import com.spring.jwt.config.DocumentProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the predictive encoder with the iterative one over a fixed corpus, and
+ * parallel PDF image recompression with a single thread for 1, 10 and 50 pages
+ *
+ * Opt-in, since it takes a while: {@code mvn test -Dtest=ImageCompressionBenchmark -Dbenchmark=true}
+ */
+@DisplayName("Image Compression Benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ImageCompressionBenchmark {
+
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    private record Sample(String name, byte[] upload, String documentType, long targetBytes) {
+    }
+
+    private record Result(long medianMillis, int sizeBytes, double passes) {
+    }
+
+    @Test
+    @DisplayName("Predictive encoding against the iterative encoder")
+    void compareEncoders() throws IOException {
+        List<Sample> corpus = corpus();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ImageOptimizationService service = new ImageOptimizationService(new DocumentProperties(),
+                new DocumentPipelineMetrics(registry), Runnable::run);
+
+        System.out.printf("%-26s %8s | %9s %8s %6s | %9s %8s %6s%n", "image", "target",
+                "iter ms", "iter KB", "passes", "pred ms", "pred KB", "passes");
+        long iterativeTotal = 0;
+        long predictiveTotal = 0;
+        for (Sample sample : corpus) {
+            Result iterative = run(registry, () -> service.compressImageIteratively(
+                    sample.upload(), sample.documentType(), sample.targetBytes()));
+            Result predictive = run(registry, () -> service.compressImagePredictively(
+                    sample.upload(), sample.documentType(), sample.targetBytes()));
+            iterativeTotal += iterative.medianMillis();
+            predictiveTotal += predictive.medianMillis();
+
+            System.out.printf("%-26s %6dKB | %9d %8d %6.0f | %9d %8d %6.0f%n", sample.name(),
+                    sample.targetBytes() / 1024,
+                    iterative.medianMillis(), iterative.sizeBytes() / 1024, iterative.passes(),
+                    predictive.medianMillis(), predictive.sizeBytes() / 1024, predictive.passes());
+            assertTrue(predictive.passes() <= 2.0);
+        }
+        System.out.printf("total: iterative %dms, predictive %dms%n", iterativeTotal, predictiveTotal);
+    }
+
+    @Test
+    @DisplayName("Parallel PDF image recompression against a single thread")
+    void comparePdfParallelism() throws IOException {
+        DocumentProperties properties = new DocumentProperties();
+        int threads = properties.getPdf().resolveImageThreads();
+        byte[] pageImage = SyntheticImages.jpeg(SyntheticImages.texture(1654, 2339, 21));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            ImageOptimizationService sequential = new ImageOptimizationService(properties,
+                    new DocumentPipelineMetrics(new SimpleMeterRegistry()), Runnable::run);
+            ImageOptimizationService parallel = new ImageOptimizationService(properties,
+                    new DocumentPipelineMetrics(new SimpleMeterRegistry()), pool);
+
+            System.out.printf("%d image threads, %d images in flight%n", threads,
+                    properties.getPdf().resolveMaxImagesInFlight());
+            System.out.printf("%-8s %9s | %9s %9s | %9s %9s%n", "pages", "input KB",
+                    "1 thr ms", "KB", threads + " thr ms", "KB");
+            for (int pages : new int[]{1, 10, 50}) {
+                byte[] pdf = SyntheticImages.pdf(pageImage, pages, false);
+                Result single = run(null, () -> sequential.compressPdf(pdf));
+                Result pooled = run(null, () -> parallel.compressPdf(pdf));
+                System.out.printf("%-8d %9d | %9d %9d | %9d %9d%n", pages, pdf.length / 1024,
+                        single.medianMillis(), single.sizeBytes() / 1024,
+                        pooled.medianMillis(), pooled.sizeBytes() / 1024);
+                assertTrue(pooled.sizeBytes() < pdf.length);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private interface Encoder {
+        byte[] encode() throws IOException;
+    }
+
+    private static Result run(SimpleMeterRegistry registry, Encoder encoder) throws IOException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            encoder.encode();
+        }
+        long[] millis = new long[MEASURED_RUNS];
+        byte[] output = null;
+        if (registry != null) {
+            registry.clear();
+        }
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            output = encoder.encode();
+            millis[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(millis);
+        double passes = registry != null ? registry.summary(DocumentPipelineMetrics.ENCODE_PASSES).mean() : 0;
+        return new Result(millis[MEASURED_RUNS / 2], output.length, passes);
+    }
+
+    private static List<Sample> corpus() throws IOException {
+        List<Sample> corpus = new ArrayList<>();
+        corpus.add(new Sample("portrait 3000x4000", SyntheticImages.jpeg(SyntheticImages.photo(3000, 4000, 11)),
+                "PROFILE_PHOTO", 200 * 1024));
+        corpus.add(new Sample("landscape 6000x4000", SyntheticImages.jpeg(SyntheticImages.photo(6000, 4000, 12)),
+                "PHOTO", 1536 * 1024));
+        corpus.add(new Sample("landscape 6000x4000 tight", SyntheticImages.jpeg(SyntheticImages.photo(6000, 4000, 12)),
+                "PHOTO", 400 * 1024));
+        corpus.add(new Sample("A4 scan 2480x3508", SyntheticImages.jpeg(SyntheticImages.scan(2480, 3508, 13)),
+                "ID_PROOF", 400 * 1024));
+        corpus.add(new Sample("texture 4000x3000", SyntheticImages.jpeg(SyntheticImages.texture(4000, 3000, 14)),
+                "PHOTO", 400 * 1024));
+        corpus.add(new Sample("texture 2560x1080 png", SyntheticImages.png(SyntheticImages.texture(2560, 1080, 15)),
+                "PHOTO", 200 * 1024));
+        corpus.add(new Sample("small 1200x900", SyntheticImages.jpeg(SyntheticImages.photo(1200, 900, 16)),
+                "PHOTO", 1536 * 1024));
+        return corpus;
+    }
+}
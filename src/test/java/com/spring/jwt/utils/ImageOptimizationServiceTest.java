@@ -0,0 +1,160 @@
+package com.spring.jwt.utils;
+
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+import com.spring.jwt.Document.Service.DocumentPipelineMetrics;
+import com.spring.jwt.config.DocumentProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Image Optimization Service Tests")
+public class ImageOptimizationServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ImageOptimizationService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ImageOptimizationService(new DocumentProperties(), new DocumentPipelineMetrics(meterRegistry), Runnable::run);
+    }
+
+    @Test
+    @DisplayName("An image that fits at full size is encoded once without scaling")
+    void easyImageTakesOnePass() throws IOException {
+        byte[] upload = SyntheticImages.jpeg(SyntheticImages.photo(1200, 900, 1));
+
+        byte[] result = service.compressImagePredictively(upload, "PHOTO", 1536 * 1024);
+
+        assertEquals(1, encodePasses().count());
+        assertEquals(1.0, encodePasses().max());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(result));
+        assertEquals(1200, decoded.getWidth());
+        assertEquals(900, decoded.getHeight());
+    }
+
+    @Test
+    @DisplayName("A tight target is met with at most one correction pass")
+    void tightTargetIsMet() throws IOException {
+        byte[] upload = SyntheticImages.jpeg(SyntheticImages.photo(2400, 1800, 2));
+
+        byte[] result = service.compressImagePredictively(upload, "PHOTO", 120 * 1024);
+
+        assertTrue(result.length <= 120 * 1024, "result is " + result.length / 1024 + "KB");
+        assertTrue(encodePasses().max() <= 2.0);
+    }
+
+    @Test
+    @DisplayName("High-detail images are scaled down to meet the target")
+    void detailedImageIsScaled() throws IOException {
+        byte[] upload = SyntheticImages.png(SyntheticImages.texture(2000, 1000, 3));
+
+        byte[] result = service.compressImagePredictively(upload, "PHOTO", 200 * 1024);
+
+        assertTrue(result.length <= 200 * 1024, "result is " + result.length / 1024 + "KB");
+        assertTrue(encodePasses().max() <= 2.0);
+        assertTrue(ImageIO.read(new ByteArrayInputStream(result)).getWidth() < 2000);
+    }
+
+    @Test
+    @DisplayName("The iterative encoder is used when predictive quality is disabled")
+    void predictionCanBeDisabled() throws IOException {
+        DocumentProperties properties = new DocumentProperties();
+        properties.getImage().setPredictiveQuality(false);
+        service = new ImageOptimizationService(properties, new DocumentPipelineMetrics(meterRegistry), Runnable::run);
+        byte[] upload = SyntheticImages.png(SyntheticImages.texture(2000, 1000, 3));
+
+        service.compressImageToTarget(upload, "PHOTO", 200 * 1024);
+
+        assertTrue(encodePasses().max() >= 2.0);
+    }
+
+    @Test
+    @DisplayName("PDF page images are recompressed in parallel and shared images replaced once")
+    void pdfImagesAreRecompressedInParallel() throws IOException {
+        DocumentProperties properties = new DocumentProperties();
+        properties.getPdf().setMaxImagesInFlight(2);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            service = new ImageOptimizationService(properties, new DocumentPipelineMetrics(meterRegistry), pool);
+            byte[] pageImage = SyntheticImages.jpeg(SyntheticImages.texture(2480, 3508, 4));
+            byte[] original = SyntheticImages.pdf(pageImage, 6, false);
+            byte[] shared = SyntheticImages.pdf(pageImage, 3, true);
+
+            byte[] compressed = service.compressPdf(original);
+            byte[] compressedShared = service.compressPdf(shared);
+
+            assertTrue(compressed.length < original.length / 2);
+            try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(compressed)))) {
+                assertEquals(6, pdf.getNumberOfPages());
+                for (int i = 1; i <= 6; i++) {
+                    assertEquals(1800, pageImage(pdf, i).getHeight());
+                }
+            }
+            try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(compressedShared)))) {
+                assertSame(pageImage(pdf, 1).getPdfObject(), pageImage(pdf, 3).getPdfObject());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Images and PDFs are compressed straight from and to files")
+    void compressesFromFiles(@TempDir Path dir) throws IOException {
+        Path image = Files.write(dir.resolve("photo.jpg"), SyntheticImages.jpeg(SyntheticImages.photo(3000, 2000, 5)));
+        Path pdf = Files.write(dir.resolve("scan.pdf"),
+                SyntheticImages.pdf(SyntheticImages.jpeg(SyntheticImages.texture(2480, 3508, 6)), 2, false));
+        Path compressedPdf = dir.resolve("scan-compressed.pdf");
+
+        byte[] compressedImage = service.compressImage(image, "PROFILE_PHOTO");
+
+        assertTrue(ImageIO.read(new ByteArrayInputStream(compressedImage)).getWidth() < 3000, "decoded with subsampling");
+        assertTrue(service.compressPdf(pdf, compressedPdf));
+        assertTrue(Files.size(compressedPdf) < Files.size(pdf));
+        assertNull(service.compressImage(Files.write(dir.resolve("bad.jpg"), new byte[]{1, 2, 3}), "PHOTO"));
+    }
+
+    @Test
+    @DisplayName("Re-encoded and resized copies of a photo hash close together, other photos far apart")
+    void perceptualHashFindsCopies(@TempDir Path dir) throws IOException {
+        BufferedImage original = SyntheticImages.photo(1600, 1200, 11);
+        long hash = service.perceptualHash(SyntheticImages.png(original));
+
+        byte[] resized = service.createRenditions(SyntheticImages.jpeg(original), List.of(400), 0.6f).get(400);
+        Path copy = Files.write(dir.resolve("copy.jpg"), resized);
+        long copyHash = service.perceptualHash(copy);
+        long otherHash = service.perceptualHash(SyntheticImages.jpeg(SyntheticImages.photo(1600, 1200, 12)));
+
+        assertTrue(Long.bitCount(hash ^ copyHash) <= 6, "copy distance " + Long.bitCount(hash ^ copyHash));
+        assertTrue(Long.bitCount(hash ^ otherHash) >= 16, "other distance " + Long.bitCount(hash ^ otherHash));
+        assertNull(service.perceptualHash(new byte[]{1, 2, 3}));
+    }
+    private static PdfImageXObject pageImage(PdfDocument pdf, int page) {
+        PdfDictionary xObjects = pdf.getPage(page).getResources().getResource(PdfName.XObject);
+        return new PdfImageXObject(xObjects.getAsStream(xObjects.keySet().iterator().next()));
+    }
+
+    private DistributionSummary encodePasses() {
+        return meterRegistry.summary(DocumentPipelineMetrics.ENCODE_PASSES);
+    }
+}
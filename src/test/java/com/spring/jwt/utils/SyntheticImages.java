@@ -0,0 +1,147 @@
+package com.spring.jwt.utils;
+
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Deterministic images standing in for typical uploads, so compression results are
+ * comparable between runs
+ */
+final class SyntheticImages {
+
+    private SyntheticImages() {
+    }
+
+    /**
+     * Smooth gradients with a few soft shapes and light sensor noise, like a portrait
+     */
+    static BufferedImage photo(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setPaint(new GradientPaint(0, 0, new Color(random.nextInt(0xFFFFFF)),
+                width, height, new Color(random.nextInt(0xFFFFFF))));
+        g.fillRect(0, 0, width, height);
+        for (int i = 0; i < 12; i++) {
+            g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), 120));
+            int size = width / 6 + random.nextInt(width / 3);
+            g.fillOval(random.nextInt(width) - size / 2, random.nextInt(height) - size / 2, size, size);
+        }
+        g.dispose();
+        addNoise(image, random, 6);
+        return image;
+    }
+
+    /**
+     * White page with lines of dark glyphs, like a scanned A4 certificate
+     */
+    static BufferedImage scan(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(new Color(248, 246, 240));
+        g.fillRect(0, 0, width, height);
+        g.setColor(new Color(30, 30, 60));
+        g.setStroke(new BasicStroke(Math.max(2, width / 400f)));
+        g.drawRect(width / 20, height / 20, width * 9 / 10, height * 9 / 10);
+        int lineHeight = Math.max(12, height / 60);
+        g.setFont(new Font(Font.SERIF, Font.PLAIN, lineHeight * 2 / 3));
+        StringBuilder line = new StringBuilder();
+        for (int y = height / 8; y < height * 7 / 8; y += lineHeight) {
+            line.setLength(0);
+            int words = 6 + random.nextInt(8);
+            for (int w = 0; w < words; w++) {
+                int letters = 2 + random.nextInt(8);
+                for (int l = 0; l < letters; l++) {
+                    line.append((char) ('a' + random.nextInt(26)));
+                }
+                line.append(' ');
+            }
+            g.drawString(line.toString(), width / 10, y);
+        }
+        g.dispose();
+        addNoise(image, random, 4);
+        return image;
+    }
+
+    /**
+     * Dense high-frequency texture, the worst case for JPEG (foliage, fabric)
+     */
+    static BufferedImage texture(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = photo(width, height, seed);
+        addNoise(image, random, 48);
+        return image;
+    }
+
+    /**
+     * Camera-style upload: JPEG at ImageIO's default quality
+     */
+    static byte[] jpeg(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * A4 PDF with one full-page image per page; each page gets its own copy of the
+     * image unless {@code shared}, in which case all pages reference one XObject
+     */
+    static byte[] pdf(byte[] pageImage, int pages, boolean shared) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PdfDocument pdf = new PdfDocument(new PdfWriter(out))) {
+            PdfImageXObject sharedImage = shared ? new PdfImageXObject(ImageDataFactory.create(pageImage)) : null;
+            for (int i = 0; i < pages; i++) {
+                PdfPage page = pdf.addNewPage(PageSize.A4);
+                PdfImageXObject image = shared ? sharedImage : new PdfImageXObject(ImageDataFactory.create(pageImage));
+                new PdfCanvas(page).addXObject(image, PageSize.A4);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static void addNoise(BufferedImage image, Random random, int amplitude) {
+        int width = image.getWidth();
+        int[] row = new int[width];
+        for (int y = 0; y < image.getHeight(); y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x < width; x++) {
+                int n = random.nextInt(2 * amplitude + 1) - amplitude;
+                int rgb = row[x];
+                row[x] = (clamp(((rgb >> 16) & 0xFF) + n) << 16)
+                        | (clamp(((rgb >> 8) & 0xFF) + n) << 8)
+                        | clamp((rgb & 0xFF) + n);
+            }
+            image.setRGB(0, y, width, 1, row, 0, width);
+        }
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+}